@@ -0,0 +1,141 @@
+package edu.snhu;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for every public AppointmentService operation.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentServiceBenchmark {
+
+    private static final long ONE_DAY_MILLIS = 86_400_000L;
+    private static final Duration TWO_DAYS = Duration.ofDays(2);
+
+    /**
+     * Shared service pre-populated with keyCount appointments spread over the next year.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN", "MISS"})
+        public KeyDistribution distribution;
+
+        @Param({"false", "true"})
+        public boolean packedIds;
+
+        AppointmentService service;
+        Date futureDate;
+        Date rangeStart;
+        Date rangeEnd;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = packedIds ? AppointmentService.withPackedIds() : new AppointmentService();
+            long start = System.currentTimeMillis() + ONE_DAY_MILLIS;
+            for (int i = 0; i < keyCount; i++) {
+                service.addAppointment(KeyDistribution.storedId(i), new Date(start + (i % 365) * ONE_DAY_MILLIS),
+                        "Benchmark appointment");
+            }
+            futureDate = new Date(start + 365 * ONE_DAY_MILLIS);
+            rangeStart = new Date(start + 100 * ONE_DAY_MILLIS);
+            rangeEnd = new Date(start + 101 * ONE_DAY_MILLIS);
+        }
+    }
+
+    /**
+     * Per-thread key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        @Setup(Level.Trial)
+        public void setUp(ServiceState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    public void getAppointment(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            blackhole.consume(state.service.getAppointment(keys.next()));
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Adds a fresh appointment and deletes it again so the store size stays constant.
+     */
+    @Benchmark
+    public void addAndDeleteAppointment(ServiceState state, Keys keys) {
+        String id = keys.nextFreshId();
+        state.service.addAppointment(id, state.futureDate, "Benchmark appointment");
+        state.service.deleteAppointment(id);
+    }
+
+    /**
+     * Deletes IDs that were never stored, measuring the not-found path without shrinking the store.
+     */
+    @Benchmark
+    public void deleteMissingAppointment(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            state.service.deleteAppointment(keys.nextFreshId());
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Range query covering one day of the year, roughly keyCount / 365 results.
+     */
+    @Benchmark
+    public void getAppointmentsBetween(ServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.service.getAppointmentsBetween(state.rangeStart, state.rangeEnd));
+    }
+
+    @Benchmark
+    public void nextAppointmentAfter(ServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.service.nextAppointmentAfter(state.rangeStart));
+    }
+
+    /**
+     * Asks for a slot longer than every gap between the stored days, so the search has to
+     * rule out the whole year before answering.
+     */
+    @Benchmark
+    public void findNextFreeSlot(ServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.service.findNextFreeSlot(state.rangeStart, TWO_DAYS));
+    }
+
+    /**
+     * Exception-free lookup; compare with the throwing variant under the MISS distribution.
+     */
+    @Benchmark
+    public void findAppointment(ServiceState state, Keys keys, Blackhole blackhole) {
+        blackhole.consume(state.service.findAppointment(keys.next()));
+    }
+}
@@ -0,0 +1,41 @@
+package edu.snhu;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the service benchmarks at 1, 4 and all available threads.
+ * Started by the benchmark Maven profile:
+ * {@code mvn -Pbenchmark test-compile exec:exec [-Dbenchmark.args=<regex>]}.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs every benchmark matching the include pattern once per thread count.
+     *
+     * @param args optional include regex, defaults to all benchmarks
+     * @throws RunnerException if JMH fails to run a benchmark
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        int[] threadCounts = {1, 4, Runtime.getRuntime().availableProcessors()};
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .result("target/jmh-result-" + threads + "t.json")
+                    .resultFormat(ResultFormatType.JSON)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for BinaryProtocolServer over localhost.
+ * Each benchmark thread owns a client connection and keeps PIPELINE_DEPTH requests in
+ * flight per invocation; scores are per operation, so throughput is operations per
+ * second. Divide by the eventLoops parameter for the per-core rate.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryProtocolBenchmark {
+    private static final int PIPELINE_DEPTH = 256;
+
+    /**
+     * Server with keyCount stored contacts.
+     */
+    @State(Scope.Benchmark)
+    public static class ServerState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN"})
+        public KeyDistribution distribution;
+
+        @Param({"1", "4"})
+        public int eventLoops;
+
+        BinaryProtocolServer server;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            ContactService contacts = new ContactService();
+            for (int i = 0; i < keyCount; i++) {
+                contacts.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Benchmark Way");
+            }
+            server = new BinaryProtocolServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), contacts,
+                    new TaskService(), new AppointmentService(), eventLoops);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            server.close();
+        }
+    }
+
+    /**
+     * Per-thread connection and key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Connection extends KeyCursor {
+        BinaryProtocolClient client;
+        @SuppressWarnings("unchecked")
+        final CompletableFuture<Optional<Contact>>[] lookups = new CompletableFuture[PIPELINE_DEPTH];
+        final CompletableFuture<?>[] updates = new CompletableFuture<?>[PIPELINE_DEPTH];
+
+        @Setup(Level.Trial)
+        public void setUp(ServerState state) throws IOException {
+            init(state.keyCount, state.distribution);
+            client = new BinaryProtocolClient(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), state.server.getPort()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public void pipelinedFindContact(Connection connection, Blackhole blackhole) {
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            connection.lookups[i] = connection.client.findContact(connection.next());
+        }
+        for (CompletableFuture<Optional<Contact>> lookup : connection.lookups) {
+            blackhole.consume(lookup.join());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public void pipelinedUpdatePhone(Connection connection) {
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            connection.updates[i] = connection.client.updatePhone(connection.next(), "5559876543");
+        }
+        CompletableFuture.allOf(connection.updates).join();
+    }
+
+    /**
+     * One request at a time, for the round-trip latency without pipelining.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<Contact> findContactRoundTrip(Connection connection) {
+        return connection.client.findContact(connection.next()).join();
+    }
+}
@@ -0,0 +1,78 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for a TaskService bounded by {@link TaskService#withCapacity(int, EvictionPolicy)}.
+ * The service starts full, so every add evicts a task. Compare getTask with
+ * TaskServiceBenchmark.getTask to see what recording reads for LRU and LFU costs.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedTaskServiceBenchmark {
+
+    /**
+     * Shared service filled to its capacity of keyCount tasks.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN"})
+        public KeyDistribution distribution;
+
+        @Param({"LRU", "LFU", "FIFO"})
+        public EvictionPolicy policy;
+
+        TaskService service;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = TaskService.withCapacity(keyCount, policy);
+            for (int i = 0; i < keyCount; i++) {
+                service.addTask(new Task(KeyDistribution.storedId(i), "Follow up", "Call the customer back"));
+            }
+        }
+    }
+
+    /**
+     * Per-thread key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        @Setup(Level.Trial)
+        public void setUp(ServiceState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    public Task findTask(ServiceState state, Keys keys) {
+        return state.service.findTask(keys.next()).orElse(null);
+    }
+
+    @Benchmark
+    public AddResult addEvictingTask(ServiceState state, Keys keys) {
+        return state.service.tryAddTask(new Task(keys.nextFreshId(), "Follow up", "Call the customer back"));
+    }
+}
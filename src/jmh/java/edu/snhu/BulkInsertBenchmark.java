@@ -0,0 +1,83 @@
+package edu.snhu;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bulk insert APIs with the equivalent per-item loop.
+ * Each invocation loads one batch into a fresh service.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkInsertBenchmark {
+
+    @Param({"1000", "100000"})
+    public int batchSize;
+
+    private List<Contact> contacts;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contacts = new ArrayList<>(batchSize);
+        tasks = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String id = KeyDistribution.storedId(i);
+            contacts.add(new Contact(id, "First", "Last", "5551234567", "1 Benchmark Way"));
+            tasks.add(new Task(id, "Follow up", "Call the customer back"));
+        }
+    }
+
+    @Benchmark
+    public ContactService contactsLoop() {
+        ContactService service = new ContactService();
+        for (Contact contact : contacts) {
+            service.addContact(contact);
+        }
+        return service;
+    }
+
+    @Benchmark
+    public ContactService contactsBatch() {
+        ContactService service = new ContactService();
+        service.addContacts(contacts);
+        return service;
+    }
+
+    @Benchmark
+    public TaskService tasksLoop() {
+        TaskService service = new TaskService();
+        for (Task task : tasks) {
+            service.addTask(task);
+        }
+        return service;
+    }
+
+    @Benchmark
+    public TaskService tasksBatch() {
+        TaskService service = new TaskService();
+        service.addTasks(tasks);
+        return service;
+    }
+}
@@ -0,0 +1,97 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the cost change subscribers add to ContactService writes.
+ * The NONE rows are the baseline without a subscriber; the others show what a writer
+ * pays per event under each overflow policy while one subscriber keeps up in the background.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangeFeedBenchmark {
+
+    /**
+     * Shared service pre-populated with keyCount contacts and optionally one subscriber.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM"})
+        public KeyDistribution distribution;
+
+        @Param({"NONE", "DROP", "BLOCK", "SPILL"})
+        public String subscriber;
+
+        ContactService service;
+        ChangeSubscription subscription;
+        final LongAdder received = new LongAdder();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = new ContactService();
+            for (int i = 0; i < keyCount; i++) {
+                service.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Benchmark Way");
+            }
+            if (!subscriber.equals("NONE")) {
+                subscription = service.subscribe(event -> received.increment(), OverflowPolicy.valueOf(subscriber));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (subscription != null) {
+                subscription.close();
+            }
+        }
+    }
+
+    /**
+     * Per-thread key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        @Setup(Level.Trial)
+        public void setUp(ServiceState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    public void updatePhone(ServiceState state, Keys keys) {
+        state.service.updatePhone(keys.next(), "5559876543");
+    }
+
+    /**
+     * Adds a fresh contact and deletes it again so the store size stays constant.
+     */
+    @Benchmark
+    public void addAndDeleteContact(ServiceState state, Keys keys) {
+        String id = keys.nextFreshId();
+        state.service.addContact(new Contact(id, "First", "Last", "5551234567", "1 Benchmark Way"));
+        state.service.deleteContact(id);
+    }
+}
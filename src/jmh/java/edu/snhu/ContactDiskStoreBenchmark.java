@@ -0,0 +1,98 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for lookups on a ContactService backed by ContactDiskStore.
+ * Compare with ContactServiceBenchmark.getContact for the all-in-memory baseline;
+ * under ZIPFIAN keys most reads should be cache hits at a small fraction of keyCount.
+ * The cache hit rate is printed at the end of each trial.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactDiskStoreBenchmark {
+
+    /**
+     * Disk-backed service pre-populated with keyCount contacts.
+     */
+    @State(Scope.Benchmark)
+    public static class StoreState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN"})
+        public KeyDistribution distribution;
+
+        @Param({"1000", "10000"})
+        public int cacheCapacity;
+
+        Path file;
+        ContactDiskStore store;
+        ContactService service;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("contacts", ".db");
+            store = new ContactDiskStore(file, cacheCapacity);
+            service = ContactService.withDiskStore(store);
+            for (int i = 0; i < keyCount; i++) {
+                service.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Benchmark Way");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            System.out.printf("hit rate %.3f with %d of %d cached, %d evictions%n", store.getHitRate(),
+                    store.getCachedCount(), keyCount, store.getEvictionCount());
+            store.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Per-thread key cursor, with a toggle so every update writes a new address.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        boolean flip;
+
+        @Setup(Level.Trial)
+        public void setUp(StoreState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    public Contact getContact(StoreState state, Keys keys) {
+        return state.service.getContact(keys.next());
+    }
+
+    @Benchmark
+    public void updateAddress(StoreState state, Keys keys) {
+        keys.flip = !keys.flip;
+        state.service.updateAddress(keys.next(), keys.flip ? "2 Benchmark Way" : "1 Benchmark Way");
+    }
+}
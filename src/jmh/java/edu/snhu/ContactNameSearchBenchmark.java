@@ -0,0 +1,99 @@
+package edu.snhu;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures autocomplete-style name prefix searches against a large ContactService,
+ * and the cost the name index adds to renames.
+ * Names are random syllable strings, and each search uses the first prefixLength
+ * characters of a stored name, as a user typing into a search box would.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContactNameSearchBenchmark {
+    private static final String[] SYLLABLES = {"an", "be", "ca", "do", "el", "fi", "ga", "ho", "is", "jo", "ka",
+        "li", "ma", "ne", "or", "pa", "ri", "sa", "to", "vi"};
+    private static final int SAMPLES = 1 << 14;
+
+    /**
+     * Shared service holding keyCount contacts with random names.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"2000000"})
+        public int keyCount;
+
+        @Param({"1", "3", "5"})
+        public int prefixLength;
+
+        ContactService service;
+        String[] prefixes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = new ContactService();
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < keyCount; i++) {
+                service.addContact(KeyDistribution.storedId(i), name(random), name(random), "5551234567",
+                        "1 Benchmark Way");
+            }
+            prefixes = new String[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                String name = name(random);
+                prefixes[i] = name.substring(0, Math.min(prefixLength, name.length()));
+            }
+        }
+    }
+
+    /**
+     * Per-thread position in the prefix and key sequences.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private final SplittableRandom random = new SplittableRandom();
+        int position;
+    }
+
+    @Benchmark
+    public List<Contact> searchByNamePrefix(ServiceState state, Cursor cursor) {
+        cursor.position = (cursor.position + 1) & (SAMPLES - 1);
+        return state.service.searchByNamePrefix(state.prefixes[cursor.position], 10);
+    }
+
+    @Benchmark
+    public void updateLastName(ServiceState state, Cursor cursor) {
+        String id = KeyDistribution.storedId(cursor.random.nextInt(state.keyCount));
+        state.service.updateLastName(id, name(cursor.random));
+    }
+
+    private static String name(SplittableRandom random) {
+        int syllables = 2 + random.nextInt(4);
+        StringBuilder name = new StringBuilder(10);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for every public ContactService operation.
+ * Lookups and updates draw their keys from the configured distribution;
+ * misses surface as IllegalArgumentException and are consumed, so their cost is measured too.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactServiceBenchmark {
+
+    /**
+     * Shared service pre-populated with keyCount contacts.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN", "MISS"})
+        public KeyDistribution distribution;
+
+        @Param({"false", "true"})
+        public boolean packedIds;
+
+        ContactService service;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = packedIds ? ContactService.withPackedIds() : new ContactService();
+            for (int i = 0; i < keyCount; i++) {
+                service.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Benchmark Way");
+            }
+        }
+    }
+
+    /**
+     * Per-thread key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        @Setup(Level.Trial)
+        public void setUp(ServiceState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    /**
+     * Per-thread toggle between two sets of field values, so every multi-field edit
+     * changes the stored contact instead of being skipped as a no-op.
+     */
+    @State(Scope.Thread)
+    public static class Edits {
+        private boolean flip;
+
+        String nextPhone() {
+            flip = !flip;
+            return flip ? "5559876543" : "5551234567";
+        }
+
+        String address() {
+            return flip ? "2 Benchmark Way" : "1 Benchmark Way";
+        }
+    }
+
+    @Benchmark
+    public void getContact(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            blackhole.consume(state.service.getContact(keys.next()));
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void updateFirstName(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            state.service.updateFirstName(keys.next(), "Updated");
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void updateLastName(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            state.service.updateLastName(keys.next(), "Updated");
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void updatePhone(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            state.service.updatePhone(keys.next(), "5559876543");
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void updateAddress(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            state.service.updateAddress(keys.next(), "2 Benchmark Way");
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Changes phone and address with two single-field calls: two locked lookups and two swaps.
+     */
+    @Benchmark
+    public void updatePhoneThenAddress(ServiceState state, Keys keys, Edits edits, Blackhole blackhole) {
+        String id = keys.next();
+        try {
+            state.service.updatePhone(id, edits.nextPhone());
+            state.service.updateAddress(id, edits.address());
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Same change as updatePhoneThenAddress, as one draft edit and one swap.
+     */
+    @Benchmark
+    public void updateContact(ServiceState state, Keys keys, Edits edits, Blackhole blackhole) {
+        String phone = edits.nextPhone();
+        String address = edits.address();
+        try {
+            blackhole.consume(state.service.updateContact(keys.next(),
+                    draft -> draft.setPhone(phone).setAddress(address)));
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Adds a fresh contact and deletes it again so the store size stays constant.
+     */
+    @Benchmark
+    public void addAndDeleteContact(ServiceState state, Keys keys) {
+        String id = keys.nextFreshId();
+        state.service.addContact(new Contact(id, "First", "Last", "5551234567", "1 Benchmark Way"));
+        state.service.deleteContact(id);
+    }
+
+    /**
+     * Same as addAndDeleteContact, through the field-based overload.
+     */
+    @Benchmark
+    public void addFieldsAndDeleteContact(ServiceState state, Keys keys) {
+        String id = keys.nextFreshId();
+        state.service.addContact(id, "First", "Last", "5551234567", "1 Benchmark Way");
+        state.service.deleteContact(id);
+    }
+
+    @Benchmark
+    public int getContactCount(ServiceState state) {
+        return state.service.getContactCount();
+    }
+
+    /**
+     * Exception-free lookup; compare with the throwing variant under the MISS distribution.
+     */
+    @Benchmark
+    public void findContact(ServiceState state, Keys keys, Blackhole blackhole) {
+        blackhole.consume(state.service.findContact(keys.next()));
+    }
+}
@@ -0,0 +1,104 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of ContactService writes under each write-ahead log fsync policy,
+ * and the time to replay a log of logSize contacts.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactWriteAheadLogBenchmark {
+
+    /**
+     * Service writing to a fresh log with the selected policy.
+     */
+    @State(Scope.Benchmark)
+    public static class LoggedService {
+        @Param({"PER_OPERATION", "GROUP_COMMIT", "OS_BUFFERED"})
+        public FsyncPolicy policy;
+
+        Path directory;
+        ContactWriteAheadLog log;
+        ContactService service;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("wal-bench");
+            log = new ContactWriteAheadLog(directory.resolve("contacts.wal"), policy, 5);
+            service = new ContactService(log);
+            service.addContact("K0", "First", "Last", "5551234567", "1 Benchmark Way");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            log.close();
+            Files.deleteIfExists(directory.resolve("contacts.wal"));
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Log file holding logSize add records, replayed once per invocation.
+     */
+    @State(Scope.Benchmark)
+    public static class RecordedLog {
+        @Param({"1000000"})
+        public int logSize;
+
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            file = Files.createTempFile("wal-replay", ".wal");
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                ContactService service = new ContactService(log);
+                for (int i = 0; i < logSize; i++) {
+                    service.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Benchmark Way");
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public void updatePhone(LoggedService state) {
+        state.service.updatePhone("K0", "5559876543");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int replay(RecordedLog recorded) throws IOException {
+        try (ContactWriteAheadLog log = new ContactWriteAheadLog(recorded.file, FsyncPolicy.OS_BUFFERED)) {
+            return new ContactService(log).getContactCount();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load test for ServiceHttpServer over localhost.
+ * Starts the server on an ephemeral port with keyCount stored contacts, then runs
+ * one virtual-thread client per simulated user; each sends requests back to back,
+ * nine contact reads for every task create-and-delete pair. Prints throughput and
+ * p50/p99/p99.9 latency. Not a JMH benchmark because the interesting number is the
+ * end-to-end latency distribution under many concurrent connections.
+ * Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=edu.snhu.HttpLoadTest -Dbenchmark.args=<clients>}.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class HttpLoadTest {
+    private static final int KEY_COUNT = 10_000;
+
+    private HttpLoadTest() {
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args optional concurrent client count (default 1000) and requests per client (default 200)
+     * @throws Exception if the server cannot start or a client fails
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = intArg(args, 0, 1000);
+        int requestsPerClient = intArg(args, 1, 200);
+
+        ContactService contacts = new ContactService();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            contacts.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Load Test Way");
+        }
+        try (ServiceHttpServer server = new ServiceHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                contacts, new TaskService(), new AppointmentService());
+                ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            String base = "http://localhost:" + server.getPort();
+            HttpClient client = HttpClient.newBuilder().executor(clientThreads).build();
+
+            // Warm the server and client code paths before measuring
+            run(client, base, clientThreads, Math.min(clients, 100), requestsPerClient);
+            long start = System.nanoTime();
+            long[] latencies = run(client, base, clientThreads, clients, requestsPerClient);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("clients=%d requests=%d throughput=%.0f req/s%n", clients, latencies.length,
+                    latencies.length / seconds);
+            System.out.printf("p50=%.3f ms p99=%.3f ms p99.9=%.3f ms max=%.3f ms%n", percentile(latencies, 0.50),
+                    percentile(latencies, 0.99), percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    /**
+     * Runs every client to completion.
+     *
+     * @return the latency of every request in nanoseconds
+     */
+    private static long[] run(HttpClient client, String base, ExecutorService threads, int clients,
+            int requestsPerClient) throws Exception {
+        List<Future<long[]>> results = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            int clientId = c;
+            results.add(threads.submit(() -> runClient(client, base, clientId, requestsPerClient)));
+        }
+        long[] latencies = new long[clients * requestsPerClient];
+        int filled = 0;
+        for (Future<long[]> result : results) {
+            long[] clientLatencies = result.get();
+            System.arraycopy(clientLatencies, 0, latencies, filled, clientLatencies.length);
+            filled += clientLatencies.length;
+        }
+        return Arrays.copyOf(latencies, filled);
+    }
+
+    private static long[] runClient(HttpClient client, String base, int clientId, int requests)
+            throws IOException, InterruptedException {
+        long[] latencies = new long[requests];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request;
+            int expected;
+            if (i % 10 == 8) {
+                String taskId = "L" + Integer.toString(clientId, 36) + "-" + Integer.toString(i, 36);
+                request = HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                Json.object("id", taskId, "name", "Load", "description", "Load test task")))
+                        .build();
+                expected = 201;
+            } else if (i % 10 == 9) {
+                String taskId = "L" + Integer.toString(clientId, 36) + "-" + Integer.toString(i - 1, 36);
+                request = HttpRequest.newBuilder(URI.create(base + "/tasks/" + taskId)).DELETE().build();
+                expected = 204;
+            } else {
+                String contactId = KeyDistribution.storedId(random.nextInt(KEY_COUNT));
+                request = HttpRequest.newBuilder(URI.create(base + "/contacts/" + contactId)).GET().build();
+                expected = 200;
+            }
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies[i] = System.nanoTime() - start;
+            if (response.statusCode() != expected) {
+                throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Reads a numeric argument, keeping the default when it is absent or is the profile's
+     * benchmark include pattern.
+     */
+    private static int intArg(String[] args, int index, int defaultValue) {
+        if (args.length <= index || !args[index].matches("[0-9]+")) {
+            return defaultValue;
+        }
+        return Integer.parseInt(args[index]);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
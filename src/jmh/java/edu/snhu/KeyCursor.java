@@ -0,0 +1,57 @@
+package edu.snhu;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-thread iterator over a pre-generated key sequence.
+ * Benchmarks extend this as a thread-scoped JMH state so that each worker
+ * thread walks its own sequence without sharing a cursor.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public class KeyCursor {
+    private static final int SAMPLES = 1 << 16;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private String[] keys;
+    private int position;
+    private String freshPrefix;
+    private int freshCounter;
+
+    /**
+     * Generates this thread's key sequence.
+     *
+     * @param keyCount the number of entities stored in the service under test
+     * @param distribution the key access pattern
+     */
+    protected void init(int keyCount, KeyDistribution distribution) {
+        int thread = THREAD_COUNTER.getAndIncrement();
+        this.keys = distribution.keys(KeyDistribution.storedIds(keyCount), SAMPLES, 0x5EED + thread);
+        this.position = 0;
+        this.freshPrefix = "N" + Integer.toString(thread % 1296, 36);
+        this.freshCounter = 0;
+    }
+
+    /**
+     * Returns the next lookup key in this thread's sequence.
+     *
+     * @return the next key
+     */
+    public String next() {
+        String key = keys[position];
+        position = (position + 1) & (SAMPLES - 1);
+        return key;
+    }
+
+    /**
+     * Returns an ID that is not stored in the service and is unique to this thread,
+     * suitable for add-then-delete benchmarks.
+     *
+     * @return a fresh ID of at most 10 characters
+     */
+    public String nextFreshId() {
+        freshCounter = (freshCounter + 1) & 0x3FFFFFF;
+        return freshPrefix + "-" + Integer.toString(freshCounter, 36);
+    }
+}
@@ -0,0 +1,120 @@
+package edu.snhu;
+
+import java.util.SplittableRandom;
+
+/**
+ * Key access patterns used by the service benchmarks.
+ * Each distribution turns a set of stored IDs into a pre-generated sequence of
+ * lookup keys so that key selection itself costs nothing inside the measured loop.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public enum KeyDistribution {
+    /** Every stored ID is equally likely. */
+    UNIFORM,
+    /** A few hot IDs receive most of the traffic (Zipf exponent 0.99). */
+    ZIPFIAN,
+    /** Every key is absent from the service (100% miss rate). */
+    MISS;
+
+    private static final double ZIPF_EXPONENT = 0.99;
+
+    /**
+     * Generates a sequence of lookup keys drawn from the stored IDs.
+     *
+     * @param storedIds the IDs currently held by the service under test
+     * @param samples the number of keys to generate (a power of two keeps cursor wrapping cheap)
+     * @param seed the random seed, so every thread can get its own reproducible sequence
+     * @return the generated lookup keys
+     */
+    public String[] keys(String[] storedIds, int samples, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] keys = new String[samples];
+        switch (this) {
+            case UNIFORM:
+                for (int i = 0; i < samples; i++) {
+                    keys[i] = storedIds[random.nextInt(storedIds.length)];
+                }
+                break;
+            case ZIPFIAN:
+                double[] cumulative = zipfCumulative(storedIds.length);
+                for (int i = 0; i < samples; i++) {
+                    keys[i] = storedIds[search(cumulative, random.nextDouble())];
+                }
+                break;
+            default:
+                for (int i = 0; i < samples; i++) {
+                    // Stored IDs never start with 'X', so these keys always miss
+                    keys[i] = "X" + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36);
+                }
+                break;
+        }
+        return keys;
+    }
+
+    /**
+     * Builds the normalized cumulative distribution of a Zipf law over n ranks.
+     *
+     * @param n the number of ranks
+     * @return cumulative probabilities, last element equal to 1.0
+     */
+    private static double[] zipfCumulative(int n) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Finds the first rank whose cumulative probability reaches the given value.
+     *
+     * @param cumulative the cumulative distribution
+     * @param value a uniform random value in [0, 1)
+     * @return the selected rank
+     */
+    private static int search(double[] cumulative, double value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Formats a stored-entity ID for the given index.
+     * IDs are at most 10 characters as required by Contact, Task and Appointment.
+     *
+     * @param index the entity index
+     * @return the entity ID
+     */
+    public static String storedId(int index) {
+        return "K" + Integer.toString(index, 36);
+    }
+
+    /**
+     * Creates the array of stored IDs for a key space of the given size.
+     *
+     * @param keyCount the number of stored entities
+     * @return stored IDs in index order
+     */
+    public static String[] storedIds(int keyCount) {
+        String[] ids = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            ids[i] = storedId(i);
+        }
+        return ids;
+    }
+}
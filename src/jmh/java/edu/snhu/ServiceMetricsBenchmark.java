@@ -0,0 +1,87 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the per-call cost of service metrics.
+ * The difference between the metrics = false and metrics = true rows of an operation
+ * is the recording overhead; the target is under 50ns.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMetricsBenchmark {
+
+    /**
+     * Shared service pre-populated with keyCount contacts.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM"})
+        public KeyDistribution distribution;
+
+        @Param({"false", "true"})
+        public boolean metrics;
+
+        ContactService service;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = new ContactService();
+            for (int i = 0; i < keyCount; i++) {
+                service.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Benchmark Way");
+            }
+            if (metrics) {
+                service.enableMetrics(new ServiceMetrics());
+            }
+        }
+    }
+
+    /**
+     * Per-thread key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        @Setup(Level.Trial)
+        public void setUp(ServiceState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    public void findContact(ServiceState state, Keys keys, Blackhole blackhole) {
+        blackhole.consume(state.service.findContact(keys.next()));
+    }
+
+    @Benchmark
+    public void updatePhone(ServiceState state, Keys keys) {
+        state.service.updatePhone(keys.next(), "5559876543");
+    }
+
+    @Benchmark
+    public int getContactCount(ServiceState state) {
+        return state.service.getContactCount();
+    }
+}
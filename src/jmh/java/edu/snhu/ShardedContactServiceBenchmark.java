@@ -0,0 +1,118 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for ShardedContactService under a mixed read/write workload.
+ * BenchmarkRunner repeats them at 1, 4 and all available threads; comparing the
+ * shardCount = 1 rows with the larger ones across thread counts gives the scaling curve.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedContactServiceBenchmark {
+
+    /**
+     * Shared service pre-populated with keyCount contacts.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN"})
+        public KeyDistribution distribution;
+
+        @Param({"1", "16", "64"})
+        public int shardCount;
+
+        @Param({"false", "true"})
+        public boolean executorPerShard;
+
+        ShardedContactService service;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = new ShardedContactService(shardCount, executorPerShard);
+            for (int i = 0; i < keyCount; i++) {
+                service.addContact(KeyDistribution.storedId(i), "First", "Last", "5551234567", "1 Benchmark Way");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            service.close();
+        }
+    }
+
+    /**
+     * Per-thread key cursor and operation counter.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        int operation;
+
+        @Setup(Level.Trial)
+        public void setUp(ServiceState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    public void findContact(ServiceState state, Keys keys, Blackhole blackhole) {
+        blackhole.consume(state.service.findContact(keys.next()));
+    }
+
+    @Benchmark
+    public void updatePhone(ServiceState state, Keys keys) {
+        state.service.updatePhone(keys.next(), "5559876543");
+    }
+
+    /**
+     * Nine lookups for every phone update.
+     */
+    @Benchmark
+    public void mixedReadWrite(ServiceState state, Keys keys, Blackhole blackhole) {
+        if (++keys.operation == 10) {
+            keys.operation = 0;
+            state.service.updatePhone(keys.next(), "5559876543");
+        } else {
+            blackhole.consume(state.service.findContact(keys.next()));
+        }
+    }
+
+    /**
+     * Adds a fresh contact and deletes it again so the store size stays constant.
+     */
+    @Benchmark
+    public void addAndDeleteContact(ServiceState state, Keys keys) {
+        String id = keys.nextFreshId();
+        state.service.addContact(new Contact(id, "First", "Last", "5551234567", "1 Benchmark Way"));
+        state.service.deleteContact(id);
+    }
+
+    @Benchmark
+    public int getContactCount(ServiceState state) {
+        return state.service.getContactCount();
+    }
+}
@@ -0,0 +1,104 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for building contacts and tasks from freshly decoded field values,
+ * as the protocol servers and log replay do, with StringPool off and on.
+ * Values repeat from a small vocabulary. At the end of each trial the heap retained by
+ * a service holding keyCount contacts is printed, which is what the pool is for.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringPoolBenchmark {
+    private static final int VOCABULARY = 500;
+
+    /**
+     * Pool setting and a service filled with keyCount contacts to measure retained heap.
+     */
+    @State(Scope.Benchmark)
+    public static class PoolState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"false", "true"})
+        public boolean pooled;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            StringPool.setEnabled(pooled);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            long before = usedHeap();
+            ContactService service = new ContactService();
+            for (int i = 0; i < keyCount; i++) {
+                service.addContact(KeyDistribution.storedId(i), decoded("First", i), decoded("Last", i / 7),
+                        "5551234567", decoded("Main St", i / 3));
+            }
+            long retained = usedHeap() - before;
+            System.out.printf("pooled=%b: %d bytes retained per contact, pool hit rate %.3f%n", pooled,
+                    retained / keyCount, StringPool.getHitRate());
+            if (service.getContactCount() != keyCount) {
+                throw new IllegalStateException("Lost contacts");
+            }
+            StringPool.setEnabled(false);
+        }
+
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    /**
+     * Per-thread counter picking values from the vocabulary.
+     */
+    @State(Scope.Thread)
+    public static class Counter {
+        int next;
+    }
+
+    /**
+     * Returns a new String equal to a vocabulary value, as a decoder would produce.
+     */
+    static String decoded(String prefix, int i) {
+        return new String((prefix + (i % VOCABULARY)).toCharArray());
+    }
+
+    @Benchmark
+    public Contact newContact(PoolState state, Counter counter) {
+        int i = counter.next++;
+        return new Contact("C1", decoded("First", i), decoded("Last", i / 7), "5551234567", decoded("Main St", i / 3));
+    }
+
+    @Benchmark
+    public Task newTask(PoolState state, Counter counter) {
+        int i = counter.next++;
+        return new Task("T1", decoded("Follow up", i), decoded("Call the customer back", i / 5));
+    }
+}
@@ -0,0 +1,122 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for every public TaskService operation.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    /**
+     * Shared service pre-populated with keyCount tasks.
+     */
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN", "MISS"})
+        public KeyDistribution distribution;
+
+        @Param({"false", "true"})
+        public boolean packedIds;
+
+        TaskService service;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = packedIds ? TaskService.withPackedIds() : new TaskService();
+            for (int i = 0; i < keyCount; i++) {
+                service.addTask(new Task(KeyDistribution.storedId(i), "Follow up", "Call the customer back"));
+            }
+        }
+    }
+
+    /**
+     * Per-thread key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        @Setup(Level.Trial)
+        public void setUp(ServiceState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    public void getTask(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            blackhole.consume(state.service.getTask(keys.next()));
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public boolean taskExists(ServiceState state, Keys keys) {
+        return state.service.taskExists(keys.next());
+    }
+
+    @Benchmark
+    public void updateTaskName(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            state.service.updateTaskName(keys.next(), "Updated");
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void updateTaskDescription(ServiceState state, Keys keys, Blackhole blackhole) {
+        try {
+            state.service.updateTaskDescription(keys.next(), "Updated description");
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * Adds a fresh task and deletes it again so the store size stays constant.
+     */
+    @Benchmark
+    public void addAndDeleteTask(ServiceState state, Keys keys) {
+        String id = keys.nextFreshId();
+        state.service.addTask(new Task(id, "Follow up", "Call the customer back"));
+        state.service.deleteTask(id);
+    }
+
+    @Benchmark
+    public int getTaskCount(ServiceState state) {
+        return state.service.getTaskCount();
+    }
+
+    /**
+     * Exception-free lookup; compare with the throwing variant under the MISS distribution.
+     */
+    @Benchmark
+    public void findTask(ServiceState state, Keys keys, Blackhole blackhole) {
+        blackhole.consume(state.service.findTask(keys.next()));
+    }
+}
@@ -0,0 +1,107 @@
+package edu.snhu;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks comparing bursts of task edits written directly to TaskService with
+ * the same bursts queued through TaskUpdatePipeline. Each invocation edits one task
+ * BURST times, alternating name and description, as an editor typing would.
+ * The pipeline's coalescing ratio is printed at the end of each trial.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskUpdatePipelineBenchmark {
+    private static final int BURST = 8;
+
+    /**
+     * Shared service pre-populated with keyCount tasks, with a pipeline in front of it.
+     */
+    @State(Scope.Benchmark)
+    public static class PipelineState {
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"UNIFORM", "ZIPFIAN"})
+        public KeyDistribution distribution;
+
+        @Param({"1", "50"})
+        public long windowMillis;
+
+        TaskService service;
+        TaskUpdatePipeline pipeline;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            service = new TaskService();
+            for (int i = 0; i < keyCount; i++) {
+                service.addTask(new Task(KeyDistribution.storedId(i), "Follow up", "Call the customer back"));
+            }
+            pipeline = new TaskUpdatePipeline(service, windowMillis);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pipeline.close();
+            System.out.printf("coalescing ratio %.3f over %d batches%n", pipeline.getCoalescingRatio(),
+                    pipeline.getBatchCount());
+        }
+    }
+
+    /**
+     * Per-thread key cursor.
+     */
+    @State(Scope.Thread)
+    public static class Keys extends KeyCursor {
+        @Setup(Level.Trial)
+        public void setUp(PipelineState state) {
+            init(state.keyCount, state.distribution);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void directBurst(PipelineState state, Keys keys) {
+        String id = keys.next();
+        for (int i = 0; i < BURST; i++) {
+            if ((i & 1) == 0) {
+                state.service.updateTaskName(id, "Name " + i);
+            } else {
+                state.service.updateTaskDescription(id, "Description " + i);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void pipelinedBurst(PipelineState state, Keys keys) {
+        String id = keys.next();
+        for (int i = 0; i < BURST; i++) {
+            if ((i & 1) == 0) {
+                state.pipeline.updateTaskName(id, "Name " + i);
+            } else {
+                state.pipeline.updateTaskDescription(id, "Description " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package edu.snhu;
+
+/**
+ * Outcome of the services' non-throwing add operations.
+ * Lets callers branch on the result without paying for exception construction.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public enum AddResult {
+    /** The entity was stored. */
+    ADDED,
+    /** Another entity with the same ID is already stored; nothing changed. */
+    DUPLICATE_ID,
+    /** The input was null or failed validation; nothing changed. */
+    INVALID,
+    /** The service is full and its policy refuses new entities; nothing changed. */
+    CAPACITY
+}
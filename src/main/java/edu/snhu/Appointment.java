@@ -1,5 +1,7 @@
 package edu.snhu;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Date;
 
 /**
@@ -7,6 +9,10 @@ import java.util.Date;
  * validation.
  * Implements immutable appointment ID, future date validation, and description
  * constraints.
+ * The date is stored as primitive epoch milliseconds; the java.util.Date
+ * constructor and getter are adapters over it. The "not in the past" rule reads
+ * the system clock unless the caller supplies its own.
+ * While {@link StringPool} is enabled, equal descriptions share one instance.
  * 
  * @author Rick Goshen
  * @version 1.0
@@ -14,9 +20,27 @@ import java.util.Date;
  */
 public class Appointment {
     private final String appointmentId;
-    private final Date appointmentDate;
+    private final long appointmentTime;
     private final String description;
 
+    // Each rule carries its own message so callers can tell which check failed
+    static final FieldConstraint APPOINTMENT_ID_PRESENT = FieldConstraint
+            .required("Appointment ID cannot be null");
+    static final FieldConstraint APPOINTMENT_ID_NOT_EMPTY = FieldConstraint
+            .required("Appointment ID cannot be empty").notEmpty();
+    static final FieldConstraint APPOINTMENT_ID_LENGTH = FieldConstraint
+            .required("Appointment ID cannot exceed 10 characters").maxLength(10);
+    static final DateConstraint APPOINTMENT_DATE_PRESENT = DateConstraint
+            .required("Appointment date cannot be null");
+    static final DateConstraint APPOINTMENT_DATE_NOT_PAST = DateConstraint
+            .required("Appointment date cannot be in the past").notInPast();
+    static final FieldConstraint DESCRIPTION_PRESENT = FieldConstraint
+            .required("Description cannot be null");
+    static final FieldConstraint DESCRIPTION_LENGTH = FieldConstraint
+            .required("Description cannot exceed 50 characters").maxLength(50);
+
+    private static final Clock SYSTEM_CLOCK = Clock.systemUTC();
+
     /**
      * Creates a new Appointment with validation.
      * 
@@ -27,36 +51,159 @@ public class Appointment {
      * @throws IllegalArgumentException if any validation fails
      */
     public Appointment(String appointmentId, Date appointmentDate, String description) {
-        // Validate appointment ID
-        if (appointmentId == null) {
-            throw new IllegalArgumentException("Appointment ID cannot be null");
-        }
-        if (appointmentId.isEmpty()) {
-            throw new IllegalArgumentException("Appointment ID cannot be empty");
-        }
-        if (appointmentId.length() > 10) {
-            throw new IllegalArgumentException("Appointment ID cannot exceed 10 characters");
-        }
+        this(appointmentId, appointmentDate, description, SYSTEM_CLOCK);
+    }
 
-        // Validate appointment date
-        if (appointmentDate == null) {
-            throw new IllegalArgumentException("Appointment date cannot be null");
-        }
-        if (appointmentDate.before(new Date())) {
-            throw new IllegalArgumentException("Appointment date cannot be in the past");
-        }
+    /**
+     * Creates a new Appointment with validation against the given clock.
+     * Lets bulk loads share a cheap clock such as {@link CoarseClock}, and tests
+     * fix the current time.
+     * 
+     * @param appointmentId   unique identifier, max 10 characters, cannot be null
+     * @param appointmentDate appointment date, cannot be before the clock's time or null
+     * @param description     appointment description, max 50 characters, cannot be
+     *                        null
+     * @param clock           the source of the current time, cannot be null
+     * @throws IllegalArgumentException if any validation fails or clock is null
+     */
+    public Appointment(String appointmentId, Date appointmentDate, String description, Clock clock) {
+        this(appointmentId, checkedTime(appointmentId, appointmentDate, description, nowMillis(clock)), description);
+    }
+
+    private Appointment(String appointmentId, long appointmentTime, String description) {
+        this.appointmentId = appointmentId;
+        this.appointmentTime = appointmentTime;
+        this.description = StringPool.dedup(description);
+    }
+
+    /**
+     * Creates a new Appointment with validation from a java.time instant.
+     * The instant is stored at millisecond precision. A factory rather than a constructor
+     * overload, so that {@code new Appointment(id, null, description)} stays unambiguous.
+     * 
+     * @param appointmentId   unique identifier, max 10 characters, cannot be null
+     * @param appointmentTime appointment time, cannot be in the past or null
+     * @param description     appointment description, max 50 characters, cannot be
+     *                        null
+     * @return the new appointment
+     * @throws IllegalArgumentException if any validation fails
+     */
+    public static Appointment at(String appointmentId, Instant appointmentTime, String description) {
+        return at(appointmentId, appointmentTime, description, SYSTEM_CLOCK);
+    }
 
-        // Validate description
-        if (description == null) {
-            throw new IllegalArgumentException("Description cannot be null");
+    /**
+     * Creates a new Appointment from a java.time instant with validation against the given clock.
+     * 
+     * @param appointmentId   unique identifier, max 10 characters, cannot be null
+     * @param appointmentTime appointment time, cannot be before the clock's time or null
+     * @param description     appointment description, max 50 characters, cannot be
+     *                        null
+     * @param clock           the source of the current time, cannot be null
+     * @return the new appointment
+     * @throws IllegalArgumentException if any validation fails or clock is null
+     */
+    public static Appointment at(String appointmentId, Instant appointmentTime, String description, Clock clock) {
+        long time = checkedTime(appointmentId, appointmentTime, description, nowMillis(clock));
+        return new Appointment(appointmentId, time, description);
+    }
+
+    /**
+     * Runs the constructor's validation rules in order.
+     * 
+     * @return the validated date in epoch milliseconds
+     * @throws IllegalArgumentException if any validation fails
+     */
+    private static long checkedTime(String appointmentId, Date appointmentDate, String description,
+            long nowMillis) {
+        validateId(appointmentId);
+        APPOINTMENT_DATE_PRESENT.validate(appointmentDate, nowMillis);
+        APPOINTMENT_DATE_NOT_PAST.validate(appointmentDate, nowMillis);
+        validateDescription(description);
+        return appointmentDate.getTime();
+    }
+
+    /**
+     * Runs the constructor's validation rules in order.
+     * 
+     * @return the validated time in epoch milliseconds
+     * @throws IllegalArgumentException if any validation fails or the instant does not fit in epoch milliseconds
+     */
+    private static long checkedTime(String appointmentId, Instant appointmentTime, String description,
+            long nowMillis) {
+        validateId(appointmentId);
+        APPOINTMENT_DATE_PRESENT.validate(appointmentTime, nowMillis);
+        APPOINTMENT_DATE_NOT_PAST.validate(appointmentTime, nowMillis);
+        validateDescription(description);
+        try {
+            return appointmentTime.toEpochMilli();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Appointment date is out of range");
         }
-        if (description.length() > 50) {
-            throw new IllegalArgumentException("Description cannot exceed 50 characters");
+    }
+
+    private static long nowMillis(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
         }
+        return clock.millis();
+    }
 
-        this.appointmentId = appointmentId;
-        this.appointmentDate = new Date(appointmentDate.getTime()); // Defensive copy
-        this.description = description;
+    private static void validateId(String appointmentId) {
+        APPOINTMENT_ID_PRESENT.validate(appointmentId);
+        APPOINTMENT_ID_NOT_EMPTY.validate(appointmentId);
+        APPOINTMENT_ID_LENGTH.validate(appointmentId);
+    }
+
+    private static void validateDescription(String description) {
+        DESCRIPTION_PRESENT.validate(description);
+        DESCRIPTION_LENGTH.validate(description);
+    }
+
+    /**
+     * Recreates an appointment read back from storage without re-validating it.
+     * Archived appointments are in the past by definition, so the constructor's
+     * not-in-past rule cannot apply to them.
+     * 
+     * @param appointmentId   the stored appointment ID
+     * @param appointmentTime the stored date in epoch milliseconds
+     * @param description     the stored description
+     * @return the restored appointment
+     */
+    static Appointment restore(String appointmentId, long appointmentTime, String description) {
+        return new Appointment(appointmentId, appointmentTime, description);
+    }
+
+    /**
+     * Checks the constructor's validation rules without throwing.
+     * 
+     * @param appointmentId   the candidate appointment ID
+     * @param appointmentDate the candidate appointment date
+     * @param description     the candidate description
+     * @param nowMillis       the current time in epoch milliseconds
+     * @return true if the constructor would accept the arguments at that time
+     */
+    static boolean isValid(String appointmentId, Date appointmentDate, String description, long nowMillis) {
+        return APPOINTMENT_ID_NOT_EMPTY.test(appointmentId)
+                && APPOINTMENT_ID_LENGTH.test(appointmentId)
+                && APPOINTMENT_DATE_NOT_PAST.test(appointmentDate, nowMillis)
+                && DESCRIPTION_LENGTH.test(description);
+    }
+
+    /**
+     * Checks the instant constructor's validation rules without throwing.
+     * 
+     * @param appointmentId   the candidate appointment ID
+     * @param appointmentTime the candidate appointment time
+     * @param description     the candidate description
+     * @param nowMillis       the current time in epoch milliseconds
+     * @return true if the constructor would accept the arguments at that time
+     */
+    static boolean isValid(String appointmentId, Instant appointmentTime, String description, long nowMillis) {
+        return APPOINTMENT_ID_NOT_EMPTY.test(appointmentId)
+                && APPOINTMENT_ID_LENGTH.test(appointmentId)
+                && APPOINTMENT_DATE_NOT_PAST.test(appointmentTime, nowMillis)
+                && DESCRIPTION_LENGTH.test(description);
     }
 
     /**
@@ -71,10 +218,28 @@ public class Appointment {
     /**
      * Gets the appointment date.
      * 
-     * @return a copy of the appointment date
+     * @return a new Date holding the appointment time
      */
     public Date getAppointmentDate() {
-        return new Date(appointmentDate.getTime()); // Defensive copy
+        return new Date(appointmentTime);
+    }
+
+    /**
+     * Gets the appointment time as a java.time instant.
+     * 
+     * @return the appointment time
+     */
+    public Instant getAppointmentTime() {
+        return Instant.ofEpochMilli(appointmentTime);
+    }
+
+    /**
+     * Gets the appointment time in epoch milliseconds, without allocating.
+     * 
+     * @return the appointment time in epoch milliseconds
+     */
+    public long getAppointmentEpochMillis() {
+        return appointmentTime;
     }
 
     /**
@@ -0,0 +1,349 @@
+package edu.snhu;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only, compressed on-disk archive of past appointments, plus the retention
+ * policy that fills it.
+ * An AppointmentService attached to the archive moves every appointment older than
+ * the retention horizon out of memory and into the archive, once per sweep interval,
+ * on a background thread the archive owns.
+ * Each sweep appends one block framed as [body length][CRC32C][body], where the body is
+ * the block's earliest and latest appointment time, its record count and the deflated
+ * records. Range reads skip blocks by their time bounds without inflating them, and a
+ * block torn by a crash is detected on open and cut off.
+ * A sweep that fails leaves its appointments in memory and is retried on the next tick;
+ * failed sweeps are counted, see {@link #getSweepFailureCount()}.
+ * The caller that opened the archive is responsible for closing it.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class AppointmentArchive implements Closeable {
+    private static final int FRAME_BYTES = Integer.BYTES * 2;
+    private static final int BOUNDS_BYTES = Long.BYTES * 2 + Integer.BYTES;
+    private static final Comparator<Appointment> BY_TIME = Comparator
+            .comparingLong(Appointment::getAppointmentEpochMillis)
+            .thenComparing(Appointment::getAppointmentId);
+
+    private final FileChannel channel;
+    private final long horizonMillis;
+    private final long sweepIntervalMillis;
+    private final CRC32C crc = new CRC32C();
+    private final LongAdder sweepFailures = new LongAdder();
+    private ScheduledExecutorService sweeper;
+    private long end;
+    private boolean attached;
+
+    /**
+     * Opens or creates an archive file.
+     *
+     * @param file the archive file
+     * @param horizon how long after its date an appointment stays in memory, must not be negative
+     * @param sweepIntervalMillis how often expired appointments are moved to the archive, must be positive
+     * @throws IOException if the file cannot be opened or read
+     * @throws IllegalArgumentException if file or horizon is null, horizon is negative, or the interval is not positive
+     */
+    public AppointmentArchive(Path file, Duration horizon, long sweepIntervalMillis) throws IOException {
+        if (file == null || horizon == null) {
+            throw new IllegalArgumentException("Archive file and retention horizon cannot be null");
+        }
+        if (horizon.isNegative()) {
+            throw new IllegalArgumentException("Retention horizon cannot be negative");
+        }
+        if (sweepIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sweep interval must be positive");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.horizonMillis = horizon.toMillis();
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        this.end = recover();
+    }
+
+    /**
+     * Starts sweeping expired appointments of a service. Can only be called once per archive.
+     *
+     * @param clock the service's source of the current time, used to compute each cutoff
+     * @param sweep moves the appointments dated before the given cutoff into this archive
+     * @throws IllegalStateException if the archive is already attached to another service
+     */
+    synchronized void attach(Clock clock, CutoffSweep sweep) {
+        if (attached) {
+            throw new IllegalStateException("Appointment archive is already attached to an AppointmentService");
+        }
+        attached = true;
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "appointment-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> sweepOnce(clock, sweep), sweepIntervalMillis, sweepIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs one sweep, counting a failure instead of letting it escape, which would cancel the sweeper.
+     *
+     * @param clock the service's source of the current time
+     * @param sweep moves the appointments dated before the given cutoff into this archive
+     */
+    void sweepOnce(Clock clock, CutoffSweep sweep) {
+        try {
+            sweep.sweep(cutoff(clock.millis()));
+        } catch (RuntimeException e) {
+            // Nothing was lost; the next tick retries
+            sweepFailures.increment();
+        }
+    }
+
+    /**
+     * Returns the number of background sweeps that failed, for example because the
+     * archive could not be written. The appointments of a failed sweep stay in memory.
+     *
+     * @return the failed sweep count
+     */
+    public long getSweepFailureCount() {
+        return sweepFailures.sum();
+    }
+
+    /**
+     * Returns the time before which appointments are expired.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the cutoff in epoch milliseconds
+     */
+    long cutoff(long nowMillis) {
+        return nowMillis - horizonMillis;
+    }
+
+    /**
+     * Appends appointments as one compressed block and forces it to disk.
+     *
+     * @param appointments the appointments to archive
+     * @throws UncheckedIOException if the block cannot be written
+     */
+    synchronized void append(Collection<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        ByteArrayOutputStream records = new ByteArrayOutputStream(appointments.size() * 48);
+        ByteBuffer record = ByteBuffer.allocate(256);
+        for (Appointment appointment : appointments) {
+            long time = appointment.getAppointmentEpochMillis();
+            min = Math.min(min, time);
+            max = Math.max(max, time);
+            record.clear();
+            putString(record, appointment.getAppointmentId());
+            record.putLong(time);
+            putString(record, appointment.getDescription());
+            records.write(record.array(), 0, record.position());
+        }
+        byte[] compressed = deflate(records.toByteArray());
+
+        ByteBuffer block = ByteBuffer.allocate(FRAME_BYTES + BOUNDS_BYTES + compressed.length);
+        block.position(FRAME_BYTES);
+        block.putLong(min).putLong(max).putInt(appointments.size()).put(compressed);
+        int length = block.position() - FRAME_BYTES;
+        crc.reset();
+        crc.update(block.array(), FRAME_BYTES, length);
+        block.putInt(0, length);
+        block.putInt(Integer.BYTES, (int) crc.getValue());
+        block.flip();
+        try {
+            long position = end;
+            while (block.hasRemaining()) {
+                position += channel.write(block, position);
+            }
+            channel.force(false);
+            end = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the archived appointments dated in the half-open range [from, to).
+     *
+     * @param from inclusive lower bound in epoch milliseconds
+     * @param to exclusive upper bound in epoch milliseconds
+     * @return the matching appointments ordered by date, then ID
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    synchronized List<Appointment> read(long from, long to) {
+        List<Appointment> matches = new ArrayList<>();
+        try {
+            ByteBuffer header = ByteBuffer.allocate(FRAME_BYTES + BOUNDS_BYTES);
+            long position = 0;
+            while (position < end) {
+                header.clear();
+                readFully(header, position);
+                int length = header.getInt(0);
+                long min = header.getLong(FRAME_BYTES);
+                long max = header.getLong(FRAME_BYTES + Long.BYTES);
+                if (max >= from && min < to) {
+                    ByteBuffer body = ByteBuffer.allocate(length);
+                    readFully(body, position + FRAME_BYTES);
+                    int count = body.getInt(Long.BYTES * 2);
+                    ByteBuffer records = ByteBuffer.wrap(inflate(body.array(), BOUNDS_BYTES, length - BOUNDS_BYTES));
+                    for (int i = 0; i < count; i++) {
+                        String id = getString(records);
+                        long time = records.getLong();
+                        String description = getString(records);
+                        if (time >= from && time < to) {
+                            matches.add(Appointment.restore(id, time, description));
+                        }
+                    }
+                }
+                position += FRAME_BYTES + length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        matches.sort(BY_TIME);
+        return matches;
+    }
+
+    /**
+     * Stops the retention sweeper and closes the file.
+     *
+     * @throws IOException if the close fails
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = sweeper;
+        }
+        if (running != null) {
+            running.shutdown();
+        }
+        synchronized (this) {
+            if (channel.isOpen()) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Validates every block and truncates a torn or corrupt tail.
+     *
+     * @return the end of the last intact block
+     */
+    private long recover() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES);
+        while (size - position >= FRAME_BYTES) {
+            frame.clear();
+            readFully(frame, position);
+            int length = frame.getInt(0);
+            if (length < BOUNDS_BYTES || length > size - position - FRAME_BYTES) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(body, position + FRAME_BYTES);
+            crc.reset();
+            crc.update(body.array(), 0, length);
+            if ((int) crc.getValue() != frame.getInt(Integer.BYTES)) {
+                break;
+            }
+            position += FRAME_BYTES + length;
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+        return position;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of appointment archive");
+            }
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, length);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(length * 3);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated appointment archive block");
+                }
+                output.write(chunk, 0, inflated);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt appointment archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Moves the appointments dated before a cutoff into the archive.
+     */
+    @FunctionalInterface
+    interface CutoffSweep {
+        void sweep(long cutoffMillis);
+    }
+}
@@ -1,24 +1,183 @@
 package edu.snhu;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * AppointmentService provides CRUD operations for appointment management.
- * Uses in-memory storage with ConcurrentHashMap for thread-safe operations.
+ * Uses in-memory storage with ConcurrentHashMap for thread-safe operations,
+ * plus a time-ordered secondary index for range queries and an occupancy
+ * tree for free-slot searches and range counts. An optional archive moves appointments past a
+ * retention horizon out of memory and onto disk.
+ * Every time-based operation has a java.time variant; the java.util.Date
+ * variants are adapters that share the same epoch-millisecond internals. Adds from
+ * an Instant are named addAppointmentAt and tryAddAppointmentAt so that passing a
+ * null date to the Date methods is not ambiguous.
+ * The current time used to reject past dates and to compute the retention
+ * cutoff comes from an injectable clock, the system clock by default.
+ * Adds and deletes, including archiving, are published to change subscribers
+ * from inside the per-ID compute. A bulk insert is published through a
+ * {@link PublicationGate}, so readers see all of a batch or none of it.
  * 
  * @author Rick Goshen
  * @version 1.0
  * @since 2025-07-31
  */
 public class AppointmentService {
-    private final ConcurrentHashMap<String, Appointment> appointments;
+    private final ConcurrentMap<String, Appointment> appointments;
+    // Secondary index ordered by date then ID; only written inside the primary map's per-ID compute
+    private final ConcurrentSkipListMap<TimeKey, Appointment> appointmentsByTime;
+    // Occupied instants with gap summaries; maintained alongside appointmentsByTime
+    private final OccupancyTree occupancy = new OccupancyTree();
+    private final AppointmentArchive archive;
+    private final Clock clock;
+    // Appointments are immutable, so events carry the stored instance
+    private final ChangeFeed<Appointment> changes = new ChangeFeed<>("appointment", appointment -> appointment);
+    private final PublicationGate gate = new PublicationGate();
+    // Indexed by Operation ordinal; null until metrics are enabled
+    private volatile OperationMetrics[] metrics;
+
+    /**
+     * Operations recorded when metrics are enabled, named after their methods;
+     * the Date and Instant variants of a method share an entry.
+     */
+    private enum Operation {
+        ADD_APPOINTMENT, TRY_ADD_APPOINTMENT, ADD_APPOINTMENTS, GET_APPOINTMENT, FIND_APPOINTMENT,
+        DELETE_APPOINTMENT, TRY_DELETE_APPOINTMENT, GET_APPOINTMENTS_BETWEEN, COUNT_APPOINTMENTS_BETWEEN,
+        NEXT_APPOINTMENT_AFTER, ARCHIVED_APPOINTMENTS_BETWEEN, FIND_NEXT_FREE_SLOT
+    }
 
     /**
      * Creates a new AppointmentService with empty appointment storage.
      */
     public AppointmentService() {
-        this.appointments = new ConcurrentHashMap<>();
+        this(new ConcurrentHashMap<>(), null, Clock.systemUTC());
+    }
+
+    /**
+     * Creates a new AppointmentService that reads the current time from the given clock.
+     * A {@link CoarseClock} makes the per-add "not in the past" check a memory read
+     * instead of a system call; a fixed clock makes time-based behaviour deterministic.
+     * 
+     * @param clock the source of the current time, must not be null
+     * @throws IllegalArgumentException if clock is null
+     */
+    public AppointmentService(Clock clock) {
+        this(new ConcurrentHashMap<>(), null, requireClock(clock));
+    }
+
+    /**
+     * Creates an AppointmentService that retires expired appointments to an archive.
+     * Every sweep interval of the archive, appointments dated more than its retention
+     * horizon ago are written to the archive and then dropped from memory; they remain
+     * readable through {@link #archivedAppointmentsBetween(Date, Date)}. A sweep holds off
+     * the service's other operations while it writes, and one that fails is retried on the
+     * next interval, see {@link AppointmentArchive#getSweepFailureCount()}. The caller keeps
+     * ownership of the archive and closes it when the service is no longer used.
+     * 
+     * @param archive the archive to retire appointments to, must not be null
+     * @return a new empty service attached to the archive
+     * @throws IllegalArgumentException if archive is null
+     * @throws IllegalStateException if the archive is already attached to another service
+     */
+    public static AppointmentService withArchive(AppointmentArchive archive) {
+        return attach(new AppointmentService(new ConcurrentHashMap<>(), requireArchive(archive), Clock.systemUTC()));
+    }
+
+    /**
+     * Creates an AppointmentService that retires expired appointments to an archive,
+     * measuring both date validation and the retention horizon against the given clock.
+     * 
+     * @param archive the archive to retire appointments to, must not be null
+     * @param clock   the source of the current time, must not be null
+     * @return a new empty service attached to the archive
+     * @throws IllegalArgumentException if archive or clock is null
+     * @throws IllegalStateException if the archive is already attached to another service
+     * @see #withArchive(AppointmentArchive)
+     */
+    public static AppointmentService withArchive(AppointmentArchive archive, Clock clock) {
+        return attach(new AppointmentService(new ConcurrentHashMap<>(), requireArchive(archive), requireClock(clock)));
+    }
+
+    /**
+     * Creates an AppointmentService over the given empty storage.
+     * 
+     * @param appointments the primary storage to manage
+     * @param archive      the archive to retire appointments to, or null to keep them in memory
+     * @param clock        the source of the current time
+     */
+    private AppointmentService(ConcurrentMap<String, Appointment> appointments, AppointmentArchive archive,
+            Clock clock) {
+        this.appointments = appointments;
+        this.appointmentsByTime = new ConcurrentSkipListMap<>();
+        this.archive = archive;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts the archive's sweeper on a fully constructed service.
+     * 
+     * @param service the service whose archive to attach
+     * @return the service
+     * @throws IllegalStateException if the archive is already attached to another service
+     */
+    private static AppointmentService attach(AppointmentService service) {
+        service.archive.attach(service.clock, service::archiveBefore);
+        return service;
+    }
+
+    /**
+     * Creates an AppointmentService whose primary storage keys appointments by packed IDs.
+     * Appointment IDs made of [0-9A-Za-z_-] are stored as primitive longs in
+     * open-addressed arrays rather than String keys in hash nodes. Other IDs are
+     * stored as Strings.
+     * 
+     * @return a new empty service using packed ID storage
+     */
+    public static AppointmentService withPackedIds() {
+        return new AppointmentService(new PackedIdMap<>(), null, Clock.systemUTC());
+    }
+
+    /**
+     * Creates an AppointmentService with packed ID storage that retires expired
+     * appointments to an archive.
+     * 
+     * @param archive the archive to retire appointments to, must not be null
+     * @return a new empty service using packed ID storage
+     * @throws IllegalArgumentException if archive is null
+     * @throws IllegalStateException if the archive is already attached to another service
+     * @see #withPackedIds()
+     * @see #withArchive(AppointmentArchive)
+     */
+    public static AppointmentService withPackedIds(AppointmentArchive archive) {
+        return attach(new AppointmentService(new PackedIdMap<>(), requireArchive(archive), Clock.systemUTC()));
+    }
+
+    private static Clock requireClock(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        return clock;
+    }
+
+    private static AppointmentArchive requireArchive(AppointmentArchive archive) {
+        if (archive == null) {
+            throw new IllegalArgumentException("Appointment archive cannot be null");
+        }
+        return archive;
     }
 
     /**
@@ -31,21 +190,104 @@ public class AppointmentService {
      *                                  validation fails
      */
     public void addAppointment(String appointmentId, Date appointmentDate, String description) {
-        // Validate appointment ID before checking for duplicates (null handling)
-        if (appointmentId == null) {
-            throw new IllegalArgumentException("Appointment ID cannot be null");
-        }
+        OperationMetrics.time(metrics, Operation.ADD_APPOINTMENT, () -> {
+            requireNewId(appointmentId);
+            // Create new appointment (this will validate all parameters)
+            insertOrThrow(new Appointment(appointmentId, appointmentDate, description, clock));
+        });
+    }
 
-        // Check for duplicate ID
-        if (appointments.containsKey(appointmentId)) {
-            throw new IllegalArgumentException("Appointment ID already exists: " + appointmentId);
-        }
+    /**
+     * Adds a new appointment to the service from a java.time instant.
+     * 
+     * @param appointmentId   unique identifier for the appointment
+     * @param appointmentTime time of the appointment
+     * @param description     description of the appointment
+     * @throws IllegalArgumentException if appointment ID already exists or
+     *                                  validation fails
+     * @see #addAppointment(String, Date, String)
+     */
+    public void addAppointmentAt(String appointmentId, Instant appointmentTime, String description) {
+        OperationMetrics.time(metrics, Operation.ADD_APPOINTMENT, () -> {
+            requireNewId(appointmentId);
+            insertOrThrow(Appointment.at(appointmentId, appointmentTime, description, clock));
+        });
+    }
 
-        // Create new appointment (this will validate all parameters)
-        Appointment appointment = new Appointment(appointmentId, appointmentDate, description);
+    /**
+     * Adds a new appointment to the service without throwing on failure.
+     * 
+     * @param appointmentId   unique identifier for the appointment
+     * @param appointmentDate date of the appointment
+     * @param description     description of the appointment
+     * @return ADDED if stored, DUPLICATE_ID if the ID already exists, INVALID if validation fails
+     */
+    public AddResult tryAddAppointment(String appointmentId, Date appointmentDate, String description) {
+        return OperationMetrics.time(metrics, Operation.TRY_ADD_APPOINTMENT, () -> {
+            if (!Appointment.isValid(appointmentId, appointmentDate, description, clock.millis())) {
+                return AddResult.INVALID;
+            }
+            return tryInsert(appointmentId,
+                    () -> new Appointment(appointmentId, appointmentDate, description, clock));
+        }, OperationMetrics::added);
+    }
+
+    /**
+     * Adds a new appointment from a java.time instant without throwing on failure.
+     * 
+     * @param appointmentId   unique identifier for the appointment
+     * @param appointmentTime time of the appointment
+     * @param description     description of the appointment
+     * @return ADDED if stored, DUPLICATE_ID if the ID already exists, INVALID if validation fails
+     */
+    public AddResult tryAddAppointmentAt(String appointmentId, Instant appointmentTime, String description) {
+        return OperationMetrics.time(metrics, Operation.TRY_ADD_APPOINTMENT, () -> {
+            if (!Appointment.isValid(appointmentId, appointmentTime, description, clock.millis())) {
+                return AddResult.INVALID;
+            }
+            return tryInsert(appointmentId,
+                    () -> Appointment.at(appointmentId, appointmentTime, description, clock));
+        }, OperationMetrics::added);
+    }
 
-        // Add to storage
-        appointments.put(appointmentId, appointment);
+    /**
+     * Adds a batch of appointments, all or nothing, and publishes it atomically.
+     * Rejects the whole batch if any element is null, if an ID repeats within the batch,
+     * or if an ID already exists in the service; in that case no appointment is added.
+     * The batch is checked against the store and stored while every other write and read
+     * of the service is held off, so readers and writers see either none of it or all of
+     * it, a batch that fails leaves no trace, and its ADD events are published as one
+     * uninterrupted run. Large batches are checked and stored in parallel.
+     * 
+     * @param batch the appointments to add, must not be null
+     * @throws IllegalArgumentException if the batch is null or any appointment cannot be added
+     */
+    public void addAppointments(Collection<Appointment> batch) {
+        OperationMetrics.time(metrics, Operation.ADD_APPOINTMENTS, () -> addAll(batch));
+    }
+
+    /**
+     * Adds a batch of appointments, all or nothing, without recording metrics.
+     * 
+     * @param batch the appointments to add
+     * @throws IllegalArgumentException if the batch is null or any appointment cannot be added
+     */
+    private void addAll(Collection<Appointment> batch) {
+        Map<String, Appointment> byId = Batches.indexById(batch, Appointment::getAppointmentId,
+                "Appointment cannot be null", id -> "Duplicate appointment ID in batch: " + id);
+        gate.publish(() -> {
+            // No other write runs until the batch is published, so nothing can fail after this check
+            Batches.rejectExisting(byId, appointments, id -> "Appointment ID already exists: " + id);
+            Batches.forEach(byId.values(), appointment -> {
+                appointmentsByTime.put(TimeKey.of(appointment), appointment);
+                occupancy.add(appointment.getAppointmentEpochMillis());
+                appointments.put(appointment.getAppointmentId(), appointment);
+            });
+            for (Appointment appointment : byId.values()) {
+                changes.publish(ChangeType.ADD, appointment.getAppointmentId(), appointment);
+            }
+        });
+        changes.release();
     }
 
     /**
@@ -56,18 +298,31 @@ public class AppointmentService {
      * @throws IllegalArgumentException if appointmentId is null or appointment does not exist
      */
     public Appointment getAppointment(String appointmentId) {
-        // Validate appointment ID
-        if (appointmentId == null) {
-            throw new IllegalArgumentException("Appointment ID cannot be null");
-        }
+        return OperationMetrics.time(metrics, Operation.GET_APPOINTMENT, () -> {
+            // Validate appointment ID
+            if (appointmentId == null) {
+                throw new IllegalArgumentException("Appointment ID cannot be null");
+            }
         
-        // Check if appointment exists
-        Appointment appointment = appointments.get(appointmentId);
-        if (appointment == null) {
-            throw new IllegalArgumentException("Appointment ID not found: " + appointmentId);
-        }
-        
-        return appointment;
+            // Check if appointment exists
+            Appointment appointment = gate.read(() -> appointments.get(appointmentId));
+            if (appointment == null) {
+                throw new NotFoundException("Appointment ID not found: " + appointmentId);
+            }
+            return appointment;
+        });
+    }
+
+    /**
+     * Looks up an appointment by its ID without throwing on a miss.
+     * 
+     * @param appointmentId the unique identifier of the appointment
+     * @return the appointment, or empty if appointmentId is null or not found
+     */
+    public Optional<Appointment> findAppointment(String appointmentId) {
+        return OperationMetrics.time(metrics, Operation.FIND_APPOINTMENT, () -> appointmentId == null
+                ? Optional.<Appointment>empty() : gate.read(() -> Optional.ofNullable(appointments.get(appointmentId))),
+                OperationMetrics::found);
     }
 
     /**
@@ -78,17 +333,471 @@ public class AppointmentService {
      *                                  does not exist
      */
     public void deleteAppointment(String appointmentId) {
-        // Validate appointment ID
+        OperationMetrics.time(metrics, Operation.DELETE_APPOINTMENT, () -> {
+            // Validate appointment ID
+            if (appointmentId == null) {
+                throw new IllegalArgumentException("Appointment ID cannot be null");
+            }
+
+            if (!delete(appointmentId)) {
+                throw new NotFoundException("Appointment ID not found: " + appointmentId);
+            }
+        });
+    }
+
+    /**
+     * Deletes an appointment by its ID without throwing on failure.
+     * 
+     * @param appointmentId the unique identifier of the appointment to delete
+     * @return true if an appointment was removed, false if appointmentId is null or not found
+     */
+    public boolean tryDeleteAppointment(String appointmentId) {
+        return OperationMetrics.time(metrics, Operation.TRY_DELETE_APPOINTMENT, () -> delete(appointmentId),
+                OperationMetrics::removed);
+    }
+
+    /**
+     * Deletes an appointment by its ID without recording metrics.
+     * 
+     * @param appointmentId the unique identifier of the appointment to delete
+     * @return true if an appointment was removed, false if appointmentId is null or not found
+     */
+    private boolean delete(String appointmentId) {
+        if (appointmentId == null) {
+            return false;
+        }
+        Appointment existing;
+        while ((existing = appointments.get(appointmentId)) != null) {
+            if (removeIfSame(existing)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves all appointments scheduled in the half-open range [from, to), ordered by date.
+     * Runs in O(log n + k) for k matching appointments.
+     * 
+     * @param from inclusive lower bound of the range
+     * @param to   exclusive upper bound of the range
+     * @return the matching appointments in date order, empty if none
+     * @throws IllegalArgumentException if either bound is null or from is after to
+     */
+    public List<Appointment> getAppointmentsBetween(Date from, Date to) {
+        return OperationMetrics.time(metrics, Operation.GET_APPOINTMENTS_BETWEEN, () -> {
+            checkRange(from, to);
+            return gate.read(() -> new ArrayList<>(rangeOf(from.getTime(), to.getTime()).values()));
+        });
+    }
+
+    /**
+     * Retrieves all appointments scheduled in the half-open range [from, to), ordered by date.
+     * Instant.MIN and Instant.MAX may be used as open bounds.
+     * 
+     * @param from inclusive lower bound of the range
+     * @param to   exclusive upper bound of the range
+     * @return the matching appointments in date order, empty if none
+     * @throws IllegalArgumentException if either bound is null or from is after to
+     * @see #getAppointmentsBetween(Date, Date)
+     */
+    public List<Appointment> getAppointmentsBetween(Instant from, Instant to) {
+        return OperationMetrics.time(metrics, Operation.GET_APPOINTMENTS_BETWEEN, () -> {
+            checkRange(from, to);
+            return gate.read(() -> new ArrayList<>(
+                    rangeOf(DateConstraint.toEpochMillis(from), DateConstraint.toEpochMillis(to)).values()));
+        });
+    }
+
+    /**
+     * Counts the appointments scheduled in the half-open range [from, to).
+     * The count comes from the occupancy tree's subtree sizes rather than from walking the
+     * range, so it does not grow with the number of appointments counted.
+     * 
+     * @param from inclusive lower bound of the range
+     * @param to   exclusive upper bound of the range
+     * @return the number of matching appointments
+     * @throws IllegalArgumentException if either bound is null or from is after to
+     */
+    public int countAppointmentsBetween(Date from, Date to) {
+        return OperationMetrics.time(metrics, Operation.COUNT_APPOINTMENTS_BETWEEN, () -> {
+            checkRange(from, to);
+            return gate.read(() -> occupancy.count(from.getTime(), to.getTime()));
+        });
+    }
+
+    /**
+     * Counts the appointments scheduled in the half-open range [from, to).
+     * 
+     * @param from inclusive lower bound of the range
+     * @param to   exclusive upper bound of the range
+     * @return the number of matching appointments
+     * @throws IllegalArgumentException if either bound is null or from is after to
+     * @see #countAppointmentsBetween(Date, Date)
+     */
+    public int countAppointmentsBetween(Instant from, Instant to) {
+        return OperationMetrics.time(metrics, Operation.COUNT_APPOINTMENTS_BETWEEN, () -> {
+            checkRange(from, to);
+            long fromMillis = DateConstraint.toEpochMillis(from);
+            long toMillis = DateConstraint.toEpochMillis(to);
+            return gate.read(() -> occupancy.count(fromMillis, toMillis));
+        });
+    }
+
+    /**
+     * Finds the earliest appointment scheduled strictly after the given time.
+     * Ties on date are broken by appointment ID.
+     * 
+     * @param time the reference time
+     * @return the next appointment, or empty if none is scheduled after the time
+     * @throws IllegalArgumentException if time is null
+     */
+    public Optional<Appointment> nextAppointmentAfter(Date time) {
+        return OperationMetrics.time(metrics, Operation.NEXT_APPOINTMENT_AFTER, () -> {
+            requireTime(time);
+            return gate.read(() -> nextAfter(time.getTime()));
+        });
+    }
+
+    /**
+     * Finds the earliest appointment scheduled strictly after the given time.
+     * Ties on date are broken by appointment ID.
+     * 
+     * @param time the reference time
+     * @return the next appointment, or empty if none is scheduled after the time
+     * @throws IllegalArgumentException if time is null
+     */
+    public Optional<Appointment> nextAppointmentAfter(Instant time) {
+        return OperationMetrics.time(metrics, Operation.NEXT_APPOINTMENT_AFTER, () -> {
+            requireTime(time);
+            return gate.read(() -> nextAfter(DateConstraint.toEpochMillis(time)));
+        });
+    }
+
+    /**
+     * Retrieves the archived appointments dated in the half-open range [from, to),
+     * ordered by date, then ID. Archive blocks outside the range are skipped unread.
+     * 
+     * @param from inclusive lower bound of the range
+     * @param to   exclusive upper bound of the range
+     * @return the matching archived appointments, empty if the service has no archive
+     * @throws IllegalArgumentException if either bound is null or from is after to
+     * @throws java.io.UncheckedIOException if the archive cannot be read
+     */
+    public List<Appointment> archivedAppointmentsBetween(Date from, Date to) {
+        return OperationMetrics.time(metrics, Operation.ARCHIVED_APPOINTMENTS_BETWEEN, () -> {
+            checkRange(from, to);
+            return archive == null ? List.of() : archive.read(from.getTime(), to.getTime());
+        });
+    }
+
+    /**
+     * Retrieves the archived appointments dated in the half-open range [from, to),
+     * ordered by date, then ID.
+     * 
+     * @param from inclusive lower bound of the range
+     * @param to   exclusive upper bound of the range
+     * @return the matching archived appointments, empty if the service has no archive
+     * @throws IllegalArgumentException if either bound is null or from is after to
+     * @throws java.io.UncheckedIOException if the archive cannot be read
+     * @see #archivedAppointmentsBetween(Date, Date)
+     */
+    public List<Appointment> archivedAppointmentsBetween(Instant from, Instant to) {
+        return OperationMetrics.time(metrics, Operation.ARCHIVED_APPOINTMENTS_BETWEEN, () -> {
+            checkRange(from, to);
+            return archive == null ? List.of()
+                    : archive.read(DateConstraint.toEpochMillis(from), DateConstraint.toEpochMillis(to));
+        });
+    }
+
+    /**
+     * Subscribes to every add and delete of an appointment from now on.
+     * Appointments cannot be updated in place, so there are no UPDATE events; archiving
+     * an appointment publishes a DELETE. Events travel through a preallocated ring
+     * buffer and are delivered on the subscription's own thread, so a listener never runs
+     * on the thread making the change and only holds it up under {@link OverflowPolicy#BLOCK}.
+     * Each event carries a sequence number that increases by one per event.
+     * 
+     * @param listener receives the events, must not be null
+     * @param policy   what to do when the listener falls a whole ring buffer behind, must not be null
+     * @return the subscription; close it to stop delivery
+     * @throws IllegalArgumentException if listener or policy is null
+     */
+    public ChangeSubscription subscribe(Consumer<? super ChangeEvent<Appointment>> listener, OverflowPolicy policy) {
+        return changes.subscribe(listener, policy);
+    }
+
+    /**
+     * Starts timing every public operation and counting its outcomes in a registry.
+     * Operations are recorded under the service label "appointment"; calling this
+     * again switches recording to the new registry. Archive sweeps are not recorded.
+     * 
+     * @param registry the registry to record into, must not be null
+     * @throws IllegalArgumentException if registry is null
+     */
+    public void enableMetrics(ServiceMetrics registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Metrics registry cannot be null");
+        }
+        metrics = registry.register("appointment", Operation.values());
+    }
+
+    /**
+     * Moves every appointment dated before a cutoff into the archive.
+     * The appointments are forced to disk as one block before any of them leaves memory,
+     * and the sweep holds off every other write and read of the service meanwhile, as a
+     * bulk insert does. An appointment is therefore always readable in memory or in the
+     * archive, and a failed write changes nothing and publishes no event.
+     * 
+     * @param cutoffMillis the exclusive cutoff in epoch milliseconds
+     * @return the number of appointments moved
+     * @throws java.io.UncheckedIOException if the archive cannot be written
+     */
+    int archiveBefore(long cutoffMillis) {
+        int[] moved = new int[1];
+        gate.publish(() -> {
+            List<Appointment> expired = new ArrayList<>(
+                    appointmentsByTime.headMap(TimeKey.lowest(cutoffMillis)).values());
+            archive.append(expired);
+            for (Appointment appointment : expired) {
+                unlink(appointment);
+            }
+            moved[0] = expired.size();
+        });
+        changes.release();
+        return moved[0];
+    }
+
+    /**
+     * Finds the earliest start of a free slot of the given length at or after a time.
+     * Appointments are instants, so a slot [start, start + duration) is free when no
+     * appointment is scheduled inside it; the earliest slot after an appointment starts
+     * one millisecond later. Durations are rounded up to whole milliseconds.
+     * Runs in O(log n) for n stored appointments.
+     * 
+     * @param after    the earliest acceptable start
+     * @param duration the slot length, must be positive
+     * @return the start of the earliest free slot
+     * @throws IllegalArgumentException if after or duration is null, or duration is not positive
+     */
+    public Date findNextFreeSlot(Date after, Duration duration) {
+        return OperationMetrics.time(metrics, Operation.FIND_NEXT_FREE_SLOT, () -> {
+            requireTime(after);
+            return new Date(freeSlotStart(after.getTime(), duration));
+        });
+    }
+
+    /**
+     * Finds the earliest start of a free slot of the given length at or after a time.
+     * 
+     * @param after    the earliest acceptable start
+     * @param duration the slot length, must be positive
+     * @return the start of the earliest free slot
+     * @throws IllegalArgumentException if after or duration is null, or duration is not positive
+     * @see #findNextFreeSlot(Date, Duration)
+     */
+    public Instant findNextFreeSlot(Instant after, Duration duration) {
+        return OperationMetrics.time(metrics, Operation.FIND_NEXT_FREE_SLOT, () -> {
+            requireTime(after);
+            return Instant.ofEpochMilli(freeSlotStart(DateConstraint.toEpochMillis(after), duration));
+        });
+    }
+
+    private long freeSlotStart(long after, Duration duration) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        long millis;
+        try {
+            millis = duration.plusNanos(999_999).toMillis();
+        } catch (ArithmeticException e) {
+            millis = Long.MAX_VALUE;
+        }
+        // Leave room for the +1 the search adds to the gap width
+        long width = Math.min(millis, Long.MAX_VALUE - 1);
+        return gate.read(() -> occupancy.firstFreeStart(after, width));
+    }
+
+    private Optional<Appointment> nextAfter(long time) {
+        if (time == Long.MAX_VALUE) {
+            return Optional.empty();
+        }
+        Map.Entry<TimeKey, Appointment> next = appointmentsByTime.ceilingEntry(TimeKey.lowest(time + 1));
+        return next == null ? Optional.empty() : Optional.of(next.getValue());
+    }
+
+    /**
+     * Rejects a null or already stored appointment ID before an appointment is built.
+     * 
+     * @param appointmentId the ID to check
+     * @throws IllegalArgumentException if appointmentId is null or already exists
+     */
+    private void requireNewId(String appointmentId) {
+        // Validate appointment ID before checking for duplicates (null handling)
         if (appointmentId == null) {
             throw new IllegalArgumentException("Appointment ID cannot be null");
         }
+        if (appointments.containsKey(appointmentId)) {
+            throw new IllegalArgumentException("Appointment ID already exists: " + appointmentId);
+        }
+    }
+
+    private void insertOrThrow(Appointment appointment) {
+        if (!insert(appointment)) {
+            throw new IllegalArgumentException("Appointment ID already exists: " + appointment.getAppointmentId());
+        }
+    }
+
+    /**
+     * Builds and stores a pre-validated appointment, reporting failures as a status.
+     * 
+     * @param appointmentId the ID of the appointment to add
+     * @param create        builds the appointment, re-running its validation
+     * @return ADDED if stored, DUPLICATE_ID if the ID already exists, INVALID if validation fails
+     */
+    private AddResult tryInsert(String appointmentId, Supplier<Appointment> create) {
+        if (appointments.containsKey(appointmentId)) {
+            return AddResult.DUPLICATE_ID;
+        }
+        Appointment appointment;
+        try {
+            appointment = create.get();
+        } catch (IllegalArgumentException e) {
+            // The date passed into the past between the check and construction
+            return AddResult.INVALID;
+        }
+        return insert(appointment) ? AddResult.ADDED : AddResult.DUPLICATE_ID;
+    }
+
+    /**
+     * Adds an appointment to storage and index atomically, re-checking the ID under the per-key lock.
+     * 
+     * @param appointment the validated appointment to add
+     * @return true if added, false if the appointment ID already exists
+     */
+    private boolean insert(Appointment appointment) {
+        Appointment stored = gate.write(() -> appointments.computeIfAbsent(appointment.getAppointmentId(), id -> {
+            appointmentsByTime.put(TimeKey.of(appointment), appointment);
+            occupancy.add(appointment.getAppointmentEpochMillis());
+            changes.publish(ChangeType.ADD, id, appointment);
+            return appointment;
+        }));
+        changes.release();
+        return stored == appointment;
+    }
+
+    /**
+     * Removes an appointment from storage and index atomically, provided its ID
+     * still maps to that exact appointment.
+     * 
+     * @param appointment the appointment to remove
+     * @return true if removed, false if the ID is absent or maps to another appointment
+     */
+    private boolean removeIfSame(Appointment appointment) {
+        boolean removed = gate.write(() -> unlink(appointment));
+        changes.release();
+        return removed;
+    }
+
+    /**
+     * Removes an appointment from storage and index under its per-ID lock, inside the
+     * publication gate, provided its ID still maps to that exact appointment.
+     * 
+     * @param appointment the appointment to remove
+     * @return true if removed, false if the ID is absent or maps to another appointment
+     */
+    private boolean unlink(Appointment appointment) {
+        Appointment remaining = appointments.computeIfPresent(appointment.getAppointmentId(), (id, current) -> {
+            if (current != appointment) {
+                return current;
+            }
+            appointmentsByTime.remove(TimeKey.of(current));
+            occupancy.remove(current.getAppointmentEpochMillis());
+            changes.publish(ChangeType.DELETE, id, current);
+            return null;
+        });
+        return remaining == null;
+    }
+
+    /**
+     * Returns a live view of the index for the half-open range [from, to).
+     * 
+     * @param from inclusive lower bound in epoch milliseconds
+     * @param to   exclusive upper bound in epoch milliseconds
+     * @return the index view
+     */
+    private ConcurrentNavigableMap<TimeKey, Appointment> rangeOf(long from, long to) {
+        return appointmentsByTime.subMap(TimeKey.lowest(from), TimeKey.lowest(to));
+    }
+
+    /**
+     * Validates the bounds of a half-open date range.
+     * 
+     * @param from inclusive lower bound of the range
+     * @param to   exclusive upper bound of the range
+     * @throws IllegalArgumentException if either bound is null or from is after to
+     */
+    private static void checkRange(Date from, Date to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Range bounds cannot be null");
+        }
+        if (from.after(to)) {
+            throw new IllegalArgumentException("Range start cannot be after range end");
+        }
+    }
 
-        // Check if appointment exists
-        if (!appointments.containsKey(appointmentId)) {
-            throw new IllegalArgumentException("Appointment ID not found: " + appointmentId);
+    private static void checkRange(Instant from, Instant to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Range bounds cannot be null");
         }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start cannot be after range end");
+        }
+    }
 
-        // Remove the appointment
-        appointments.remove(appointmentId);
+    private static void requireTime(Object time) {
+        if (time == null) {
+            throw new IllegalArgumentException("Time cannot be null");
+        }
+    }
+
+    /**
+     * Index key ordering appointments by date, tie-broken by ID.
+     */
+    private static final class TimeKey implements Comparable<TimeKey> {
+        private final long time;
+        private final String appointmentId;
+
+        private TimeKey(long time, String appointmentId) {
+            this.time = time;
+            this.appointmentId = appointmentId;
+        }
+
+        static TimeKey of(Appointment appointment) {
+            return new TimeKey(appointment.getAppointmentEpochMillis(), appointment.getAppointmentId());
+        }
+
+        /**
+         * Creates a key that sorts before every appointment at the given time.
+         */
+        static TimeKey lowest(long time) {
+            return new TimeKey(time, "");
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : appointmentId.compareTo(other.appointmentId);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TimeKey && compareTo((TimeKey) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(time) * 31 + appointmentId.hashCode();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package edu.snhu;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared checks and stores for the services' bulk insert operations.
+ * Large batches are processed on the common fork-join pool through parallel streams;
+ * small batches are processed sequentially because splitting them costs more than it saves.
+ * The services run the existence check and the stores inside their {@link PublicationGate},
+ * so a batch that passes the checks is published whole and one that fails leaves no trace.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class Batches {
+    /** Batches at least this large are checked in parallel. */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    private Batches() {
+    }
+
+    /**
+     * Indexes a batch by entity ID, rejecting null elements and IDs repeated within the batch.
+     *
+     * @param <T> the entity type
+     * @param batch the entities to index
+     * @param idOf extracts the ID of an entity
+     * @param nullMessage exception message for a null element
+     * @param duplicateMessage builds the exception message for an ID repeated in the batch
+     * @return the entities keyed by ID
+     * @throws IllegalArgumentException if the batch is null, contains null, or repeats an ID
+     */
+    static <T> Map<String, T> indexById(Collection<T> batch, Function<T, String> idOf, String nullMessage,
+            Function<String, String> duplicateMessage) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null");
+        }
+        Function<T, String> checkedIdOf = entity -> {
+            if (entity == null) {
+                throw new IllegalArgumentException(nullMessage);
+            }
+            return idOf.apply(entity);
+        };
+        if (batch.size() >= PARALLEL_THRESHOLD) {
+            return batch.parallelStream().collect(Collectors.toConcurrentMap(checkedIdOf, Function.identity(),
+                    (first, second) -> {
+                        throw new IllegalArgumentException(duplicateMessage.apply(idOf.apply(first)));
+                    }));
+        }
+        Map<String, T> byId = new LinkedHashMap<>(batch.size() * 2);
+        for (T entity : batch) {
+            String id = checkedIdOf.apply(entity);
+            if (byId.putIfAbsent(id, entity) != null) {
+                throw new IllegalArgumentException(duplicateMessage.apply(id));
+            }
+        }
+        return byId;
+    }
+
+    /**
+     * Rejects the batch if any of its IDs is already stored.
+     *
+     * @param batch the entities keyed by ID
+     * @param store the service storage
+     * @param existsMessage builds the exception message for an ID that is already stored
+     * @throws IllegalArgumentException if an ID of the batch is already stored
+     */
+    static void rejectExisting(Map<String, ?> batch, Map<String, ?> store, Function<String, String> existsMessage) {
+        boolean parallel = batch.size() >= PARALLEL_THRESHOLD;
+        (parallel ? batch.keySet().parallelStream() : batch.keySet().stream())
+                .filter(store::containsKey)
+                .findAny()
+                .ifPresent(id -> {
+                    throw new IllegalArgumentException(existsMessage.apply(id));
+                });
+    }
+
+    /**
+     * Runs an action on every entity of a batch, in parallel for a large batch.
+     * The action must be safe to run concurrently for different entities.
+     *
+     * @param <T> the entity type
+     * @param batch the entities
+     * @param action the action to run on each entity
+     */
+    static <T> void forEach(Collection<T> batch, Consumer<T> action) {
+        if (batch.size() >= PARALLEL_THRESHOLD) {
+            batch.parallelStream().forEach(action);
+        } else {
+            batch.forEach(action);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package edu.snhu;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format shared by BinaryProtocolServer and BinaryProtocolClient.
+ * Every message is a frame of [int body length][body]. A request body is
+ * [int request ID][byte opcode][arguments]; a response body is
+ * [int request ID][byte status][result]. Strings are [unsigned short byte length][UTF-8],
+ * with length 0xFFFF standing for null; times are epoch milliseconds as longs.
+ * Clients may send any number of requests before reading responses; the server answers
+ * each connection's requests in the order it received them.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class BinaryProtocol {
+    /** Largest accepted frame body, in bytes. */
+    static final int MAX_FRAME_BYTES = 1 << 20;
+    /** Request ID and opcode or status. */
+    static final int BODY_HEADER_BYTES = Integer.BYTES + 1;
+
+    static final byte ADD_CONTACT = 1;
+    static final byte FIND_CONTACT = 2;
+    static final byte DELETE_CONTACT = 3;
+    /** Arguments: ID, field code (ContactField ordinal), value. */
+    static final byte UPDATE_CONTACT = 4;
+    static final byte COUNT_CONTACTS = 5;
+    static final byte ADD_TASK = 16;
+    static final byte FIND_TASK = 17;
+    static final byte DELETE_TASK = 18;
+    static final byte UPDATE_TASK_NAME = 19;
+    static final byte UPDATE_TASK_DESCRIPTION = 20;
+    static final byte COUNT_TASKS = 21;
+    static final byte ADD_APPOINTMENT = 32;
+    static final byte FIND_APPOINTMENT = 33;
+    static final byte DELETE_APPOINTMENT = 34;
+    static final byte COUNT_APPOINTMENTS_BETWEEN = 35;
+
+    /** Succeeded; followed by the operation's result, if it has one. */
+    static final byte OK = 0;
+    static final byte NOT_FOUND = 1;
+    static final byte DUPLICATE_ID = 2;
+    /** Rejected by validation; followed by the validation message. */
+    static final byte INVALID = 3;
+    /** Failed for any other reason, such as an unknown opcode; followed by the failure message. */
+    static final byte FAILED = 4;
+    /** The service is full and refuses new entities. */
+    static final byte CAPACITY = 5;
+
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private BinaryProtocol() {
+    }
+
+    /**
+     * Writes a string, or null.
+     *
+     * @param buffer the destination
+     * @param value the string to write, may be null
+     * @throws IllegalArgumentException if the string is longer than 65534 UTF-8 bytes
+     */
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IllegalArgumentException("String too long for the binary protocol");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #putString(ByteBuffer, String)}.
+     *
+     * @param buffer the source, positioned at the string
+     * @return the string, or null
+     * @throws java.nio.BufferUnderflowException if the buffer ends inside the string
+     */
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of bytes {@link #putString(ByteBuffer, String)} writes at most.
+     *
+     * @param value the string, may be null
+     * @return an upper bound on its encoded size
+     */
+    static int maxStringBytes(String value) {
+        return Short.BYTES + (value == null ? 0 : value.length() * 3);
+    }
+
+    /**
+     * Returns a buffer with room for extra more bytes, copying into a larger one if needed.
+     *
+     * @param buffer a buffer in write mode
+     * @param extra the number of bytes about to be written
+     * @return the same buffer, or a larger copy of its contents in write mode
+     */
+    static ByteBuffer ensureRemaining(ByteBuffer buffer, int extra) {
+        if (buffer.remaining() >= extra) {
+            return buffer;
+        }
+        int capacity = Math.max(buffer.capacity() * 2, buffer.position() + extra);
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+}
@@ -0,0 +1,543 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Client for BinaryProtocolServer.
+ * Every operation returns a future immediately, so a caller can pipeline any number
+ * of requests before waiting for the first response. Requests from all calling threads
+ * are appended to one buffer that a writer thread sends whenever the previous write
+ * finishes, so requests issued while the socket is busy go out together in one write.
+ * A reader thread completes the futures as responses arrive. Validation failures
+ * complete a future exceptionally with IllegalArgumentException, any other server-side
+ * failure with IllegalStateException, and a lost connection fails every outstanding
+ * future with an UncheckedIOException.
+ * The client is thread-safe and must be closed.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class BinaryProtocolClient implements Closeable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final Map<Integer, Pending<?>> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition requestsQueued = lock.newCondition();
+    private final Thread writer;
+    private final Thread reader;
+    // Guarded by lock: requests waiting for the writer, and the buffer the writer is sending
+    private ByteBuffer queued = ByteBuffer.allocate(BUFFER_BYTES);
+    private ByteBuffer sending = ByteBuffer.allocate(BUFFER_BYTES);
+    private int nextRequestId;
+    private IOException failure;
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the server address
+     * @throws IOException if the connection cannot be established
+     * @throws IllegalArgumentException if address is null
+     */
+    public BinaryProtocolClient(InetSocketAddress address) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null");
+        }
+        channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        writer = new Thread(this::writeLoop, "binary-client-writer");
+        writer.setDaemon(true);
+        reader = new Thread(this::readLoop, "binary-client-reader");
+        reader.setDaemon(true);
+        writer.start();
+        reader.start();
+    }
+
+    /**
+     * Adds a contact.
+     *
+     * @param contact the contact to add, must not be null
+     * @return ADDED, or DUPLICATE_ID if the ID already exists
+     */
+    public CompletableFuture<AddResult> addContact(Contact contact) {
+        if (contact == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Contact cannot be null"));
+        }
+        return send(BinaryProtocol.ADD_CONTACT,
+                maxBytes(contact.getContactId(), contact.getFirstName(), contact.getLastName(), contact.getPhone(),
+                        contact.getAddress()),
+                buffer -> {
+                    BinaryProtocol.putString(buffer, contact.getContactId());
+                    BinaryProtocol.putString(buffer, contact.getFirstName());
+                    BinaryProtocol.putString(buffer, contact.getLastName());
+                    BinaryProtocol.putString(buffer, contact.getPhone());
+                    BinaryProtocol.putString(buffer, contact.getAddress());
+                }, BinaryProtocolClient::addResult);
+    }
+
+    /**
+     * Looks up a contact.
+     *
+     * @param contactId the contact ID
+     * @return a copy of the stored contact, or empty if not found
+     */
+    public CompletableFuture<Optional<Contact>> findContact(String contactId) {
+        return send(BinaryProtocol.FIND_CONTACT, maxBytes(contactId),
+                buffer -> BinaryProtocol.putString(buffer, contactId),
+                (status, buffer) -> status == BinaryProtocol.NOT_FOUND ? Optional.empty()
+                        : Optional.of(new Contact(BinaryProtocol.getString(buffer), BinaryProtocol.getString(buffer),
+                                BinaryProtocol.getString(buffer), BinaryProtocol.getString(buffer),
+                                BinaryProtocol.getString(buffer))));
+    }
+
+    /**
+     * Deletes a contact.
+     *
+     * @param contactId the contact ID
+     * @return true if removed, false if not found
+     */
+    public CompletableFuture<Boolean> deleteContact(String contactId) {
+        return send(BinaryProtocol.DELETE_CONTACT, maxBytes(contactId),
+                buffer -> BinaryProtocol.putString(buffer, contactId), BinaryProtocolClient::foundResult);
+    }
+
+    /**
+     * Updates a contact's first name.
+     *
+     * @param contactId the contact ID
+     * @param firstName the new first name
+     * @return true if updated, false if not found
+     */
+    public CompletableFuture<Boolean> updateFirstName(String contactId, String firstName) {
+        return updateContact(contactId, ContactField.FIRST_NAME, firstName);
+    }
+
+    /**
+     * Updates a contact's last name.
+     *
+     * @param contactId the contact ID
+     * @param lastName the new last name
+     * @return true if updated, false if not found
+     */
+    public CompletableFuture<Boolean> updateLastName(String contactId, String lastName) {
+        return updateContact(contactId, ContactField.LAST_NAME, lastName);
+    }
+
+    /**
+     * Updates a contact's phone number.
+     *
+     * @param contactId the contact ID
+     * @param phone the new phone number
+     * @return true if updated, false if not found
+     */
+    public CompletableFuture<Boolean> updatePhone(String contactId, String phone) {
+        return updateContact(contactId, ContactField.PHONE, phone);
+    }
+
+    /**
+     * Updates a contact's address.
+     *
+     * @param contactId the contact ID
+     * @param address the new address
+     * @return true if updated, false if not found
+     */
+    public CompletableFuture<Boolean> updateAddress(String contactId, String address) {
+        return updateContact(contactId, ContactField.ADDRESS, address);
+    }
+
+    /**
+     * Counts the stored contacts.
+     *
+     * @return the number of contacts
+     */
+    public CompletableFuture<Integer> getContactCount() {
+        return send(BinaryProtocol.COUNT_CONTACTS, 0, buffer -> { }, (status, buffer) -> buffer.getInt());
+    }
+
+    /**
+     * Adds a task.
+     *
+     * @param task the task to add, must not be null
+     * @return ADDED, DUPLICATE_ID if the ID already exists, or CAPACITY if the service is full
+     */
+    public CompletableFuture<AddResult> addTask(Task task) {
+        if (task == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Task cannot be null"));
+        }
+        return send(BinaryProtocol.ADD_TASK, maxBytes(task.getTaskId(), task.getTaskName(), task.getTaskDescription()),
+                buffer -> {
+                    BinaryProtocol.putString(buffer, task.getTaskId());
+                    BinaryProtocol.putString(buffer, task.getTaskName());
+                    BinaryProtocol.putString(buffer, task.getTaskDescription());
+                }, BinaryProtocolClient::addResult);
+    }
+
+    /**
+     * Looks up a task.
+     *
+     * @param taskId the task ID
+     * @return a copy of the stored task, or empty if not found
+     */
+    public CompletableFuture<Optional<Task>> findTask(String taskId) {
+        return send(BinaryProtocol.FIND_TASK, maxBytes(taskId), buffer -> BinaryProtocol.putString(buffer, taskId),
+                (status, buffer) -> status == BinaryProtocol.NOT_FOUND ? Optional.empty()
+                        : Optional.of(new Task(BinaryProtocol.getString(buffer), BinaryProtocol.getString(buffer),
+                                BinaryProtocol.getString(buffer))));
+    }
+
+    /**
+     * Deletes a task.
+     *
+     * @param taskId the task ID
+     * @return true if removed, false if not found
+     */
+    public CompletableFuture<Boolean> deleteTask(String taskId) {
+        return send(BinaryProtocol.DELETE_TASK, maxBytes(taskId), buffer -> BinaryProtocol.putString(buffer, taskId),
+                BinaryProtocolClient::foundResult);
+    }
+
+    /**
+     * Updates a task's name.
+     *
+     * @param taskId the task ID
+     * @param taskName the new name
+     * @return true if updated, false if not found
+     */
+    public CompletableFuture<Boolean> updateTaskName(String taskId, String taskName) {
+        return updateTask(BinaryProtocol.UPDATE_TASK_NAME, taskId, taskName);
+    }
+
+    /**
+     * Updates a task's description.
+     *
+     * @param taskId the task ID
+     * @param taskDescription the new description
+     * @return true if updated, false if not found
+     */
+    public CompletableFuture<Boolean> updateTaskDescription(String taskId, String taskDescription) {
+        return updateTask(BinaryProtocol.UPDATE_TASK_DESCRIPTION, taskId, taskDescription);
+    }
+
+    /**
+     * Counts the stored tasks.
+     *
+     * @return the number of tasks
+     */
+    public CompletableFuture<Integer> getTaskCount() {
+        return send(BinaryProtocol.COUNT_TASKS, 0, buffer -> { }, (status, buffer) -> buffer.getInt());
+    }
+
+    /**
+     * Adds an appointment; the server validates it against its own clock.
+     *
+     * @param appointmentId the appointment ID
+     * @param appointmentTime the appointment time, must not be null
+     * @param description the description
+     * @return ADDED, or DUPLICATE_ID if the ID already exists
+     */
+    public CompletableFuture<AddResult> addAppointment(String appointmentId, Instant appointmentTime,
+            String description) {
+        if (appointmentTime == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Appointment date cannot be null"));
+        }
+        long millis;
+        try {
+            millis = appointmentTime.toEpochMilli();
+        } catch (ArithmeticException e) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Appointment date is out of range"));
+        }
+        return send(BinaryProtocol.ADD_APPOINTMENT, maxBytes(appointmentId, description) + Long.BYTES, buffer -> {
+            BinaryProtocol.putString(buffer, appointmentId);
+            buffer.putLong(millis);
+            BinaryProtocol.putString(buffer, description);
+        }, BinaryProtocolClient::addResult);
+    }
+
+    /**
+     * Looks up an appointment.
+     *
+     * @param appointmentId the appointment ID
+     * @return a copy of the stored appointment, or empty if not found
+     */
+    public CompletableFuture<Optional<Appointment>> findAppointment(String appointmentId) {
+        return send(BinaryProtocol.FIND_APPOINTMENT, maxBytes(appointmentId),
+                buffer -> BinaryProtocol.putString(buffer, appointmentId),
+                (status, buffer) -> status == BinaryProtocol.NOT_FOUND ? Optional.empty()
+                        // Already validated by the server, and possibly in the past by now
+                        : Optional.of(Appointment.restore(BinaryProtocol.getString(buffer), buffer.getLong(),
+                                BinaryProtocol.getString(buffer))));
+    }
+
+    /**
+     * Deletes an appointment.
+     *
+     * @param appointmentId the appointment ID
+     * @return true if removed, false if not found
+     */
+    public CompletableFuture<Boolean> deleteAppointment(String appointmentId) {
+        return send(BinaryProtocol.DELETE_APPOINTMENT, maxBytes(appointmentId),
+                buffer -> BinaryProtocol.putString(buffer, appointmentId), BinaryProtocolClient::foundResult);
+    }
+
+    /**
+     * Counts the appointments in the half-open range [from, to).
+     *
+     * @param from inclusive lower bound, must not be null
+     * @param to exclusive upper bound, must not be null or before from
+     * @return the number of appointments in the range
+     */
+    public CompletableFuture<Integer> countAppointmentsBetween(Instant from, Instant to) {
+        if (from == null || to == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Range bounds cannot be null"));
+        }
+        long fromMillis = DateConstraint.toEpochMillis(from);
+        long toMillis = DateConstraint.toEpochMillis(to);
+        return send(BinaryProtocol.COUNT_APPOINTMENTS_BETWEEN, Long.BYTES * 2,
+                buffer -> buffer.putLong(fromMillis).putLong(toMillis), (status, buffer) -> buffer.getInt());
+    }
+
+    /**
+     * Closes the connection. Outstanding futures fail with an UncheckedIOException.
+     *
+     * @throws IOException if closing the socket fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = new IOException("Client closed");
+            }
+            requestsQueued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        channel.close();
+        failAll();
+    }
+
+    private CompletableFuture<Boolean> updateContact(String contactId, ContactField field, String value) {
+        return send(BinaryProtocol.UPDATE_CONTACT, maxBytes(contactId, value) + 1, buffer -> {
+            BinaryProtocol.putString(buffer, contactId);
+            buffer.put((byte) field.ordinal());
+            BinaryProtocol.putString(buffer, value);
+        }, BinaryProtocolClient::foundResult);
+    }
+
+    private CompletableFuture<Boolean> updateTask(byte opcode, String taskId, String value) {
+        return send(opcode, maxBytes(taskId, value), buffer -> {
+            BinaryProtocol.putString(buffer, taskId);
+            BinaryProtocol.putString(buffer, value);
+        }, BinaryProtocolClient::foundResult);
+    }
+
+    private static int maxBytes(String... values) {
+        int bytes = 0;
+        for (String value : values) {
+            bytes += BinaryProtocol.maxStringBytes(value);
+        }
+        return bytes;
+    }
+
+    private static AddResult addResult(byte status, ByteBuffer buffer) {
+        return switch (status) {
+            case BinaryProtocol.DUPLICATE_ID -> AddResult.DUPLICATE_ID;
+            case BinaryProtocol.CAPACITY -> AddResult.CAPACITY;
+            default -> AddResult.ADDED;
+        };
+    }
+
+    private static Boolean foundResult(byte status, ByteBuffer buffer) {
+        return status == BinaryProtocol.OK;
+    }
+
+    /**
+     * Queues a request for the writer thread.
+     *
+     * @param opcode the operation
+     * @param maxArgumentBytes an upper bound on the encoded arguments
+     * @param arguments writes the arguments
+     * @param result decodes a response other than INVALID or FAILED
+     * @return the future completed by the reader thread
+     */
+    private <T> CompletableFuture<T> send(byte opcode, int maxArgumentBytes, Consumer<ByteBuffer> arguments,
+            ResponseDecoder<T> result) {
+        if (maxArgumentBytes > BinaryProtocol.MAX_FRAME_BYTES - BinaryProtocol.BODY_HEADER_BYTES) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Request too large"));
+        }
+        Pending<T> request = new Pending<>(result);
+        lock.lock();
+        try {
+            if (failure != null) {
+                return CompletableFuture.failedFuture(new UncheckedIOException(failure));
+            }
+            int requestId = nextRequestId++;
+            pending.put(requestId, request);
+            queued = BinaryProtocol.ensureRemaining(queued,
+                    Integer.BYTES + BinaryProtocol.BODY_HEADER_BYTES + maxArgumentBytes);
+            int start = queued.position();
+            queued.position(start + Integer.BYTES);
+            queued.putInt(requestId).put(opcode);
+            try {
+                arguments.accept(queued);
+            } catch (IllegalArgumentException e) {
+                queued.position(start);
+                pending.remove(requestId);
+                return CompletableFuture.failedFuture(e);
+            }
+            queued.putInt(start, queued.position() - start - Integer.BYTES);
+            requestsQueued.signal();
+        } finally {
+            lock.unlock();
+        }
+        return request.future;
+    }
+
+    /**
+     * Sends queued requests, swapping buffers so callers keep queueing during the write.
+     */
+    private void writeLoop() {
+        try {
+            while (true) {
+                lock.lock();
+                try {
+                    while (queued.position() == 0 && failure == null) {
+                        requestsQueued.awaitUninterruptibly();
+                    }
+                    if (failure != null) {
+                        return;
+                    }
+                    ByteBuffer full = queued;
+                    queued = sending;
+                    sending = full;
+                } finally {
+                    lock.unlock();
+                }
+                sending.flip();
+                while (sending.hasRemaining()) {
+                    channel.write(sending);
+                }
+                sending.clear();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Decodes response frames and completes their futures.
+     */
+    private void readLoop() {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_BYTES);
+        try {
+            while (channel.read(input) >= 0) {
+                input.flip();
+                while (input.remaining() >= Integer.BYTES) {
+                    int length = input.getInt(input.position());
+                    if (length < BinaryProtocol.BODY_HEADER_BYTES || length > BinaryProtocol.MAX_FRAME_BYTES) {
+                        throw new IOException("Invalid frame length: " + length);
+                    }
+                    if (input.remaining() < Integer.BYTES + length) {
+                        break;
+                    }
+                    int end = input.position() + Integer.BYTES + length;
+                    ByteBuffer response = input.slice(input.position() + Integer.BYTES, length);
+                    Pending<?> request = pending.remove(response.getInt());
+                    if (request != null) {
+                        request.complete(response.get(), response);
+                    }
+                    input.position(end);
+                }
+                input.compact();
+                if (!input.hasRemaining()) {
+                    input = BinaryProtocol.ensureRemaining(input, input.capacity());
+                }
+            }
+            fail(new IOException("Server closed the connection"));
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException cause) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = cause;
+            }
+            requestsQueued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already failing
+        }
+        failAll();
+    }
+
+    private void failAll() {
+        IOException cause;
+        lock.lock();
+        try {
+            cause = failure;
+        } finally {
+            lock.unlock();
+        }
+        for (Integer requestId : pending.keySet()) {
+            Pending<?> request = pending.remove(requestId);
+            if (request != null) {
+                request.future.completeExceptionally(new UncheckedIOException(cause));
+            }
+        }
+    }
+
+    /**
+     * Decodes a response body positioned after the status byte.
+     */
+    @FunctionalInterface
+    private interface ResponseDecoder<T> {
+        T decode(byte status, ByteBuffer buffer);
+    }
+
+    /**
+     * An outstanding request.
+     */
+    private static final class Pending<T> {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final ResponseDecoder<T> decoder;
+
+        Pending(ResponseDecoder<T> decoder) {
+            this.decoder = decoder;
+        }
+
+        void complete(byte status, ByteBuffer body) {
+            try {
+                if (status == BinaryProtocol.INVALID) {
+                    future.completeExceptionally(new IllegalArgumentException(BinaryProtocol.getString(body)));
+                } else if (status == BinaryProtocol.FAILED) {
+                    future.completeExceptionally(new IllegalStateException(BinaryProtocol.getString(body)));
+                } else {
+                    future.complete(decoder.decode(status, body));
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
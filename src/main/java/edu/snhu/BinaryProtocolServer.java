@@ -0,0 +1,595 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking server for the contact, task and appointment services over the
+ * length-prefixed binary protocol described in {@link BinaryProtocol}.
+ * Connections are spread round-robin over a fixed number of event loops, each a
+ * thread with its own Selector. A loop decodes every complete request a read delivered
+ * and sends all of the responses with a single write, so a client that pipelines
+ * requests pays one system call per batch rather than per request. A connection whose
+ * responses back up stops being read until they drain.
+ * By default the requests run on the loop thread itself, which suits services that
+ * answer from memory; a call that blocks, such as a write-ahead log forced on every
+ * operation or a change subscriber that holds up writers, then stalls every connection
+ * of that loop. Given a worker executor, a loop instead hands each connection's batch of
+ * requests to a worker and stops reading that connection until the worker hands the
+ * responses back, so requests of one connection still run and are answered in order.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class BinaryProtocolServer implements Closeable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // Stop reading from a connection whose unsent responses exceed this
+    private static final int MAX_PENDING_OUTPUT_BYTES = 1 << 20;
+    // Responses carry only validated entity fields and validation messages, so this is ample
+    private static final int MAX_RESPONSE_BYTES = 4096;
+    // Failure messages are cut to this many characters so they always fit in MAX_RESPONSE_BYTES
+    private static final int MAX_MESSAGE_CHARS = 1000;
+
+    private final ServerSocketChannel acceptor;
+    private final EventLoop[] loops;
+    private final ContactService contacts;
+    private final TaskService tasks;
+    private final AppointmentService appointments;
+    // Runs request batches off the event loops; null runs them on the loops
+    private final Executor workers;
+    private volatile boolean closed;
+    private int nextLoop;
+
+    /**
+     * Binds the server with a single event loop and starts serving connections.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param contacts the contact service to expose, must not be null
+     * @param tasks the task service to expose, must not be null
+     * @param appointments the appointment service to expose, must not be null
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public BinaryProtocolServer(InetSocketAddress address, ContactService contacts, TaskService tasks,
+            AppointmentService appointments) throws IOException {
+        this(address, contacts, tasks, appointments, 1);
+    }
+
+    /**
+     * Binds the server and starts serving connections.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param contacts the contact service to expose, must not be null
+     * @param tasks the task service to expose, must not be null
+     * @param appointments the appointment service to expose, must not be null
+     * @param eventLoops the number of event loop threads, must be positive; usually one per core
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if any argument is null or eventLoops is not positive
+     */
+    public BinaryProtocolServer(InetSocketAddress address, ContactService contacts, TaskService tasks,
+            AppointmentService appointments, int eventLoops) throws IOException {
+        this(address, contacts, tasks, appointments, eventLoops, null);
+    }
+
+    /**
+     * Binds the server and starts serving connections, running requests on a worker executor
+     * so that service calls that block do not stall the event loops. The caller owns the
+     * executor and shuts it down after closing the server; a connection whose batch the
+     * executor rejects is closed.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param contacts the contact service to expose, must not be null
+     * @param tasks the task service to expose, must not be null
+     * @param appointments the appointment service to expose, must not be null
+     * @param eventLoops the number of event loop threads, must be positive; usually one per core
+     * @param workers the executor to run requests on, or null to run them on the event loops
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if address or a service is null or eventLoops is not positive
+     */
+    public BinaryProtocolServer(InetSocketAddress address, ContactService contacts, TaskService tasks,
+            AppointmentService appointments, int eventLoops, Executor workers) throws IOException {
+        if (address == null || contacts == null || tasks == null || appointments == null) {
+            throw new IllegalArgumentException("Address and services cannot be null");
+        }
+        if (eventLoops <= 0) {
+            throw new IllegalArgumentException("Event loop count must be positive");
+        }
+        this.contacts = contacts;
+        this.tasks = tasks;
+        this.appointments = appointments;
+        this.workers = workers;
+        this.acceptor = ServerSocketChannel.open();
+        this.loops = new EventLoop[eventLoops];
+        try {
+            acceptor.bind(address);
+            acceptor.configureBlocking(false);
+            for (int i = 0; i < eventLoops; i++) {
+                loops[i] = new EventLoop(i);
+            }
+            acceptor.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeQuietly(acceptor);
+            for (EventLoop loop : loops) {
+                if (loop != null) {
+                    closeQuietly(loop.selector);
+                }
+            }
+            throw e;
+        }
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return acceptor.socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and closes every open one.
+     * The event loops close their connections and exit shortly after this returns.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(acceptor);
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing useful to do while shutting down
+        }
+    }
+
+    /**
+     * Accepts every pending connection and hands each to the next event loop.
+     * Runs on loop 0.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = acceptor.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            EventLoop loop = loops[nextLoop];
+            nextLoop = (nextLoop + 1) % loops.length;
+            loop.adopt(channel);
+        }
+    }
+
+    /**
+     * Runs one request and appends its response.
+     * A validation failure is answered with INVALID and any other failure, including an
+     * unknown opcode, with FAILED, so neither ends the connection.
+     *
+     * @param request the request body
+     * @param response the buffer to append the response frame to, with room for any response
+     * @throws BufferUnderflowException if the request is truncated
+     */
+    private void handle(ByteBuffer request, ByteBuffer response) {
+        int requestId = request.getInt();
+        byte opcode = request.get();
+        int start = response.position();
+        response.position(start + Integer.BYTES);
+        response.putInt(requestId);
+        try {
+            execute(opcode, request, response);
+        } catch (BufferUnderflowException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            fail(response, start, BinaryProtocol.INVALID, e);
+        } catch (RuntimeException e) {
+            fail(response, start, BinaryProtocol.FAILED, e);
+        }
+        response.putInt(start, response.position() - start - Integer.BYTES);
+    }
+
+    /**
+     * Replaces whatever part of a response was written with a failure status and message.
+     */
+    private static void fail(ByteBuffer response, int start, byte status, RuntimeException e) {
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        response.position(start + Integer.BYTES + Integer.BYTES);
+        response.put(status);
+        BinaryProtocol.putString(response, message.substring(0, Math.min(message.length(), MAX_MESSAGE_CHARS)));
+    }
+
+    private void execute(byte opcode, ByteBuffer request, ByteBuffer response) {
+        switch (opcode) {
+            case BinaryProtocol.ADD_CONTACT -> {
+                Contact contact = new Contact(BinaryProtocol.getString(request), BinaryProtocol.getString(request),
+                        BinaryProtocol.getString(request), BinaryProtocol.getString(request),
+                        BinaryProtocol.getString(request));
+                response.put(added(contacts.tryAddContact(contact)));
+            }
+            case BinaryProtocol.FIND_CONTACT -> {
+                Optional<Contact> contact = contacts.findContact(BinaryProtocol.getString(request));
+                if (found(contact, response)) {
+                    BinaryProtocol.putString(response, contact.get().getContactId());
+                    BinaryProtocol.putString(response, contact.get().getFirstName());
+                    BinaryProtocol.putString(response, contact.get().getLastName());
+                    BinaryProtocol.putString(response, contact.get().getPhone());
+                    BinaryProtocol.putString(response, contact.get().getAddress());
+                }
+            }
+            case BinaryProtocol.DELETE_CONTACT -> response.put(
+                    contacts.tryDeleteContact(BinaryProtocol.getString(request)) ? BinaryProtocol.OK
+                            : BinaryProtocol.NOT_FOUND);
+            case BinaryProtocol.UPDATE_CONTACT -> {
+                String id = BinaryProtocol.getString(request);
+                ContactField field = ContactField.fromCode(request.get());
+                String value = BinaryProtocol.getString(request);
+                response.put(updated(() -> {
+                    switch (field) {
+                        case FIRST_NAME -> contacts.updateFirstName(id, value);
+                        case LAST_NAME -> contacts.updateLastName(id, value);
+                        case PHONE -> contacts.updatePhone(id, value);
+                        case ADDRESS -> contacts.updateAddress(id, value);
+                    }
+                }, () -> contacts.findContact(id).isPresent()));
+            }
+            case BinaryProtocol.COUNT_CONTACTS -> response.put(BinaryProtocol.OK).putInt(contacts.getContactCount());
+            case BinaryProtocol.ADD_TASK -> {
+                Task task = new Task(BinaryProtocol.getString(request), BinaryProtocol.getString(request),
+                        BinaryProtocol.getString(request));
+                response.put(added(tasks.tryAddTask(task)));
+            }
+            case BinaryProtocol.FIND_TASK -> {
+                Optional<Task> task = tasks.findTask(BinaryProtocol.getString(request));
+                if (found(task, response)) {
+                    BinaryProtocol.putString(response, task.get().getTaskId());
+                    BinaryProtocol.putString(response, task.get().getTaskName());
+                    BinaryProtocol.putString(response, task.get().getTaskDescription());
+                }
+            }
+            case BinaryProtocol.DELETE_TASK -> response.put(
+                    tasks.tryDeleteTask(BinaryProtocol.getString(request)) ? BinaryProtocol.OK
+                            : BinaryProtocol.NOT_FOUND);
+            case BinaryProtocol.UPDATE_TASK_NAME, BinaryProtocol.UPDATE_TASK_DESCRIPTION -> {
+                String id = BinaryProtocol.getString(request);
+                String value = BinaryProtocol.getString(request);
+                response.put(updated(() -> {
+                    if (opcode == BinaryProtocol.UPDATE_TASK_NAME) {
+                        tasks.updateTaskName(id, value);
+                    } else {
+                        tasks.updateTaskDescription(id, value);
+                    }
+                }, () -> tasks.findTask(id).isPresent()));
+            }
+            case BinaryProtocol.COUNT_TASKS -> response.put(BinaryProtocol.OK).putInt(tasks.getTaskCount());
+            case BinaryProtocol.ADD_APPOINTMENT -> {
+                String id = BinaryProtocol.getString(request);
+                Instant time = Instant.ofEpochMilli(request.getLong());
+                String description = BinaryProtocol.getString(request);
+                AddResult result = appointments.tryAddAppointmentAt(id, time, description);
+                if (result == AddResult.INVALID) {
+                    // Let the factory report which rule failed
+                    Appointment.at(id, time, description);
+                }
+                response.put(added(result));
+            }
+            case BinaryProtocol.FIND_APPOINTMENT -> {
+                Optional<Appointment> appointment = appointments.findAppointment(BinaryProtocol.getString(request));
+                if (found(appointment, response)) {
+                    BinaryProtocol.putString(response, appointment.get().getAppointmentId());
+                    response.putLong(appointment.get().getAppointmentEpochMillis());
+                    BinaryProtocol.putString(response, appointment.get().getDescription());
+                }
+            }
+            case BinaryProtocol.DELETE_APPOINTMENT -> response.put(
+                    appointments.tryDeleteAppointment(BinaryProtocol.getString(request)) ? BinaryProtocol.OK
+                            : BinaryProtocol.NOT_FOUND);
+            case BinaryProtocol.COUNT_APPOINTMENTS_BETWEEN -> {
+                Instant from = Instant.ofEpochMilli(request.getLong());
+                Instant to = Instant.ofEpochMilli(request.getLong());
+                int count = appointments.countAppointmentsBetween(from, to);
+                response.put(BinaryProtocol.OK).putInt(count);
+            }
+            default -> throw new IllegalStateException("Unknown opcode: " + opcode);
+        }
+    }
+
+    private static byte added(AddResult result) {
+        return switch (result) {
+            case ADDED -> BinaryProtocol.OK;
+            case DUPLICATE_ID -> BinaryProtocol.DUPLICATE_ID;
+            case INVALID -> throw new IllegalArgumentException("Invalid entity");
+            case CAPACITY -> BinaryProtocol.CAPACITY;
+        };
+    }
+
+    private static boolean found(Optional<?> entity, ByteBuffer response) {
+        response.put(entity.isPresent() ? BinaryProtocol.OK : BinaryProtocol.NOT_FOUND);
+        return entity.isPresent();
+    }
+
+    /**
+     * Runs an update, telling a missing entity apart from an invalid value.
+     */
+    private static byte updated(Runnable update, BooleanSupplier exists) {
+        try {
+            update.run();
+            return BinaryProtocol.OK;
+        } catch (IllegalArgumentException e) {
+            if (!exists.getAsBoolean()) {
+                return BinaryProtocol.NOT_FOUND;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Visits every complete frame at the start of a buffer in read mode, advancing past them.
+     *
+     * @param buffer the received bytes
+     * @param handler receives the body of each complete frame
+     * @throws IllegalStateException if a frame length is out of range
+     */
+    private static void forEachFrame(ByteBuffer buffer, Consumer<ByteBuffer> handler) {
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt(buffer.position());
+            if (length < BinaryProtocol.BODY_HEADER_BYTES || length > BinaryProtocol.MAX_FRAME_BYTES) {
+                throw new IllegalStateException("Invalid frame length: " + length);
+            }
+            if (buffer.remaining() < Integer.BYTES + length) {
+                break;
+            }
+            int end = buffer.position() + Integer.BYTES + length;
+            handler.accept(buffer.slice(buffer.position() + Integer.BYTES, length));
+            buffer.position(end);
+        }
+    }
+
+    /**
+     * Read and write state of one connection, owned by its event loop.
+     * While a batch is dispatched, requests and responses belong to the worker running it.
+     */
+    private static final class Connection {
+        ByteBuffer input = ByteBuffer.allocate(BUFFER_BYTES);
+        ByteBuffer output = ByteBuffer.allocate(BUFFER_BYTES);
+        ByteBuffer requests;
+        ByteBuffer responses;
+        boolean dispatched;
+        boolean failed;
+    }
+
+    /**
+     * Selector thread serving a share of the connections.
+     */
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> adopted = new ConcurrentLinkedQueue<>();
+        // Connections whose dispatched batch a worker has finished
+        private final Queue<SelectionKey> finished = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        EventLoop(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "binary-protocol-" + index);
+            thread.setDaemon(true);
+        }
+
+        void adopt(SocketChannel channel) {
+            adopted.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = adopted.poll()) != null) {
+                        register(channel);
+                    }
+                    SelectionKey done;
+                    while ((done = finished.poll()) != null) {
+                        resume(done);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        serve(key);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // The selector itself failed; drop this loop's connections
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void register(SocketChannel channel) {
+            try {
+                channel.register(selector, SelectionKey.OP_READ, new Connection());
+            } catch (IOException e) {
+                // The client left before its connection was registered
+                closeQuietly(channel);
+            }
+        }
+
+        private void serve(SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                try {
+                    accept();
+                } catch (IOException e) {
+                    // Leave the pending connection to the next selection; the acceptor may be closing
+                }
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable() && !connection.dispatched && !read(key, connection)) {
+                    disconnect(key);
+                    return;
+                }
+                send(key, connection);
+            } catch (IOException | RuntimeException e) {
+                // Broken connection, malformed request or server fault: drop the client, keep the loop
+                disconnect(key);
+            }
+        }
+
+        /**
+         * Writes what the socket takes of the pending responses and picks the events to wait for.
+         * A connection is not read while its batch is dispatched or its responses back up.
+         */
+        private void send(SelectionKey key, Connection connection) throws IOException {
+            if (connection.output.position() > 0) {
+                connection.output.flip();
+                ((SocketChannel) key.channel()).write(connection.output);
+                connection.output.compact();
+            }
+            int pending = connection.output.position();
+            boolean readable = !connection.dispatched && pending < MAX_PENDING_OUTPUT_BYTES;
+            key.interestOps((pending > 0 ? SelectionKey.OP_WRITE : 0) | (readable ? SelectionKey.OP_READ : 0));
+        }
+
+        /**
+         * Reads what is available and answers every complete request in it, or hands the
+         * requests to a worker.
+         *
+         * @return false if the client closed its end
+         */
+        private boolean read(SelectionKey key, Connection connection) throws IOException {
+            if (((SocketChannel) key.channel()).read(connection.input) < 0) {
+                return false;
+            }
+            if (workers != null) {
+                dispatch(key, connection);
+                return true;
+            }
+            ByteBuffer input = connection.input;
+            input.flip();
+            forEachFrame(input, request -> {
+                connection.output = BinaryProtocol.ensureRemaining(connection.output, MAX_RESPONSE_BYTES);
+                handle(request, connection.output);
+            });
+            compactInput(connection);
+            return true;
+        }
+
+        /**
+         * Moves the complete requests received so far into the connection's batch and hands
+         * it to a worker, which answers them in order and then queues the connection here.
+         */
+        private void dispatch(SelectionKey key, Connection connection) {
+            ByteBuffer input = connection.input;
+            input.flip();
+            int start = input.position();
+            forEachFrame(input, request -> { });
+            int batched = input.position() - start;
+            if (batched > 0) {
+                if (connection.requests == null) {
+                    connection.requests = ByteBuffer.allocate(BUFFER_BYTES);
+                    connection.responses = ByteBuffer.allocate(BUFFER_BYTES);
+                }
+                connection.requests = BinaryProtocol.ensureRemaining(connection.requests, batched);
+                connection.requests.put(input.slice(start, batched));
+            }
+            compactInput(connection);
+            if (batched == 0) {
+                return;
+            }
+            connection.dispatched = true;
+            workers.execute(() -> {
+                ByteBuffer requests = connection.requests.flip();
+                try {
+                    forEachFrame(requests, request -> {
+                        connection.responses = BinaryProtocol.ensureRemaining(connection.responses,
+                                MAX_RESPONSE_BYTES);
+                        handle(request, connection.responses);
+                    });
+                } catch (RuntimeException e) {
+                    connection.failed = true;
+                }
+                requests.clear();
+                finished.add(key);
+                selector.wakeup();
+            });
+        }
+
+        /**
+         * Takes back a connection whose batch a worker has finished: queues its responses
+         * and resumes reading it.
+         */
+        private void resume(SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            connection.dispatched = false;
+            try {
+                if (connection.failed) {
+                    throw new IllegalStateException("Malformed request");
+                }
+                ByteBuffer responses = connection.responses.flip();
+                connection.output = BinaryProtocol.ensureRemaining(connection.output, responses.remaining());
+                connection.output.put(responses);
+                responses.clear();
+                send(key, connection);
+            } catch (IOException | RuntimeException e) {
+                disconnect(key);
+            }
+        }
+
+        /**
+         * Drops the consumed bytes of the input buffer, growing it if a frame larger than
+         * the buffer is still arriving.
+         */
+        private void compactInput(Connection connection) {
+            ByteBuffer input = connection.input;
+            input.compact();
+            if (!input.hasRemaining()) {
+                connection.input = BinaryProtocol.ensureRemaining(input,
+                        Math.min(input.capacity(), BinaryProtocol.MAX_FRAME_BYTES + Integer.BYTES));
+            }
+        }
+
+        private void disconnect(SelectionKey key) {
+            key.cancel();
+            closeQuietly(key.channel());
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            SocketChannel channel;
+            while ((channel = adopted.poll()) != null) {
+                closeQuietly(channel);
+            }
+            closeQuietly(selector);
+        }
+    }
+}
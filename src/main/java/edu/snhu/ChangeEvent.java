@@ -0,0 +1,19 @@
+package edu.snhu;
+
+/**
+ * One add, update or delete published by a service's change feed.
+ * Sequence numbers are assigned in publication order and increase by one per event,
+ * so a subscriber can tell from a gap how many events it did not receive. Changes to
+ * one ID are published in the order they apply.
+ *
+ * @param <T>      the entity type
+ * @param sequence the position of the event in its service's feed
+ * @param type     the kind of change
+ * @param id       the ID of the changed entity
+ * @param entity   a copy of the entity as the change left it; for a delete, as it was removed
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public record ChangeEvent<T>(long sequence, ChangeType type, String id, T entity) {
+}
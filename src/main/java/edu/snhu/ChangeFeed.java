@@ -0,0 +1,427 @@
+package edu.snhu;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Ring buffer that carries a service's change events to its subscribers.
+ * The ring and its slots are allocated once; writers claim a sequence with a single atomic
+ * increment and fill that sequence's slot in place, and every subscriber reads the ring from
+ * its own thread at its own pace, so handing off an event costs a writer no locking and no
+ * allocation beyond the entity snapshot. Subscribers with nothing to read park until a writer
+ * stores the event they wait for. Only a subscriber that falls a whole ring behind can affect
+ * writers, as its {@link OverflowPolicy} decides. Publishing is a no-op while nobody is subscribed.
+ * Services publish from inside their per-ID compute, which keeps events for one ID in
+ * the order the changes applied, but a publish never waits there: an event whose slot is
+ * not free yet is held by the publishing thread, and {@link #release()}, called once the
+ * compute has returned, waits for room and stores it.
+ *
+ * @param <T> the entity type
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class ChangeFeed<T> {
+    /** Ring slots per feed. */
+    static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 100_000;
+    // Slot sequence while the slot is empty or being rewritten
+    private static final long NO_SEQUENCE = -1;
+
+    private final String name;
+    private final UnaryOperator<T> snapshot;
+    private final Slot<T>[] ring;
+    private final int mask;
+    // Next sequence to claim
+    private final AtomicLong cursor = new AtomicLong();
+    // Events claimed by any thread and not stored yet, so release can skip the thread-local lookup
+    private final AtomicInteger deferredCount = new AtomicInteger();
+    private final ThreadLocal<List<ChangeEvent<T>>> deferred = ThreadLocal.withInitial(ArrayList::new);
+    private final Object subscriptionLock = new Object();
+    private volatile Subscriber<T>[] subscribers = newSubscribers(0);
+
+    /**
+     * One reusable ring entry. A writer clears the sequence, fills the fields and then
+     * stores the sequence; a reader copies the fields and then checks the sequence is unchanged.
+     */
+    private static final class Slot<T> {
+        volatile long sequence = NO_SEQUENCE;
+        ChangeType type;
+        String id;
+        T entity;
+    }
+
+    /**
+     * Creates a feed with {@link #DEFAULT_CAPACITY} slots.
+     *
+     * @param name     the entity name used for subscriber thread names
+     * @param snapshot copies an entity into the form events carry
+     */
+    ChangeFeed(String name, UnaryOperator<T> snapshot) {
+        this(name, snapshot, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a feed.
+     *
+     * @param name     the entity name used for subscriber thread names
+     * @param snapshot copies an entity into the form events carry
+     * @param capacity the number of ring slots, a power of two
+     */
+    @SuppressWarnings("unchecked")
+    ChangeFeed(String name, UnaryOperator<T> snapshot, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        this.name = name;
+        this.snapshot = snapshot;
+        this.ring = (Slot<T>[]) new Slot<?>[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot<>();
+        }
+        this.mask = capacity - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Subscriber<T>[] newSubscribers(int length) {
+        return (Subscriber<T>[]) new Subscriber<?>[length];
+    }
+
+    /**
+     * Starts delivering every event published from now on to a listener.
+     *
+     * @param listener receives the events on the subscription's thread
+     * @param policy   what to do when the listener falls a whole ring behind
+     * @return the subscription, which stops delivery when closed
+     * @throws IllegalArgumentException if listener or policy is null
+     */
+    ChangeSubscription subscribe(Consumer<? super ChangeEvent<T>> listener, OverflowPolicy policy) {
+        if (listener == null || policy == null) {
+            throw new IllegalArgumentException("Listener and overflow policy cannot be null");
+        }
+        Subscriber<T> subscriber;
+        synchronized (subscriptionLock) {
+            subscriber = new Subscriber<>(this, listener, policy, cursor.get());
+            Subscriber<T>[] current = subscribers;
+            Subscriber<T>[] grown = newSubscribers(current.length + 1);
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[current.length] = subscriber;
+            subscribers = grown;
+        }
+        subscriber.start(name + "-changes");
+        return new ChangeSubscription(subscriber);
+    }
+
+    /**
+     * Publishes a change, unless nobody is subscribed.
+     * Callers hold the per-ID lock of the changed entity and must call {@link #release()}
+     * after releasing it. Never waits: if the event's slot is not free yet, the event is
+     * kept for release to store.
+     *
+     * @param type   the kind of change
+     * @param id     the ID of the changed entity
+     * @param entity the entity as the change left it
+     */
+    void publish(ChangeType type, String id, T entity) {
+        if (subscribers.length == 0) {
+            return;
+        }
+        long sequence = cursor.getAndIncrement();
+        T copy = snapshot.apply(entity);
+        if (!tryStore(sequence, type, id, copy)) {
+            deferredCount.incrementAndGet();
+            deferred.get().add(new ChangeEvent<>(sequence, type, id, copy));
+        }
+    }
+
+    /**
+     * Stores the events this thread published but could not store without waiting,
+     * waiting for subscribers to make room as their policies require.
+     * Called by services after every per-ID compute that may have published,
+     * outside any lock; returns at once when nothing is held back.
+     */
+    void release() {
+        if (deferredCount.get() == 0) {
+            return;
+        }
+        List<ChangeEvent<T>> held = deferred.get();
+        for (ChangeEvent<T> event : held) {
+            int idle = 0;
+            while (!tryStore(event.sequence(), event.type(), event.id(), event.entity())) {
+                idle = idle(idle);
+            }
+            deferredCount.decrementAndGet();
+        }
+        held.clear();
+    }
+
+    /**
+     * Stores an event in its slot if that needs no waiting.
+     *
+     * @return false if the slot still holds an event that a writer has not stored
+     *         or that a subscriber must read first
+     */
+    private boolean tryStore(long sequence, ChangeType type, String id, T entity) {
+        Slot<T> slot = ring[indexOf(sequence)];
+        long wrapped = sequence - ring.length;
+        if (wrapped >= 0) {
+            // The writer of the slot's previous sequence may not have stored it yet
+            if (slot.sequence != wrapped) {
+                return false;
+            }
+            for (Subscriber<T> subscriber : subscribers) {
+                if (!subscriber.makeRoom(wrapped)) {
+                    return false;
+                }
+            }
+        }
+        slot.sequence = NO_SEQUENCE;
+        VarHandle.storeStoreFence();
+        slot.type = type;
+        slot.id = id;
+        slot.entity = entity;
+        slot.sequence = sequence;
+        // Re-read: a subscriber that joined after the claim may already wait for this sequence
+        for (Subscriber<T> subscriber : subscribers) {
+            subscriber.wake();
+        }
+        return true;
+    }
+
+    private int indexOf(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private void unsubscribe(Subscriber<T> subscriber) {
+        synchronized (subscriptionLock) {
+            Subscriber<T>[] current = subscribers;
+            int index = List.of(current).indexOf(subscriber);
+            if (index < 0) {
+                return;
+            }
+            Subscriber<T>[] shrunk = newSubscribers(current.length - 1);
+            System.arraycopy(current, 0, shrunk, 0, index);
+            System.arraycopy(current, index + 1, shrunk, index, shrunk.length - index);
+            subscribers = shrunk;
+        }
+    }
+
+    /**
+     * Backs off progressively: spin, then yield, then park briefly.
+     *
+     * @param idle the number of consecutive idle rounds so far
+     * @return the updated count
+     */
+    private static int idle(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idle + 1;
+    }
+
+    /**
+     * One subscriber's position in the ring and the thread that delivers to it.
+     */
+    static final class Subscriber<T> implements Runnable {
+        private final ChangeFeed<T> feed;
+        private final Consumer<? super ChangeEvent<T>> listener;
+        private final OverflowPolicy policy;
+        private final long first;
+        // Next sequence the subscriber has not taken; writers may overwrite every slot below it
+        private final AtomicLong next;
+        // SPILL only: events moved out of the ring before the subscriber read them
+        private final Queue<ChangeEvent<T>> overflow;
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile boolean closed;
+        // Set while the thread is about to park for an event; the first writer to store one clears it and unparks
+        private final AtomicBoolean waiting = new AtomicBoolean();
+        private Thread thread;
+
+        Subscriber(ChangeFeed<T> feed, Consumer<? super ChangeEvent<T>> listener, OverflowPolicy policy,
+                long first) {
+            this.feed = feed;
+            this.listener = listener;
+            this.policy = policy;
+            this.first = first;
+            this.next = new AtomicLong(first);
+            this.overflow = policy == OverflowPolicy.SPILL ? new ConcurrentLinkedQueue<>() : null;
+        }
+
+        void start(String threadName) {
+            thread = new Thread(this, threadName);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        OverflowPolicy policy() {
+            return policy;
+        }
+
+        long dropped() {
+            return dropped.get();
+        }
+
+        long failures() {
+            return failures.get();
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        void close() {
+            closed = true;
+            feed.unsubscribe(this);
+            LockSupport.unpark(thread);
+        }
+
+        void wake() {
+            if (waiting.get() && waiting.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * Called by a writer about to overwrite the slot of a sequence; never waits.
+         *
+         * @param wrapped the sequence whose slot is about to be reused
+         * @return true if this subscriber no longer needs that slot
+         */
+        boolean makeRoom(long wrapped) {
+            if (policy == OverflowPolicy.DROP || closed || next.get() > wrapped) {
+                return true;
+            }
+            return policy == OverflowPolicy.SPILL && spill(wrapped) && next.get() > wrapped;
+        }
+
+        /**
+         * Moves unread events up to and including a sequence into the overflow queue,
+         * stopping early at one whose writer has not stored it yet. The subscriber may
+         * take some of them from the ring concurrently; it skips the resulting
+         * duplicates by sequence number. Writers do not overwrite the slots of unread
+         * events while this subscriber needs them, so the copies are consistent.
+         *
+         * @param wrapped the last sequence to move
+         * @return false if no event could be moved yet
+         */
+        private synchronized boolean spill(long wrapped) {
+            long from = next.get();
+            long sequence = from;
+            while (sequence <= wrapped) {
+                Slot<T> slot = feed.ring[feed.indexOf(sequence)];
+                if (slot.sequence != sequence) {
+                    // Not stored yet, or overwritten because the subscriber already took it
+                    break;
+                }
+                overflow.add(new ChangeEvent<>(sequence, slot.type, slot.id, slot.entity));
+                sequence++;
+            }
+            // Fails if the subscriber advanced meanwhile; the caller re-reads its position
+            return sequence > from && next.compareAndSet(from, sequence);
+        }
+
+        @Override
+        public void run() {
+            // Not next.get(): writers may already have spilled past the first event
+            long position = first;
+            int idle = 0;
+            while (!closed) {
+                if (overflow != null) {
+                    ChangeEvent<T> spilled = overflow.poll();
+                    if (spilled != null) {
+                        if (spilled.sequence() >= position) {
+                            deliver(spilled);
+                            position = spilled.sequence() + 1;
+                        }
+                        idle = 0;
+                        continue;
+                    }
+                    if (next.get() > position) {
+                        // A writer is moving the next events to the overflow queue
+                        idle = idle(idle);
+                        continue;
+                    }
+                }
+                Slot<T> slot = feed.ring[feed.indexOf(position)];
+                long stored = slot.sequence;
+                if (stored < position) {
+                    idle = awaitEvent(slot, position, idle);
+                    continue;
+                }
+                if (stored > position) {
+                    // Lapped: SPILL finds the events in the overflow; other policies skip them
+                    if (policy != OverflowPolicy.SPILL) {
+                        long oldest = Math.max(position + 1, feed.cursor.get() - feed.ring.length + 1);
+                        dropped.addAndGet(oldest - position);
+                        position = oldest;
+                        next.set(position);
+                    }
+                    continue;
+                }
+                ChangeType type = slot.type;
+                String id = slot.id;
+                T entity = slot.entity;
+                VarHandle.acquireFence();
+                if (slot.sequence != position) {
+                    // Overwritten while copying; the next round sees the lap
+                    continue;
+                }
+                // Take the event only after copying it: writers may reuse the slot from then on
+                if (overflow != null) {
+                    if (!next.compareAndSet(position, position + 1)) {
+                        continue;
+                    }
+                } else {
+                    next.set(position + 1);
+                }
+                deliver(new ChangeEvent<>(position, type, id, entity));
+                position++;
+                idle = 0;
+            }
+        }
+
+        /**
+         * Waits for the writer of a sequence to store it: spins and yields for a while,
+         * then parks until a writer wakes it, so an idle subscriber costs no CPU.
+         *
+         * @return the updated idle count
+         */
+        private int awaitEvent(Slot<T> slot, long position, int idle) {
+            if (idle < SPIN_TRIES + YIELD_TRIES) {
+                return idle(idle);
+            }
+            waiting.set(true);
+            // Re-check after publishing waiting, so a writer that missed it has stored the event
+            if (slot.sequence < position && !closed && (overflow == null || overflow.isEmpty())) {
+                LockSupport.park(this);
+            }
+            waiting.set(false);
+            return idle;
+        }
+
+        private void deliver(ChangeEvent<T> event) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                // A failing listener must not stop delivery, or BLOCK writers would wait forever
+                failures.incrementAndGet();
+            }
+        }
+    }
+}
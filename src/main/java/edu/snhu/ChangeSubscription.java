@@ -0,0 +1,95 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.util.Arrays;
+
+/**
+ * Handle on a listener registered with a service's change feed.
+ * Events reach the listener on a dedicated daemon thread, one at a time and in
+ * sequence order. Exceptions thrown by the listener are counted, see {@link #getFailureCount()},
+ * and otherwise ignored so that one bad event cannot stall the feed. Closing the subscription
+ * stops delivery after the event in progress, if any. A subscription to a {@link ShardedContactService} covers one feed
+ * per shard and reports their totals.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class ChangeSubscription implements Closeable {
+    private final ChangeFeed.Subscriber<?>[] subscribers;
+
+    ChangeSubscription(ChangeFeed.Subscriber<?>... subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    /**
+     * Combines subscriptions to several feeds into one handle.
+     *
+     * @param parts the subscriptions to combine, at least one
+     * @return a subscription covering every part
+     */
+    static ChangeSubscription combine(ChangeSubscription... parts) {
+        return new ChangeSubscription(Arrays.stream(parts)
+                .flatMap(part -> Arrays.stream(part.subscribers))
+                .toArray(ChangeFeed.Subscriber<?>[]::new));
+    }
+
+    /**
+     * Gets the policy applied when the listener falls a whole ring behind.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return subscribers[0].policy();
+    }
+
+    /**
+     * Gets the number of events skipped because the listener fell behind.
+     * Always zero unless the policy is {@link OverflowPolicy#DROP}.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        long dropped = 0;
+        for (ChangeFeed.Subscriber<?> subscriber : subscribers) {
+            dropped += subscriber.dropped();
+        }
+        return dropped;
+    }
+
+    /**
+     * Gets the number of events whose delivery failed because the listener threw.
+     *
+     * @return the number of listener failures
+     */
+    public long getFailureCount() {
+        long failures = 0;
+        for (ChangeFeed.Subscriber<?> subscriber : subscribers) {
+            failures += subscriber.failures();
+        }
+        return failures;
+    }
+
+    /**
+     * Checks whether the subscription has been closed.
+     *
+     * @return true once {@link #close()} has been called
+     */
+    public boolean isClosed() {
+        for (ChangeFeed.Subscriber<?> subscriber : subscribers) {
+            if (!subscriber.isClosed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops delivering events and releases any writer waiting on this subscriber.
+     */
+    @Override
+    public void close() {
+        for (ChangeFeed.Subscriber<?> subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package edu.snhu;
+
+/**
+ * Kind of change a {@link ChangeEvent} reports.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public enum ChangeType {
+    /** An entity was stored under a new ID. */
+    ADD,
+    /** A stored entity had one of its fields changed. */
+    UPDATE,
+    /** An entity was removed, by a delete or by archiving. */
+    DELETE
+}
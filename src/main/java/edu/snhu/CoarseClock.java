@@ -0,0 +1,100 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock whose time is a cached value refreshed by a background ticker.
+ * Reading it is a single volatile load instead of a system call, which makes it a
+ * cheap shared "now" for validating large numbers of appointments. The price is
+ * resolution: the time can lag the system clock by up to one tick.
+ * Clocks derived through {@link #withZone(ZoneId)} share the ticker; closing any of
+ * them stops it, after which they all keep returning the last refreshed time.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class CoarseClock extends Clock implements Closeable {
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    /**
+     * Starts a UTC clock refreshed every millisecond.
+     */
+    public CoarseClock() {
+        this(1);
+    }
+
+    /**
+     * Starts a UTC clock refreshed at the given interval.
+     *
+     * @param tickMillis the refresh interval in milliseconds, must be positive
+     * @throws IllegalArgumentException if tickMillis is not positive
+     */
+    public CoarseClock(long tickMillis) {
+        this(new Ticker(tickMillis), ZoneOffset.UTC);
+    }
+
+    private CoarseClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.now;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.now);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public CoarseClock withZone(ZoneId zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException("Zone cannot be null");
+        }
+        return zone.equals(this.zone) ? this : new CoarseClock(ticker, zone);
+    }
+
+    /**
+     * Stops the background ticker.
+     */
+    @Override
+    public void close() {
+        ticker.executor.shutdown();
+    }
+
+    /**
+     * Background thread that republishes the system time.
+     */
+    private static final class Ticker {
+        private final ScheduledExecutorService executor;
+        private volatile long now = System.currentTimeMillis();
+
+        Ticker(long tickMillis) {
+            if (tickMillis <= 0) {
+                throw new IllegalArgumentException("Tick interval must be positive");
+            }
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "coarse-clock");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(() -> now = System.currentTimeMillis(), tickMillis, tickMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package edu.snhu;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * Concurrent hash map from primitive long keys to object values.
+ * Keys are spread across independently locked segments; each segment stores its
+ * entries in parallel long[] / Object[] arrays with linear probing, so an entry
+ * costs two array slots instead of a boxed key plus a node object.
+ * Reads are lock-free in the common case (optimistic StampedLock reads) and writes
+ * lock only their segment. A write holds the segment's writer lock while its function
+ * runs, which serializes writers, but takes the lock readers validate against only for
+ * the few array stores that apply the result, so a slow function (the services log,
+ * index and publish inside theirs) never makes readers of the segment wait.
+ * The key 0 is reserved as the empty-slot marker and cannot be stored.
+ *
+ * @param <V> the value type
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class ConcurrentLongMap<V> {
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final Segment<V>[] segments;
+    private final int segmentMask;
+
+    /**
+     * Creates an empty map sized for the machine's parallelism.
+     */
+    ConcurrentLongMap() {
+        this(Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())) * 16);
+    }
+
+    /**
+     * Creates an empty map with the given number of segments.
+     *
+     * @param segmentCount the number of segments, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    ConcurrentLongMap(int segmentCount) {
+        int count = segmentCount <= 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        this.segments = (Segment<V>[]) new Segment<?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>();
+        }
+        this.segmentMask = count - 1;
+    }
+
+    /**
+     * Returns the value mapped to the key, or null.
+     *
+     * @param key the key, must not be 0
+     * @return the mapped value or null
+     */
+    V get(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Maps the key to the value, replacing any existing mapping.
+     *
+     * @param key the key, must not be 0
+     * @param value the value, must not be null
+     * @return the previous value or null
+     */
+    V put(long key, V value) {
+        return compute(key, (k, existing) -> value);
+    }
+
+    /**
+     * Maps the key to the value unless it is already mapped.
+     *
+     * @param key the key, must not be 0
+     * @param value the value, must not be null
+     * @return the existing value, or null if the value was stored
+     */
+    V putIfAbsent(long key, V value) {
+        requireKey(key);
+        long hash = hash(key);
+        Segment<V> segment = segmentFor(hash);
+        V existing = segment.get(key, hash);
+        if (existing != null) {
+            return existing;
+        }
+        return segment.update(key, hash, (k, current) -> current != null ? current : value, false);
+    }
+
+    /**
+     * Removes the mapping for the key.
+     *
+     * @param key the key
+     * @return the removed value or null
+     */
+    V remove(long key) {
+        long hash = hash(key);
+        return segmentFor(hash).update(key, hash, (k, existing) -> null, false);
+    }
+
+    /**
+     * Atomically computes the value for the key while holding its segment's writer lock.
+     * A null result removes the mapping. The function runs exactly once; reads of the
+     * segment do not wait for it.
+     *
+     * @param key the key, must not be 0
+     * @param function computes the new value from the key and the current value (null if absent)
+     * @return the previous value or null
+     */
+    V compute(long key, LongBiFunction<V> function) {
+        requireKey(key);
+        long hash = hash(key);
+        return segmentFor(hash).update(key, hash, function, false);
+    }
+
+    /**
+     * Atomically computes the value for the key if it is absent.
+     *
+     * @param key the key, must not be 0
+     * @param function computes the value; a null result stores nothing
+     * @return the current (existing or computed) value, or null
+     */
+    V computeIfAbsent(long key, LongFunction<V> function) {
+        requireKey(key);
+        long hash = hash(key);
+        Segment<V> segment = segmentFor(hash);
+        V existing = segment.get(key, hash);
+        if (existing != null) {
+            return existing;
+        }
+        Object[] result = new Object[1];
+        segment.update(key, hash, (k, current) -> {
+            V value = current != null ? current : function.apply(k);
+            result[0] = value;
+            return value;
+        }, false);
+        @SuppressWarnings("unchecked")
+        V value = (V) result[0];
+        return value;
+    }
+
+    /**
+     * Atomically recomputes the value for the key if it is present.
+     *
+     * @param key the key
+     * @param function computes the new value; a null result removes the mapping
+     * @return the new value, or null if absent or removed
+     */
+    V computeIfPresent(long key, LongBiFunction<V> function) {
+        long hash = hash(key);
+        Object[] result = new Object[1];
+        segmentFor(hash).update(key, hash, (k, current) -> {
+            V value = function.applyLong(k, current);
+            result[0] = value;
+            return value;
+        }, true);
+        @SuppressWarnings("unchecked")
+        V value = (V) result[0];
+        return value;
+    }
+
+    /**
+     * Returns the number of mappings. Weakly consistent under concurrent updates.
+     *
+     * @return the mapping count
+     */
+    int size() {
+        long total = 0;
+        for (Segment<V> segment : segments) {
+            total += segment.size;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes every mapping.
+     */
+    void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Visits every mapping, one segment at a time. Each segment is visited under its read
+     * lock, so the action must not modify this map.
+     *
+     * @param action receives each key and value
+     */
+    void forEach(LongEntryConsumer<V> action) {
+        for (Segment<V> segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        // Slots index with the low hash bits, so segments take the high ones
+        return segments[(int) (hash >>> 40) & segmentMask];
+    }
+
+    private static long hash(long key) {
+        long h = key * GOLDEN;
+        return h ^ (h >>> 29);
+    }
+
+    private static void requireKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+
+    /**
+     * Function of a long key and the current value.
+     *
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    interface LongBiFunction<V> {
+        V applyLong(long key, V value);
+    }
+
+    /**
+     * Receives one key and value of the map.
+     *
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    interface LongEntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * The arrays of one segment, replaced as a whole on resize and clear so that a
+     * reader holding one table always sees keys and values of the same length.
+     */
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    /**
+     * One independently locked open-addressing table.
+     * Writers hold writerLock for the whole update; the StampedLock is write-locked only
+     * around changes to the arrays, which is what optimistic readers validate against.
+     */
+    private static final class Segment<V> {
+        private final ReentrantLock writerLock = new ReentrantLock();
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(MIN_SEGMENT_CAPACITY);
+        private volatile int size;
+
+        V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                V value = find(table, key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> V find(Table table, long key, long hash) {
+            long[] keys = table.keys;
+            int mask = keys.length - 1;
+            // A torn optimistic read can see a full table; bound the probe by capacity
+            for (int i = (int) hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                long k = keys[i];
+                if (k == key) {
+                    return (V) table.values[i];
+                }
+                if (k == 0) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Applies the function to the key's slot under the writer lock.
+         *
+         * @return the previous value or null
+         */
+        V update(long key, long hash, LongBiFunction<V> function, boolean onlyIfPresent) {
+            writerLock.lock();
+            try {
+                V previous = find(table, key, hash);
+                if (previous == null && (onlyIfPresent || key == 0)) {
+                    return null;
+                }
+                V next = function.applyLong(key, previous);
+                if (next == previous) {
+                    return previous;
+                }
+                long stamp = lock.writeLock();
+                try {
+                    store(key, hash, next);
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                return previous;
+            } finally {
+                writerLock.unlock();
+            }
+        }
+
+        /**
+         * Writes the function's result into the table, under both locks.
+         * The slot is looked up again because a reentrant update from inside the
+         * function may have moved entries.
+         */
+        private void store(long key, long hash, V next) {
+            Table current = table;
+            long[] keys = current.keys;
+            int mask = keys.length - 1;
+            int i = (int) hash & mask;
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            boolean present = keys[i] == key;
+            if (next == null) {
+                if (present) {
+                    delete(current, i);
+                    size--;
+                }
+            } else if (present) {
+                current.values[i] = next;
+            } else {
+                keys[i] = key;
+                current.values[i] = next;
+                size++;
+                if (size * 4 > keys.length * 3) {
+                    resize(current);
+                }
+            }
+        }
+
+        /**
+         * Removes slot i and shifts later entries of the same probe run back (no tombstones).
+         */
+        private static void delete(Table table, int i) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            int hole = i;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                long k = keys[j];
+                if (k == 0) {
+                    break;
+                }
+                int home = (int) hash(k) & mask;
+                // Move k into the hole unless its home lies cyclically in (hole, j]
+                boolean stays = hole <= j ? (hole < home && home <= j) : (hole < home || home <= j);
+                if (!stays) {
+                    keys[hole] = k;
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = null;
+        }
+
+        private void resize(Table old) {
+            Table resized = new Table(old.keys.length * 2);
+            int mask = resized.keys.length - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                long k = old.keys[i];
+                if (k != 0) {
+                    int j = (int) hash(k) & mask;
+                    while (resized.keys[j] != 0) {
+                        j = (j + 1) & mask;
+                    }
+                    resized.keys[j] = k;
+                    resized.values[j] = old.values[i];
+                }
+            }
+            table = resized;
+        }
+
+        void clear() {
+            writerLock.lock();
+            try {
+                long stamp = lock.writeLock();
+                try {
+                    table = new Table(MIN_SEGMENT_CAPACITY);
+                    size = 0;
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            } finally {
+                writerLock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEach(LongEntryConsumer<V> action) {
+            long stamp = lock.readLock();
+            try {
+                Table current = table;
+                for (int i = 0; i < current.keys.length; i++) {
+                    if (current.keys[i] != 0) {
+                        action.accept(current.keys[i], (V) current.values[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
@@ -4,6 +4,12 @@ package edu.snhu;
  * Represents a contact with validation for CS320 requirements.
  * Contains immutable contact ID and mutable personal information fields.
  * All fields have strict validation rules to ensure data integrity.
+ * Once ContactService stores a contact it becomes a read-only snapshot: its setters
+ * throw, and updates go through the service, which replaces the snapshot with an edited
+ * copy. A contact returned by ContactService can therefore be read from any thread
+ * without locking and cannot be changed behind the service's write-ahead log, indexes
+ * or change feed.
+ * While {@link StringPool} is enabled, equal names and addresses share one instance.
  * 
  * @author Rick Goshen
  * @version 1.0
@@ -14,66 +20,24 @@ public class Contact {
     private String lastName;
     private String phone;
     private String address;
-
-    /**
-     * Validates contact ID according to CS320 requirements.
-     * 
-     * @param contactId the contact ID to validate
-     * @throws IllegalArgumentException if contactId is null or exceeds 10 characters
-     */
-    private static void validateContactId(String contactId) {
-        if (contactId == null || contactId.length() > 10) {
-            throw new IllegalArgumentException("Contact ID cannot be null and must be 10 characters or less");
-        }
-    }
-
-    /**
-     * Validates first name according to CS320 requirements.
-     * 
-     * @param firstName the first name to validate
-     * @throws IllegalArgumentException if firstName is null or exceeds 10 characters
-     */
-    private static void validateFirstName(String firstName) {
-        if (firstName == null || firstName.length() > 10) {
-            throw new IllegalArgumentException("First name cannot be null and must be 10 characters or less");
-        }
-    }
-
-    /**
-     * Validates last name according to CS320 requirements.
-     * 
-     * @param lastName the last name to validate
-     * @throws IllegalArgumentException if lastName is null or exceeds 10 characters
-     */
-    private static void validateLastName(String lastName) {
-        if (lastName == null || lastName.length() > 10) {
-            throw new IllegalArgumentException("Last name cannot be null and must be 10 characters or less");
-        }
-    }
-
-    /**
-     * Validates phone number according to CS320 requirements.
-     * 
-     * @param phone the phone number to validate
-     * @throws IllegalArgumentException if phone is null, not 10 characters, or contains non-digits
-     */
-    private static void validatePhone(String phone) {
-        if (phone == null || phone.length() != 10 || !phone.matches("\\d{10}")) {
-            throw new IllegalArgumentException("Phone number cannot be null and must be exactly 10 digits");
-        }
-    }
-
-    /**
-     * Validates address according to CS320 requirements.
-     * 
-     * @param address the address to validate
-     * @throws IllegalArgumentException if address is null or exceeds 30 characters
-     */
-    private static void validateAddress(String address) {
-        if (address == null || address.length() > 30) {
-            throw new IllegalArgumentException("Address cannot be null and must be 30 characters or less");
-        }
-    }
+    // Set once a service stores the contact; read only by the setters
+    private boolean readOnly;
+
+    /** Contact ID: not null, max 10 characters. */
+    static final FieldConstraint CONTACT_ID = FieldConstraint
+            .required("Contact ID cannot be null and must be 10 characters or less").maxLength(10);
+    /** First name: not null, max 10 characters. */
+    static final FieldConstraint FIRST_NAME = FieldConstraint
+            .required("First name cannot be null and must be 10 characters or less").maxLength(10);
+    /** Last name: not null, max 10 characters. */
+    static final FieldConstraint LAST_NAME = FieldConstraint
+            .required("Last name cannot be null and must be 10 characters or less").maxLength(10);
+    /** Phone: not null, exactly 10 ASCII digits. */
+    static final FieldConstraint PHONE = FieldConstraint
+            .required("Phone number cannot be null and must be exactly 10 digits").exactLength(10).digitsOnly();
+    /** Address: not null, max 30 characters. */
+    static final FieldConstraint ADDRESS = FieldConstraint
+            .required("Address cannot be null and must be 30 characters or less").maxLength(30);
 
     /**
      * Constructs a new Contact with all required fields.
@@ -87,17 +51,36 @@ public class Contact {
      * @throws IllegalArgumentException if any parameter violates validation rules
      */
     public Contact(String contactId, String firstName, String lastName, String phone, String address) {
-        validateContactId(contactId);
-        validateFirstName(firstName);
-        validateLastName(lastName);
-        validatePhone(phone);
-        validateAddress(address);
+        CONTACT_ID.validate(contactId);
+        FIRST_NAME.validate(firstName);
+        LAST_NAME.validate(lastName);
+        PHONE.validate(phone);
+        ADDRESS.validate(address);
 
         this.contactId = contactId;
-        this.firstName = firstName;
-        this.lastName = lastName;
+        this.firstName = StringPool.dedup(firstName);
+        this.lastName = StringPool.dedup(lastName);
         this.phone = phone;
-        this.address = address;
+        this.address = StringPool.dedup(address);
+    }
+
+    /**
+     * Makes this contact a read-only snapshot. Called by the services before they store it.
+     *
+     * @return this contact
+     */
+    Contact freeze() {
+        readOnly = true;
+        return this;
+    }
+
+    /**
+     * Returns whether this contact is a read-only snapshot held by a ContactService.
+     * 
+     * @return true if the setters reject every change
+     */
+    public boolean isReadOnly() {
+        return readOnly;
     }
 
     /**
@@ -151,10 +134,12 @@ public class Contact {
      * 
      * @param firstName the new first name, max 10 characters, not null
      * @throws IllegalArgumentException if firstName is null or exceeds 10 characters
+     * @throws IllegalStateException if the contact is a read-only snapshot
      */
     public void setFirstName(String firstName) {
-        validateFirstName(firstName);
-        this.firstName = firstName;
+        checkWritable();
+        FIRST_NAME.validate(firstName);
+        this.firstName = StringPool.dedup(firstName);
     }
 
     /**
@@ -162,10 +147,12 @@ public class Contact {
      * 
      * @param lastName the new last name, max 10 characters, not null
      * @throws IllegalArgumentException if lastName is null or exceeds 10 characters
+     * @throws IllegalStateException if the contact is a read-only snapshot
      */
     public void setLastName(String lastName) {
-        validateLastName(lastName);
-        this.lastName = lastName;
+        checkWritable();
+        LAST_NAME.validate(lastName);
+        this.lastName = StringPool.dedup(lastName);
     }
 
     /**
@@ -173,9 +160,11 @@ public class Contact {
      * 
      * @param phone the new phone number, exactly 10 digits, not null
      * @throws IllegalArgumentException if phone is null, not 10 characters, or contains non-digits
+     * @throws IllegalStateException if the contact is a read-only snapshot
      */
     public void setPhone(String phone) {
-        validatePhone(phone);
+        checkWritable();
+        PHONE.validate(phone);
         this.phone = phone;
     }
 
@@ -184,9 +173,17 @@ public class Contact {
      * 
      * @param address the new address, max 30 characters, not null
      * @throws IllegalArgumentException if address is null or exceeds 30 characters
+     * @throws IllegalStateException if the contact is a read-only snapshot
      */
     public void setAddress(String address) {
-        validateAddress(address);
-        this.address = address;
+        checkWritable();
+        ADDRESS.validate(address);
+        this.address = StringPool.dedup(address);
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("Contact is stored by a ContactService; update it through the service");
+        }
     }
 }
\ No newline at end of file
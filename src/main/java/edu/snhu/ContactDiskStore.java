@@ -0,0 +1,653 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Disk-resident contact storage with a bounded in-memory cache of hot contacts.
+ * Contacts live in an append-only file of checksummed records: every add or update
+ * appends the whole contact and every delete appends a tombstone. The heap holds
+ * only the file offset of each contact's latest record, keyed by packed ID, plus at
+ * most cacheCapacity contacts in a W-TinyLFU cache (see TinyLfuCache), so lookups
+ * of hot IDs are served from memory and the rest cost one positional read.
+ * Updates leave dead records behind; {@link #compact()} rewrites the file with only
+ * the live ones. Appended records are forced to disk by {@link #sync()} and on close.
+ * Attach the store to a service with {@link ContactService#withDiskStore(ContactDiskStore)};
+ * the caller keeps ownership of it and closes it when the service is no longer used.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class ContactDiskStore implements Closeable {
+    private static final byte OP_PUT = 0;
+    private static final byte OP_DELETE = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    // Large enough for any record: five fields of at most 30 chars, 3 UTF-8 bytes each
+    private static final int MAX_RECORD_BYTES = 1024;
+    private static final int SCAN_BUFFER_BYTES = 1 << 20;
+
+    private final Path file;
+    private final PackedIdMap<Long> offsets = new PackedIdMap<>();
+    private final TinyLfuCache<Contact> cache;
+    // Held shared by every file access and exclusively by compact(), which swaps the file
+    private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private final ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + MAX_RECORD_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private FileChannel channel;
+    private long end;
+    private boolean attached;
+
+    /**
+     * Opens or creates a store file and indexes the contacts it holds.
+     * A torn or corrupt tail left by a crash is truncated.
+     *
+     * @param file the store file
+     * @param cacheCapacity the maximum number of contacts kept in memory, must be positive
+     * @throws IOException if the file cannot be opened or read
+     * @throws IllegalArgumentException if file is null or cacheCapacity is not positive
+     */
+    public ContactDiskStore(Path file, int cacheCapacity) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Store file cannot be null");
+        }
+        if (cacheCapacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.file = file;
+        this.cache = new TinyLfuCache<>(cacheCapacity);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            index();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of lookups answered from memory.
+     *
+     * @return the cache hit count
+     */
+    public long getHitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * Gets the number of lookups that had to go to disk or found no contact.
+     *
+     * @return the cache miss count
+     */
+    public long getMissCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * Gets the share of lookups answered from memory.
+     *
+     * @return hits divided by lookups, from 0 to 1; 0 if nothing was looked up
+     */
+    public double getHitRate() {
+        long hits = cache.hitCount();
+        long lookups = hits + cache.missCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the number of contacts evicted from memory to stay within the capacity,
+     * including new contacts the cache declined to admit.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.evictionCount();
+    }
+
+    /**
+     * Gets the number of contacts currently held in memory.
+     *
+     * @return the cached contact count, at most the cache capacity
+     */
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the maximum number of contacts held in memory.
+     *
+     * @return the cache capacity
+     */
+    public int getCacheCapacity() {
+        return cache.capacity();
+    }
+
+    /**
+     * Gets the current size of the store file, dead records included.
+     *
+     * @return the file size in bytes
+     */
+    public long getFileBytes() {
+        fileLock.readLock().lock();
+        try {
+            synchronized (this) {
+                return end;
+            }
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the store file with only the latest record of each live contact,
+     * reclaiming the space of updated and deleted ones. The new file replaces the old
+     * one atomically. Blocks every operation except cached lookups while it runs.
+     *
+     * @throws UncheckedIOException if the new file cannot be written
+     */
+    public void compact() {
+        fileLock.writeLock().lock();
+        try {
+            Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+            List<Map.Entry<String, Long>> live = new ArrayList<>(offsets.entrySet());
+            long[] moved = new long[live.size()];
+            FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long position = 0;
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + MAX_RECORD_BYTES);
+                for (int i = 0; i < moved.length; i++) {
+                    readRecord(live.get(i).getValue(), buffer);
+                    buffer.rewind();
+                    moved[i] = position;
+                    while (buffer.hasRemaining()) {
+                        position += target.write(buffer, position);
+                    }
+                }
+                target.force(false);
+                Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                target.close();
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+            channel.close();
+            channel = target;
+            synchronized (this) {
+                end = position;
+            }
+            for (int i = 0; i < moved.length; i++) {
+                offsets.put(live.get(i).getKey(), moved[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces every appended record to stable storage.
+     *
+     * @throws UncheckedIOException if the force fails
+     */
+    public void sync() {
+        fileLock.readLock().lock();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces pending records to disk and closes the file.
+     *
+     * @throws IOException if the final force or close fails
+     */
+    @Override
+    public void close() throws IOException {
+        fileLock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hands the store's contacts to a ContactService as its storage.
+     *
+     * @return a map view that reads through the cache and writes through to the file
+     * @throws IllegalStateException if the store is already attached to a service
+     */
+    synchronized ConcurrentMap<String, Contact> attach() {
+        if (attached) {
+            throw new IllegalStateException("Contact disk store is already attached to a ContactService");
+        }
+        attached = true;
+        return new View();
+    }
+
+    /**
+     * Scans the file from the start, pointing each ID at its latest record.
+     */
+    private void index() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long validEnd = 0;
+        long readPosition = 0;
+        boolean intact = true;
+        while (intact) {
+            int read = channel.read(buffer, readPosition);
+            if (read > 0) {
+                readPosition += read;
+            }
+            buffer.flip();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    intact = false;
+                    break;
+                }
+                if (buffer.remaining() < length) {
+                    buffer.position(start);
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.array(), buffer.position(), length);
+                if ((int) crc.getValue() != checksum) {
+                    intact = false;
+                    break;
+                }
+                int next = buffer.position() + length;
+                byte op = buffer.get();
+                String contactId = getString(buffer);
+                if (op == OP_PUT) {
+                    offsets.put(contactId, validEnd);
+                } else if (op == OP_DELETE) {
+                    offsets.remove(contactId);
+                } else {
+                    throw new IOException("Unknown contact store operation: " + op);
+                }
+                buffer.position(next);
+                validEnd += HEADER_BYTES + length;
+            }
+            buffer.compact();
+            if (read <= 0) {
+                break;
+            }
+        }
+        if (validEnd < channel.size()) {
+            channel.truncate(validEnd);
+        }
+        end = validEnd;
+    }
+
+    /**
+     * Reads the contact stored at an offset. Callers hold the file lock.
+     */
+    private Contact read(long offset) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + MAX_RECORD_BYTES);
+        readRecord(offset, buffer);
+        buffer.position(HEADER_BYTES + 1);
+        return new Contact(getString(buffer), getString(buffer), getString(buffer), getString(buffer),
+                getString(buffer)).freeze();
+    }
+
+    /**
+     * Reads a whole record, header included, into a buffer and flips it.
+     * Callers hold the file lock.
+     */
+    private void readRecord(long offset, ByteBuffer buffer) {
+        try {
+            buffer.clear().limit(HEADER_BYTES);
+            readFully(buffer, offset);
+            buffer.limit(HEADER_BYTES + buffer.getInt(0));
+            readFully(buffer, offset);
+            buffer.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        long position = offset + buffer.position();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Contact store record at " + offset + " is truncated");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Appends a record for a stored contact. Callers hold the file lock.
+     *
+     * @return the offset of the new record
+     */
+    private synchronized long appendPut(Contact contact) {
+        begin(OP_PUT);
+        putString(contact.getContactId());
+        putString(contact.getFirstName());
+        putString(contact.getLastName());
+        putString(contact.getPhone());
+        putString(contact.getAddress());
+        return commit();
+    }
+
+    /**
+     * Appends a tombstone for a deleted contact. Callers hold the file lock.
+     */
+    private synchronized void appendDelete(String contactId) {
+        begin(OP_DELETE);
+        putString(contactId);
+        commit();
+    }
+
+    private void begin(byte op) {
+        record.clear();
+        record.position(HEADER_BYTES);
+        record.put(op);
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        record.putShort((short) bytes.length);
+        record.put(bytes);
+    }
+
+    private long commit() {
+        int length = record.position() - HEADER_BYTES;
+        crc.reset();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        record.flip();
+        long offset = end;
+        try {
+            while (record.hasRemaining()) {
+                end += channel.write(record, end);
+            }
+        } catch (IOException e) {
+            end = offset;
+            throw new UncheckedIOException(e);
+        }
+        return offset;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private <T> T withFile(Supplier<T> action) {
+        fileLock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * ConcurrentMap over the store, used as a ContactService's storage.
+     * Every mutation runs inside the offset map's per-ID compute, which appends to the
+     * file and updates the cache before the new offset becomes visible. A miss reads the
+     * file without the per-ID lock and then fills the cache under it only if the contact's
+     * offset is unchanged, so a lookup racing an update can never put the older contact
+     * back in the cache. Values read from disk are new instances, so two reads of an
+     * uncached contact are equal in content but not identical.
+     */
+    private final class View extends AbstractMap<String, Contact> implements ConcurrentMap<String, Contact> {
+
+        @Override
+        public Contact get(Object key) {
+            if (!(key instanceof String contactId)) {
+                return null;
+            }
+            Contact cached = cache.get(contactId);
+            if (cached != null) {
+                return cached;
+            }
+            return withFile(() -> {
+                Long offset = offsets.get(contactId);
+                if (offset == null) {
+                    return null;
+                }
+                // Read outside the per-ID lock so a slow disk never holds up writers of this ID
+                Contact[] loaded = {read(offset)};
+                offsets.computeIfPresent(contactId, (id, current) -> {
+                    // Cache only if no update moved the contact meanwhile; otherwise the read just overlapped it
+                    if (current.equals(offset)) {
+                        Contact cachedMeanwhile = cache.peek(id);
+                        if (cachedMeanwhile != null) {
+                            loaded[0] = cachedMeanwhile;
+                        } else {
+                            cache.put(id, loaded[0]);
+                        }
+                    }
+                    return current;
+                });
+                return loaded[0];
+            });
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return offsets.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return offsets.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return offsets.isEmpty();
+        }
+
+        @Override
+        public Contact computeIfAbsent(String key, Function<? super String, ? extends Contact> function) {
+            Contact[] added = new Contact[1];
+            Long offset = withFile(() -> offsets.computeIfAbsent(key, id -> {
+                Contact contact = function.apply(id);
+                if (contact == null) {
+                    return null;
+                }
+                long written = appendPut(contact);
+                cache.put(id, contact);
+                added[0] = contact;
+                return written;
+            }));
+            if (offset == null) {
+                return null;
+            }
+            return added[0] != null ? added[0] : get(key);
+        }
+
+        @Override
+        public Contact computeIfPresent(String key,
+                BiFunction<? super String, ? super Contact, ? extends Contact> function) {
+            return update(key, (id, current) -> current == null ? null : function.apply(id, current))[1];
+        }
+
+        @Override
+        public Contact compute(String key, BiFunction<? super String, ? super Contact, ? extends Contact> function) {
+            return update(key, function)[1];
+        }
+
+        @Override
+        public Contact put(String key, Contact value) {
+            requireValue(value);
+            return update(key, (id, current) -> value)[0];
+        }
+
+        @Override
+        public Contact putIfAbsent(String key, Contact value) {
+            requireValue(value);
+            return update(key, (id, current) -> current != null ? current : value)[0];
+        }
+
+        @Override
+        public Contact remove(Object key) {
+            if (!(key instanceof String contactId)) {
+                return null;
+            }
+            return update(contactId, (id, current) -> null)[0];
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            if (!(key instanceof String contactId) || value == null) {
+                return false;
+            }
+            Contact[] result = update(contactId, (id, current) -> value.equals(current) ? null : current);
+            return result[0] != null && result[1] == null;
+        }
+
+        @Override
+        public boolean replace(String key, Contact oldValue, Contact newValue) {
+            requireValue(newValue);
+            Contact[] result = update(key, (id, current) -> current != null && current.equals(oldValue)
+                    ? newValue : current);
+            return result[1] == newValue && result[0] != newValue;
+        }
+
+        @Override
+        public Contact replace(String key, Contact value) {
+            requireValue(value);
+            return update(key, (id, current) -> current != null ? value : null)[0];
+        }
+
+        @Override
+        public Set<Map.Entry<String, Contact>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, Contact>> iterator() {
+                    return new Scan(new ArrayList<>(offsets.keySet()).iterator());
+                }
+
+                @Override
+                public int size() {
+                    return offsets.size();
+                }
+            };
+        }
+
+        /**
+         * Applies a compute function under the per-ID lock and writes the result through.
+         *
+         * @return the previous and the new value
+         */
+        private Contact[] update(String key, BiFunction<? super String, ? super Contact, ? extends Contact> function) {
+            Contact[] result = new Contact[2];
+            withFile(() -> offsets.compute(key, (id, offset) -> {
+                Contact current = null;
+                if (offset != null) {
+                    current = cache.peek(id);
+                    if (current == null) {
+                        current = read(offset);
+                    }
+                }
+                Contact next = function.apply(id, current);
+                result[0] = current;
+                result[1] = next;
+                if (next == null) {
+                    if (offset != null) {
+                        appendDelete(id);
+                        cache.invalidate(id);
+                    }
+                    return null;
+                }
+                if (next == current) {
+                    return offset;
+                }
+                long written = appendPut(next);
+                cache.put(id, next);
+                return written;
+            }));
+            return result;
+        }
+
+        private static void requireValue(Object value) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over a snapshot of the stored IDs. Contacts are
+     * loaded one at a time as the scan reaches them, from the cache if present and
+     * otherwise from disk without being admitted, so a scan does not disturb the cache.
+     */
+    private final class Scan implements Iterator<Map.Entry<String, Contact>> {
+        private final Iterator<String> ids;
+        private Map.Entry<String, Contact> next;
+
+        Scan(Iterator<String> ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && ids.hasNext()) {
+                String id = ids.next();
+                Contact contact = cache.peek(id);
+                if (contact == null) {
+                    contact = withFile(() -> {
+                        Long offset = offsets.get(id);
+                        return offset == null ? null : read(offset);
+                    });
+                }
+                if (contact != null) {
+                    next = new AbstractMap.SimpleImmutableEntry<>(id, contact);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, Contact> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, Contact> entry = next;
+            next = null;
+            return entry;
+        }
+    }
+}
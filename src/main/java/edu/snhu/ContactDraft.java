@@ -0,0 +1,136 @@
+package edu.snhu;
+
+/**
+ * Editable copy of a stored contact, handed to {@link ContactService#updateContact}.
+ * Every setter validates its value immediately and returns the draft, so several
+ * field changes chain into one edit. The contact ID cannot be changed.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class ContactDraft {
+    private final String contactId;
+    private String firstName;
+    private String lastName;
+    private String phone;
+    private String address;
+
+    /**
+     * Constructs a draft holding the current values of a contact.
+     *
+     * @param contact the contact to copy
+     */
+    ContactDraft(Contact contact) {
+        this.contactId = contact.getContactId();
+        this.firstName = contact.getFirstName();
+        this.lastName = contact.getLastName();
+        this.phone = contact.getPhone();
+        this.address = contact.getAddress();
+    }
+
+    /**
+     * Gets the ID of the contact being edited.
+     *
+     * @return the contact ID
+     */
+    public String getContactId() {
+        return contactId;
+    }
+
+    /**
+     * Gets the drafted first name.
+     *
+     * @return the first name
+     */
+    public String getFirstName() {
+        return firstName;
+    }
+
+    /**
+     * Gets the drafted last name.
+     *
+     * @return the last name
+     */
+    public String getLastName() {
+        return lastName;
+    }
+
+    /**
+     * Gets the drafted phone number.
+     *
+     * @return the phone number
+     */
+    public String getPhone() {
+        return phone;
+    }
+
+    /**
+     * Gets the drafted address.
+     *
+     * @return the address
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Sets the first name with validation.
+     *
+     * @param firstName the new first name, max 10 characters, not null
+     * @return this draft
+     * @throws IllegalArgumentException if firstName is null or exceeds 10 characters
+     */
+    public ContactDraft setFirstName(String firstName) {
+        Contact.FIRST_NAME.validate(firstName);
+        this.firstName = firstName;
+        return this;
+    }
+
+    /**
+     * Sets the last name with validation.
+     *
+     * @param lastName the new last name, max 10 characters, not null
+     * @return this draft
+     * @throws IllegalArgumentException if lastName is null or exceeds 10 characters
+     */
+    public ContactDraft setLastName(String lastName) {
+        Contact.LAST_NAME.validate(lastName);
+        this.lastName = lastName;
+        return this;
+    }
+
+    /**
+     * Sets the phone number with validation.
+     *
+     * @param phone the new phone number, exactly 10 digits, not null
+     * @return this draft
+     * @throws IllegalArgumentException if phone is null, not 10 characters, or contains non-digits
+     */
+    public ContactDraft setPhone(String phone) {
+        Contact.PHONE.validate(phone);
+        this.phone = phone;
+        return this;
+    }
+
+    /**
+     * Sets the address with validation.
+     *
+     * @param address the new address, max 30 characters, not null
+     * @return this draft
+     * @throws IllegalArgumentException if address is null or exceeds 30 characters
+     */
+    public ContactDraft setAddress(String address) {
+        Contact.ADDRESS.validate(address);
+        this.address = address;
+        return this;
+    }
+
+    /**
+     * Creates a read-only contact holding the drafted values.
+     *
+     * @return a new read-only contact
+     */
+    Contact toContact() {
+        return new Contact(contactId, firstName, lastName, phone, address).freeze();
+    }
+}
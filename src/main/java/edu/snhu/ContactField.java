@@ -0,0 +1,91 @@
+package edu.snhu;
+
+/**
+ * The editable fields of a Contact.
+ * Lets ContactService route every single-field update through one code path
+ * and compare a contact with its edited copy field by field, and gives each
+ * field a stable code for persistence.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+enum ContactField {
+    FIRST_NAME {
+        @Override
+        String get(Contact contact) {
+            return contact.getFirstName();
+        }
+
+        @Override
+        Contact with(Contact contact, String value) {
+            return new ContactDraft(contact).setFirstName(value).toContact();
+        }
+    },
+    LAST_NAME {
+        @Override
+        String get(Contact contact) {
+            return contact.getLastName();
+        }
+
+        @Override
+        Contact with(Contact contact, String value) {
+            return new ContactDraft(contact).setLastName(value).toContact();
+        }
+    },
+    PHONE {
+        @Override
+        String get(Contact contact) {
+            return contact.getPhone();
+        }
+
+        @Override
+        Contact with(Contact contact, String value) {
+            return new ContactDraft(contact).setPhone(value).toContact();
+        }
+    },
+    ADDRESS {
+        @Override
+        String get(Contact contact) {
+            return contact.getAddress();
+        }
+
+        @Override
+        Contact with(Contact contact, String value) {
+            return new ContactDraft(contact).setAddress(value).toContact();
+        }
+    };
+
+    private static final ContactField[] VALUES = values();
+
+    /**
+     * Reads this field from a contact.
+     *
+     * @param contact the contact to read
+     * @return the field's current value
+     */
+    abstract String get(Contact contact);
+
+    /**
+     * Builds a copy of a contact with this field changed, applying the contact's validation.
+     *
+     * @param contact the contact to copy, which is left unchanged
+     * @param value the new value
+     * @return the edited copy
+     * @throws IllegalArgumentException if the value is invalid for this field
+     */
+    abstract Contact with(Contact contact, String value);
+
+    /**
+     * Looks up a field by its persisted code.
+     *
+     * @param code the value returned by {@link #ordinal()} when the field was written
+     * @return the field
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    static ContactField fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown contact field code: " + code);
+        }
+        return VALUES[code];
+    }
+}
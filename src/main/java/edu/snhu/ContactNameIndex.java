@@ -0,0 +1,155 @@
+package edu.snhu;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Case-insensitive prefix index over contact first and last names.
+ * Each contact has one entry per name in a sorted concurrent map, keyed by the
+ * lowercased name followed by the contact ID and field, so a prefix search is a
+ * range scan that stops after limit matches regardless of how many contacts exist.
+ * ContactService maintains it inside the per-ID compute of every mutation.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class ContactNameIndex {
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentSkipListMap<String, Contact> byName = new ConcurrentSkipListMap<>();
+
+    /**
+     * Indexes both names of a contact.
+     *
+     * @param contact the stored contact
+     */
+    void add(Contact contact) {
+        byName.put(key(contact.getFirstName(), contact, ContactField.FIRST_NAME), contact);
+        byName.put(key(contact.getLastName(), contact, ContactField.LAST_NAME), contact);
+    }
+
+    /**
+     * Removes both names of a contact.
+     *
+     * @param contact the removed contact
+     */
+    void remove(Contact contact) {
+        byName.remove(key(contact.getFirstName(), contact, ContactField.FIRST_NAME));
+        byName.remove(key(contact.getLastName(), contact, ContactField.LAST_NAME));
+    }
+
+    /**
+     * Re-indexes a contact after it was replaced by an edited copy.
+     * The new entries are added before the old ones are removed, so a concurrent
+     * search never misses a contact that matches either name.
+     *
+     * @param previous the contact being replaced
+     * @param replacement the edited copy, with the same contact ID
+     */
+    void replace(Contact previous, Contact replacement) {
+        add(replacement);
+        removeIfRenamed(previous.getFirstName(), replacement.getFirstName(), previous, ContactField.FIRST_NAME);
+        removeIfRenamed(previous.getLastName(), replacement.getLastName(), previous, ContactField.LAST_NAME);
+    }
+
+    /**
+     * Finds contacts whose first or last name starts with the prefix, ignoring case.
+     * Results are ordered by the matching name, then contact ID, and each contact
+     * appears at most once.
+     *
+     * @param prefix the name prefix; empty matches every contact
+     * @param limit the maximum number of contacts to return
+     * @return the matching contacts
+     */
+    List<Contact> search(String prefix, int limit) {
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        List<Contact> matches = new ArrayList<>(Math.min(limit, 64));
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, Contact> entry : byName.tailMap(normalized).entrySet()) {
+            if (!entry.getKey().startsWith(normalized)) {
+                break;
+            }
+            Contact contact = entry.getValue();
+            // Skip entries a concurrent rename is about to remove
+            if (matches(contact, normalized) && seen.add(contact.getContactId())) {
+                matches.add(contact);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds contacts whose first or last name starts with the prefix by checking every
+     * contact instead of the index. Results match {@link #search(String, int)}; only
+     * the best limit matches are held at a time.
+     *
+     * @param contacts the contacts to check, each at most once
+     * @param prefix the name prefix; empty matches every contact
+     * @param limit the maximum number of contacts to return
+     * @return the matching contacts
+     */
+    static List<Contact> scan(Iterable<Contact> contacts, String prefix, int limit) {
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        Comparator<Contact> order = searchOrder(prefix);
+        PriorityQueue<Contact> best = new PriorityQueue<>(order.reversed());
+        for (Contact contact : contacts) {
+            if (matches(contact, normalized)) {
+                best.add(contact);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Contact> matches = new ArrayList<>(best);
+        matches.sort(order);
+        return matches;
+    }
+
+    /**
+     * Orders contacts the way {@link #search(String, int)} returns them, so results
+     * from several indexes can be merged.
+     *
+     * @param prefix the searched name prefix
+     * @return a comparator by matching name, then contact ID
+     */
+    static Comparator<Contact> searchOrder(String prefix) {
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        return Comparator.comparing(contact -> firstMatchingKey(contact, normalized));
+    }
+
+    private static String firstMatchingKey(Contact contact, String normalized) {
+        String first = key(contact.getFirstName(), contact, ContactField.FIRST_NAME);
+        String last = key(contact.getLastName(), contact, ContactField.LAST_NAME);
+        if (!first.startsWith(normalized)) {
+            return last;
+        }
+        return !last.startsWith(normalized) || first.compareTo(last) <= 0 ? first : last;
+    }
+
+    private static boolean matches(Contact contact, String normalized) {
+        return contact.getFirstName().toLowerCase(Locale.ROOT).startsWith(normalized)
+                || contact.getLastName().toLowerCase(Locale.ROOT).startsWith(normalized);
+    }
+
+    private void removeIfRenamed(String oldName, String newName, Contact contact, ContactField field) {
+        String oldKey = key(oldName, contact, field);
+        // An unchanged key was already overwritten to point at the replacement
+        if (!oldKey.equals(key(newName, contact, field))) {
+            byName.remove(oldKey);
+        }
+    }
+
+    private static String key(String name, Contact contact, ContactField field) {
+        return name.toLowerCase(Locale.ROOT) + SEPARATOR + contact.getContactId() + SEPARATOR + field.ordinal();
+    }
+}
@@ -0,0 +1,178 @@
+package edu.snhu;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reverse index from phone number to the IDs of the contacts that hold it.
+ * A validated phone is exactly 10 ASCII digits, so it is stored as a primitive long
+ * key in a ConcurrentLongMap. A number held by one contact maps to that contact's ID
+ * itself; a shared number maps to a concurrent set of IDs, so adding or removing one
+ * holder costs the same however many contacts share the number.
+ * Lookups resolve each ID through the contact storage and report a contact only if its
+ * stored phone is the number looked up. An entry for a new number is therefore added
+ * before the map stores the change, and the entry for the old number is dropped only
+ * after, so a contact whose phone is changing is always found under exactly one number.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class ContactPhoneIndex {
+    private static final Comparator<Contact> BY_ID = Comparator.comparing(Contact::getContactId);
+
+    // Each value is a contact ID or, for a shared number, a Set of contact IDs
+    private final ConcurrentLongMap<Object> byPhone = new ConcurrentLongMap<>();
+    private final ConcurrentMap<String, Contact> contacts;
+
+    /**
+     * Creates an empty index over the given contact storage.
+     *
+     * @param contacts the storage whose contacts are indexed, consulted by lookups
+     */
+    ContactPhoneIndex(ConcurrentMap<String, Contact> contacts) {
+        this.contacts = contacts;
+    }
+
+    /**
+     * Indexes the phone number of a contact. Called before the map stores the contact.
+     *
+     * @param contact the contact about to be stored
+     */
+    void add(Contact contact) {
+        add(contact.getPhone(), contact.getContactId());
+    }
+
+    /**
+     * Indexes the new phone number of a contact about to be replaced by an edited copy.
+     * The entry for the previous number stays until {@link #prune(String, String)} drops it.
+     *
+     * @param previous the contact being replaced
+     * @param replacement the edited copy, with the same contact ID
+     */
+    void replace(Contact previous, Contact replacement) {
+        if (!previous.getPhone().equals(replacement.getPhone())) {
+            add(replacement.getPhone(), replacement.getContactId());
+        }
+    }
+
+    /**
+     * Drops the entry of a contact under a number it no longer holds. Called after the map
+     * stores a change that moved the contact off the number or removed it. The check runs
+     * under the contact's per-ID lock, so an entry that a concurrent change has just
+     * re-added for the same number is kept.
+     *
+     * @param contactId the ID of the changed contact
+     * @param phone the number the contact held before the change
+     */
+    void prune(String contactId, String phone) {
+        contacts.compute(contactId, (id, current) -> {
+            if (current == null || !current.getPhone().equals(phone)) {
+                remove(phone, id);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Finds the contacts whose phone number is exactly the given number.
+     * Only contacts whose stored phone is the number are reported, so a contact whose phone
+     * is being changed is found under one number at a time. Results are ordered by contact ID.
+     *
+     * @param phone a 10-digit phone number
+     * @return the matching contacts
+     */
+    List<Contact> find(String phone) {
+        Object holders = byPhone.get(key(phone));
+        if (holders == null) {
+            return List.of();
+        }
+        if (holders instanceof String id) {
+            Contact contact = storedWith(id, phone);
+            return contact == null ? List.of() : List.of(contact);
+        }
+        List<Contact> matches = new ArrayList<>();
+        for (Object id : (Set<?>) holders) {
+            Contact contact = storedWith((String) id, phone);
+            if (contact != null) {
+                matches.add(contact);
+            }
+        }
+        matches.sort(BY_ID);
+        return matches;
+    }
+
+    /**
+     * Finds the contacts whose phone number is exactly the given number by checking
+     * every contact instead of the index.
+     *
+     * @param contacts the contacts to check
+     * @param phone a 10-digit phone number
+     * @return the matching contacts, in the order checked
+     */
+    static List<Contact> scan(Iterable<Contact> contacts, String phone) {
+        List<Contact> matches = new ArrayList<>();
+        for (Contact contact : contacts) {
+            if (phone.equals(contact.getPhone())) {
+                matches.add(contact);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the stored contact with an ID if it holds the phone number, skipping an entry
+     * a concurrent change has not yet stored or has not yet pruned.
+     */
+    private Contact storedWith(String contactId, String phone) {
+        Contact contact = contacts.get(contactId);
+        return contact != null && contact.getPhone().equals(phone) ? contact : null;
+    }
+
+    private void add(String phone, String contactId) {
+        byPhone.compute(key(phone), (k, holders) -> {
+            if (holders == null || holders.equals(contactId)) {
+                return contactId;
+            }
+            if (holders instanceof String only) {
+                Set<String> shared = ConcurrentHashMap.newKeySet();
+                shared.add(only);
+                shared.add(contactId);
+                return shared;
+            }
+            asSet(holders).add(contactId);
+            return holders;
+        });
+    }
+
+    private void remove(String phone, String contactId) {
+        byPhone.computeIfPresent(key(phone), (k, holders) -> {
+            if (holders instanceof String only) {
+                return only.equals(contactId) ? null : only;
+            }
+            Set<String> shared = asSet(holders);
+            shared.remove(contactId);
+            return shared.isEmpty() ? null : holders;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> asSet(Object holders) {
+        return (Set<String>) holders;
+    }
+
+    /**
+     * Packs a 10-digit phone number into a long. The result is offset by one
+     * because ConcurrentLongMap reserves the key 0.
+     */
+    private static long key(String phone) {
+        long key = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            key = key * 10 + (phone.charAt(i) - '0');
+        }
+        return key + 1;
+    }
+}
@@ -1,48 +1,179 @@
 package edu.snhu;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Contact service for managing contacts with CS320 requirements.
  * Provides CRUD operations for contacts using in-memory ConcurrentHashMap storage.
  * Enforces unique contact ID constraints and field validation.
+ * A stored contact is a read-only snapshot, so the contacts the service returns are the
+ * stored ones and cannot be changed behind its back; an update replaces a contact with an
+ * edited copy in a single swap, so readers always see a contact whose fields belong together.
+ * Every mutation runs inside the map's per-ID compute, so optional side structures
+ * such as the write-ahead log and the name and phone indexes observe changes to one
+ * contact in the order they apply, and so do the change events delivered to subscribers.
+ * The one exception is the phone index entry for a number a contact no longer holds,
+ * which is dropped under the same per-ID lock right after the map stores the change.
+ * A bulk insert is published through a {@link PublicationGate}, so readers see all of
+ * a batch or none of it. With a log forced on every operation, the force runs after the
+ * change is applied and outside every lock, and the operation returns once it completes.
  * 
  * @author Rick Goshen
  * @version 1.0
  */
 public class ContactService {
-    private final Map<String, Contact> contacts;
+    private static final ContactField[] FIELDS = ContactField.values();
+
+    private final ConcurrentMap<String, Contact> contacts;
+    private final ContactWriteAheadLog log;
+    // Null for disk-backed storage, where indexing every contact would defeat the bounded heap
+    private final ContactNameIndex nameIndex;
+    private final ContactPhoneIndex phoneIndex;
+    private final ChangeFeed<Contact> changes = new ChangeFeed<>("contact", contact -> contact);
+    private final PublicationGate gate = new PublicationGate();
+    // Indexed by Operation ordinal; null until metrics are enabled
+    private volatile OperationMetrics[] metrics;
+
+    /**
+     * Operations recorded when metrics are enabled, named after their methods.
+     */
+    private enum Operation {
+        ADD_CONTACT, TRY_ADD_CONTACT, ADD_CONTACTS, DELETE_CONTACT, TRY_DELETE_CONTACT,
+        UPDATE_FIRST_NAME, UPDATE_LAST_NAME, UPDATE_PHONE, UPDATE_ADDRESS, UPDATE_CONTACT,
+        GET_CONTACT, FIND_CONTACT, SEARCH_BY_NAME_PREFIX, FIND_CONTACTS_BY_PHONE, GET_CONTACT_COUNT
+    }
 
     /**
      * Constructs a new ContactService with empty contact storage.
      * Initializes the internal ConcurrentHashMap for contact management.
      */
     public ContactService() {
-        this.contacts = new ConcurrentHashMap<>();
+        this(new ConcurrentHashMap<>());
     }
 
     /**
-     * Validates that a contact ID is not null.
+     * Constructs a ContactService over the given empty storage.
      * 
-     * @param contactId the contact ID to validate
-     * @throws IllegalArgumentException if contactId is null
+     * @param contacts the storage to manage
      */
-    private static void validateContactId(String contactId) {
-        if (contactId == null) {
-            throw new IllegalArgumentException("Contact ID cannot be null");
+    private ContactService(ConcurrentMap<String, Contact> contacts) {
+        this.contacts = contacts;
+        this.log = null;
+        this.nameIndex = new ContactNameIndex();
+        this.phoneIndex = new ContactPhoneIndex(contacts);
+    }
+
+    /**
+     * Constructs a ContactService over the contacts of a disk store, without indexes.
+     * 
+     * @param store the store to attach to
+     */
+    private ContactService(ContactDiskStore store) {
+        this.contacts = store.attach();
+        this.log = null;
+        this.nameIndex = null;
+        this.phoneIndex = null;
+    }
+
+    /**
+     * Constructs a ContactService persisted through a write-ahead log.
+     * Replays the log to restore the contacts it recorded, then appends every
+     * subsequent add, update and delete to it. The caller keeps ownership of the log
+     * and closes it when the service is no longer used.
+     * 
+     * @param log the write-ahead log to replay and append to, must not be null
+     * @throws IllegalArgumentException if log is null
+     * @throws IllegalStateException if the log is already attached to another service
+     * @throws java.io.UncheckedIOException if the log cannot be read
+     */
+    public ContactService(ContactWriteAheadLog log) {
+        this(new ConcurrentHashMap<>(), log);
+    }
+
+    /**
+     * Constructs a ContactService over the given empty storage, restored from a write-ahead log.
+     * 
+     * @param contacts the storage to manage
+     * @param log the write-ahead log to replay and append to, must not be null
+     */
+    private ContactService(ConcurrentMap<String, Contact> contacts, ContactWriteAheadLog log) {
+        if (log == null) {
+            throw new IllegalArgumentException("Write-ahead log cannot be null");
+        }
+        this.contacts = contacts;
+        this.log = log;
+        this.nameIndex = new ContactNameIndex();
+        this.phoneIndex = new ContactPhoneIndex(contacts);
+        log.replay(contacts);
+        for (Contact contact : contacts.values()) {
+            nameIndex.add(contact);
+            phoneIndex.add(contact);
         }
     }
 
     /**
-     * Validates that a contact exists in the service.
+     * Creates a ContactService whose storage keys contacts by packed IDs.
+     * IDs of up to 10 characters from [0-9A-Za-z_-] are stored as primitive longs in
+     * open-addressed arrays, which saves a String key and a hash node per contact and
+     * makes lookups cheaper at large sizes. Other IDs are stored as Strings. Behavior is
+     * otherwise identical to {@link #ContactService()}.
+     * 
+     * @return a new empty service using packed ID storage
+     */
+    public static ContactService withPackedIds() {
+        return new ContactService(new PackedIdMap<>());
+    }
+
+    /**
+     * Creates a ContactService with packed ID storage, restored from a write-ahead log.
      * 
-     * @param contactId the contact ID to check
-     * @throws IllegalArgumentException if contact not found
+     * @param log the write-ahead log to replay and append to, must not be null
+     * @return a new service using packed ID storage
+     * @throws IllegalArgumentException if log is null
+     * @throws IllegalStateException if the log is already attached to another service
+     * @throws java.io.UncheckedIOException if the log cannot be read
+     * @see #withPackedIds()
      */
-    private void validateContactExists(String contactId) {
-        if (!contacts.containsKey(contactId)) {
-            throw new IllegalArgumentException("Contact not found");
+    public static ContactService withPackedIds(ContactWriteAheadLog log) {
+        return new ContactService(new PackedIdMap<>(), log);
+    }
+
+    /**
+     * Creates a ContactService whose contacts live in a disk store.
+     * Only the store's cache of hot contacts is held in memory, so the service can hold
+     * more contacts than fit in heap, and lookups of hot IDs stay memory-speed. Without
+     * in-memory indexes, {@link #searchByNamePrefix(String, int)} and
+     * {@link #findContactsByPhone(String)} scan the whole store. Contacts not in the
+     * cache are read from disk as new instances on every lookup.
+     * 
+     * @param store the disk store holding the contacts, must not be null
+     * @return a service over the store's contacts
+     * @throws IllegalArgumentException if store is null
+     * @throws IllegalStateException if the store is already attached to another service
+     */
+    public static ContactService withDiskStore(ContactDiskStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Contact disk store cannot be null");
+        }
+        return new ContactService(store);
+    }
+
+    /**
+     * Validates that a contact ID is not null.
+     * 
+     * @param contactId the contact ID to validate
+     * @throws IllegalArgumentException if contactId is null
+     */
+    private static void validateContactId(String contactId) {
+        if (contactId == null) {
+            throw new IllegalArgumentException("Contact ID cannot be null");
         }
     }
 
@@ -55,25 +186,87 @@ public class ContactService {
      */
     private Contact getValidatedContact(String contactId) {
         validateContactId(contactId);
-        validateContactExists(contactId);
-        return contacts.get(contactId);
+        Contact contact = contacts.get(contactId);
+        if (contact == null) {
+            throw new NotFoundException("Contact not found");
+        }
+        return contact;
     }
 
     /**
      * Adds a new contact to the service.
-     * Contact ID must be unique across all stored contacts.
+     * Contact ID must be unique across all stored contacts. Once stored, the contact is
+     * a read-only snapshot; change it through the service's update methods.
      * 
      * @param contact the contact to add, must not be null
      * @throws IllegalArgumentException if contact is null or ID already exists
      */
     public void addContact(Contact contact) {
-        if (contact == null) {
-            throw new IllegalArgumentException("Contact cannot be null");
-        }
-        if (contacts.containsKey(contact.getContactId())) {
-            throw new IllegalArgumentException("Contact ID already exists");
-        }
-        contacts.put(contact.getContactId(), contact);
+        OperationMetrics.time(metrics, Operation.ADD_CONTACT, () -> add(contact));
+    }
+
+    /**
+     * Adds a new contact without throwing on failure.
+     * 
+     * @param contact the contact to add
+     * @return ADDED if stored, DUPLICATE_ID if the ID already exists, INVALID if contact is null
+     */
+    public AddResult tryAddContact(Contact contact) {
+        return OperationMetrics.time(metrics, Operation.TRY_ADD_CONTACT, () -> {
+            if (contact == null) {
+                return AddResult.INVALID;
+            }
+            return insert(contact) ? AddResult.ADDED : AddResult.DUPLICATE_ID;
+        }, OperationMetrics::added);
+    }
+
+    /**
+     * Adds a batch of contacts, all or nothing, and publishes it atomically.
+     * Rejects the whole batch if any element is null, if an ID repeats within the batch,
+     * or if an ID already exists in the service; in that case no contact is added.
+     * The batch is checked against the store and stored while every other write and read
+     * of the service is held off, so readers and writers see either none of it or all of
+     * it, and a batch that fails leaves no trace. It is logged as a single write-ahead log
+     * record, forced once, and its ADD events are published as one uninterrupted run.
+     * Large batches are checked and stored in parallel. Each contact becomes a read-only
+     * snapshot once stored.
+     * 
+     * @param batch the contacts to add, must not be null
+     * @throws IllegalArgumentException if the batch is null or any contact cannot be added
+     */
+    public void addContacts(Collection<Contact> batch) {
+        OperationMetrics.time(metrics, Operation.ADD_CONTACTS, () -> addAll(batch));
+    }
+
+    /**
+     * Adds a batch of contacts, all or nothing, without recording metrics.
+     * 
+     * @param batch the contacts to add
+     * @throws IllegalArgumentException if the batch is null or any contact cannot be added
+     */
+    private void addAll(Collection<Contact> batch) {
+        Map<String, Contact> byId = Batches.indexById(batch, Contact::getContactId, "Contact cannot be null",
+                id -> "Duplicate contact ID in batch: " + id);
+        gate.publish(() -> {
+            // No other write runs until the batch is published, so nothing can fail after this check
+            Batches.rejectExisting(byId, contacts, id -> "Contact ID already exists: " + id);
+            if (log != null) {
+                log.logAddAll(byId.values());
+            }
+            Batches.forEach(byId.values(), contact -> {
+                contact.freeze();
+                if (nameIndex != null) {
+                    nameIndex.add(contact);
+                    phoneIndex.add(contact);
+                }
+                contacts.put(contact.getContactId(), contact);
+            });
+            for (Contact contact : byId.values()) {
+                changes.publish(ChangeType.ADD, contact.getContactId(), contact);
+            }
+        });
+        changes.release();
+        awaitDurable();
     }
 
     /**
@@ -89,8 +282,23 @@ public class ContactService {
      * @throws IllegalArgumentException if any parameter violates validation rules or ID already exists
      */
     public void addContact(String contactId, String firstName, String lastName, String phone, String address) {
-        Contact contact = new Contact(contactId, firstName, lastName, phone, address);
-        addContact(contact);
+        OperationMetrics.time(metrics, Operation.ADD_CONTACT,
+                () -> add(new Contact(contactId, firstName, lastName, phone, address)));
+    }
+
+    /**
+     * Adds one contact without recording metrics.
+     * 
+     * @param contact the contact to add
+     * @throws IllegalArgumentException if contact is null or its ID already exists
+     */
+    private void add(Contact contact) {
+        if (contact == null) {
+            throw new IllegalArgumentException("Contact cannot be null");
+        }
+        if (!insert(contact)) {
+            throw new IllegalArgumentException("Contact ID already exists");
+        }
     }
 
     /**
@@ -100,9 +308,42 @@ public class ContactService {
      * @throws IllegalArgumentException if contactId is null or contact not found
      */
     public void deleteContact(String contactId) {
-        validateContactId(contactId);
-        validateContactExists(contactId);
-        contacts.remove(contactId);
+        OperationMetrics.time(metrics, Operation.DELETE_CONTACT, () -> {
+            validateContactId(contactId);
+            if (!delete(contactId)) {
+                throw new NotFoundException("Contact not found");
+            }
+        });
+    }
+
+    /**
+     * Deletes a contact by its unique ID without throwing on failure.
+     * 
+     * @param contactId the ID of the contact to delete
+     * @return true if a contact was removed, false if contactId is null or not found
+     */
+    public boolean tryDeleteContact(String contactId) {
+        return OperationMetrics.time(metrics, Operation.TRY_DELETE_CONTACT, () -> delete(contactId),
+                OperationMetrics::removed);
+    }
+
+    /**
+     * Deletes a contact by ID without recording metrics.
+     * 
+     * @param contactId the ID of the contact to delete
+     * @return true if a contact was removed, false if contactId is null or not found
+     */
+    private boolean delete(String contactId) {
+        if (contactId == null) {
+            return false;
+        }
+        Contact existing;
+        while ((existing = contacts.get(contactId)) != null) {
+            if (removeIfSame(existing)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -113,8 +354,8 @@ public class ContactService {
      * @throws IllegalArgumentException if contactId is null, contact not found, or firstName invalid
      */
     public void updateFirstName(String contactId, String firstName) {
-        Contact contact = getValidatedContact(contactId);
-        contact.setFirstName(firstName);
+        OperationMetrics.time(metrics, Operation.UPDATE_FIRST_NAME,
+                () -> updateField(contactId, ContactField.FIRST_NAME, firstName));
     }
 
     /**
@@ -125,8 +366,8 @@ public class ContactService {
      * @throws IllegalArgumentException if contactId is null, contact not found, or lastName invalid
      */
     public void updateLastName(String contactId, String lastName) {
-        Contact contact = getValidatedContact(contactId);
-        contact.setLastName(lastName);
+        OperationMetrics.time(metrics, Operation.UPDATE_LAST_NAME,
+                () -> updateField(contactId, ContactField.LAST_NAME, lastName));
     }
 
     /**
@@ -137,8 +378,8 @@ public class ContactService {
      * @throws IllegalArgumentException if contactId is null, contact not found, or phone invalid
      */
     public void updatePhone(String contactId, String phone) {
-        Contact contact = getValidatedContact(contactId);
-        contact.setPhone(phone);
+        OperationMetrics.time(metrics, Operation.UPDATE_PHONE,
+                () -> updateField(contactId, ContactField.PHONE, phone));
     }
 
     /**
@@ -149,8 +390,44 @@ public class ContactService {
      * @throws IllegalArgumentException if contactId is null, contact not found, or address invalid
      */
     public void updateAddress(String contactId, String address) {
-        Contact contact = getValidatedContact(contactId);
-        contact.setAddress(address);
+        OperationMetrics.time(metrics, Operation.UPDATE_ADDRESS,
+                () -> updateField(contactId, ContactField.ADDRESS, address));
+    }
+
+    /**
+     * Applies any number of field changes to an existing contact as one update.
+     * The edit receives a draft of the current contact and returns it with its
+     * changes; the stored contact is then replaced by the edited copy provided no
+     * other update replaced it first. Otherwise the edit is applied again to a draft of
+     * the newer contact, so it should have no side effects beyond the draft. The
+     * write-ahead log, the indexes and subscribers see the update as a single change.
+     * 
+     * @param contactId the ID of the contact to update, must not be null
+     * @param edit the changes to make, must not be null or return null
+     * @return the updated contact, or the stored one if the edit changed nothing
+     * @throws IllegalArgumentException if contactId or edit is null, contact not found,
+     *         or the edit sets an invalid value
+     */
+    public Contact updateContact(String contactId, UnaryOperator<ContactDraft> edit) {
+        return OperationMetrics.time(metrics, Operation.UPDATE_CONTACT, () -> {
+            if (edit == null) {
+                throw new IllegalArgumentException("Edit cannot be null");
+            }
+            while (true) {
+                Contact current = getValidatedContact(contactId);
+                ContactDraft draft = edit.apply(new ContactDraft(current));
+                if (draft == null || !draft.getContactId().equals(contactId)) {
+                    throw new IllegalArgumentException("Edit must return a draft of the same contact");
+                }
+                Contact replacement = draft.toContact();
+                if (sameFields(current, replacement)) {
+                    return current;
+                }
+                if (replaceIfSame(current, replacement)) {
+                    return replacement;
+                }
+            }
+        });
     }
 
     /**
@@ -161,7 +438,115 @@ public class ContactService {
      * @throws IllegalArgumentException if contactId is null or contact not found
      */
     public Contact getContact(String contactId) {
-        return getValidatedContact(contactId);
+        return OperationMetrics.time(metrics, Operation.GET_CONTACT,
+                () -> gate.read(() -> getValidatedContact(contactId)));
+    }
+
+    /**
+     * Looks up a contact by its unique ID without throwing on a miss.
+     * 
+     * @param contactId the ID of the contact to look up
+     * @return the contact, or empty if contactId is null or not found
+     */
+    public Optional<Contact> findContact(String contactId) {
+        return OperationMetrics.time(metrics, Operation.FIND_CONTACT, () -> contactId == null
+                ? Optional.<Contact>empty() : gate.read(() -> Optional.ofNullable(contacts.get(contactId))),
+                OperationMetrics::found);
+    }
+
+    /**
+     * Searches contacts whose first or last name starts with a prefix, ignoring case.
+     * Served from a sorted name index, so the cost grows with the number of results
+     * rather than the number of stored contacts; a service created by
+     * {@link #withDiskStore(ContactDiskStore)} scans every contact instead. Results are
+     * ordered by the matching name, then contact ID, and each contact appears at most once.
+     * 
+     * @param prefix the name prefix to match, must not be null; empty matches every contact
+     * @param limit the maximum number of contacts to return, must be positive
+     * @return the matching contacts, at most limit of them
+     * @throws IllegalArgumentException if prefix is null or limit is not positive
+     */
+    public List<Contact> searchByNamePrefix(String prefix, int limit) {
+        return OperationMetrics.time(metrics, Operation.SEARCH_BY_NAME_PREFIX, () -> {
+            if (prefix == null) {
+                throw new IllegalArgumentException("Prefix cannot be null");
+            }
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive");
+            }
+            return gate.read(() -> nameIndex != null ? nameIndex.search(prefix, limit)
+                    : ContactNameIndex.scan(contacts.values(), prefix, limit));
+        });
+    }
+
+    /**
+     * Finds the contacts whose phone number is exactly the given number.
+     * Served from a reverse index keyed by the packed number, so the cost does not
+     * depend on the number of stored contacts, except in a disk-backed service, which
+     * scans every contact. Only contacts as currently stored are reported: a contact whose
+     * phone is being changed concurrently is found under its old number until the change
+     * is stored and under its new number after, so one lookup never returns a stale copy
+     * and the contact is never missing from both numbers. Indexed results are ordered by
+     * contact ID.
+     * 
+     * @param phone the phone number to look up
+     * @return the matching contacts, empty if phone is null, not 10 digits, or unused
+     */
+    public List<Contact> findContactsByPhone(String phone) {
+        return OperationMetrics.time(metrics, Operation.FIND_CONTACTS_BY_PHONE, () -> {
+            if (!Contact.PHONE.test(phone)) {
+                return List.<Contact>of();
+            }
+            return gate.read(() -> phoneIndex != null ? phoneIndex.find(phone)
+                    : ContactPhoneIndex.scan(contacts.values(), phone));
+        });
+    }
+
+    /**
+     * Subscribes to every add, update and delete of a contact from now on.
+     * Events travel through a preallocated ring buffer and are delivered on the
+     * subscription's own thread, so a listener never runs on the thread making the
+     * change and only holds it up under {@link OverflowPolicy#BLOCK}. Each event
+     * carries the contact as the change left it, a change type and a sequence number that increases
+     * by one per event.
+     * 
+     * @param listener receives the events, must not be null
+     * @param policy what to do when the listener falls a whole ring buffer behind, must not be null
+     * @return the subscription; close it to stop delivery
+     * @throws IllegalArgumentException if listener or policy is null
+     */
+    public ChangeSubscription subscribe(Consumer<? super ChangeEvent<Contact>> listener, OverflowPolicy policy) {
+        return changes.subscribe(listener, policy);
+    }
+
+    /**
+     * Starts timing every public operation and counting its outcomes in a registry.
+     * Operations are recorded under the service label "contact"; calling this again
+     * switches recording to the new registry.
+     * 
+     * @param registry the registry to record into, must not be null
+     * @throws IllegalArgumentException if registry is null
+     */
+    public void enableMetrics(ServiceMetrics registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Metrics registry cannot be null");
+        }
+        metrics = registry.register("contact", Operation.values());
+    }
+
+    /**
+     * Rewrites the write-ahead log with one record per stored contact, so replaying it no
+     * longer costs time for every change ever made. Every other write and read of the
+     * service is held off while the log is rewritten.
+     * 
+     * @throws IllegalStateException if the service has no write-ahead log
+     * @throws java.io.UncheckedIOException if the log cannot be rewritten; the old log stays in use
+     */
+    public void compactLog() {
+        if (log == null) {
+            throw new IllegalStateException("Contact service has no write-ahead log");
+        }
+        gate.publish(() -> log.compact(contacts.values()));
     }
 
     /**
@@ -170,6 +555,210 @@ public class ContactService {
      * @return the number of stored contacts
      */
     public int getContactCount() {
-        return contacts.size();
+        return OperationMetrics.time(metrics, Operation.GET_CONTACT_COUNT, () -> gate.read(contacts::size));
+    }
+
+    /**
+     * Stores a contact unless its ID is taken, logging the add under the per-ID lock.
+     * 
+     * @param contact the validated contact to add
+     * @return true if added, false if the contact ID already exists
+     */
+    private boolean insert(Contact contact) {
+        // Track the insert explicitly: re-adding the stored instance must still count as a duplicate
+        boolean[] added = new boolean[1];
+        gate.write(() -> contacts.computeIfAbsent(contact.getContactId(), id -> {
+            if (log != null) {
+                log.logAdd(contact);
+            }
+            contact.freeze();
+            if (nameIndex != null) {
+                nameIndex.add(contact);
+                phoneIndex.add(contact);
+            }
+            changes.publish(ChangeType.ADD, id, contact);
+            added[0] = true;
+            return contact;
+        }));
+        changes.release();
+        if (added[0]) {
+            awaitDurable();
+        }
+        return added[0];
+    }
+
+    /**
+     * Removes a contact provided its ID still maps to that exact contact,
+     * logging the delete under the per-ID lock.
+     * 
+     * @param contact the contact to remove
+     * @return true if removed, false if the ID is absent or maps to another contact
+     */
+    private boolean removeIfSame(Contact contact) {
+        boolean removed = gate.write(() -> {
+            Contact remaining = contacts.computeIfPresent(contact.getContactId(), (id, current) -> {
+                if (!isSame(current, contact)) {
+                    return current;
+                }
+                if (log != null) {
+                    log.logDelete(id);
+                }
+                if (nameIndex != null) {
+                    nameIndex.remove(current);
+                }
+                changes.publish(ChangeType.DELETE, id, contact);
+                return null;
+            });
+            if (remaining != null) {
+                return false;
+            }
+            if (phoneIndex != null) {
+                phoneIndex.prune(contact.getContactId(), contact.getPhone());
+            }
+            return true;
+        });
+        changes.release();
+        if (removed) {
+            awaitDurable();
+        }
+        return removed;
+    }
+
+    /**
+     * Replaces a contact with an edited copy provided its ID still maps to that exact
+     * contact, logging the update under the per-ID lock.
+     * 
+     * @param expected the contact the edit was made from
+     * @param replacement the edited copy
+     * @return true if replaced, false if the ID is absent or maps to another contact
+     */
+    private boolean replaceIfSame(Contact expected, Contact replacement) {
+        boolean replaced = gate.write(() -> {
+            Contact stored = contacts.computeIfPresent(expected.getContactId(), (id, current) -> {
+                if (!isSame(current, expected)) {
+                    return current;
+                }
+                swap(id, current, replacement);
+                return replacement;
+            });
+            if (stored != replacement) {
+                return false;
+            }
+            prunePhone(expected, replacement);
+            return true;
+        });
+        changes.release();
+        if (replaced) {
+            awaitDurable();
+        }
+        return replaced;
+    }
+
+    /**
+     * Validates and applies a single-field update under the per-ID lock.
+     * 
+     * @param contactId the ID of the contact to update
+     * @param field the field to update
+     * @param value the new value
+     * @throws IllegalArgumentException if contactId is null, contact not found, or value invalid
+     */
+    private void updateField(String contactId, ContactField field, String value) {
+        validateContactId(contactId);
+        Contact[] previous = new Contact[1];
+        Contact updated = gate.write(() -> {
+            Contact stored = contacts.computeIfPresent(contactId, (id, current) -> {
+                Contact replacement = field.with(current, value);
+                if (value.equals(field.get(current))) {
+                    return current;
+                }
+                swap(id, current, replacement);
+                previous[0] = current;
+                return replacement;
+            });
+            if (previous[0] != null) {
+                prunePhone(previous[0], stored);
+            }
+            return stored;
+        });
+        changes.release();
+        if (updated == null) {
+            throw new NotFoundException("Contact not found");
+        }
+        if (previous[0] != null) {
+            awaitDurable();
+        }
+    }
+
+    /**
+     * Waits for the write-ahead log to force the records of a change that has just been
+     * applied, outside every lock so concurrent changes share the force.
+     */
+    private void awaitDurable() {
+        if (log != null) {
+            log.awaitDurable();
+        }
+    }
+
+    /**
+     * Records the replacement of a contact by an edited copy in the write-ahead log,
+     * the indexes and the change feed. Callers hold the per-ID lock and release the feed after it.
+     * A single changed field is logged as a field update, several as one whole-contact record.
+     * 
+     * @param id the contact ID
+     * @param current the stored contact
+     * @param replacement the edited copy about to be stored
+     */
+    private void swap(String id, Contact current, Contact replacement) {
+        if (log != null) {
+            ContactField changed = null;
+            int changedFields = 0;
+            for (ContactField field : FIELDS) {
+                if (!field.get(current).equals(field.get(replacement))) {
+                    changed = field;
+                    changedFields++;
+                }
+            }
+            if (changedFields == 1) {
+                log.logUpdate(id, changed, changed.get(replacement));
+            } else {
+                log.logReplace(replacement);
+            }
+        }
+        if (nameIndex != null) {
+            nameIndex.replace(current, replacement);
+            phoneIndex.replace(current, replacement);
+        }
+        changes.publish(ChangeType.UPDATE, id, replacement);
+    }
+
+    /**
+     * Drops the phone index entry for the number an update moved a contact off, once the
+     * map holds the update, so lookups find the contact under its old number until then.
+     * 
+     * @param previous the contact before the update
+     * @param replacement the stored edited copy
+     */
+    private void prunePhone(Contact previous, Contact replacement) {
+        if (phoneIndex != null && !previous.getPhone().equals(replacement.getPhone())) {
+            phoneIndex.prune(previous.getContactId(), previous.getPhone());
+        }
+    }
+
+    /**
+     * Checks whether a stored contact is still the one an operation started from.
+     * Disk-backed storage reads uncached contacts as new instances, so a contact with
+     * identical fields counts as the same one.
+     */
+    private static boolean isSame(Contact current, Contact expected) {
+        return current == expected || sameFields(current, expected);
+    }
+
+    private static boolean sameFields(Contact contact, Contact other) {
+        for (ContactField field : FIELDS) {
+            if (!field.get(contact).equals(field.get(other))) {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,518 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead log of ContactService mutations.
+ * Each record is framed as [payload length][CRC32C][payload], so a record torn by a
+ * crash is detected on replay and cut off; everything before it is recovered.
+ * A bulk insert is logged as a batch header followed by one add record per contact,
+ * written together; replay applies the batch only if every one of its records is
+ * intact, so a crash never recovers part of a batch.
+ * Records are appended under the log's monitor, which only covers the write to the
+ * operating system. Under PER_OPERATION the service then waits for the force outside
+ * every lock, see {@link #awaitDurable()}, so operations that log at the same time share
+ * one force, as under group commit. {@link ContactService#compactLog()} rewrites the log
+ * with one record per live contact, bounding replay time.
+ * The log is shared by reference with the ContactService that replays it, and
+ * the caller that opened it is responsible for closing it.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class ContactWriteAheadLog implements Closeable {
+    private static final byte OP_ADD = 0;
+    private static final byte OP_UPDATE = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_REPLACE = 3;
+    private static final byte OP_ADD_BATCH = 4;
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    // Large enough for any record: five fields of at most 30 chars, 3 UTF-8 bytes each
+    private static final int MAX_RECORD_BYTES = 1024;
+    private static final int REPLAY_BUFFER_BYTES = 1 << 20;
+
+    private final Path file;
+    private final FsyncPolicy policy;
+    private final ScheduledExecutorService syncer;
+    private final ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + MAX_RECORD_BYTES);
+    private final CRC32C crc = new CRC32C();
+    // Held while forcing for awaitDurable and while compacting; taken before the log's monitor
+    private final Object forceLock = new Object();
+    // Replaced by compact(); guarded by the log's monitor
+    private FileChannel channel;
+    // Number of records appended, and how many of them awaitDurable has seen forced
+    private long appended;
+    private long durable;
+    private boolean dirty;
+    private boolean replayed;
+
+    /**
+     * Opens or creates a log file.
+     *
+     * @param file the log file
+     * @param policy when appended records are forced to disk
+     * @param groupCommitMillis the force interval for GROUP_COMMIT, ignored by other policies
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if file or policy is null, or the interval is not positive for GROUP_COMMIT
+     */
+    public ContactWriteAheadLog(Path file, FsyncPolicy policy, long groupCommitMillis) throws IOException {
+        if (file == null || policy == null) {
+            throw new IllegalArgumentException("Log file and fsync policy cannot be null");
+        }
+        if (policy == FsyncPolicy.GROUP_COMMIT && groupCommitMillis <= 0) {
+            throw new IllegalArgumentException("Group commit interval must be positive");
+        }
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.policy = policy;
+        if (policy == FsyncPolicy.GROUP_COMMIT) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "contact-wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncIfDirty, groupCommitMillis, groupCommitMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Opens or creates a log file with a policy that needs no interval.
+     *
+     * @param file the log file
+     * @param policy PER_OPERATION or OS_BUFFERED
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if file or policy is null, or policy is GROUP_COMMIT
+     */
+    public ContactWriteAheadLog(Path file, FsyncPolicy policy) throws IOException {
+        this(file, policy, 0);
+    }
+
+    /**
+     * Replays every intact record into the given storage and positions the log for appending.
+     * A torn or corrupt tail is truncated. Can only be called once per log.
+     *
+     * @param contacts the storage to rebuild
+     * @throws UncheckedIOException if the file cannot be read
+     * @throws IllegalStateException if the log was already replayed
+     */
+    synchronized void replay(Map<String, Contact> contacts) {
+        if (replayed) {
+            throw new IllegalStateException("Write-ahead log is already attached to a ContactService");
+        }
+        replayed = true;
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(REPLAY_BUFFER_BYTES);
+            long validEnd = 0;
+            long parsedEnd = 0;
+            long readPosition = 0;
+            // Add records of a batch whose header has been read, applied once the batch is complete
+            List<Contact> batch = new ArrayList<>();
+            int batchRemaining = 0;
+            boolean intact = true;
+            while (intact) {
+                int read = channel.read(buffer, readPosition);
+                if (read > 0) {
+                    readPosition += read;
+                }
+                buffer.flip();
+                while (buffer.remaining() >= HEADER_BYTES) {
+                    int start = buffer.position();
+                    int length = buffer.getInt();
+                    int checksum = buffer.getInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        intact = false;
+                        break;
+                    }
+                    if (buffer.remaining() < length) {
+                        buffer.position(start);
+                        break;
+                    }
+                    crc.reset();
+                    crc.update(buffer.array(), buffer.position(), length);
+                    if ((int) crc.getValue() != checksum) {
+                        intact = false;
+                        break;
+                    }
+                    int next = buffer.position() + length;
+                    parsedEnd += HEADER_BYTES + length;
+                    byte op = buffer.get();
+                    if (batchRemaining > 0) {
+                        if (op != OP_ADD) {
+                            intact = false;
+                            break;
+                        }
+                        batch.add(readContact(buffer));
+                        if (--batchRemaining == 0) {
+                            for (Contact contact : batch) {
+                                contacts.put(contact.getContactId(), contact);
+                            }
+                            batch.clear();
+                            validEnd = parsedEnd;
+                        }
+                    } else if (op == OP_ADD_BATCH) {
+                        batchRemaining = buffer.getInt();
+                        if (batchRemaining <= 0) {
+                            intact = false;
+                            break;
+                        }
+                    } else {
+                        apply(op, buffer, contacts);
+                        validEnd = parsedEnd;
+                    }
+                    buffer.position(next);
+                }
+                buffer.compact();
+                if (read <= 0) {
+                    break;
+                }
+            }
+            if (validEnd < channel.size()) {
+                channel.truncate(validEnd);
+            }
+            channel.position(validEnd);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Logs the addition of a contact.
+     *
+     * @param contact the added contact
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    synchronized void logAdd(Contact contact) {
+        logContact(OP_ADD, contact);
+    }
+
+    /**
+     * Logs the addition of a batch of contacts as one unit: the records are written
+     * together, and replay recovers either all of them or none.
+     *
+     * @param batch the added contacts, at least one
+     * @throws UncheckedIOException if the records cannot be written
+     */
+    synchronized void logAddAll(Collection<Contact> batch) {
+        begin(OP_ADD_BATCH);
+        record.putInt(batch.size());
+        seal();
+        ByteBuffer out = ByteBuffer.allocate(Math.max(record.remaining(), batch.size() * 64));
+        out.put(record);
+        for (Contact contact : batch) {
+            encodeContact(OP_ADD, contact);
+            seal();
+            if (out.remaining() < record.remaining()) {
+                ByteBuffer grown = ByteBuffer.allocate(out.capacity() * 2 + record.remaining());
+                grown.put(out.flip());
+                out = grown;
+            }
+            out.put(record);
+        }
+        write(out.flip());
+    }
+
+    /**
+     * Logs a single-field update.
+     *
+     * @param contactId the updated contact's ID
+     * @param field the updated field
+     * @param value the new value
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    synchronized void logUpdate(String contactId, ContactField field, String value) {
+        begin(OP_UPDATE);
+        record.put((byte) field.ordinal());
+        putString(contactId);
+        putString(value);
+        commit();
+    }
+
+    /**
+     * Logs a multi-field update as one record holding every field of the updated
+     * contact, so replay applies all of the changes or, for a torn record, none.
+     *
+     * @param contact the updated contact
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    synchronized void logReplace(Contact contact) {
+        logContact(OP_REPLACE, contact);
+    }
+
+    /**
+     * Logs the deletion of a contact.
+     *
+     * @param contactId the deleted contact's ID
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    synchronized void logDelete(String contactId) {
+        begin(OP_DELETE);
+        putString(contactId);
+        commit();
+    }
+
+    /**
+     * Under PER_OPERATION, waits until every record appended so far is on stable storage;
+     * does nothing under the other policies. Called after the logged change is applied and
+     * outside every lock. A force that a concurrent caller started after this caller's
+     * records were appended covers them, so concurrent operations share forces.
+     *
+     * @throws UncheckedIOException if the force fails; the change stays applied and logged
+     */
+    void awaitDurable() {
+        if (policy != FsyncPolicy.PER_OPERATION) {
+            return;
+        }
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        synchronized (forceLock) {
+            if (durable >= target) {
+                return;
+            }
+            FileChannel forced;
+            long covered;
+            synchronized (this) {
+                forced = channel;
+                covered = appended;
+            }
+            try {
+                forced.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            durable = covered;
+        }
+    }
+
+    /**
+     * Rewrites the log with one add record per live contact, dropping the history that led
+     * to them, so replay reads each contact once. The new log is forced and then replaces
+     * the old one atomically. The caller must hold off every other change to the contacts
+     * while this runs.
+     *
+     * @param live the contacts the service holds
+     * @throws UncheckedIOException if the new log cannot be written; the old one stays in use
+     */
+    void compact(Collection<Contact> live) {
+        synchronized (forceLock) {
+            synchronized (this) {
+                Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+                try {
+                    FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    try {
+                        ByteBuffer out = ByteBuffer.allocate(REPLAY_BUFFER_BYTES);
+                        for (Contact contact : live) {
+                            encodeContact(OP_ADD, contact);
+                            seal();
+                            if (out.remaining() < record.remaining()) {
+                                writeFully(target, out.flip());
+                                out.clear();
+                            }
+                            out.put(record);
+                        }
+                        writeFully(target, out.flip());
+                        target.force(false);
+                        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING,
+                                StandardCopyOption.ATOMIC_MOVE);
+                    } catch (IOException | RuntimeException e) {
+                        target.close();
+                        Files.deleteIfExists(compacted);
+                        throw e;
+                    }
+                    FileChannel replaced = channel;
+                    channel = target;
+                    durable = appended;
+                    dirty = false;
+                    replaced.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the current size of the log file.
+     *
+     * @return the file size in bytes
+     */
+    public synchronized long getFileBytes() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces every appended record to stable storage, whatever the policy.
+     *
+     * @throws UncheckedIOException if the force fails
+     */
+    public synchronized void sync() {
+        try {
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops the group commit thread, forces pending records and closes the file.
+     *
+     * @throws IOException if the final force or close fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        synchronized (this) {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    private void syncIfDirty() {
+        FileChannel forced;
+        synchronized (this) {
+            if (!dirty || !channel.isOpen()) {
+                return;
+            }
+            dirty = false;
+            forced = channel;
+        }
+        // Force outside the lock so appends are not blocked behind the disk flush
+        try {
+            forced.force(false);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true; // retried on the next tick
+            }
+        }
+    }
+
+    private void logContact(byte op, Contact contact) {
+        encodeContact(op, contact);
+        commit();
+    }
+
+    private void encodeContact(byte op, Contact contact) {
+        begin(op);
+        putString(contact.getContactId());
+        putString(contact.getFirstName());
+        putString(contact.getLastName());
+        putString(contact.getPhone());
+        putString(contact.getAddress());
+    }
+
+    private void begin(byte op) {
+        record.clear();
+        record.position(HEADER_BYTES);
+        record.put(op);
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        record.putShort((short) bytes.length);
+        record.put(bytes);
+    }
+
+    private void commit() {
+        seal();
+        write(record);
+    }
+
+    /** Fills in the header of the record being built and flips it for writing. */
+    private void seal() {
+        int length = record.position() - HEADER_BYTES;
+        crc.reset();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        record.flip();
+    }
+
+    private void write(ByteBuffer records) {
+        long start = -1;
+        try {
+            start = channel.position();
+            writeFully(channel, records);
+        } catch (IOException e) {
+            // The operation fails, so its record must not survive: cut off any bytes it wrote
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException cleanup) {
+                    e.addSuppressed(cleanup);
+                }
+            }
+            throw new UncheckedIOException(e);
+        }
+        appended++;
+        dirty = true;
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer records) throws IOException {
+        while (records.hasRemaining()) {
+            target.write(records);
+        }
+    }
+
+    private static void apply(byte op, ByteBuffer buffer, Map<String, Contact> contacts) {
+        if (op == OP_ADD || op == OP_REPLACE) {
+            Contact contact = readContact(buffer);
+            contacts.put(contact.getContactId(), contact);
+        } else if (op == OP_UPDATE) {
+            ContactField field = ContactField.fromCode(buffer.get());
+            Contact contact = contacts.get(getString(buffer));
+            String value = getString(buffer);
+            if (contact != null) {
+                contacts.put(contact.getContactId(), field.with(contact, value));
+            }
+        } else if (op == OP_DELETE) {
+            contacts.remove(getString(buffer));
+        } else {
+            throw new IllegalStateException("Unknown write-ahead log operation: " + op);
+        }
+    }
+
+    private static Contact readContact(ByteBuffer buffer) {
+        return new Contact(getString(buffer), getString(buffer), getString(buffer), getString(buffer),
+                getString(buffer)).freeze();
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,129 @@
+package edu.snhu;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Declarative validation rule for a date field.
+ * Compares epoch milliseconds directly, so checking a date never allocates
+ * a "now" Date object.
+ * Every constraint rejects null.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class DateConstraint {
+    private final String message;
+    private final boolean notInPast;
+
+    private DateConstraint(String message, boolean notInPast) {
+        this.message = message;
+        this.notInPast = notInPast;
+    }
+
+    /**
+     * Creates a constraint that only requires the date to be non-null.
+     *
+     * @param message the exception message used when the rule is violated
+     * @return a constraint rejecting null dates
+     */
+    static DateConstraint required(String message) {
+        return new DateConstraint(message, false);
+    }
+
+    /**
+     * Returns a copy of this constraint that also rejects dates before the current time.
+     *
+     * @return the extended constraint
+     */
+    DateConstraint notInPast() {
+        return new DateConstraint(message, true);
+    }
+
+    /**
+     * Checks a date against this constraint without throwing.
+     *
+     * @param date the date to check
+     * @param nowMillis the current time in epoch milliseconds
+     * @return true if the date satisfies every rule of this constraint
+     */
+    boolean test(Date date, long nowMillis) {
+        return date != null && accepts(date.getTime(), nowMillis);
+    }
+
+    /**
+     * Checks an instant against this constraint without throwing.
+     *
+     * @param instant the instant to check
+     * @param nowMillis the current time in epoch milliseconds
+     * @return true if the instant satisfies every rule of this constraint
+     */
+    boolean test(Instant instant, long nowMillis) {
+        return instant != null && accepts(toEpochMillis(instant), nowMillis);
+    }
+
+    /**
+     * Validates a date against this constraint using the system clock.
+     *
+     * @param date the date to validate
+     * @throws IllegalArgumentException with this constraint's message if the date is invalid
+     */
+    void validate(Date date) {
+        validate(date, System.currentTimeMillis());
+    }
+
+    /**
+     * Validates a date against this constraint.
+     *
+     * @param date the date to validate
+     * @param nowMillis the current time in epoch milliseconds
+     * @throws IllegalArgumentException with this constraint's message if the date is invalid
+     */
+    void validate(Date date, long nowMillis) {
+        if (!test(date, nowMillis)) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Validates an instant against this constraint using the system clock.
+     *
+     * @param instant the instant to validate
+     * @throws IllegalArgumentException with this constraint's message if the instant is invalid
+     */
+    void validate(Instant instant) {
+        validate(instant, System.currentTimeMillis());
+    }
+
+    /**
+     * Validates an instant against this constraint.
+     *
+     * @param instant the instant to validate
+     * @param nowMillis the current time in epoch milliseconds
+     * @throws IllegalArgumentException with this constraint's message if the instant is invalid
+     */
+    void validate(Instant instant, long nowMillis) {
+        if (!test(instant, nowMillis)) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Converts an instant to epoch milliseconds, saturating instead of overflowing,
+     * so Instant.MIN and Instant.MAX work as open range bounds.
+     *
+     * @param instant the instant to convert
+     * @return the epoch milliseconds, clamped to the long range
+     */
+    static long toEpochMillis(Instant instant) {
+        try {
+            return instant.toEpochMilli();
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private boolean accepts(long epochMillis, long nowMillis) {
+        return !notInPast || epochMillis >= nowMillis;
+    }
+}
@@ -0,0 +1,20 @@
+package edu.snhu;
+
+/**
+ * What a capacity-bounded service does when an add would take it past its capacity.
+ * The evicting policies store the new entity and then remove another one, reporting it
+ * to the service's eviction listener; they differ only in which entity goes.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public enum EvictionPolicy {
+    /** Evict the entity read or updated least recently. */
+    LRU,
+    /** Evict the entity read or updated least often, the least recently used among equals. */
+    LFU,
+    /** Evict the entity added earliest, however often it is used. */
+    FIFO,
+    /** Evict nothing: refuse the add while the service is full. */
+    REJECT_NEW
+}
@@ -0,0 +1,302 @@
+package edu.snhu;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bookkeeping that picks eviction victims for a capacity-bounded service.
+ * Keys are ordered under one lock: a single list by insertion or recency for FIFO and
+ * LRU, and for LFU a list of frequency buckets, each holding its keys in recency order,
+ * so every add, access and eviction is O(1). Reads do not take the lock: they append the
+ * key to a small ring buffer picked by thread, and the buffered accesses are applied in
+ * bulk by whichever thread fills a buffer and finds the lock free, or by the next add or
+ * eviction. A full buffer drops the access, so under heavy contention the order is
+ * approximate rather than making readers wait.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class EvictionTracker {
+    private static final int BUFFER_SIZE = 32;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+    private final EvictionPolicy policy;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Node> nodes = new HashMap<>();
+    // FIFO and LRU: sentinel of a circular list whose first entry is the next victim
+    private final Node order = new Node(null);
+    // LFU: sentinel of a circular list of buckets in ascending frequency
+    private final Bucket frequencies = new Bucket(0);
+    // Null for policies that ignore reads
+    private final ReadBuffer[] buffers;
+
+    /**
+     * A tracked key and its place in the order.
+     */
+    private static final class Node {
+        final String key;
+        Node previous = this;
+        Node next = this;
+        Bucket bucket;
+
+        Node(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * The LFU keys accessed the same number of times, least recently used first.
+     */
+    private static final class Bucket {
+        final long frequency;
+        final Node keys = new Node(null);
+        Bucket previous = this;
+        Bucket next = this;
+
+        Bucket(long frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    /**
+     * Lossy ring of keys read since the last drain. Readers claim a slot with one
+     * compare-and-set; only the lock holder empties it.
+     */
+    private static final class ReadBuffer {
+        final AtomicReferenceArray<String> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+        final AtomicLong writeIndex = new AtomicLong();
+        volatile long readIndex;
+
+        /**
+         * Appends a key unless the buffer is full or another reader claimed the slot first.
+         *
+         * @return false if the buffer is full and should be drained
+         */
+        boolean offer(String key) {
+            long tail = writeIndex.get();
+            if (tail - readIndex >= BUFFER_SIZE) {
+                return false;
+            }
+            if (writeIndex.compareAndSet(tail, tail + 1)) {
+                slots.lazySet((int) tail & BUFFER_MASK, key);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Creates an empty tracker.
+     *
+     * @param policy the eviction policy
+     * @param capacity the number of keys to keep, positive
+     */
+    EvictionTracker(EvictionPolicy policy, int capacity) {
+        this.policy = policy;
+        this.capacity = capacity;
+        if (policy == EvictionPolicy.LRU || policy == EvictionPolicy.LFU) {
+            int processors = Runtime.getRuntime().availableProcessors();
+            buffers = new ReadBuffer[Integer.highestOneBit(Math.max(1, processors * 2 - 1))];
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = new ReadBuffer();
+            }
+        } else {
+            buffers = null;
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean rejectsNew() {
+        return policy == EvictionPolicy.REJECT_NEW;
+    }
+
+    /**
+     * Starts tracking a key.
+     *
+     * @param key the key of a newly stored entity
+     * @return false if the policy is REJECT_NEW and the tracker is full, in which case nothing changed
+     */
+    boolean add(String key) {
+        lock.lock();
+        try {
+            drain();
+            if (policy == EvictionPolicy.REJECT_NEW && nodes.size() >= capacity) {
+                return false;
+            }
+            Node node = new Node(key);
+            nodes.put(key, node);
+            if (policy == EvictionPolicy.LFU) {
+                Bucket first = frequencies.next;
+                if (first.frequency != 1) {
+                    first = linkBucketAfter(frequencies, 1);
+                }
+                node.bucket = first;
+                linkLast(first.keys, node);
+            } else {
+                linkLast(order, node);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops tracking a key; does nothing if it is not tracked.
+     *
+     * @param key the key of a removed entity
+     */
+    void remove(String key) {
+        lock.lock();
+        try {
+            Node node = nodes.remove(key);
+            if (node != null) {
+                unlinkNode(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a read or update of a key without waiting for the lock.
+     *
+     * @param key the key that was used
+     */
+    void recordAccess(String key) {
+        if (buffers == null) {
+            return;
+        }
+        int hash = (int) Thread.currentThread().threadId() * 0x9E3779B9;
+        ReadBuffer buffer = buffers[(hash ^ (hash >>> 16)) & (buffers.length - 1)];
+        if (!buffer.offer(key) && lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops tracking the next victim if more keys are tracked than the capacity allows.
+     * The caller removes the victim's entity.
+     *
+     * @param keep the key just added, passed over so a new key is not evicted straight away
+     * @return the victim's key, or null if the tracker is within its capacity
+     */
+    String pollVictim(String keep) {
+        lock.lock();
+        try {
+            drain();
+            if (nodes.size() <= capacity) {
+                return null;
+            }
+            Node victim = first();
+            if (victim.key.equals(keep)) {
+                victim = successor(victim);
+            }
+            nodes.remove(victim.key);
+            unlinkNode(victim);
+            return victim.key;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Node first() {
+        return policy == EvictionPolicy.LFU ? frequencies.next.keys.next : order.next;
+    }
+
+    /**
+     * Returns the key evicted after a node, which exists while over a positive capacity.
+     */
+    private Node successor(Node node) {
+        if (node.bucket == null || node.next != node.bucket.keys) {
+            return node.next;
+        }
+        return node.bucket.next.keys.next;
+    }
+
+    private void drain() {
+        if (buffers == null) {
+            return;
+        }
+        for (ReadBuffer buffer : buffers) {
+            long head = buffer.readIndex;
+            long tail = buffer.writeIndex.get();
+            for (; head < tail; head++) {
+                int index = (int) head & BUFFER_MASK;
+                String key = buffer.slots.get(index);
+                if (key == null) {
+                    break; // Claimed but not yet written; picked up by the next drain
+                }
+                buffer.slots.lazySet(index, null);
+                onAccess(key);
+            }
+            buffer.readIndex = head;
+        }
+    }
+
+    private void onAccess(String key) {
+        Node node = nodes.get(key);
+        if (node == null) {
+            return; // Removed since it was read
+        }
+        if (policy == EvictionPolicy.LRU) {
+            unlink(node);
+            linkLast(order, node);
+            return;
+        }
+        Bucket current = node.bucket;
+        Bucket target = current.next;
+        if (target.frequency != current.frequency + 1) {
+            target = linkBucketAfter(current, current.frequency + 1);
+        }
+        unlinkNode(node);
+        node.bucket = target;
+        linkLast(target.keys, node);
+    }
+
+    /**
+     * Unlinks a node, and for LFU also its bucket once the bucket is empty.
+     */
+    private void unlinkNode(Node node) {
+        unlink(node);
+        Bucket bucket = node.bucket;
+        if (bucket != null && bucket.keys.next == bucket.keys) {
+            bucket.previous.next = bucket.next;
+            bucket.next.previous = bucket.previous;
+        }
+    }
+
+    private static Bucket linkBucketAfter(Bucket previous, long frequency) {
+        Bucket bucket = new Bucket(frequency);
+        bucket.previous = previous;
+        bucket.next = previous.next;
+        previous.next.previous = bucket;
+        previous.next = bucket;
+        return bucket;
+    }
+
+    private static void linkLast(Node sentinel, Node node) {
+        Node last = sentinel.previous;
+        node.previous = last;
+        node.next = sentinel;
+        last.next = node;
+        sentinel.previous = node;
+    }
+
+    private static void unlink(Node node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        node.previous = node;
+        node.next = node;
+    }
+}
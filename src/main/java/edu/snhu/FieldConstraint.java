@@ -0,0 +1,137 @@
+package edu.snhu;
+
+/**
+ * Declarative validation rule for a single String field.
+ * A constraint is built once (typically as a static final field of the entity)
+ * and then checked with plain character loops, so validating a value never
+ * compiles a regex or allocates.
+ * Every constraint rejects null.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class FieldConstraint {
+    private final String message;
+    private final int minLength;
+    private final int maxLength;
+    private final boolean notBlank;
+    private final boolean digitsOnly;
+
+    private FieldConstraint(String message, int minLength, int maxLength, boolean notBlank, boolean digitsOnly) {
+        this.message = message;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.notBlank = notBlank;
+        this.digitsOnly = digitsOnly;
+    }
+
+    /**
+     * Creates a constraint that only requires the value to be non-null.
+     * Further rules are added with the chained factory methods.
+     *
+     * @param message the exception message used when the rule is violated
+     * @return a constraint rejecting null values
+     */
+    static FieldConstraint required(String message) {
+        return new FieldConstraint(message, 0, Integer.MAX_VALUE, false, false);
+    }
+
+    /**
+     * Returns a copy of this constraint that also rejects empty values.
+     *
+     * @return the extended constraint
+     */
+    FieldConstraint notEmpty() {
+        return new FieldConstraint(message, Math.max(minLength, 1), maxLength, notBlank, digitsOnly);
+    }
+
+    /**
+     * Returns a copy of this constraint that also rejects values made only of whitespace,
+     * using the same definition of whitespace as {@link String#trim()}.
+     *
+     * @return the extended constraint
+     */
+    FieldConstraint notBlank() {
+        return new FieldConstraint(message, minLength, maxLength, true, digitsOnly);
+    }
+
+    /**
+     * Returns a copy of this constraint that also caps the value length.
+     *
+     * @param max the maximum number of characters allowed
+     * @return the extended constraint
+     */
+    FieldConstraint maxLength(int max) {
+        return new FieldConstraint(message, minLength, max, notBlank, digitsOnly);
+    }
+
+    /**
+     * Returns a copy of this constraint that requires an exact value length.
+     *
+     * @param length the required number of characters
+     * @return the extended constraint
+     */
+    FieldConstraint exactLength(int length) {
+        return new FieldConstraint(message, length, length, notBlank, digitsOnly);
+    }
+
+    /**
+     * Returns a copy of this constraint that only accepts the ASCII digits 0-9.
+     *
+     * @return the extended constraint
+     */
+    FieldConstraint digitsOnly() {
+        return new FieldConstraint(message, minLength, maxLength, notBlank, true);
+    }
+
+    /**
+     * Checks a value against this constraint without throwing.
+     *
+     * @param value the value to check
+     * @return true if the value satisfies every rule of this constraint
+     */
+    boolean test(String value) {
+        if (value == null) {
+            return false;
+        }
+        int length = value.length();
+        if (length < minLength || length > maxLength) {
+            return false;
+        }
+        if (notBlank && isBlank(value, length)) {
+            return false;
+        }
+        return !digitsOnly || isDigits(value, length);
+    }
+
+    /**
+     * Validates a value against this constraint.
+     *
+     * @param value the value to validate
+     * @throws IllegalArgumentException with this constraint's message if the value is invalid
+     */
+    void validate(String value) {
+        if (!test(value)) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static boolean isBlank(String value, int length) {
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigits(String value, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package edu.snhu;
+
+/**
+ * Count-min sketch of recent access frequencies with 4-bit counters, used by
+ * TinyLfuCache to decide admission.
+ * Each long holds sixteen counters and each of the four hash rows owns four of
+ * them, so a key touches at most four longs. Once ten increments per cached entry
+ * have been recorded, every counter is halved, so the sketch forgets old popularity
+ * and tracks the current working set. Not thread-safe; callers serialize access.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class FrequencySketch {
+    /** Highest value a 4-bit counter can hold. */
+    static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+        0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+    private static final long HALVE_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a sketch sized for a cache of the given capacity.
+     *
+     * @param capacity the maximum number of cached entries, positive
+     */
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(16, Math.min(capacity, 1 << 29) - 1) << 1);
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * capacity);
+    }
+
+    /**
+     * Estimates how often a key was seen since the counters were last halved.
+     *
+     * @param key the key
+     * @return the estimate, from 0 to {@link #MAX_FREQUENCY}
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SEEDS.length; row++) {
+            int shift = shiftOf(hash, row);
+            frequency = Math.min(frequency, (int) (table[indexOf(hash, row)] >>> shift) & MAX_FREQUENCY);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records one access to a key, halving every counter when the sample is full.
+     *
+     * @param key the key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            int index = indexOf(hash, row);
+            int shift = shiftOf(hash, row);
+            if (((table[index] >>> shift) & MAX_FREQUENCY) != MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            halve();
+        }
+    }
+
+    private void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & HALVE_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (h + (h >>> 32)) & tableMask;
+    }
+
+    /**
+     * Picks one of the four counters the row owns in its long.
+     */
+    private static int shiftOf(int hash, int row) {
+        int counter = (row << 2) + ((hash >>> (row << 3)) & 3);
+        return counter << 2;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
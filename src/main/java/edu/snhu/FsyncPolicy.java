@@ -0,0 +1,18 @@
+package edu.snhu;
+
+/**
+ * When a write-ahead log forces its writes to stable storage.
+ * Every policy hands each record to the operating system before the operation returns,
+ * so a killed process loses nothing; the policies differ in what a machine crash can lose.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public enum FsyncPolicy {
+    /** Force after every record: nothing acknowledged is lost, slowest. */
+    PER_OPERATION,
+    /** Force from a background thread every configured interval: at most one interval is lost. */
+    GROUP_COMMIT,
+    /** Never force explicitly: the operating system decides when dirty pages reach the disk. */
+    OS_BUFFERED
+}
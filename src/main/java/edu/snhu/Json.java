@@ -0,0 +1,222 @@
+package edu.snhu;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the HTTP front end.
+ * Request and response bodies are flat objects whose values are strings, numbers,
+ * booleans or null, so that is all this reads and writes; nested objects and arrays
+ * are rejected rather than half-supported.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Parses a flat JSON object.
+     * String values are unescaped; numbers and booleans are returned as their literal
+     * text; null is returned as a null value.
+     *
+     * @param text the JSON text
+     * @return the members in document order
+     * @throws IllegalArgumentException if the text is not a flat JSON object or repeats a member
+     */
+    static Map<String, String> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, String> members = new LinkedHashMap<>();
+        parser.skipWhitespace();
+        parser.expect('{');
+        parser.skipWhitespace();
+        if (!parser.consume('}')) {
+            do {
+                parser.skipWhitespace();
+                String name = parser.string();
+                parser.skipWhitespace();
+                parser.expect(':');
+                parser.skipWhitespace();
+                if (members.containsKey(name)) {
+                    throw new IllegalArgumentException("Duplicate JSON member: " + name);
+                }
+                members.put(name, parser.value());
+                parser.skipWhitespace();
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Malformed JSON: trailing characters");
+        }
+        return members;
+    }
+
+    /**
+     * Writes a flat JSON object with string values.
+     *
+     * @param namesAndValues alternating member names and values; null values are written as null
+     * @return the JSON text
+     */
+    static String object(String... namesAndValues) {
+        StringBuilder json = new StringBuilder(16 * namesAndValues.length).append('{');
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (i > 0) {
+                json.append(',');
+            }
+            quote(json, namesAndValues[i]);
+            json.append(':');
+            if (namesAndValues[i + 1] == null) {
+                json.append("null");
+            } else {
+                quote(json, namesAndValues[i + 1]);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static void quote(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Cursor over the JSON text.
+     */
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            if (text == null) {
+                throw new IllegalArgumentException("JSON text cannot be null");
+            }
+            this.text = text;
+        }
+
+        boolean atEnd() {
+            return position == text.length();
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        boolean consume(char expected) {
+            if (!atEnd() && text.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char expected) {
+            if (!consume(expected)) {
+                throw malformed("expected '" + expected + "'");
+            }
+        }
+
+        String value() {
+            if (atEnd()) {
+                throw malformed("missing value");
+            }
+            char c = text.charAt(position);
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("Nested JSON values are not supported");
+            }
+            int start = position;
+            while (!atEnd() && isLiteralChar(text.charAt(position))) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (literal.equals("true") || literal.equals("false") || isNumber(literal)) {
+                return literal;
+            }
+            throw malformed("invalid value");
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (atEnd()) {
+                    throw malformed("unterminated string");
+                }
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c < 0x20) {
+                    throw malformed("control character in string");
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (atEnd()) {
+                    throw malformed("unterminated escape");
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append(escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > text.length()) {
+                            throw malformed("truncated unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed("invalid unicode escape");
+                        }
+                        position += 4;
+                    }
+                    default -> throw malformed("invalid escape");
+                }
+            }
+        }
+
+        private static boolean isLiteralChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.';
+        }
+
+        private static boolean isNumber(String literal) {
+            return literal.matches("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][-+]?[0-9]+)?");
+        }
+
+        private IllegalArgumentException malformed(String reason) {
+            return new IllegalArgumentException("Malformed JSON at offset " + position + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package edu.snhu;
+
+/**
+ * Thrown by the services when an operation names an ID that is not stored.
+ * Callers see an IllegalArgumentException as before; the subtype only lets metrics
+ * tell a miss apart from a validation failure.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class NotFoundException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    NotFoundException(String message) {
+        super(message);
+    }
+}
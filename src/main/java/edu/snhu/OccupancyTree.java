@@ -0,0 +1,319 @@
+package edu.snhu;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sorted multiset of occupied instants that finds free gaps and counts ranges in logarithmic time.
+ * The timeline is split into fixed-width buckets, each a treap keyed by epoch millisecond
+ * under its own lock, so writers to different hours never contend. Each node also records
+ * its subtree's smallest and largest instant and the widest gap between consecutive instants
+ * inside it, so a search for the first gap of a given width skips every subtree, and every
+ * bucket, that cannot hold one. A search carries the last instant it saw from one bucket
+ * to the next, so gaps that span buckets are found too. Nodes also record how many
+ * occupations their subtree holds, so a range count ranks its two ends within their
+ * buckets and adds whole buckets between.
+ * A search or count locks one bucket at a time, so a write that runs during a search is seen if it
+ * lands in a bucket the search has not read yet; the service offers no stronger guarantee,
+ * since a slot reported free can be taken as soon as the search returns.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class OccupancyTree {
+    /** Returned when no instant satisfies a query. */
+    static final long NONE = Long.MIN_VALUE;
+
+    private static final long BUCKET_MILLIS = 60 * 60 * 1000;
+
+    // Non-empty buckets by floorDiv(time, BUCKET_MILLIS); a bucket that empties is retired and dropped
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Marks an instant occupied. Instants may be occupied more than once.
+     *
+     * @param time the epoch millisecond
+     */
+    void add(long time) {
+        Long key = Math.floorDiv(time, BUCKET_MILLIS);
+        while (true) {
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            bucket.lock.writeLock().lock();
+            try {
+                // A bucket retired since the lookup is no longer in the map; retry with its replacement
+                if (!bucket.retired) {
+                    bucket.root = insert(bucket.root, time);
+                    return;
+                }
+            } finally {
+                bucket.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Releases one occupation of an instant.
+     *
+     * @param time the epoch millisecond
+     */
+    void remove(long time) {
+        Long key = Math.floorDiv(time, BUCKET_MILLIS);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        bucket.lock.writeLock().lock();
+        try {
+            bucket.root = delete(bucket.root, time);
+            if (bucket.root == null && !bucket.retired) {
+                bucket.retired = true;
+                buckets.remove(key, bucket);
+            }
+        } finally {
+            bucket.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the earliest start of a free window at or after a time.
+     * A window [start, start + width) is free when it contains no occupied instant;
+     * the earliest candidate after an occupied instant is one millisecond later.
+     *
+     * @param after the earliest acceptable start
+     * @param width the window width in milliseconds, at least 1
+     * @return the window start
+     */
+    long firstFreeStart(long after, long width) {
+        long[] previous = {NONE};
+        for (Bucket bucket : buckets.tailMap(Math.floorDiv(after, BUCKET_MILLIS)).values()) {
+            bucket.lock.readLock().lock();
+            try {
+                if (previous[0] == NONE) {
+                    long first = ceiling(bucket.root, after);
+                    if (first == NONE) {
+                        continue;
+                    }
+                    if (first - after >= width) {
+                        return after;
+                    }
+                }
+                // The window after x fits before its successor y when y - (x + 1) >= width
+                long start = firstGap(bucket.root, after, width + 1, previous);
+                if (start != NONE) {
+                    return start + 1;
+                }
+            } finally {
+                bucket.lock.readLock().unlock();
+            }
+        }
+        return previous[0] == NONE ? after : previous[0] + 1;
+    }
+
+    /**
+     * Counts the occupations in the half-open range [from, to). Costs a logarithmic rank in
+     * each of the two end buckets plus one step per occupied bucket in between, instead of
+     * one step per occupation.
+     *
+     * @param from inclusive lower bound in epoch milliseconds
+     * @param to exclusive upper bound in epoch milliseconds
+     * @return the number of occupations in the range
+     */
+    int count(long from, long to) {
+        if (from >= to) {
+            return 0;
+        }
+        long first = Math.floorDiv(from, BUCKET_MILLIS);
+        long last = Math.floorDiv(to - 1, BUCKET_MILLIS);
+        int total = 0;
+        for (Map.Entry<Long, Bucket> entry : buckets.subMap(first, true, last, true).entrySet()) {
+            long key = entry.getKey();
+            Bucket bucket = entry.getValue();
+            bucket.lock.readLock().lock();
+            try {
+                if (key == first || key == last) {
+                    total += rank(bucket.root, to) - rank(bucket.root, from);
+                } else {
+                    total += size(bucket.root);
+                }
+            } finally {
+                bucket.lock.readLock().unlock();
+            }
+        }
+        return total;
+    }
+
+    /** Counts the occupations before a time in a subtree. */
+    private static int rank(Node node, long time) {
+        int rank = 0;
+        while (node != null) {
+            if (time <= node.time) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static long ceiling(Node node, long time) {
+        long best = NONE;
+        while (node != null) {
+            if (node.time >= time) {
+                best = node.time;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Walks instants at or after from in order and returns the first x whose successor y
+     * satisfies y - x >= gap. Subtrees that lie before from, or that hold no wide enough
+     * gap internally or against the previous instant, are skipped whole.
+     *
+     * @param previous holds the last instant visited, NONE before the first
+     * @return x, or NONE if no such pair lies in this subtree
+     */
+    private static long firstGap(Node node, long from, long gap, long[] previous) {
+        if (node == null || node.max < from) {
+            return NONE;
+        }
+        if (node.min >= from && node.maxGap < gap && (previous[0] == NONE || node.min - previous[0] < gap)) {
+            previous[0] = node.max;
+            return NONE;
+        }
+        long found = firstGap(node.left, from, gap, previous);
+        if (found != NONE) {
+            return found;
+        }
+        if (node.time >= from) {
+            if (previous[0] != NONE && node.time - previous[0] >= gap) {
+                return previous[0];
+            }
+            previous[0] = node.time;
+        }
+        return firstGap(node.right, from, gap, previous);
+    }
+
+    private static Node insert(Node node, long time) {
+        if (node == null) {
+            return new Node(time);
+        }
+        if (time == node.time) {
+            node.count++;
+            node.size++;
+            return node;
+        }
+        if (time < node.time) {
+            node.left = insert(node.left, time);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, time);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, long time) {
+        if (node == null) {
+            return null;
+        }
+        if (time < node.time) {
+            node.left = delete(node.left, time);
+        } else if (time > node.time) {
+            node.right = delete(node.right, time);
+        } else if (node.count > 1) {
+            node.count--;
+            node.size--;
+            return node;
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, time);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, time);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * The treap of the instants in one bucket of the timeline, guarded by its own lock.
+     */
+    private static final class Bucket {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private Node root;
+        private boolean retired;
+    }
+
+    /**
+     * One distinct occupied instant and the summary of its subtree.
+     */
+    private static final class Node {
+        private final long time;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int count = 1;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        private long min;
+        private long max;
+        private long maxGap;
+
+        Node(long time) {
+            this.time = time;
+            this.min = time;
+            this.max = time;
+        }
+
+        void update() {
+            size = count + size(left) + size(right);
+            min = left != null ? left.min : time;
+            max = right != null ? right.max : time;
+            long gap = 0;
+            if (left != null) {
+                gap = Math.max(left.maxGap, time - left.max);
+            }
+            if (right != null) {
+                gap = Math.max(gap, Math.max(right.maxGap, right.min - time));
+            }
+            maxGap = gap;
+        }
+    }
+}
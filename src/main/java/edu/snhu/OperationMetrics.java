@@ -0,0 +1,216 @@
+package edu.snhu;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Latency histogram and outcome counters for one service operation.
+ * Latencies are counted in log-linear buckets in the style of HdrHistogram: values
+ * below 64ns get a bucket each, and every power of two above that is split into 32
+ * buckets, so a bucket's width is at most 1/32 of its values. Recording touches only
+ * a stripe of counters picked by the calling thread, created on first use, so threads
+ * rarely share a cache line and never take a lock; stripes are summed when read.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class OperationMetrics {
+    static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values from 2^37 ns (about 137 seconds) up share the last bucket
+    private static final int MAX_SHIFT = 31;
+    static final int BUCKETS = (MAX_SHIFT + 2) * SUB_BUCKETS;
+    private static final long MAX_TRACKED = (1L << (MAX_SHIFT + SUB_BUCKET_BITS + 1)) - 1;
+
+    // Stripe layout: sum of latencies, one count per outcome, then the buckets
+    private static final int SUM = 0;
+    private static final int FIRST_BUCKET = 1 + OperationOutcome.values().length;
+    private static final int STRIPE_LENGTH = FIRST_BUCKET + BUCKETS;
+    private static final int MAX_STRIPES = 64;
+
+    private final String service;
+    private final String operation;
+    private final AtomicReferenceArray<AtomicLongArray> stripes;
+    private final int mask;
+
+    OperationMetrics(String service, String operation) {
+        this.service = service;
+        this.operation = operation;
+        int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2));
+        this.stripes = new AtomicReferenceArray<>(stripeCount);
+        this.mask = stripeCount - 1;
+    }
+
+    /**
+     * Runs an operation, recording its latency and an outcome derived from its result.
+     * A NotFoundException counts as NOT_FOUND, any other IllegalArgumentException as
+     * INVALID and any other exception as ERROR; the exception is rethrown.
+     *
+     * @param metrics   the service's operation metrics, or null when disabled
+     * @param operation the operation, indexing metrics by ordinal
+     * @param body      the operation itself
+     * @param outcome   classifies a normal return
+     * @return the operation's result
+     */
+    static <R> R time(OperationMetrics[] metrics, Enum<?> operation, Supplier<R> body,
+            Function<? super R, OperationOutcome> outcome) {
+        if (metrics == null) {
+            return body.get();
+        }
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = body.get();
+        } catch (RuntimeException | Error e) {
+            metrics[operation.ordinal()].record(start, outcomeOf(e));
+            throw e;
+        }
+        metrics[operation.ordinal()].record(start, outcome.apply(result));
+        return result;
+    }
+
+    /**
+     * Runs an operation whose normal return always counts as SUCCESS.
+     *
+     * @see #time(OperationMetrics[], Enum, Supplier, Function)
+     */
+    static <R> R time(OperationMetrics[] metrics, Enum<?> operation, Supplier<R> body) {
+        return time(metrics, operation, body, result -> OperationOutcome.SUCCESS);
+    }
+
+    /**
+     * Runs an operation without a result whose normal return counts as SUCCESS.
+     *
+     * @see #time(OperationMetrics[], Enum, Supplier, Function)
+     */
+    static void time(OperationMetrics[] metrics, Enum<?> operation, Runnable body) {
+        time(metrics, operation, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    static OperationOutcome added(AddResult result) {
+        return switch (result) {
+            case ADDED -> OperationOutcome.SUCCESS;
+            case DUPLICATE_ID, INVALID -> OperationOutcome.INVALID;
+            case CAPACITY -> OperationOutcome.ERROR;
+        };
+    }
+
+    static OperationOutcome removed(boolean removed) {
+        return removed ? OperationOutcome.SUCCESS : OperationOutcome.NOT_FOUND;
+    }
+
+    static OperationOutcome found(Optional<?> found) {
+        return found.isPresent() ? OperationOutcome.SUCCESS : OperationOutcome.NOT_FOUND;
+    }
+
+    private static OperationOutcome outcomeOf(Throwable failure) {
+        if (failure instanceof NotFoundException) {
+            return OperationOutcome.NOT_FOUND;
+        }
+        return failure instanceof IllegalArgumentException ? OperationOutcome.INVALID : OperationOutcome.ERROR;
+    }
+
+    String service() {
+        return service;
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    /**
+     * Records one finished call.
+     *
+     * @param startNanos the System.nanoTime() reading taken when the call started
+     * @param outcome    how the call ended
+     */
+    void record(long startNanos, OperationOutcome outcome) {
+        long elapsed = System.nanoTime() - startNanos;
+        AtomicLongArray stripe = stripe();
+        stripe.getAndIncrement(FIRST_BUCKET + bucketOf(elapsed));
+        stripe.getAndIncrement(1 + outcome.ordinal());
+        stripe.getAndAdd(SUM, elapsed);
+    }
+
+    /**
+     * Sums the stripes into a point-in-time view.
+     * Calls recorded concurrently may be partly included.
+     *
+     * @return the snapshot
+     */
+    OperationSnapshot snapshot() {
+        long sum = 0;
+        long[] outcomes = new long[OperationOutcome.values().length];
+        long[] buckets = new long[BUCKETS];
+        for (int s = 0; s < stripes.length(); s++) {
+            AtomicLongArray stripe = stripes.get(s);
+            if (stripe == null) {
+                continue;
+            }
+            sum += stripe.get(SUM);
+            for (int i = 0; i < outcomes.length; i++) {
+                outcomes[i] += stripe.get(1 + i);
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] += stripe.get(FIRST_BUCKET + i);
+            }
+        }
+        return new OperationSnapshot(service, operation, outcomes, buckets, sum);
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().threadId();
+        int index = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(STRIPE_LENGTH));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    /**
+     * Maps a latency to its bucket.
+     *
+     * @param nanos the latency; negative values count as zero
+     * @return the bucket index
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < 2 * SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        long value = Math.min(nanos, MAX_TRACKED);
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the smallest latency counted in a bucket.
+     *
+     * @param bucket the bucket index, at most BUCKETS
+     * @return the bucket's lower bound in nanoseconds
+     */
+    static long lowestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * Returns the largest latency counted in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the bucket's upper bound in nanoseconds
+     */
+    static long highestValue(int bucket) {
+        return lowestValue(bucket + 1) - 1;
+    }
+}
@@ -0,0 +1,18 @@
+package edu.snhu;
+
+/**
+ * How a recorded service operation ended.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public enum OperationOutcome {
+    /** The operation did what was asked, including lookups that found their entity. */
+    SUCCESS,
+    /** The input failed validation or named an ID that already exists. */
+    INVALID,
+    /** The operation named an ID that is not stored. */
+    NOT_FOUND,
+    /** The operation failed for another reason, such as an I/O error. */
+    ERROR
+}
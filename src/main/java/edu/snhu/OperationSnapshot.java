@@ -0,0 +1,130 @@
+package edu.snhu;
+
+/**
+ * Point-in-time latency distribution and outcome counts of one service operation.
+ * Percentiles are resolved to the latency bucket they fall in and reported as that
+ * bucket's upper bound, so they overstate the true value by at most about 3%.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class OperationSnapshot {
+    private final String service;
+    private final String operation;
+    private final long[] outcomes;
+    private final long[] buckets;
+    private final long count;
+    private final long sumNanos;
+
+    OperationSnapshot(String service, String operation, long[] outcomes, long[] buckets, long sumNanos) {
+        this.service = service;
+        this.operation = operation;
+        this.outcomes = outcomes;
+        this.buckets = buckets;
+        this.sumNanos = sumNanos;
+        long total = 0;
+        for (long bucket : buckets) {
+            total += bucket;
+        }
+        this.count = total;
+    }
+
+    /**
+     * Gets the name of the service the operation belongs to.
+     *
+     * @return the service name, such as "contact"
+     */
+    public String getService() {
+        return service;
+    }
+
+    /**
+     * Gets the name of the operation.
+     *
+     * @return the service method name, such as "addContact"
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the number of recorded calls.
+     *
+     * @return the call count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of recorded calls that ended with an outcome.
+     *
+     * @param outcome the outcome to count, must not be null
+     * @return the number of calls with that outcome
+     * @throws IllegalArgumentException if outcome is null
+     */
+    public long getCount(OperationOutcome outcome) {
+        if (outcome == null) {
+            throw new IllegalArgumentException("Outcome cannot be null");
+        }
+        return outcomes[outcome.ordinal()];
+    }
+
+    /**
+     * Gets the total time spent in recorded calls.
+     *
+     * @return the sum of all latencies in nanoseconds
+     */
+    public long getSumNanos() {
+        return sumNanos;
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean in nanoseconds, 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sumNanos / count;
+    }
+
+    /**
+     * Gets the latency at or below which the given percentage of calls completed.
+     *
+     * @param percentile the percentage, from 0 to 100; 99.9 gives p999
+     * @return the latency in nanoseconds, 0 if nothing was recorded
+     * @throws IllegalArgumentException if percentile is outside [0, 100]
+     */
+    public long getPercentileNanos(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        // Round rather than ceil, so that 99.9 of 1000 calls is rank 999 despite floating-point error
+        long rank = Math.max(1, Math.round(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return OperationMetrics.highestValue(i);
+            }
+        }
+        return OperationMetrics.highestValue(buckets.length - 1);
+    }
+
+    /**
+     * Gets the largest recorded latency.
+     *
+     * @return the upper bound of the highest non-empty bucket in nanoseconds, 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        for (int i = buckets.length - 1; i >= 0; i--) {
+            if (buckets[i] != 0) {
+                return OperationMetrics.highestValue(i);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,18 @@
+package edu.snhu;
+
+/**
+ * What a change subscription does when its subscriber falls a full ring buffer behind.
+ * Every policy delivers events in sequence order; they differ in whether a slow
+ * subscriber loses events, holds up writers, or costs memory.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public enum OverflowPolicy {
+    /** Skip the events that were overwritten and count them: writers never wait, events can be lost. */
+    DROP,
+    /** Make writers wait for the subscriber to free a slot: nothing is lost, writers slow to its pace. */
+    BLOCK,
+    /** Copy unread events to an unbounded overflow queue: nothing is lost and writers never wait, memory grows. */
+    SPILL
+}
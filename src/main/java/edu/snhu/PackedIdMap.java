@@ -0,0 +1,257 @@
+package edu.snhu;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * ConcurrentMap keyed by entity IDs that stores short IDs as packed longs.
+ * An ID of 1 to 10 characters drawn from [0-9A-Za-z_-] packs into one long (6 bits
+ * per character plus a 4-bit length) and lives in a ConcurrentLongMap, so it needs
+ * no String or node object per entry. Any other ID takes the String path through
+ * a ConcurrentHashMap. Entry views rebuild the String keys on demand and are
+ * weakly consistent snapshots.
+ *
+ * @param <V> the value type
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class PackedIdMap<V> extends AbstractMap<String, V> implements ConcurrentMap<String, V> {
+    static final int MAX_PACKED_LENGTH = 10;
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_";
+    private static final byte[] CODES = new byte[128];
+    private static final int LENGTH_SHIFT = 60;
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            CODES[ALPHABET.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final ConcurrentLongMap<V> packed = new ConcurrentLongMap<>();
+    private final ConcurrentMap<String, V> fallback = new ConcurrentHashMap<>();
+
+    /**
+     * Packs an ID into a long.
+     *
+     * @param id the ID
+     * @return the packed ID, or 0 if the ID cannot be packed
+     */
+    static long pack(String id) {
+        int length = id.length();
+        if (length == 0 || length > MAX_PACKED_LENGTH) {
+            return 0;
+        }
+        long bits = (long) length << LENGTH_SHIFT;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            int code = c < CODES.length ? CODES[c] : -1;
+            if (code < 0) {
+                return 0;
+            }
+            bits |= (long) code << (i * 6);
+        }
+        return bits;
+    }
+
+    /**
+     * Rebuilds the ID a long was packed from.
+     *
+     * @param bits a value returned by {@link #pack(String)}
+     * @return the original ID
+     */
+    static String unpack(long bits) {
+        int length = (int) (bits >>> LENGTH_SHIFT);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt((int) (bits >>> (i * 6)) & 0x3F);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key instanceof String id) {
+            long bits = pack(id);
+            return bits != 0 ? packed.get(bits) : fallback.get(id);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        requireValue(value);
+        long bits = pack(key);
+        return bits != 0 ? packed.put(bits, value) : fallback.put(key, value);
+    }
+
+    @Override
+    public V putIfAbsent(String key, V value) {
+        requireValue(value);
+        long bits = pack(key);
+        return bits != 0 ? packed.putIfAbsent(bits, value) : fallback.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key instanceof String id) {
+            long bits = pack(id);
+            return bits != 0 ? packed.remove(bits) : fallback.remove(id);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (!(key instanceof String id) || value == null) {
+            return false;
+        }
+        long bits = pack(id);
+        if (bits == 0) {
+            return fallback.remove(id, value);
+        }
+        boolean[] removed = new boolean[1];
+        packed.computeIfPresent(bits, (k, current) -> {
+            removed[0] = current.equals(value);
+            return removed[0] ? null : current;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public boolean replace(String key, V oldValue, V newValue) {
+        requireValue(newValue);
+        long bits = pack(key);
+        if (bits == 0) {
+            return fallback.replace(key, oldValue, newValue);
+        }
+        boolean[] replaced = new boolean[1];
+        packed.computeIfPresent(bits, (k, current) -> {
+            replaced[0] = current.equals(oldValue);
+            return replaced[0] ? newValue : current;
+        });
+        return replaced[0];
+    }
+
+    @Override
+    public V replace(String key, V value) {
+        requireValue(value);
+        long bits = pack(key);
+        if (bits == 0) {
+            return fallback.replace(key, value);
+        }
+        List<V> previous = new ArrayList<>(1);
+        packed.computeIfPresent(bits, (k, current) -> {
+            previous.add(current);
+            return value;
+        });
+        return previous.isEmpty() ? null : previous.get(0);
+    }
+
+    @Override
+    public V computeIfAbsent(String key, Function<? super String, ? extends V> function) {
+        long bits = pack(key);
+        return bits != 0 ? packed.computeIfAbsent(bits, k -> function.apply(key))
+                : fallback.computeIfAbsent(key, function);
+    }
+
+    @Override
+    public V computeIfPresent(String key, BiFunction<? super String, ? super V, ? extends V> function) {
+        long bits = pack(key);
+        return bits != 0 ? packed.computeIfPresent(bits, (k, current) -> function.apply(key, current))
+                : fallback.computeIfPresent(key, function);
+    }
+
+    @Override
+    public V compute(String key, BiFunction<? super String, ? super V, ? extends V> function) {
+        long bits = pack(key);
+        if (bits == 0) {
+            return fallback.compute(key, function);
+        }
+        List<V> result = new ArrayList<>(1);
+        packed.compute(bits, (k, current) -> {
+            V next = function.apply(key, current);
+            result.add(next);
+            return next;
+        });
+        return result.get(0);
+    }
+
+    @Override
+    public int size() {
+        return packed.size() + fallback.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        packed.clear();
+        fallback.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, V>> iterator() {
+                List<Map.Entry<String, V>> entries = new ArrayList<>(PackedIdMap.this.size());
+                packed.forEach((bits, value) -> entries.add(new SimpleImmutableEntry<>(unpack(bits), value)));
+                entries.addAll(fallback.entrySet());
+                Iterator<Map.Entry<String, V>> snapshot = entries.iterator();
+                return new Iterator<>() {
+                    private Map.Entry<String, V> last;
+
+                    @Override
+                    public boolean hasNext() {
+                        return snapshot.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, V> next() {
+                        last = snapshot.next();
+                        return last;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last == null) {
+                            throw new IllegalStateException();
+                        }
+                        PackedIdMap.this.remove(last.getKey(), last.getValue());
+                        last = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return PackedIdMap.this.size();
+            }
+        };
+    }
+
+    private static void requireValue(Object value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+    }
+}
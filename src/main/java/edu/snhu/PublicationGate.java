@@ -0,0 +1,106 @@
+package edu.snhu;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Makes a service's bulk inserts visible all at once.
+ * Single-entity writes hold a stripe of the gate shared, picked by the calling thread,
+ * so writers on different threads rarely touch the same lock word. A bulk insert holds
+ * every stripe exclusively: it waits for the writes in progress, holds off new ones and
+ * publishes the whole batch before anyone can act on part of it. Reads take no lock in
+ * the common case: they run optimistically against the first stripe, which every bulk
+ * insert takes first and releases last, and run again under it only if a bulk insert
+ * was in progress or started meanwhile. No read therefore observes part of a batch.
+ * The gate is not reentrant: a write or read must not run another gated operation, and
+ * callbacks into caller code (listeners, futures) belong outside it.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class PublicationGate {
+    private static final int MAX_STRIPES = 64;
+
+    private final StampedLock[] stripes;
+    private final int mask;
+
+    PublicationGate() {
+        int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2));
+        stripes = new StampedLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new StampedLock();
+        }
+        mask = stripeCount - 1;
+    }
+
+    /**
+     * Runs a single-entity write, holding off bulk inserts until it returns.
+     *
+     * @param <T> the result type
+     * @param write the write
+     * @return the write's result
+     */
+    <T> T write(Supplier<T> write) {
+        long id = Thread.currentThread().threadId();
+        StampedLock stripe = stripes[(int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask];
+        long stamp = stripe.readLock();
+        try {
+            return write.get();
+        } finally {
+            stripe.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a read that must not observe part of a bulk insert. The read can run twice,
+     * so it should have no side effects beyond ones that are harmless to repeat.
+     *
+     * @param <T> the result type
+     * @param read the read
+     * @return the read's result
+     */
+    <T> T read(Supplier<T> read) {
+        StampedLock first = stripes[0];
+        long stamp = first.tryOptimisticRead();
+        if (stamp != 0) {
+            T result;
+            try {
+                result = read.get();
+            } catch (RuntimeException e) {
+                if (first.validate(stamp)) {
+                    throw e;
+                }
+                result = null;
+            }
+            if (first.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = first.readLock();
+        try {
+            return read.get();
+        } finally {
+            first.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a bulk insert with every write and read of the service held off, so it
+     * becomes visible as a whole once it returns.
+     *
+     * @param publish the bulk insert
+     */
+    void publish(Runnable publish) {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].writeLock();
+        }
+        try {
+            publish.run();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlockWrite(stamps[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,384 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP/JSON front end for the contact, task and appointment services.
+ * Serves CRUD endpoints under /contacts, /tasks and /appointments:
+ * POST /{resource} creates an entity from a JSON object, GET /{resource}/{id} reads one,
+ * PATCH /{resource}/{id} updates the fields given in a JSON object (contacts and tasks),
+ * and DELETE /{resource}/{id} removes one. Appointment dates are ISO-8601 instants.
+ * Failed requests get a JSON object with an "error" message: 400 for invalid input,
+ * 404 for an unknown ID, 405 for an unsupported method, 409 for a duplicate ID,
+ * 507 when a bounded service refuses a new entity.
+ * When given a {@link ServiceMetrics} registry, GET /metrics returns it in the
+ * Prometheus text format.
+ * Every request runs on its own virtual thread, so slow clients park cheaply instead
+ * of holding a platform thread each.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class ServiceHttpServer implements Closeable {
+    /** Request bodies larger than this are rejected. */
+    static final int MAX_BODY_BYTES = 16 * 1024;
+    /** How long close waits for requests in flight, in seconds. */
+    static final int STOP_GRACE_SECONDS = 2;
+
+    private static final Set<String> CONTACT_FIELDS = Set.of("id", "firstName", "lastName", "phone", "address");
+    private static final Set<String> TASK_FIELDS = Set.of("id", "name", "description");
+    private static final Set<String> APPOINTMENT_FIELDS = Set.of("id", "date", "description");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ContactService contacts;
+    private final TaskService tasks;
+    private final AppointmentService appointments;
+
+    /**
+     * Binds the server and starts serving requests.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param contacts the contact service to expose, must not be null
+     * @param tasks the task service to expose, must not be null
+     * @param appointments the appointment service to expose, must not be null
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public ServiceHttpServer(InetSocketAddress address, ContactService contacts, TaskService tasks,
+            AppointmentService appointments) throws IOException {
+        this(address, contacts, tasks, appointments, null);
+    }
+
+    /**
+     * Binds the server, also exporting a metrics registry at GET /metrics.
+     * The registry is only read; enable it on the services to fill it.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @param contacts the contact service to expose, must not be null
+     * @param tasks the task service to expose, must not be null
+     * @param appointments the appointment service to expose, must not be null
+     * @param metrics the registry to export, or null for no /metrics endpoint
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if the address or any service is null
+     */
+    public ServiceHttpServer(InetSocketAddress address, ContactService contacts, TaskService tasks,
+            AppointmentService appointments, ServiceMetrics metrics) throws IOException {
+        if (address == null || contacts == null || tasks == null || appointments == null) {
+            throw new IllegalArgumentException("Address and services cannot be null");
+        }
+        this.contacts = contacts;
+        this.tasks = tasks;
+        this.appointments = appointments;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/contacts", exchange -> serve(exchange, this::contacts));
+        server.createContext("/tasks", exchange -> serve(exchange, this::tasks));
+        server.createContext("/appointments", exchange -> serve(exchange, this::appointments));
+        if (metrics != null) {
+            server.createContext("/metrics", exchange -> exportMetrics(exchange, metrics));
+        }
+        server.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits up to {@value #STOP_GRACE_SECONDS} seconds for the
+     * ones in flight to finish; after that their connections are closed.
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_GRACE_SECONDS);
+        executor.shutdown();
+    }
+
+    private Response contacts(String method, String id, Map<String, String> body) {
+        switch (method) {
+            case "POST" -> {
+                requireNoId(id);
+                requireOnly(body, CONTACT_FIELDS);
+                Contact contact = new Contact(body.get("id"), body.get("firstName"), body.get("lastName"),
+                        body.get("phone"), body.get("address"));
+                return created(contacts.tryAddContact(contact), toJson(contact));
+            }
+            case "GET" -> {
+                return found(contacts.findContact(id).map(ServiceHttpServer::toJson));
+            }
+            case "PATCH" -> {
+                requireOnly(body, Set.of("firstName", "lastName", "phone", "address"));
+                if (contacts.findContact(id).isEmpty()) {
+                    return notFound();
+                }
+                // One atomic update, so a bad value leaves the contact unchanged
+                contacts.updateContact(id, draft -> {
+                    if (body.containsKey("firstName")) {
+                        draft.setFirstName(body.get("firstName"));
+                    }
+                    if (body.containsKey("lastName")) {
+                        draft.setLastName(body.get("lastName"));
+                    }
+                    if (body.containsKey("phone")) {
+                        draft.setPhone(body.get("phone"));
+                    }
+                    if (body.containsKey("address")) {
+                        draft.setAddress(body.get("address"));
+                    }
+                    return draft;
+                });
+                return found(contacts.findContact(id).map(ServiceHttpServer::toJson));
+            }
+            case "DELETE" -> {
+                return deleted(contacts.tryDeleteContact(id));
+            }
+            default -> {
+                return methodNotAllowed();
+            }
+        }
+    }
+
+    private Response tasks(String method, String id, Map<String, String> body) {
+        switch (method) {
+            case "POST" -> {
+                requireNoId(id);
+                requireOnly(body, TASK_FIELDS);
+                Task task = new Task(body.get("id"), body.get("name"), body.get("description"));
+                return created(tasks.tryAddTask(task), toJson(task));
+            }
+            case "GET" -> {
+                return found(tasks.findTask(id).map(ServiceHttpServer::toJson));
+            }
+            case "PATCH" -> {
+                requireOnly(body, Set.of("name", "description"));
+                if (tasks.findTask(id).isEmpty()) {
+                    return notFound();
+                }
+                validateIfPresent(body, "name", Task.TASK_NAME);
+                validateIfPresent(body, "description", Task.TASK_DESCRIPTION);
+                // One write that replaces the stored task, so no reader sees the new name with the old description
+                tasks.applyUpdate(id, body.get("name"), body.get("description"));
+                return found(tasks.findTask(id).map(ServiceHttpServer::toJson));
+            }
+            case "DELETE" -> {
+                return deleted(tasks.tryDeleteTask(id));
+            }
+            default -> {
+                return methodNotAllowed();
+            }
+        }
+    }
+
+    private Response appointments(String method, String id, Map<String, String> body) {
+        switch (method) {
+            case "POST" -> {
+                requireNoId(id);
+                requireOnly(body, APPOINTMENT_FIELDS);
+                String date = body.get("date");
+                Instant time;
+                try {
+                    time = date == null ? null : Instant.parse(date);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Appointment date must be an ISO-8601 instant");
+                }
+                String appointmentId = body.get("id");
+                AddResult result = appointments.tryAddAppointmentAt(appointmentId, time, body.get("description"));
+                if (result == AddResult.INVALID) {
+                    // Let the factory report which rule failed
+                    Appointment.at(appointmentId, time, body.get("description"));
+                }
+                return created(result, appointments.findAppointment(appointmentId)
+                        .map(ServiceHttpServer::toJson).orElse(null));
+            }
+            case "GET" -> {
+                return found(appointments.findAppointment(id).map(ServiceHttpServer::toJson));
+            }
+            case "DELETE" -> {
+                return deleted(appointments.tryDeleteAppointment(id));
+            }
+            default -> {
+                return methodNotAllowed();
+            }
+        }
+    }
+
+    /**
+     * Runs one request through an endpoint and writes its response.
+     */
+    private static void serve(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        Response response;
+        try {
+            // The context matches any path starting with its name: accept only /name and /name/{id}
+            String rest = exchange.getRequestURI().getPath().substring(exchange.getHttpContext().getPath().length());
+            String id = rest.length() > 1 ? rest.substring(1) : null;
+            boolean collection = rest.isEmpty() || rest.equals("/");
+            if (!collection && (rest.charAt(0) != '/' || id.indexOf('/') >= 0)) {
+                response = notFound();
+            } else {
+                String method = exchange.getRequestMethod();
+                Map<String, String> body = method.equals("POST") || method.equals("PATCH")
+                        ? Json.parseObject(readBody(exchange.getRequestBody()))
+                        : Map.of();
+                response = id == null && !method.equals("POST") ? methodNotAllowed()
+                        : endpoint.handle(method, id, body);
+            }
+        } catch (NotFoundException e) {
+            // Checked before IllegalArgumentException, which it extends
+            response = error(404, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = error(400, e.getMessage());
+        } catch (BodyTooLargeException e) {
+            response = error(413, "Request body too large");
+        } catch (RuntimeException e) {
+            response = error(500, "Internal server error");
+        }
+
+        try (exchange) {
+            if (response.json() == null) {
+                exchange.sendResponseHeaders(response.status(), -1);
+                return;
+            }
+            byte[] bytes = response.json().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+    }
+
+    private static void exportMetrics(HttpExchange exchange, ServiceMetrics metrics) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") || !exchange.getRequestURI().getPath().equals("/metrics")) {
+                exchange.sendResponseHeaders(exchange.getRequestMethod().equals("GET") ? 404 : 405, -1);
+                return;
+            }
+            byte[] bytes = metrics.toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+    }
+
+    private static String readBody(InputStream input) {
+        try {
+            byte[] bytes = input.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new BodyTooLargeException();
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Request body could not be read");
+        }
+    }
+
+    private static void requireNoId(String id) {
+        if (id != null) {
+            throw new IllegalArgumentException("POST creates a new entity; send it to the collection");
+        }
+    }
+
+    private static void requireOnly(Map<String, String> body, Set<String> allowed) {
+        for (String name : body.keySet()) {
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+        }
+    }
+
+    private static void validateIfPresent(Map<String, String> body, String name, FieldConstraint constraint) {
+        if (body.containsKey(name)) {
+            constraint.validate(body.get(name));
+        }
+    }
+
+    private static Response created(AddResult result, String json) {
+        return switch (result) {
+            case ADDED -> new Response(201, json);
+            case DUPLICATE_ID -> error(409, "ID already exists");
+            case INVALID -> error(400, "Invalid entity");
+            case CAPACITY -> error(507, "Service is full");
+        };
+    }
+
+    private static Response found(Optional<String> json) {
+        return json.map(found -> new Response(200, found)).orElseGet(ServiceHttpServer::notFound);
+    }
+
+    private static Response deleted(boolean removed) {
+        return removed ? new Response(204, null) : notFound();
+    }
+
+    private static Response notFound() {
+        return error(404, "Not found");
+    }
+
+    private static Response methodNotAllowed() {
+        return error(405, "Method not allowed");
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, Json.object("error", message));
+    }
+
+    private static String toJson(Contact contact) {
+        return Json.object("id", contact.getContactId(), "firstName", contact.getFirstName(),
+                "lastName", contact.getLastName(), "phone", contact.getPhone(), "address", contact.getAddress());
+    }
+
+    private static String toJson(Task task) {
+        return Json.object("id", task.getTaskId(), "name", task.getTaskName(),
+                "description", task.getTaskDescription());
+    }
+
+    private static String toJson(Appointment appointment) {
+        return Json.object("id", appointment.getAppointmentId(), "date", appointment.getAppointmentTime().toString(),
+                "description", appointment.getDescription());
+    }
+
+    /**
+     * Handles one resource's requests.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        Response handle(String method, String id, Map<String, String> body);
+    }
+
+    /**
+     * An HTTP status with an optional JSON body.
+     */
+    private record Response(int status, String json) {
+    }
+
+    private static final class BodyTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BodyTooLargeException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,587 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Contact service that hash-partitions contact IDs across independent ContactService shards.
+ * Each shard has its own storage and name and phone indexes, so operations on contacts
+ * in different shards never contend. The public operations mirror {@link ContactService}
+ * and keep its validation and error messages, except that there is no write-ahead log
+ * or disk store variant.
+ * Optionally each shard gets a single-threaded executor that runs all of the shard's
+ * mutations, making every shard single-writer; lookups always read the shard directly.
+ * Operations spanning shards (bulk add, name and phone search) fan out in parallel.
+ * A bulk add is published through a {@link PublicationGate} over the whole service,
+ * so readers see all of a batch or none of it, whichever shards it spans.
+ * The service must be closed to stop the shard executors.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class ShardedContactService implements Closeable {
+    private final ContactService[] shards;
+    // One single-threaded writer per shard, or null when callers write directly
+    private final ExecutorService[] writers;
+    private final PublicationGate gate = new PublicationGate();
+    // Indexed by Operation ordinal; null until metrics are enabled
+    private volatile OperationMetrics[] metrics;
+
+    /**
+     * Operations recorded when metrics are enabled, named after their methods. The names
+     * match ContactService's, so both kinds of service report the same operations.
+     */
+    private enum Operation {
+        ADD_CONTACT, TRY_ADD_CONTACT, ADD_CONTACTS, DELETE_CONTACT, TRY_DELETE_CONTACT,
+        UPDATE_FIRST_NAME, UPDATE_LAST_NAME, UPDATE_PHONE, UPDATE_ADDRESS, UPDATE_CONTACT,
+        GET_CONTACT, FIND_CONTACT, SEARCH_BY_NAME_PREFIX, FIND_CONTACTS_BY_PHONE, GET_CONTACT_COUNT
+    }
+
+    /**
+     * Creates a sharded service whose callers mutate the shards directly.
+     *
+     * @param shardCount the number of shards, must be positive
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedContactService(int shardCount) {
+        this(shardCount, false);
+    }
+
+    /**
+     * Creates a sharded service.
+     *
+     * @param shardCount the number of shards, must be positive
+     * @param executorPerShard true to run each shard's mutations on a dedicated thread
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedContactService(int shardCount, boolean executorPerShard) {
+        this(shardCount, executorPerShard, ContactService::new);
+    }
+
+    /**
+     * Creates a sharded service whose shards are made by the given factory.
+     *
+     * @param shardCount the number of shards, must be positive
+     * @param executorPerShard true to run each shard's mutations on a dedicated thread
+     * @param newShard creates one empty shard
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    private ShardedContactService(int shardCount, boolean executorPerShard, Supplier<ContactService> newShard) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        shards = new ContactService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = newShard.get();
+        }
+        if (executorPerShard) {
+            writers = new ExecutorService[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                String name = "contact-shard-" + i;
+                writers[i] = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        } else {
+            writers = null;
+        }
+    }
+
+    /**
+     * Creates a sharded service whose shards key contacts by packed IDs.
+     *
+     * @param shardCount the number of shards, must be positive
+     * @param executorPerShard true to run each shard's mutations on a dedicated thread
+     * @return a new empty service using packed ID storage in every shard
+     * @throws IllegalArgumentException if shardCount is not positive
+     * @see ContactService#withPackedIds()
+     */
+    public static ShardedContactService withPackedIds(int shardCount, boolean executorPerShard) {
+        return new ShardedContactService(shardCount, executorPerShard, ContactService::withPackedIds);
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Adds a new contact to the service.
+     *
+     * @param contact the contact to add, must not be null
+     * @throws IllegalArgumentException if contact is null or ID already exists
+     * @see ContactService#addContact(Contact)
+     */
+    public void addContact(Contact contact) {
+        OperationMetrics.time(metrics, Operation.ADD_CONTACT, () -> add(contact));
+    }
+
+    /**
+     * Adds a new contact to the service using individual string parameters.
+     *
+     * @param contactId unique identifier, max 10 characters, not null, immutable
+     * @param firstName contact's first name, max 10 characters, not null
+     * @param lastName contact's last name, max 10 characters, not null
+     * @param phone contact's phone number, exactly 10 digits, not null
+     * @param address contact's address, max 30 characters, not null
+     * @throws IllegalArgumentException if any parameter violates validation rules or ID already exists
+     * @see ContactService#addContact(String, String, String, String, String)
+     */
+    public void addContact(String contactId, String firstName, String lastName, String phone, String address) {
+        OperationMetrics.time(metrics, Operation.ADD_CONTACT,
+                () -> add(new Contact(contactId, firstName, lastName, phone, address)));
+    }
+
+    /**
+     * Adds one contact without recording metrics.
+     *
+     * @param contact the contact to add
+     * @throws IllegalArgumentException if contact is null or its ID already exists
+     */
+    private void add(Contact contact) {
+        if (contact == null) {
+            throw new IllegalArgumentException("Contact cannot be null");
+        }
+        int shard = shardOf(contact.getContactId());
+        write(shard, () -> {
+            shards[shard].addContact(contact);
+            return null;
+        });
+    }
+
+    /**
+     * Adds a new contact without throwing on failure.
+     *
+     * @param contact the contact to add
+     * @return ADDED if stored, DUPLICATE_ID if the ID already exists, INVALID if contact is null
+     */
+    public AddResult tryAddContact(Contact contact) {
+        return OperationMetrics.time(metrics, Operation.TRY_ADD_CONTACT, () -> {
+            if (contact == null) {
+                return AddResult.INVALID;
+            }
+            int shard = shardOf(contact.getContactId());
+            return write(shard, () -> shards[shard].tryAddContact(contact));
+        }, OperationMetrics::added);
+    }
+
+    /**
+     * Adds a batch of contacts, all or nothing, and publishes it atomically.
+     * The batch is checked against every shard and then split by shard, every shard
+     * adding its part in parallel, while all other writes and reads of this service are
+     * held off. Readers therefore see either none of the batch or all of it, and a batch
+     * that fails leaves no trace in any shard, as with {@link ContactService#addContacts(Collection)}.
+     *
+     * @param batch the contacts to add, must not be null
+     * @throws IllegalArgumentException if the batch is null or any contact cannot be added
+     * @see ContactService#addContacts(Collection)
+     */
+    public void addContacts(Collection<Contact> batch) {
+        OperationMetrics.time(metrics, Operation.ADD_CONTACTS, () -> addAll(batch));
+    }
+
+    /**
+     * Adds a batch of contacts, all or nothing, without recording metrics.
+     *
+     * @param batch the contacts to add
+     * @throws IllegalArgumentException if the batch is null or any contact cannot be added
+     */
+    private void addAll(Collection<Contact> batch) {
+        Map<String, Contact> byId = Batches.indexById(batch, Contact::getContactId, "Contact cannot be null",
+                id -> "Duplicate contact ID in batch: " + id);
+        List<List<Contact>> parts = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            parts.add(new ArrayList<>());
+        }
+        for (Contact contact : byId.values()) {
+            parts.get(shardOf(contact.getContactId())).add(contact);
+        }
+        gate.publish(() -> {
+            // No other write runs until the batch is published, so no shard can fail after this check
+            for (Contact contact : byId.values()) {
+                if (shards[shardOf(contact.getContactId())].findContact(contact.getContactId()).isPresent()) {
+                    throw new IllegalArgumentException("Contact ID already exists: " + contact.getContactId());
+                }
+            }
+            fanOut(shard -> {
+                List<Contact> part = parts.get(shard);
+                if (!part.isEmpty()) {
+                    shards[shard].addContacts(part);
+                }
+            });
+        });
+    }
+
+    /**
+     * Deletes a contact by its unique ID.
+     *
+     * @param contactId the ID of the contact to delete, must not be null
+     * @throws IllegalArgumentException if contactId is null or contact not found
+     */
+    public void deleteContact(String contactId) {
+        OperationMetrics.time(metrics, Operation.DELETE_CONTACT, () -> {
+            int shard = shardOf(contactId);
+            write(shard, () -> {
+                shards[shard].deleteContact(contactId);
+                return null;
+            });
+        });
+    }
+
+    /**
+     * Deletes a contact by its unique ID without throwing on failure.
+     *
+     * @param contactId the ID of the contact to delete
+     * @return true if a contact was removed, false if contactId is null or not found
+     */
+    public boolean tryDeleteContact(String contactId) {
+        return OperationMetrics.time(metrics, Operation.TRY_DELETE_CONTACT, () -> {
+            int shard = shardOf(contactId);
+            return write(shard, () -> shards[shard].tryDeleteContact(contactId));
+        }, OperationMetrics::removed);
+    }
+
+    /**
+     * Updates the first name of an existing contact.
+     *
+     * @param contactId the ID of the contact to update, must not be null
+     * @param firstName the new first name, must meet validation requirements
+     * @throws IllegalArgumentException if contactId is null, contact not found, or firstName invalid
+     */
+    public void updateFirstName(String contactId, String firstName) {
+        OperationMetrics.time(metrics, Operation.UPDATE_FIRST_NAME, () -> {
+            int shard = shardOf(contactId);
+            write(shard, () -> {
+                shards[shard].updateFirstName(contactId, firstName);
+                return null;
+            });
+        });
+    }
+
+    /**
+     * Updates the last name of an existing contact.
+     *
+     * @param contactId the ID of the contact to update, must not be null
+     * @param lastName the new last name, must meet validation requirements
+     * @throws IllegalArgumentException if contactId is null, contact not found, or lastName invalid
+     */
+    public void updateLastName(String contactId, String lastName) {
+        OperationMetrics.time(metrics, Operation.UPDATE_LAST_NAME, () -> {
+            int shard = shardOf(contactId);
+            write(shard, () -> {
+                shards[shard].updateLastName(contactId, lastName);
+                return null;
+            });
+        });
+    }
+
+    /**
+     * Updates the phone number of an existing contact.
+     *
+     * @param contactId the ID of the contact to update, must not be null
+     * @param phone the new phone number, must meet validation requirements
+     * @throws IllegalArgumentException if contactId is null, contact not found, or phone invalid
+     */
+    public void updatePhone(String contactId, String phone) {
+        OperationMetrics.time(metrics, Operation.UPDATE_PHONE, () -> {
+            int shard = shardOf(contactId);
+            write(shard, () -> {
+                shards[shard].updatePhone(contactId, phone);
+                return null;
+            });
+        });
+    }
+
+    /**
+     * Updates the address of an existing contact.
+     *
+     * @param contactId the ID of the contact to update, must not be null
+     * @param address the new address, must meet validation requirements
+     * @throws IllegalArgumentException if contactId is null, contact not found, or address invalid
+     */
+    public void updateAddress(String contactId, String address) {
+        OperationMetrics.time(metrics, Operation.UPDATE_ADDRESS, () -> {
+            int shard = shardOf(contactId);
+            write(shard, () -> {
+                shards[shard].updateAddress(contactId, address);
+                return null;
+            });
+        });
+    }
+
+    /**
+     * Applies any number of field changes to an existing contact as one update.
+     *
+     * @param contactId the ID of the contact to update, must not be null
+     * @param edit the changes to make, must not be null or return null
+     * @return the updated contact, or the stored one if the edit changed nothing
+     * @throws IllegalArgumentException if contactId or edit is null, contact not found,
+     *         or the edit sets an invalid value
+     * @see ContactService#updateContact(String, UnaryOperator)
+     */
+    public Contact updateContact(String contactId, UnaryOperator<ContactDraft> edit) {
+        return OperationMetrics.time(metrics, Operation.UPDATE_CONTACT, () -> {
+            int shard = shardOf(contactId);
+            return write(shard, () -> shards[shard].updateContact(contactId, edit));
+        });
+    }
+
+    /**
+     * Retrieves a contact by its unique ID.
+     *
+     * @param contactId the ID of the contact to retrieve
+     * @return the contact with the specified ID
+     * @throws IllegalArgumentException if contactId is null or contact not found
+     */
+    public Contact getContact(String contactId) {
+        return OperationMetrics.time(metrics, Operation.GET_CONTACT,
+                () -> gate.read(() -> shards[shardOf(contactId)].getContact(contactId)));
+    }
+
+    /**
+     * Looks up a contact by its unique ID without throwing on a miss.
+     *
+     * @param contactId the ID of the contact to look up
+     * @return the contact, or empty if contactId is null or not found
+     */
+    public Optional<Contact> findContact(String contactId) {
+        return OperationMetrics.time(metrics, Operation.FIND_CONTACT,
+                () -> gate.read(() -> shards[shardOf(contactId)].findContact(contactId)), OperationMetrics::found);
+    }
+
+    /**
+     * Searches contacts whose first or last name starts with a prefix, ignoring case.
+     * Every shard returns its own first limit matches in parallel; the results are
+     * merged in the same order a single ContactService would return them.
+     *
+     * @param prefix the name prefix to match, must not be null; empty matches every contact
+     * @param limit the maximum number of contacts to return, must be positive
+     * @return the matching contacts, at most limit of them
+     * @throws IllegalArgumentException if prefix is null or limit is not positive
+     * @see ContactService#searchByNamePrefix(String, int)
+     */
+    public List<Contact> searchByNamePrefix(String prefix, int limit) {
+        return OperationMetrics.time(metrics, Operation.SEARCH_BY_NAME_PREFIX, () -> {
+            if (prefix == null) {
+                throw new IllegalArgumentException("Prefix cannot be null");
+            }
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive");
+            }
+            return gate.read(() -> IntStream.range(0, shards.length).parallel()
+                    .mapToObj(shard -> shards[shard].searchByNamePrefix(prefix, limit))
+                    .flatMap(List::stream)
+                    .sorted(ContactNameIndex.searchOrder(prefix))
+                    .limit(limit)
+                    .toList());
+        });
+    }
+
+    /**
+     * Finds the contacts whose phone number is exactly the given number, across all shards.
+     *
+     * @param phone the phone number to look up
+     * @return the matching contacts, empty if phone is null, not 10 digits, or unused
+     * @see ContactService#findContactsByPhone(String)
+     */
+    public List<Contact> findContactsByPhone(String phone) {
+        return OperationMetrics.time(metrics, Operation.FIND_CONTACTS_BY_PHONE, () -> {
+            if (!Contact.PHONE.test(phone)) {
+                return List.<Contact>of();
+            }
+            return gate.read(() -> IntStream.range(0, shards.length).parallel()
+                    .mapToObj(shard -> shards[shard].findContactsByPhone(phone))
+                    .flatMap(List::stream)
+                    .toList());
+        });
+    }
+
+    /**
+     * Gets the total number of contacts across all shards.
+     * Shard sizes are summed one after another: reading a size is cheaper than handing
+     * it to another thread.
+     *
+     * @return the number of stored contacts
+     */
+    public int getContactCount() {
+        return OperationMetrics.time(metrics, Operation.GET_CONTACT_COUNT, () -> gate.read(() -> {
+            int count = 0;
+            for (ContactService shard : shards) {
+                count += shard.getContactCount();
+            }
+            return count;
+        }));
+    }
+
+    /**
+     * Subscribes to every add, update and delete of a contact from now on, in every shard.
+     * Each shard delivers its events on its own thread; the listener is called for one
+     * event at a time, so it need not be thread-safe. Events of one contact arrive in
+     * order, but sequence numbers are counted per shard and do not order events of
+     * different shards.
+     *
+     * @param listener receives each change event, must not be null
+     * @param policy what a publisher does when the listener falls behind, must not be null
+     * @return the subscription covering every shard; close it to stop delivery
+     * @throws IllegalArgumentException if listener or policy is null
+     * @see ContactService#subscribe(Consumer, OverflowPolicy)
+     */
+    public ChangeSubscription subscribe(Consumer<? super ChangeEvent<Contact>> listener, OverflowPolicy policy) {
+        if (listener == null || policy == null) {
+            throw new IllegalArgumentException("Listener and overflow policy cannot be null");
+        }
+        Object delivery = new Object();
+        Consumer<ChangeEvent<Contact>> serialized = event -> {
+            synchronized (delivery) {
+                listener.accept(event);
+            }
+        };
+        ChangeSubscription[] parts = new ChangeSubscription[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            parts[i] = shards[i].subscribe(serialized, policy);
+        }
+        return ChangeSubscription.combine(parts);
+    }
+
+    /**
+     * Starts timing every public operation and counting its outcomes in a registry.
+     * Operations are recorded once per call of this service, under the same service
+     * label "contact" and operation names as ContactService; calling this again switches
+     * recording to the new registry.
+     *
+     * @param registry the registry to record into, must not be null
+     * @throws IllegalArgumentException if registry is null
+     */
+    public void enableMetrics(ServiceMetrics registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Metrics registry cannot be null");
+        }
+        metrics = registry.register("contact", Operation.values());
+    }
+
+    /**
+     * Stops the shard executors after their queued mutations finish.
+     * Mutations attempted afterwards throw IllegalStateException; lookups keep working.
+     */
+    @Override
+    public void close() {
+        if (writers != null) {
+            for (ExecutorService writer : writers) {
+                writer.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Maps a contact ID to its shard with a mixed hash and multiply-shift range reduction.
+     * A null ID maps to shard 0, whose ContactService reports it with the usual message.
+     *
+     * @param contactId the contact ID
+     * @return the shard index
+     */
+    private int shardOf(String contactId) {
+        if (contactId == null) {
+            return 0;
+        }
+        int hash = contactId.hashCode() * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (int) (((hash & 0xFFFFFFFFL) * shards.length) >>> 32);
+    }
+
+    /**
+     * Runs a mutation on a shard's executor, or on the calling thread when shards have none,
+     * holding off bulk adds until it finishes.
+     *
+     * @param shard the shard index
+     * @param mutation the mutation to run
+     * @return the mutation's result
+     * @throws IllegalStateException if the service is closed
+     */
+    private <T> T write(int shard, Supplier<T> mutation) {
+        if (writers == null) {
+            return gate.write(mutation);
+        }
+        return gate.write(() -> await(submit(shard, mutation)));
+    }
+
+    /**
+     * Runs a task for every shard in parallel, each on its shard's executor if it has one.
+     *
+     * @param task the task, given the shard index
+     */
+    private void fanOut(IntConsumer task) {
+        if (writers == null) {
+            IntStream.range(0, shards.length).parallel().forEach(task);
+            return;
+        }
+        List<Future<Object>> pending = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            int shard = i;
+            pending.add(submit(shard, () -> {
+                task.accept(shard);
+                return null;
+            }));
+        }
+        for (Future<Object> future : pending) {
+            await(future);
+        }
+    }
+
+    private <T> Future<T> submit(int shard, Supplier<T> mutation) {
+        try {
+            return writers[shard].submit(mutation::get);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Sharded contact service is closed", e);
+        }
+    }
+
+    /**
+     * Waits for a mutation, rethrowing its unchecked exception on the calling thread.
+     */
+    private static <T> T await(Future<T> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    // The mutation cannot be recalled, so wait it out and restore the flag
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    if (cause instanceof Error error) {
+                        throw error;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
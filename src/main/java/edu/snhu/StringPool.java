@@ -0,0 +1,204 @@
+package edu.snhu;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide pool that makes equal field values share one String instance.
+ * While enabled, Contact names and addresses, Task names and descriptions and
+ * Appointment descriptions are routed through the pool when they are set, so thousands
+ * of entities holding "Follow up" keep one copy of it instead of thousands. IDs and phone
+ * numbers are left alone: they are mostly unique, and pooling a unique value costs an
+ * entry without saving anything.
+ * The pool holds its strings weakly, so a value no entity uses any more is collected
+ * and its entry is dropped on a later lookup. Lookups are lock-free reads of a
+ * ConcurrentHashMap that allocate nothing on a hit. The pool is off by default; while off,
+ * routing a value through it is a single volatile read, and entities created while it was
+ * off keep their own copies.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class StringPool {
+    private static final ConcurrentHashMap<Object, Entry> POOL = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<String> CLEARED = new ReferenceQueue<>();
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static volatile boolean enabled;
+
+    private StringPool() {
+    }
+
+    /**
+     * A pooled string, equal to any entry or probe holding an equal string.
+     * Once its string is collected an entry equals only itself, so it can still be removed.
+     */
+    private static final class Entry extends WeakReference<String> {
+        final int hash;
+
+        Entry(String value) {
+            super(value, CLEARED);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            String value = get();
+            if (value == null) {
+                return false;
+            }
+            if (other instanceof Probe probe) {
+                return probe.hash == hash && value.equals(probe.value);
+            }
+            return other instanceof Entry entry && entry.hash == hash && value.equals(entry.get());
+        }
+    }
+
+    /**
+     * A lookup key for a value that may already be pooled, equal to any entry holding an
+     * equal string. Unlike an entry it is not a reference, so it costs the collector nothing.
+     */
+    private static final class Probe {
+        final String value;
+        final int hash;
+
+        Probe(String value) {
+            this.value = value;
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry entry && entry.equals(this);
+        }
+    }
+
+    /**
+     * Starts or stops routing entity field values through the pool.
+     * Stopping keeps the pooled strings until no entity uses them.
+     *
+     * @param on true to deduplicate values set from now on
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Returns whether entity field values are currently routed through the pool.
+     *
+     * @return true if the pool is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns how many lookups found an equal string already pooled.
+     *
+     * @return the hit count since the process started
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns how many lookups added a new string to the pool.
+     *
+     * @return the miss count since the process started
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups that found an equal string already pooled.
+     *
+     * @return the hit rate from 0 to 1, or 0 before the first lookup
+     */
+    public static double getHitRate() {
+        long hits = HITS.sum();
+        long lookups = hits + MISSES.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns the number of pooled strings, including collected ones not yet dropped.
+     *
+     * @return the approximate pool size
+     */
+    public static int getSize() {
+        return POOL.size();
+    }
+
+    /**
+     * Returns the pooled instance equal to a value, pooling the value itself if there is
+     * none, or returns the value unchanged while the pool is disabled.
+     *
+     * @param value the value to deduplicate, may be null
+     * @return a string equal to value, or null if value is null
+     */
+    static String dedup(String value) {
+        if (!enabled || value == null) {
+            return value;
+        }
+        purge();
+        Entry found = POOL.get(new Probe(value));
+        String existing = found == null ? null : found.get();
+        if (existing != null) {
+            HITS.increment();
+            return existing;
+        }
+        // A miss, or an entry collected since: only now pay for a weak reference
+        Entry entry = new Entry(value);
+        while (true) {
+            Entry pooled = POOL.putIfAbsent(entry, entry);
+            if (pooled == null) {
+                MISSES.increment();
+                return value;
+            }
+            String shared = pooled.get();
+            if (shared != null) {
+                HITS.increment();
+                return shared;
+            }
+            // Collected since the lookup matched it: drop it and try again
+            POOL.remove(pooled, pooled);
+        }
+    }
+
+    /**
+     * Clears and enqueues the entry pooling a value, as the collector does once nothing
+     * uses the value, so tests can drive the purge path without waiting for a collection.
+     *
+     * @param value a value that may be pooled
+     */
+    static void expire(String value) {
+        Entry entry = POOL.get(new Probe(value));
+        if (entry != null) {
+            entry.enqueue();
+        }
+    }
+
+    private static void purge() {
+        Reference<? extends String> cleared;
+        while ((cleared = CLEARED.poll()) != null) {
+            POOL.remove(cleared, cleared);
+        }
+    }
+}
@@ -4,6 +4,11 @@ package edu.snhu;
  * Represents a task with a unique identifier, name, and description.
  * The task ID is immutable once set, while the name and description can be updated.
  * All fields have validation constraints to ensure data integrity.
+ * Once TaskService stores a task it becomes a read-only snapshot: its setters throw,
+ * and updates go through the service, which replaces the snapshot with an updated copy.
+ * A task returned by TaskService therefore cannot be changed behind the service's
+ * keyword index, change feed, snapshots or eviction bookkeeping.
+ * While {@link StringPool} is enabled, equal names and descriptions share one instance.
  * 
  * @author Rick Goshen
  * @version 1.0
@@ -12,6 +17,18 @@ public class Task {
     private final String taskId;
     private String taskName;
     private String taskDescription;
+    // Set once a service stores the task; read only by the setters
+    private boolean readOnly;
+
+    /** Task ID: not null, not blank, max 10 characters. */
+    static final FieldConstraint TASK_ID = FieldConstraint
+            .required("Task ID cannot be null, empty, or exceed 10 characters").notBlank().maxLength(10);
+    /** Task name: not null, max 20 characters. */
+    static final FieldConstraint TASK_NAME = FieldConstraint
+            .required("Task name cannot be null and must be 20 characters or less").maxLength(20);
+    /** Task description: not null, max 50 characters. */
+    static final FieldConstraint TASK_DESCRIPTION = FieldConstraint
+            .required("Task description cannot be null and must be 50 characters or less").maxLength(50);
     
     /**
      * Constructs a new Task with the specified ID, name, and description.
@@ -22,13 +39,32 @@ public class Task {
      * @throws IllegalArgumentException if any parameter is null, taskId is empty, or exceeds length limits
      */
     public Task(String taskId, String taskName, String taskDescription) {
-        validateTaskId(taskId);
-        validateTaskName(taskName);
-        validateTaskDescription(taskDescription);
+        TASK_ID.validate(taskId);
+        TASK_NAME.validate(taskName);
+        TASK_DESCRIPTION.validate(taskDescription);
         
         this.taskId = taskId;
-        this.taskName = taskName;
-        this.taskDescription = taskDescription;
+        this.taskName = StringPool.dedup(taskName);
+        this.taskDescription = StringPool.dedup(taskDescription);
+    }
+    
+    /**
+     * Makes this task a read-only snapshot. Called by TaskService before it stores the task.
+     * 
+     * @return this task
+     */
+    Task freeze() {
+        readOnly = true;
+        return this;
+    }
+    
+    /**
+     * Returns whether this task is a read-only snapshot held by a TaskService.
+     * 
+     * @return true if the setters reject every change
+     */
+    public boolean isReadOnly() {
+        return readOnly;
     }
     
     /**
@@ -54,10 +90,12 @@ public class Task {
      * 
      * @param taskName the new task name (max 20 characters, not null)
      * @throws IllegalArgumentException if taskName is null or exceeds 20 characters
+     * @throws IllegalStateException if the task is stored by a TaskService
      */
     public void setTaskName(String taskName) {
-        validateTaskName(taskName);
-        this.taskName = taskName;
+        checkWritable();
+        TASK_NAME.validate(taskName);
+        this.taskName = StringPool.dedup(taskName);
     }
     
     /**
@@ -74,45 +112,17 @@ public class Task {
      * 
      * @param taskDescription the new task description (max 50 characters, not null)
      * @throws IllegalArgumentException if taskDescription is null or exceeds 50 characters
+     * @throws IllegalStateException if the task is stored by a TaskService
      */
     public void setTaskDescription(String taskDescription) {
-        validateTaskDescription(taskDescription);
-        this.taskDescription = taskDescription;
-    }
-    
-    /**
-     * Validates the task ID against business rules.
-     * 
-     * @param taskId the task ID to validate
-     * @throws IllegalArgumentException if taskId is null, empty, or exceeds 10 characters
-     */
-    private static void validateTaskId(String taskId) {
-        if (taskId == null || taskId.trim().isEmpty() || taskId.length() > 10) {
-            throw new IllegalArgumentException("Task ID cannot be null, empty, or exceed 10 characters");
-        }
-    }
-    
-    /**
-     * Validates the task name against business rules.
-     * 
-     * @param taskName the task name to validate
-     * @throws IllegalArgumentException if taskName is null or exceeds 20 characters
-     */
-    private static void validateTaskName(String taskName) {
-        if (taskName == null || taskName.length() > 20) {
-            throw new IllegalArgumentException("Task name cannot be null and must be 20 characters or less");
-        }
+        checkWritable();
+        TASK_DESCRIPTION.validate(taskDescription);
+        this.taskDescription = StringPool.dedup(taskDescription);
     }
     
-    /**
-     * Validates the task description against business rules.
-     * 
-     * @param taskDescription the task description to validate
-     * @throws IllegalArgumentException if taskDescription is null or exceeds 50 characters
-     */
-    private static void validateTaskDescription(String taskDescription) {
-        if (taskDescription == null || taskDescription.length() > 50) {
-            throw new IllegalArgumentException("Task description cannot be null and must be 50 characters or less");
+    private void checkWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("Task is stored by a TaskService; update it through the service");
         }
     }
 }
\ No newline at end of file
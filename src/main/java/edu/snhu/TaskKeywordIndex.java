@@ -0,0 +1,376 @@
+package edu.snhu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from description words to the tasks that contain them.
+ * Every indexed task gets a small int ordinal, recycled when the task is removed, and
+ * each term maps to a posting set of ordinals: a sorted int[] while the term is rare,
+ * a bitmap once it is common. Memory therefore grows with the number of distinct terms
+ * and their frequencies rather than with one object per task and word.
+ * Words are maximal runs of letters and digits, compared case-insensitively.
+ * Each posting set is guarded by its own monitor and only ordinal allocation is shared,
+ * so writers touching different terms run in parallel. A query reads one posting set at
+ * a time and checks every hit against the task's current description, so it may miss a
+ * description change that is in flight but never returns a task that does not match.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class TaskKeywordIndex {
+    private final ConcurrentHashMap<String, Postings> byTerm = new ConcurrentHashMap<>();
+    private final Object ordinalLock = new Object();
+    private final Map<Task, Integer> ordinals = new IdentityHashMap<>();
+    private volatile Task[] byOrdinal = new Task[16];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int nextOrdinal;
+
+    /**
+     * Indexes the description of a task.
+     *
+     * @param task the stored task
+     */
+    void add(Task task) {
+        int ordinal = allocate(task);
+        for (String term : terms(task.getTaskDescription())) {
+            addTerm(term, ordinal);
+        }
+    }
+
+    /**
+     * Removes the description of a task.
+     *
+     * @param task the removed task
+     */
+    void remove(Task task) {
+        Integer ordinal = ordinalOf(task);
+        if (ordinal == null) {
+            return;
+        }
+        for (String term : terms(task.getTaskDescription())) {
+            removeTerm(term, ordinal);
+        }
+        release(task, ordinal);
+    }
+
+    /**
+     * Re-indexes a task that an updated copy replaces. The copy takes over the task's
+     * ordinal, and words in both descriptions are left alone, so the task never drops
+     * out of their posting sets.
+     *
+     * @param task the indexed task being replaced
+     * @param replacement the updated copy, with the same task ID
+     */
+    void replace(Task task, Task replacement) {
+        Integer ordinal;
+        synchronized (ordinalLock) {
+            ordinal = ordinals.remove(task);
+            if (ordinal == null) {
+                return;
+            }
+            ordinals.put(replacement, ordinal);
+            byOrdinal[ordinal] = replacement;
+        }
+        Set<String> previous = terms(task.getTaskDescription());
+        Set<String> current = terms(replacement.getTaskDescription());
+        for (String term : current) {
+            if (!previous.contains(term)) {
+                addTerm(term, ordinal);
+            }
+        }
+        for (String term : previous) {
+            if (!current.contains(term)) {
+                removeTerm(term, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks whose description contains the words of a query.
+     * Results are ordered by ordinal, which follows insertion order until ordinals are recycled.
+     *
+     * @param query the words to look for; an empty query matches nothing
+     * @param matchAll true to require every word (AND), false to require any word (OR)
+     * @return the matching tasks
+     */
+    List<Task> search(String query, boolean matchAll) {
+        Set<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        BitSet matches = matchAll ? intersect(terms) : union(terms);
+        Task[] tasksByOrdinal = byOrdinal;
+        List<Task> tasks = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            Task task = i < tasksByOrdinal.length ? tasksByOrdinal[i] : null;
+            // The ordinal may have been recycled or the description changed since the postings were read
+            if (task != null && matches(task, terms, matchAll)) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    private BitSet intersect(Set<String> terms) {
+        Postings[] lists = new Postings[terms.size()];
+        int n = 0;
+        for (String term : terms) {
+            Postings postings = byTerm.get(term);
+            if (postings == null) {
+                return new BitSet();
+            }
+            lists[n++] = postings;
+        }
+        // Walk the rarest term and probe the others, holding one posting set at a time
+        int rarest = 0;
+        for (int i = 1; i < lists.length; i++) {
+            if (lists[i].size() < lists[rarest].size()) {
+                rarest = i;
+            }
+        }
+        BitSet matches = new BitSet();
+        synchronized (lists[rarest]) {
+            lists[rarest].forEach(matches::set);
+        }
+        for (int i = 0; i < lists.length && !matches.isEmpty(); i++) {
+            if (i != rarest) {
+                synchronized (lists[i]) {
+                    for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                        if (!lists[i].contains(ordinal)) {
+                            matches.clear(ordinal);
+                        }
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private BitSet union(Set<String> terms) {
+        BitSet matches = new BitSet();
+        for (String term : terms) {
+            Postings postings = byTerm.get(term);
+            if (postings != null) {
+                synchronized (postings) {
+                    postings.forEach(matches::set);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean matches(Task task, Set<String> terms, boolean matchAll) {
+        Set<String> words = terms(task.getTaskDescription());
+        if (matchAll) {
+            return words.containsAll(terms);
+        }
+        for (String term : terms) {
+            if (words.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addTerm(String term, int ordinal) {
+        byTerm.compute(term, (t, postings) -> {
+            Postings target = postings != null ? postings : new Postings();
+            synchronized (target) {
+                target.add(ordinal);
+            }
+            return target;
+        });
+    }
+
+    private void removeTerm(String term, int ordinal) {
+        byTerm.computeIfPresent(term, (t, postings) -> {
+            synchronized (postings) {
+                return postings.remove(ordinal) && postings.size == 0 ? null : postings;
+            }
+        });
+    }
+
+    private Integer ordinalOf(Task task) {
+        synchronized (ordinalLock) {
+            return ordinals.get(task);
+        }
+    }
+
+    private int allocate(Task task) {
+        synchronized (ordinalLock) {
+            int ordinal;
+            if (freeCount > 0) {
+                ordinal = freeOrdinals[--freeCount];
+            } else {
+                ordinal = nextOrdinal++;
+                if (ordinal == byOrdinal.length) {
+                    byOrdinal = Arrays.copyOf(byOrdinal, ordinal * 2);
+                }
+            }
+            // Published to queries by the posting set monitor taken when its terms are added
+            byOrdinal[ordinal] = task;
+            ordinals.put(task, ordinal);
+            return ordinal;
+        }
+    }
+
+    private void release(Task task, int ordinal) {
+        synchronized (ordinalLock) {
+            ordinals.remove(task);
+            byOrdinal[ordinal] = null;
+            if (freeCount == freeOrdinals.length) {
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+            }
+            freeOrdinals[freeCount++] = ordinal;
+        }
+    }
+
+    /**
+     * Splits text into its distinct lowercased words.
+     *
+     * @param text the text to split
+     * @return the words in order of first appearance
+     */
+    static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean word = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Receives one ordinal of a posting set.
+     */
+    @FunctionalInterface
+    private interface OrdinalConsumer {
+        void accept(int ordinal);
+    }
+
+    /**
+     * Set of task ordinals for one term. Starts as a sorted int[] and switches to a
+     * bitmap above ARRAY_LIMIT entries, switching back when it shrinks below half that.
+     * Callers hold the set's monitor around every method except size().
+     */
+    private static final class Postings {
+        private static final int ARRAY_LIMIT = 1024;
+
+        private int[] sorted = new int[4];
+        private long[] bits;
+        private volatile int size;
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(int ordinal) {
+            if (bits != null) {
+                int word = ordinal >>> 6;
+                return word < bits.length && (bits[word] & (1L << ordinal)) != 0;
+            }
+            return Arrays.binarySearch(sorted, 0, size, ordinal) >= 0;
+        }
+
+        void add(int ordinal) {
+            if (bits != null) {
+                int word = ordinal >>> 6;
+                if (word >= bits.length) {
+                    bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+                }
+                if ((bits[word] & (1L << ordinal)) == 0) {
+                    bits[word] |= 1L << ordinal;
+                    size++;
+                }
+                return;
+            }
+            int at = Arrays.binarySearch(sorted, 0, size, ordinal);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == ARRAY_LIMIT) {
+                toBitmap();
+                add(ordinal);
+                return;
+            }
+            if (size == sorted.length) {
+                sorted = Arrays.copyOf(sorted, size * 2);
+            }
+            System.arraycopy(sorted, at, sorted, at + 1, size - at);
+            sorted[at] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            if (bits != null) {
+                int word = ordinal >>> 6;
+                if (word >= bits.length || (bits[word] & (1L << ordinal)) == 0) {
+                    return false;
+                }
+                bits[word] &= ~(1L << ordinal);
+                size--;
+                if (size < ARRAY_LIMIT / 2) {
+                    toArray();
+                }
+                return true;
+            }
+            int at = Arrays.binarySearch(sorted, 0, size, ordinal);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(sorted, at + 1, sorted, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        void forEach(OrdinalConsumer action) {
+            if (bits == null) {
+                for (int i = 0; i < size; i++) {
+                    action.accept(sorted[i]);
+                }
+                return;
+            }
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    action.accept((word << 6) + Long.numberOfTrailingZeros(remaining));
+                    remaining &= remaining - 1;
+                }
+            }
+        }
+
+        private void toBitmap() {
+            bits = new long[(sorted[size - 1] >>> 6) + 1];
+            for (int i = 0; i < size; i++) {
+                bits[sorted[i] >>> 6] |= 1L << sorted[i];
+            }
+            sorted = null;
+        }
+
+        private void toArray() {
+            int[] values = new int[ARRAY_LIMIT];
+            int[] n = new int[1];
+            forEach(ordinal -> values[n[0]++] = ordinal);
+            sorted = values;
+            bits = null;
+        }
+    }
+}
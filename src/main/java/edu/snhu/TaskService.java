@@ -1,45 +1,276 @@
 package edu.snhu;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Service class for managing Task objects with in-memory storage.
  * Provides CRUD operations (Create, Read, Update, Delete) for tasks
  * using a ConcurrentHashMap for storage with unique ID enforcement.
+ * Every mutation runs inside the map's per-ID compute, so the keyword index and the
+ * change events delivered to subscribers observe changes to one task in the order they apply.
+ * A stored task is a read-only snapshot, see {@link Task}, and is returned as is.
+ * An update never modifies the stored task: it stores an updated copy in its place, so a
+ * reader sees the task's name and description either before or after the whole update.
+ * A bulk insert is published through a {@link PublicationGate}, so readers see all of
+ * a batch or none of it.
+ * A service created by {@link #withCapacity(int, EvictionPolicy, Consumer)} holds a bounded
+ * number of tasks and evicts or refuses tasks past that bound.
  * 
  * @author Rick Goshen
  * @version 1.0
  */
 public class TaskService {
-    private final Map<String, Task> tasks;
+    private final ConcurrentMap<String, Task> tasks;
+    private final TaskKeywordIndex keywordIndex = new TaskKeywordIndex();
+    // Stored tasks are read-only, so events carry the stored instance
+    private final ChangeFeed<Task> changes = new ChangeFeed<>("task", task -> task);
+    // Null when the service is unbounded
+    private final EvictionTracker bound;
+    private final Consumer<? super Task> evictionListener;
+    private final LongAdder evictions = new LongAdder();
+    private final PublicationGate gate = new PublicationGate();
+    // Indexed by Operation ordinal; null until metrics are enabled
+    private volatile OperationMetrics[] metrics;
+    
+    /**
+     * Operations recorded when metrics are enabled, named after their methods.
+     */
+    private enum Operation {
+        ADD_TASK, TRY_ADD_TASK, ADD_TASKS, DELETE_TASK, TRY_DELETE_TASK, UPDATE_TASK_NAME,
+        UPDATE_TASK_DESCRIPTION, GET_TASK, FIND_TASK, SEARCH_ALL_KEYWORDS, SEARCH_ANY_KEYWORD,
+        SNAPSHOT_TO, GET_TASK_COUNT, TASK_EXISTS
+    }
     
     /**
      * Constructs a new TaskService with an empty task storage.
      * Initializes ConcurrentHashMap with optimal initial capacity to minimize resizing.
      */
     public TaskService() {
-        this.tasks = new ConcurrentHashMap<>(16, 0.75f);
+        this(new ConcurrentHashMap<>(16, 0.75f));
+    }
+    
+    /**
+     * Constructs a TaskService over already-populated storage.
+     * 
+     * @param tasks the storage to manage
+     */
+    private TaskService(ConcurrentMap<String, Task> tasks) {
+        this(tasks, null, null);
+    }
+    
+    /**
+     * Constructs a TaskService over already-populated storage, optionally bounded.
+     * 
+     * @param tasks the storage to manage
+     * @param bound the eviction bookkeeping, or null for an unbounded service
+     * @param evictionListener receives evicted tasks, or null for an unbounded service
+     */
+    private TaskService(ConcurrentMap<String, Task> tasks, EvictionTracker bound,
+            Consumer<? super Task> evictionListener) {
+        this.tasks = tasks;
+        this.bound = bound;
+        this.evictionListener = evictionListener;
+        tasks.values().forEach(task -> keywordIndex.add(task.freeze()));
+    }
+    
+    /**
+     * Creates a TaskService whose storage keys tasks by packed IDs.
+     * Task IDs made of [0-9A-Za-z_-] are stored as primitive longs in open-addressed
+     * arrays instead of String keys in hash nodes, cutting per-task overhead and lookup
+     * cost at large sizes. Other IDs are stored as Strings.
+     * 
+     * @return a new empty service using packed ID storage
+     */
+    public static TaskService withPackedIds() {
+        return new TaskService(new PackedIdMap<>());
+    }
+    
+    /**
+     * Creates a TaskService that holds at most maxTasks tasks.
+     * Once full, an add either evicts a task chosen by the policy or, for
+     * {@link EvictionPolicy#REJECT_NEW}, is refused with {@link AddResult#CAPACITY}. Evicted tasks are
+     * removed like deleted ones, publishing a DELETE event, and then passed to the listener
+     * on the thread that added the task, so the listener can spill them to storage; it should
+     * be quick and must not throw. Reads and updates feed LRU and LFU through per-thread
+     * buffers rather than a lock, so their order is approximate under contention, and
+     * concurrent adds can overshoot the bound by one task each until their evictions finish.
+     * 
+     * @param maxTasks the maximum number of tasks (must be positive)
+     * @param policy which task to evict, or REJECT_NEW (must not be null)
+     * @param evictionListener receives each evicted task (must not be null)
+     * @return a new empty bounded service
+     * @throws IllegalArgumentException if maxTasks is not positive or policy or evictionListener is null
+     */
+    public static TaskService withCapacity(int maxTasks, EvictionPolicy policy,
+            Consumer<? super Task> evictionListener) {
+        if (maxTasks <= 0) {
+            throw new IllegalArgumentException("Maximum task count must be positive");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Eviction policy cannot be null");
+        }
+        if (evictionListener == null) {
+            throw new IllegalArgumentException("Eviction listener cannot be null");
+        }
+        return new TaskService(new ConcurrentHashMap<>(16, 0.75f), new EvictionTracker(policy, maxTasks),
+                evictionListener);
+    }
+    
+    /**
+     * Creates a TaskService that holds at most maxTasks tasks and discards evicted tasks.
+     * 
+     * @param maxTasks the maximum number of tasks (must be positive)
+     * @param policy which task to evict, or REJECT_NEW (must not be null)
+     * @return a new empty bounded service
+     * @throws IllegalArgumentException if maxTasks is not positive or policy is null
+     * @see #withCapacity(int, EvictionPolicy, Consumer)
+     */
+    public static TaskService withCapacity(int maxTasks, EvictionPolicy policy) {
+        return withCapacity(maxTasks, policy, task -> { });
+    }
+    
+    /**
+     * Creates a TaskService holding every task of a snapshot file.
+     * The file is memory-mapped and decoded in parallel chunks.
+     * 
+     * @param file the snapshot written by {@link #snapshotTo(Path)}
+     * @return a new service containing the snapshot's tasks
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     * @throws IllegalArgumentException if file is null
+     */
+    public static TaskService loadFrom(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Snapshot file cannot be null");
+        }
+        return new TaskService(TaskSnapshot.read(file));
     }
     
     /**
      * Adds a new task to the service.
      * The task ID must be unique - attempting to add a task with an existing ID will throw an exception.
+     * Once added, the task is a read-only snapshot; change it through the service's update methods.
      * 
      * @param task the task to add (must not be null and must have a unique ID)
      * @throws IllegalArgumentException if task is null or if a task with the same ID already exists
+     * @throws IllegalStateException if the service is full and its policy is REJECT_NEW
      */
     public void addTask(Task task) {
-        if (task == null) {
-            throw new IllegalArgumentException("Task cannot be null");
-        }
-        
-        String taskId = task.getTaskId();
-        if (tasks.containsKey(taskId)) {
-            throw new IllegalArgumentException("Task with ID '" + taskId + "' already exists");
+        OperationMetrics.time(metrics, Operation.ADD_TASK, () -> {
+            if (task == null) {
+                throw new IllegalArgumentException("Task cannot be null");
+            }
+            
+            switch (insert(task)) {
+                case DUPLICATE_ID -> throw new IllegalArgumentException(
+                        "Task with ID '" + task.getTaskId() + "' already exists");
+                case CAPACITY -> throw new IllegalStateException("Task capacity of " + bound.capacity() + " reached");
+                default -> { }
+            }
+        });
+    }
+    
+    /**
+     * Adds a new task to the service without throwing on failure.
+     * 
+     * @param task the task to add
+     * @return ADDED if stored, DUPLICATE_ID if the ID already exists, INVALID if task is null,
+     *         CAPACITY if the service is full and its policy is REJECT_NEW
+     */
+    public AddResult tryAddTask(Task task) {
+        return OperationMetrics.time(metrics, Operation.TRY_ADD_TASK, () -> {
+            if (task == null) {
+                return AddResult.INVALID;
+            }
+            return insert(task);
+        }, OperationMetrics::added);
+    }
+    
+    /**
+     * Adds a batch of tasks, all or nothing, and publishes it atomically.
+     * Rejects the whole batch if any element is null, if an ID repeats within the batch,
+     * or if an ID already exists in the service; in that case no task is added.
+     * The batch is checked against the store and stored while every other write and read
+     * of the service is held off, so readers and writers see either none of it or all of
+     * it, a batch that fails leaves no trace, and its ADD events are published as one
+     * uninterrupted run. Large batches on an unbounded service are checked and stored in
+     * parallel. On a bounded service, a batch that cannot fit is rejected before any task
+     * is added: under REJECT_NEW when the stored tasks and the batch exceed the capacity,
+     * under the other policies when the batch alone does. Adding the batch can evict tasks
+     * that are not part of it; their DELETE events are published with the batch, and the
+     * evicted tasks are passed to the eviction listener once the batch is visible.
+     * 
+     * @param batch the tasks to add (must not be null)
+     * @throws IllegalArgumentException if the batch is null, any task cannot be added, or the
+     *         batch is larger than the capacity of a service that evicts
+     * @throws IllegalStateException if the batch does not fit and the policy is REJECT_NEW; no task is added
+     */
+    public void addTasks(Collection<Task> batch) {
+        OperationMetrics.time(metrics, Operation.ADD_TASKS, () -> addAll(batch));
+    }
+    
+    /**
+     * Adds a batch of tasks, all or nothing, without recording metrics.
+     * 
+     * @param batch the tasks to add
+     * @throws IllegalArgumentException if the batch is null or any task cannot be added
+     */
+    private void addAll(Collection<Task> batch) {
+        Map<String, Task> byId = Batches.indexById(batch, Task::getTaskId, "Task cannot be null",
+                taskId -> "Task with ID '" + taskId + "' appears more than once in the batch");
+        List<Task> evicted = new ArrayList<>();
+        gate.publish(() -> {
+            // No other write runs until the batch is published, so nothing can fail after these checks
+            Batches.rejectExisting(byId, tasks, taskId -> "Task with ID '" + taskId + "' already exists");
+            if (bound == null) {
+                Batches.forEach(byId.values(), task -> {
+                    keywordIndex.add(task.freeze());
+                    tasks.put(task.getTaskId(), task);
+                });
+                for (Task task : byId.values()) {
+                    changes.publish(ChangeType.ADD, task.getTaskId(), task);
+                }
+                return;
+            }
+            rejectOversized(byId.size());
+            for (Task task : byId.values()) {
+                bound.add(task.getTaskId());
+                keywordIndex.add(task.freeze());
+                tasks.put(task.getTaskId(), task);
+                changes.publish(ChangeType.ADD, task.getTaskId(), task);
+                evicted.addAll(evictVictims(task.getTaskId()));
+            }
+        });
+        changes.release();
+        notifyEvicted(evicted);
+    }
+    
+    /**
+     * Rejects a batch that cannot fit without evicting its own tasks or being refused.
+     * 
+     * @param batchSize the number of tasks in the batch
+     * @throws IllegalArgumentException if the batch is larger than the capacity of a service that evicts
+     * @throws IllegalStateException if the batch does not fit and the policy is REJECT_NEW
+     */
+    private void rejectOversized(int batchSize) {
+        if (bound.rejectsNew()) {
+            if (tasks.size() + batchSize > bound.capacity()) {
+                throw new IllegalStateException("Task capacity of " + bound.capacity() + " reached");
+            }
+        } else if (batchSize > bound.capacity()) {
+            throw new IllegalArgumentException(
+                    "Batch of " + batchSize + " tasks exceeds the task capacity of " + bound.capacity());
         }
-        
-        tasks.put(taskId, task);
     }
     
     /**
@@ -49,15 +280,45 @@ public class TaskService {
      * @throws IllegalArgumentException if taskId is null or if no task with the given ID exists
      */
     public void deleteTask(String taskId) {
+        OperationMetrics.time(metrics, Operation.DELETE_TASK, () -> {
+            if (taskId == null) {
+                throw new IllegalArgumentException("Task ID cannot be null");
+            }
+            
+            if (!delete(taskId)) {
+                throw new NotFoundException("Task with ID '" + taskId + "' does not exist");
+            }
+        });
+    }
+    
+    /**
+     * Deletes a task from the service by its ID without throwing on failure.
+     * 
+     * @param taskId the ID of the task to delete
+     * @return true if a task was removed, false if taskId is null or not found
+     */
+    public boolean tryDeleteTask(String taskId) {
+        return OperationMetrics.time(metrics, Operation.TRY_DELETE_TASK, () -> delete(taskId),
+                OperationMetrics::removed);
+    }
+    
+    /**
+     * Deletes a task by its ID without recording metrics.
+     * 
+     * @param taskId the ID of the task to delete
+     * @return true if a task was removed, false if taskId is null or not found
+     */
+    private boolean delete(String taskId) {
         if (taskId == null) {
-            throw new IllegalArgumentException("Task ID cannot be null");
+            return false;
         }
-        
-        if (!tasks.containsKey(taskId)) {
-            throw new IllegalArgumentException("Task with ID '" + taskId + "' does not exist");
+        Task existing;
+        while ((existing = tasks.get(taskId)) != null) {
+            if (removeIfSame(existing)) {
+                return true;
+            }
         }
-        
-        tasks.remove(taskId);
+        return false;
     }
     
     /**
@@ -68,8 +329,19 @@ public class TaskService {
      * @throws IllegalArgumentException if taskId is null, task doesn't exist, or taskName is invalid
      */
     public void updateTaskName(String taskId, String taskName) {
-        Task task = getTaskById(taskId);
-        task.setTaskName(taskName);
+        OperationMetrics.time(metrics, Operation.UPDATE_TASK_NAME, () -> {
+            if (taskId == null) {
+                throw new IllegalArgumentException("Task ID cannot be null");
+            }
+            
+            Task updated = gate.write(() -> tasks.computeIfPresent(taskId,
+                    (id, task) -> replace(task, new Task(id, taskName, task.getTaskDescription()))));
+            changes.release();
+            if (updated == null) {
+                throw new NotFoundException("Task with ID '" + taskId + "' does not exist");
+            }
+            recordAccess(taskId);
+        });
     }
     
     /**
@@ -80,8 +352,39 @@ public class TaskService {
      * @throws IllegalArgumentException if taskId is null, task doesn't exist, or taskDescription is invalid
      */
     public void updateTaskDescription(String taskId, String taskDescription) {
-        Task task = getTaskById(taskId);
-        task.setTaskDescription(taskDescription);
+        OperationMetrics.time(metrics, Operation.UPDATE_TASK_DESCRIPTION, () -> {
+            if (taskId == null) {
+                throw new IllegalArgumentException("Task ID cannot be null");
+            }
+            
+            Task updated = gate.write(() -> tasks.computeIfPresent(taskId,
+                    (id, task) -> replace(task, new Task(id, task.getTaskName(), taskDescription))));
+            changes.release();
+            if (updated == null) {
+                throw new NotFoundException("Task with ID '" + taskId + "' does not exist");
+            }
+            recordAccess(taskId);
+        });
+    }
+    
+    /**
+     * Applies a name and a description change to an existing task as one update,
+     * without recording metrics. Used by TaskUpdatePipeline to write coalesced state.
+     * 
+     * @param taskId the ID of the task to update
+     * @param taskName the new, already validated task name, or null to keep the current one
+     * @param taskDescription the new, already validated task description, or null to keep the current one
+     * @throws IllegalArgumentException if the task doesn't exist
+     */
+    void applyUpdate(String taskId, String taskName, String taskDescription) {
+        Task updated = gate.write(() -> tasks.computeIfPresent(taskId, (id, task) -> replace(task, new Task(id,
+                taskName != null ? taskName : task.getTaskName(),
+                taskDescription != null ? taskDescription : task.getTaskDescription()))));
+        changes.release();
+        if (updated == null) {
+            throw new NotFoundException("Task with ID '" + taskId + "' does not exist");
+        }
+        recordAccess(taskId);
     }
     
     /**
@@ -92,7 +395,124 @@ public class TaskService {
      * @throws IllegalArgumentException if taskId is null or if no task with the given ID exists
      */
     public Task getTask(String taskId) {
-        return getTaskById(taskId);
+        return OperationMetrics.time(metrics, Operation.GET_TASK, () -> gate.read(() -> getTaskById(taskId)));
+    }
+    
+    /**
+     * Looks up a task by its ID without throwing on a miss.
+     * 
+     * @param taskId the ID of the task to look up
+     * @return the task, or empty if taskId is null or not found
+     */
+    public Optional<Task> findTask(String taskId) {
+        return OperationMetrics.time(metrics, Operation.FIND_TASK,
+                () -> taskId == null ? Optional.<Task>empty() : gate.read(() -> Optional.ofNullable(lookup(taskId))),
+                OperationMetrics::found);
+    }
+    
+    /**
+     * Finds the tasks whose description contains every word of a query (AND).
+     * Words are runs of letters and digits, matched case-insensitively as whole words.
+     * Served from an inverted index, so the cost follows the posting sets of the query
+     * words rather than the number of stored tasks.
+     * 
+     * @param keywords the words to look for (must not be null)
+     * @return the matching tasks, empty if keywords contains no words
+     * @throws IllegalArgumentException if keywords is null
+     */
+    public List<Task> searchAllKeywords(String keywords) {
+        return OperationMetrics.time(metrics, Operation.SEARCH_ALL_KEYWORDS, () -> {
+            if (keywords == null) {
+                throw new IllegalArgumentException("Keywords cannot be null");
+            }
+            return gate.read(() -> keywordIndex.search(keywords, true));
+        });
+    }
+    
+    /**
+     * Finds the tasks whose description contains at least one word of a query (OR).
+     * Words are matched as in {@link #searchAllKeywords(String)}.
+     * 
+     * @param keywords the words to look for (must not be null)
+     * @return the matching tasks, empty if keywords contains no words
+     * @throws IllegalArgumentException if keywords is null
+     */
+    public List<Task> searchAnyKeyword(String keywords) {
+        return OperationMetrics.time(metrics, Operation.SEARCH_ANY_KEYWORD, () -> {
+            if (keywords == null) {
+                throw new IllegalArgumentException("Keywords cannot be null");
+            }
+            return gate.read(() -> keywordIndex.search(keywords, false));
+        });
+    }
+    
+    /**
+     * Subscribes to every add, update and delete of a task from now on.
+     * Events travel through a preallocated ring buffer and are delivered on the
+     * subscription's own thread, so a listener never runs on the thread making the
+     * change and only holds it up under {@link OverflowPolicy#BLOCK}. Each event
+     * carries a copy of the task, a change type and a sequence number that increases
+     * by one per event.
+     * 
+     * @param listener receives the events, must not be null
+     * @param policy what to do when the listener falls a whole ring buffer behind, must not be null
+     * @return the subscription; close it to stop delivery
+     * @throws IllegalArgumentException if listener or policy is null
+     */
+    public ChangeSubscription subscribe(Consumer<? super ChangeEvent<Task>> listener, OverflowPolicy policy) {
+        return changes.subscribe(listener, policy);
+    }
+    
+    /**
+     * Starts timing every public operation and counting its outcomes in a registry.
+     * Operations are recorded under the service label "task"; calling this again
+     * switches recording to the new registry.
+     * 
+     * @param registry the registry to record into (must not be null)
+     * @throws IllegalArgumentException if registry is null
+     */
+    public void enableMetrics(ServiceMetrics registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Metrics registry cannot be null");
+        }
+        metrics = registry.register("task", Operation.values());
+    }
+    
+    /**
+     * Returns the number of tasks evicted to stay within the capacity.
+     * 
+     * @return the eviction count, always 0 for an unbounded service
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+    
+    /**
+     * Writes every stored task to a compact fixed-width binary snapshot.
+     * The file is replaced atomically, so a crash mid-write leaves any previous snapshot intact.
+     * 
+     * @param file the snapshot file to write
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if file is null
+     */
+    public void snapshotTo(Path file) throws IOException {
+        try {
+            OperationMetrics.time(metrics, Operation.SNAPSHOT_TO, () -> {
+                if (file == null) {
+                    throw new IllegalArgumentException("Snapshot file cannot be null");
+                }
+                gate.read(() -> {
+                    try {
+                        TaskSnapshot.write(tasks.values(), file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                });
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
     
     /**
@@ -101,7 +521,7 @@ public class TaskService {
      * @return the number of tasks
      */
     public int getTaskCount() {
-        return tasks.size();
+        return OperationMetrics.time(metrics, Operation.GET_TASK_COUNT, () -> gate.read(tasks::size));
     }
     
     /**
@@ -112,10 +532,119 @@ public class TaskService {
      * @throws IllegalArgumentException if taskId is null
      */
     public boolean taskExists(String taskId) {
-        if (taskId == null) {
-            throw new IllegalArgumentException("Task ID cannot be null");
+        return OperationMetrics.time(metrics, Operation.TASK_EXISTS, () -> {
+            if (taskId == null) {
+                throw new IllegalArgumentException("Task ID cannot be null");
+            }
+            return gate.read(() -> tasks.containsKey(taskId));
+        });
+    }
+    
+    /**
+     * Stores a task unless its ID is taken or the service refuses it, indexing it under the per-ID lock.
+     * 
+     * @param task the validated task to add
+     * @return ADDED, DUPLICATE_ID if the task ID already exists, or CAPACITY if the service is
+     *         full and its policy is REJECT_NEW
+     */
+    private AddResult insert(Task task) {
+        // Track the outcome explicitly: re-adding the stored instance must still count as a duplicate
+        AddResult[] result = {AddResult.DUPLICATE_ID};
+        gate.write(() -> tasks.computeIfAbsent(task.getTaskId(), id -> {
+            if (bound != null && !bound.add(id)) {
+                result[0] = AddResult.CAPACITY;
+                return null;
+            }
+            keywordIndex.add(task.freeze());
+            changes.publish(ChangeType.ADD, id, task);
+            result[0] = AddResult.ADDED;
+            return task;
+        }));
+        changes.release();
+        if (result[0] == AddResult.ADDED && bound != null) {
+            evictOverflow(task.getTaskId());
+        }
+        return result[0];
+    }
+    
+    /**
+     * Swaps an updated copy in for a stored task. Runs inside the task's per-ID compute,
+     * which stores the returned copy.
+     * 
+     * @param task the stored task
+     * @param replacement the updated copy, with the same task ID
+     * @return the replacement
+     */
+    private Task replace(Task task, Task replacement) {
+        keywordIndex.replace(task, replacement.freeze());
+        changes.publish(ChangeType.UPDATE, replacement.getTaskId(), replacement);
+        return replacement;
+    }
+    
+    /**
+     * Evicts tasks chosen by the policy until the service is back within its capacity.
+     * Runs outside any per-ID compute, since evicting computes on other IDs. A victim can
+     * be a task whose insert is still inside its compute; computeIfPresent waits for that
+     * insert to finish, where a plain get would miss the task.
+     * 
+     * @param addedId the ID of the task just added, never chosen as the victim
+     */
+    private void evictOverflow(String addedId) {
+        List<Task> evicted = gate.write(() -> evictVictims(addedId));
+        changes.release();
+        notifyEvicted(evicted);
+    }
+    
+    /**
+     * Removes the victims chosen by the policy until the service is back within its capacity.
+     * Runs inside the publication gate; the caller passes the victims to the listener after leaving it.
+     * 
+     * @param addedId the ID of the task just added, never chosen as the victim
+     * @return the evicted tasks
+     */
+    private List<Task> evictVictims(String addedId) {
+        List<Task> evicted = new ArrayList<>(1);
+        String victimId;
+        while ((victimId = bound.pollVictim(addedId)) != null) {
+            tasks.computeIfPresent(victimId, (id, task) -> {
+                bound.remove(id);
+                keywordIndex.remove(task);
+                changes.publish(ChangeType.DELETE, id, task);
+                evicted.add(task);
+                return null;
+            });
+        }
+        return evicted;
+    }
+    
+    private void notifyEvicted(List<Task> evicted) {
+        for (Task task : evicted) {
+            evictions.increment();
+            evictionListener.accept(task);
         }
-        return tasks.containsKey(taskId);
+    }
+    
+    /**
+     * Removes a task provided its ID still maps to that exact task,
+     * unindexing it under the per-ID lock.
+     * 
+     * @param task the task to remove
+     * @return true if removed, false if the ID is absent or maps to another task
+     */
+    private boolean removeIfSame(Task task) {
+        Task remaining = gate.write(() -> tasks.computeIfPresent(task.getTaskId(), (id, current) -> {
+            if (current != task) {
+                return current;
+            }
+            if (bound != null) {
+                bound.remove(id);
+            }
+            keywordIndex.remove(task);
+            changes.publish(ChangeType.DELETE, id, task);
+            return null;
+        }));
+        changes.release();
+        return remaining == null;
     }
     
     /**
@@ -130,11 +659,30 @@ public class TaskService {
             throw new IllegalArgumentException("Task ID cannot be null");
         }
         
-        Task task = tasks.get(taskId);
+        Task task = lookup(taskId);
         if (task == null) {
-            throw new IllegalArgumentException("Task with ID '" + taskId + "' does not exist");
+            throw new NotFoundException("Task with ID '" + taskId + "' does not exist");
+        }
+        return task;
+    }
+    
+    /**
+     * Looks up a task, recording the read for the eviction policy.
+     * 
+     * @param taskId the ID of the task, not null
+     * @return the task, or null if not found
+     */
+    private Task lookup(String taskId) {
+        Task task = tasks.get(taskId);
+        if (task != null) {
+            recordAccess(taskId);
         }
-        
         return task;
     }
+    
+    private void recordAccess(String taskId) {
+        if (bound != null) {
+            bound.recordAccess(taskId);
+        }
+    }
 }
\ No newline at end of file
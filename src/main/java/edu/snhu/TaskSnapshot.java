@@ -0,0 +1,187 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
+
+/**
+ * Binary snapshot format for TaskService.
+ * The file is a 16-byte header followed by one fixed-width slot per task. A slot holds
+ * the three field lengths and the field characters as UTF-16, padded to the 10/20/50
+ * character limits Task enforces, so slot i always starts at a computable offset.
+ * That lets both writing and loading split the file into independent memory-mapped
+ * chunks and process them in parallel, touching each page only once.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class TaskSnapshot {
+    private static final int MAGIC = 0x54534B31; // "TSK1"
+    private static final int HEADER_BYTES = 16;
+    private static final int ID_CHARS = 10;
+    private static final int NAME_CHARS = 20;
+    private static final int DESCRIPTION_CHARS = 50;
+    // 3 length bytes + 80 UTF-16 chars, padded to an even size
+    static final int SLOT_BYTES = 164;
+    private static final int SLOTS_PER_CHUNK = 1 << 16;
+
+    private TaskSnapshot() {
+    }
+
+    /**
+     * Writes the tasks to a snapshot file, replacing it atomically.
+     * The snapshot is first written next to the target and then renamed over it,
+     * so readers never observe a partially written file. Tasks updated while the
+     * snapshot is written may be captured with either their old or new values.
+     *
+     * @param tasks the tasks to write
+     * @param file the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Collection<Task> tasks, Path file) throws IOException {
+        List<Task> slots = new ArrayList<>(tasks);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putInt(MAGIC);
+            header.putInt(SLOT_BYTES);
+            header.putLong(slots.size());
+            forEachChunk(slots.size(), (first, count) -> {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE, offsetOf(first),
+                        (long) count * SLOT_BYTES);
+                for (int i = 0; i < count; i++) {
+                    writeSlot(chunk, slots.get(first + i));
+                }
+                chunk.force();
+            });
+            header.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads every task of a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return the tasks keyed by ID
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    static ConcurrentMap<String, Task> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a task snapshot: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            long count = header.getLong(8);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != SLOT_BYTES || count < 0
+                    || channel.size() != HEADER_BYTES + count * SLOT_BYTES || count > Integer.MAX_VALUE) {
+                throw new IOException("Not a task snapshot or truncated: " + file);
+            }
+            ConcurrentMap<String, Task> tasks = new ConcurrentHashMap<>((int) (count / 0.75f) + 1);
+            forEachChunk((int) count, (first, chunkCount) -> {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offsetOf(first),
+                        (long) chunkCount * SLOT_BYTES);
+                char[] chars = new char[DESCRIPTION_CHARS];
+                for (int i = 0; i < chunkCount; i++) {
+                    Task task = readSlot(chunk, i * SLOT_BYTES, chars);
+                    tasks.put(task.getTaskId(), task);
+                }
+            });
+            return tasks;
+        }
+    }
+
+    private static long offsetOf(int slot) {
+        return HEADER_BYTES + (long) slot * SLOT_BYTES;
+    }
+
+    private static void writeSlot(MappedByteBuffer chunk, Task task) {
+        int start = chunk.position();
+        String id = task.getTaskId();
+        String name = task.getTaskName();
+        String description = task.getTaskDescription();
+        chunk.put((byte) id.length());
+        chunk.put((byte) name.length());
+        chunk.put((byte) description.length());
+        putChars(chunk, id, ID_CHARS);
+        putChars(chunk, name, NAME_CHARS);
+        putChars(chunk, description, DESCRIPTION_CHARS);
+        chunk.position(start + SLOT_BYTES);
+    }
+
+    private static void putChars(MappedByteBuffer chunk, String value, int width) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            chunk.putChar(value.charAt(i));
+        }
+        chunk.position(chunk.position() + (width - length) * Character.BYTES);
+    }
+
+    private static Task readSlot(MappedByteBuffer chunk, int offset, char[] chars) throws IOException {
+        int idLength = chunk.get(offset);
+        int nameLength = chunk.get(offset + 1);
+        int descriptionLength = chunk.get(offset + 2);
+        if (idLength < 0 || idLength > ID_CHARS || nameLength < 0 || nameLength > NAME_CHARS
+                || descriptionLength < 0 || descriptionLength > DESCRIPTION_CHARS) {
+            throw new IOException("Corrupt task snapshot slot at offset " + offset);
+        }
+        int position = offset + 3;
+        String id = getChars(chunk, position, idLength, chars);
+        position += ID_CHARS * Character.BYTES;
+        String name = getChars(chunk, position, nameLength, chars);
+        position += NAME_CHARS * Character.BYTES;
+        String description = getChars(chunk, position, descriptionLength, chars);
+        try {
+            return new Task(id, name, description);
+        } catch (IllegalArgumentException e) {
+            // Lengths in range but fields Task rejects, such as a blank ID
+            throw new IOException("Corrupt task snapshot slot at offset " + offset, e);
+        }
+    }
+
+    private static String getChars(MappedByteBuffer chunk, int position, int length, char[] chars) {
+        for (int i = 0; i < length; i++) {
+            chars[i] = chunk.getChar(position + i * Character.BYTES);
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Runs the action over consecutive slot ranges in parallel.
+     */
+    private static void forEachChunk(int slotCount, ChunkAction action) throws IOException {
+        int chunks = (slotCount + SLOTS_PER_CHUNK - 1) / SLOTS_PER_CHUNK;
+        try {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int first = chunk * SLOTS_PER_CHUNK;
+                try {
+                    action.apply(first, Math.min(SLOTS_PER_CHUNK, slotCount - first));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Work done on one range of slots.
+     */
+    @FunctionalInterface
+    private interface ChunkAction {
+        void apply(int firstSlot, int slotCount) throws IOException;
+    }
+}
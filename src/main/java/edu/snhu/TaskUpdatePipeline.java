@@ -0,0 +1,318 @@
+package edu.snhu;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous write-behind pipeline in front of a TaskService that coalesces bursts
+ * of updates to the same task.
+ * Updates are validated when submitted and queued per task ID; later updates of a
+ * field overwrite earlier ones still queued. A dedicated daemon writer waits one
+ * window after the first queued update, then applies the final state of every queued
+ * task in a single batch, with one write and one change event per task.
+ * The futures returned for updates are completed on their default async executor,
+ * never on the writer, so a dependent stage may block, flush or queue more updates
+ * without stalling the pipeline.
+ * Updates made directly on the service are not ordered against queued ones.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+public final class TaskUpdatePipeline implements Closeable {
+    /** Default coalescing window, long enough to absorb a burst of edits from one editor. */
+    public static final long DEFAULT_WINDOW_MILLIS = 50;
+
+    private final TaskService service;
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> barriers = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private final AtomicInteger activeSubmits = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private volatile boolean closing;
+    private volatile boolean sealed;
+    // Set once the writer has exited; barriers added after that are completed by close or flush
+    private volatile boolean stopped;
+    private volatile boolean idle;
+
+    /**
+     * The queued final state of one task; null fields are left unchanged.
+     * Mutated only inside the pending map's per-ID compute.
+     */
+    private static final class PendingUpdate {
+        final CompletableFuture<Void> applied = new CompletableFuture<>();
+        String taskName;
+        String taskDescription;
+    }
+
+    /**
+     * Constructs a pipeline with the default coalescing window and starts its writer.
+     *
+     * @param service the service to write to, must not be null
+     * @throws IllegalArgumentException if service is null
+     */
+    public TaskUpdatePipeline(TaskService service) {
+        this(service, DEFAULT_WINDOW_MILLIS);
+    }
+
+    /**
+     * Constructs a pipeline and starts its writer.
+     *
+     * @param service the service to write to, must not be null
+     * @param windowMillis how long the writer collects updates before applying them, must be positive
+     * @throws IllegalArgumentException if service is null or windowMillis is not positive
+     */
+    public TaskUpdatePipeline(TaskService service, long windowMillis) {
+        if (service == null) {
+            throw new IllegalArgumentException("Task service cannot be null");
+        }
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Coalescing window must be positive");
+        }
+        this.service = service;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.writer = new Thread(this::run, "task-update-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a name change.
+     *
+     * @param taskId the ID of the task to update, must not be null
+     * @param taskName the new task name, must meet Task validation requirements
+     * @return completes once the name has been written, or exceptionally with an
+     *         IllegalArgumentException if the task does not exist by then
+     * @throws IllegalArgumentException if taskId is null or taskName is invalid
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<Void> updateTaskName(String taskId, String taskName) {
+        validateTaskId(taskId);
+        Task.TASK_NAME.validate(taskName);
+        return submit(taskId, taskName, null);
+    }
+
+    /**
+     * Queues a description change.
+     *
+     * @param taskId the ID of the task to update, must not be null
+     * @param taskDescription the new task description, must meet Task validation requirements
+     * @return completes once the description has been written, or exceptionally with an
+     *         IllegalArgumentException if the task does not exist by then
+     * @throws IllegalArgumentException if taskId is null or taskDescription is invalid
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<Void> updateTaskDescription(String taskId, String taskDescription) {
+        validateTaskId(taskId);
+        Task.TASK_DESCRIPTION.validate(taskDescription);
+        return submit(taskId, null, taskDescription);
+    }
+
+    /**
+     * Waits until every update queued before this call has been written, cutting the
+     * current window short. Returns immediately once the pipeline is closed.
+     * The futures of those updates complete asynchronously, so one may still be pending
+     * when this returns; join it to wait for it.
+     */
+    public void flush() {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        // Add the barrier before checking: either the writer or close sees it, or this sees stopped
+        barriers.add(barrier);
+        if (stopped) {
+            barrier.complete(null);
+        }
+        LockSupport.unpark(writer);
+        barrier.join();
+    }
+
+    /**
+     * Gets the number of updates submitted so far.
+     *
+     * @return the submitted update count
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * Gets the number of submitted updates that were merged into an update of the
+     * same task still waiting in the queue, and so cost no write of their own.
+     *
+     * @return the coalesced update count
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Gets the number of task writes issued to the service.
+     *
+     * @return the write count
+     */
+    public long getWriteCount() {
+        return writes.sum();
+    }
+
+    /**
+     * Gets the number of batches the writer has applied.
+     *
+     * @return the batch count
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Gets the share of submitted updates that were coalesced away.
+     *
+     * @return coalesced divided by submitted, from 0 to 1; 0 if nothing was submitted
+     */
+    public double getCoalescingRatio() {
+        long total = submitted.sum();
+        return total == 0 ? 0 : (double) coalesced.sum() / total;
+    }
+
+    /**
+     * Rejects further updates, writes every queued one and stops the writer.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        // Wait out submitters that checked the flag before it was set
+        while (activeSubmits.get() != 0) {
+            Thread.onSpinWait();
+        }
+        sealed = true;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        stopped = true;
+        // The writer drained every update; release flushes that added a barrier after its last check
+        CompletableFuture<Void> barrier;
+        while ((barrier = barriers.poll()) != null) {
+            barrier.complete(null);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void validateTaskId(String taskId) {
+        if (taskId == null) {
+            throw new IllegalArgumentException("Task ID cannot be null");
+        }
+    }
+
+    private CompletableFuture<Void> submit(String taskId, String taskName, String taskDescription) {
+        activeSubmits.incrementAndGet();
+        try {
+            if (closing) {
+                throw new IllegalStateException("Task update pipeline is closed");
+            }
+            submitted.increment();
+            PendingUpdate update = pending.compute(taskId, (id, queued) -> {
+                PendingUpdate merged = queued;
+                if (merged == null) {
+                    merged = new PendingUpdate();
+                } else {
+                    coalesced.increment();
+                }
+                if (taskName != null) {
+                    merged.taskName = taskName;
+                }
+                if (taskDescription != null) {
+                    merged.taskDescription = taskDescription;
+                }
+                return merged;
+            });
+            if (idle) {
+                LockSupport.unpark(writer);
+            }
+            return update.applied;
+        } finally {
+            activeSubmits.decrementAndGet();
+        }
+    }
+
+    private void run() {
+        while (awaitWork()) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining;
+            while (barriers.isEmpty() && !sealed && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            // Barriers taken before the drain cover every update queued before they were added
+            List<CompletableFuture<Void>> reached = new ArrayList<>();
+            CompletableFuture<Void> barrier;
+            while ((barrier = barriers.poll()) != null) {
+                reached.add(barrier);
+            }
+            drain();
+            for (CompletableFuture<Void> done : reached) {
+                done.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Parks the writer until there is something to apply.
+     *
+     * @return false once the pipeline is sealed and fully drained
+     */
+    private boolean awaitWork() {
+        while (pending.isEmpty() && barriers.isEmpty()) {
+            // Once sealed nothing more is queued; a barrier added after this check is released by close
+            if (sealed && pending.isEmpty() && barriers.isEmpty()) {
+                return false;
+            }
+            idle = true;
+            // Re-check after publishing idle, so a submitter that missed it is seen here
+            if (pending.isEmpty() && barriers.isEmpty() && !sealed) {
+                LockSupport.park(this);
+            }
+            idle = false;
+        }
+        return true;
+    }
+
+    private void drain() {
+        boolean wrote = false;
+        for (String taskId : pending.keySet()) {
+            PendingUpdate update = pending.remove(taskId);
+            if (update == null) {
+                continue;
+            }
+            wrote = true;
+            writes.increment();
+            // Complete off the writer: a dependent stage that flushes would otherwise wait on itself
+            Executor completer = update.applied.defaultExecutor();
+            try {
+                service.applyUpdate(taskId, update.taskName, update.taskDescription);
+                completer.execute(() -> update.applied.complete(null));
+            } catch (RuntimeException e) {
+                completer.execute(() -> update.applied.completeExceptionally(e));
+            }
+        }
+        if (wrote) {
+            batches.increment();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package edu.snhu;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded cache with W-TinyLFU eviction.
+ * New entries land in a small LRU window (1% of the capacity). An entry leaving the
+ * window competes with the least recently used entry of the main region's probation
+ * segment, and only the one that a FrequencySketch estimates to be accessed more
+ * often stays, so a one-off scan cannot flush a popular working set. Entries hit
+ * while on probation move to a protected segment holding up to 80% of the main region.
+ * Lookups are lock-free; they record the access under the policy lock only if it is
+ * free, so under contention some accesses go uncounted rather than making readers wait.
+ *
+ * @param <V> the value type
+ * @author Rick Goshen
+ * @version 1.0
+ */
+final class TinyLfuCache<V> {
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private final int capacity;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final ConcurrentHashMap<String, Node<V>> data;
+    private final FrequencySketch sketch;
+    private final ReentrantLock policyLock = new ReentrantLock();
+    // Sentinels of circular LRU lists: the entry after the sentinel is the least recently used
+    private final Node<V> window = Node.sentinel();
+    private final Node<V> probation = Node.sentinel();
+    private final Node<V> protectedQueue = Node.sentinel();
+    private int windowSize;
+    private int probationSize;
+    private int protectedSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * A cached entry and its place in one of the LRU lists.
+     * List links and the queue are guarded by the policy lock.
+     */
+    private static final class Node<V> {
+        final String key;
+        volatile V value;
+        Node<V> previous = this;
+        Node<V> next = this;
+        byte queue;
+
+        Node(String key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        static <V> Node<V> sentinel() {
+            return new Node<>(null, null);
+        }
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the maximum number of entries, positive
+     */
+    TinyLfuCache(int capacity) {
+        this.capacity = capacity;
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = capacity - windowCapacity;
+        this.protectedCapacity = (int) (mainCapacity * 8L / 10);
+        this.data = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    /**
+     * Looks up a key, counting a hit or a miss and recording the access.
+     *
+     * @param key the key
+     * @return the cached value, or null
+     */
+    V get(String key) {
+        Node<V> node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (policyLock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Looks up a key without counting or recording anything.
+     *
+     * @param key the key
+     * @return the cached value, or null
+     */
+    V peek(String key) {
+        Node<V> node = data.get(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Stores a value, replacing any cached one, and evicts down to the capacity.
+     * The new entry itself may be the one evicted if it is accessed less often
+     * than the entries it would displace.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void put(String key, V value) {
+        policyLock.lock();
+        try {
+            Node<V> node = data.get(key);
+            if (node != null) {
+                node.value = value;
+                onAccess(node);
+                return;
+            }
+            sketch.increment(key);
+            node = new Node<>(key, value);
+            node.queue = WINDOW;
+            linkLast(window, node);
+            windowSize++;
+            data.put(key, node);
+            evict();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a key if it is cached.
+     *
+     * @param key the key
+     */
+    void invalidate(String key) {
+        policyLock.lock();
+        try {
+            Node<V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+                shrink(node.queue);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    int size() {
+        return data.size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private void onAccess(Node<V> node) {
+        if (data.get(node.key) != node) {
+            return; // Evicted or invalidated since the lock-free lookup found it
+        }
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW -> moveToEnd(window, node);
+            case PROBATION -> {
+                unlink(node);
+                probationSize--;
+                node.queue = PROTECTED;
+                linkLast(protectedQueue, node);
+                protectedSize++;
+                if (protectedSize > protectedCapacity) {
+                    // Demote the least recently used protected entry back to probation
+                    Node<V> demoted = protectedQueue.next;
+                    unlink(demoted);
+                    protectedSize--;
+                    demoted.queue = PROBATION;
+                    linkLast(probation, demoted);
+                    probationSize++;
+                }
+            }
+            default -> moveToEnd(protectedQueue, node);
+        }
+    }
+
+    private void evict() {
+        while (windowSize > windowCapacity) {
+            Node<V> candidate = window.next;
+            unlink(candidate);
+            windowSize--;
+            if (probationSize + protectedSize < mainCapacity) {
+                candidate.queue = PROBATION;
+                linkLast(probation, candidate);
+                probationSize++;
+                continue;
+            }
+            Node<V> victim = probationSize > 0 ? probation.next : protectedQueue.next;
+            if (victim == protectedQueue || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                remove(candidate);
+                continue;
+            }
+            unlink(victim);
+            shrink(victim.queue);
+            remove(victim);
+            candidate.queue = PROBATION;
+            linkLast(probation, candidate);
+            probationSize++;
+        }
+    }
+
+    private void remove(Node<V> node) {
+        data.remove(node.key, node);
+        evictions.increment();
+    }
+
+    private void shrink(byte queue) {
+        switch (queue) {
+            case WINDOW -> windowSize--;
+            case PROBATION -> probationSize--;
+            default -> protectedSize--;
+        }
+    }
+
+    private static <V> void moveToEnd(Node<V> sentinel, Node<V> node) {
+        unlink(node);
+        linkLast(sentinel, node);
+    }
+
+    private static <V> void linkLast(Node<V> sentinel, Node<V> node) {
+        Node<V> last = sentinel.previous;
+        node.previous = last;
+        node.next = sentinel;
+        last.next = node;
+        sentinel.previous = node;
+    }
+
+    private static <V> void unlink(Node<V> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        node.previous = node;
+        node.next = node;
+    }
+}
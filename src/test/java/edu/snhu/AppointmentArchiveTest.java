@@ -0,0 +1,265 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AppointmentArchive retention and archival through AppointmentService.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class AppointmentArchiveTest {
+    private static final long HOUR_MILLIS = 3_600_000L;
+    // Long enough that the background sweeper never runs during a test
+    private static final long IDLE_SWEEP_MILLIS = HOUR_MILLIS;
+
+    @TempDir
+    Path tempDir;
+
+    private final long base = System.currentTimeMillis() + HOUR_MILLIS;
+
+    private AppointmentArchive open(Path file) throws IOException {
+        return new AppointmentArchive(file, Duration.ZERO, IDLE_SWEEP_MILLIS);
+    }
+
+    /**
+     * Archives three appointments in two sweeps and keeps one live.
+     */
+    private Path writeArchive() throws IOException {
+        Path file = tempDir.resolve("appointments.archive");
+        try (AppointmentArchive archive = open(file)) {
+            AppointmentService service = AppointmentService.withArchive(archive);
+            service.addAppointment("A1", new Date(base + 1000), "First");
+            service.addAppointment("A2", new Date(base + 2000), "Second");
+            service.addAppointment("A3", new Date(base + 3000), "Third");
+            service.addAppointment("LIVE", new Date(base + 9000), "Still live");
+
+            assertEquals(1, service.archiveBefore(base + 1500));
+            assertEquals(2, service.archiveBefore(base + 5000));
+            assertEquals(0, service.archiveBefore(base + 5000));
+            assertEquals(1, service.getAppointmentsBetween(new Date(base), new Date(base + 10_000)).size());
+            assertTrue(service.findAppointment("A1").isEmpty());
+        }
+        return file;
+    }
+
+    private List<String> ids(List<Appointment> appointments) {
+        return appointments.stream().map(Appointment::getAppointmentId).toList();
+    }
+
+    /**
+     * Tests for moving appointments into the archive and reading them back.
+     */
+    @Nested
+    @DisplayName("Archival Tests")
+    class ArchivalTests {
+
+        @Test
+        @DisplayName("Should move expired appointments to disk and read them back by range")
+        void testArchiveAndRead() throws IOException {
+            Path file = writeArchive();
+
+            try (AppointmentArchive archive = open(file)) {
+                AppointmentService service = AppointmentService.withArchive(archive);
+                List<Appointment> all = service.archivedAppointmentsBetween(new Date(base), new Date(base + 10_000));
+                assertEquals(List.of("A1", "A2", "A3"), ids(all));
+                assertEquals("Second", all.get(1).getDescription());
+                assertEquals(new Date(base + 2000), all.get(1).getAppointmentDate());
+                assertEquals(List.of("A2"),
+                        ids(service.archivedAppointmentsBetween(new Date(base + 2000), new Date(base + 3000))));
+                assertTrue(service.archivedAppointmentsBetween(new Date(base + 4000), new Date(base + 9000)).isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep appending after reopening")
+        void testAppendAfterReopen() throws IOException {
+            Path file = writeArchive();
+
+            try (AppointmentArchive archive = open(file)) {
+                AppointmentService service = AppointmentService.withArchive(archive);
+                service.addAppointment("A4", new Date(base + 4000), "Fourth");
+                assertEquals(1, service.archiveBefore(base + 5000));
+                assertEquals(List.of("A1", "A2", "A3", "A4"),
+                        ids(service.archivedAppointmentsBetween(new Date(base), new Date(base + 10_000))));
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep appointments in memory when the archive cannot be written")
+        void testFailedWriteRestores() throws Exception {
+            AppointmentArchive archive = open(tempDir.resolve("closed.archive"));
+            AppointmentService service = AppointmentService.withArchive(archive);
+            service.addAppointment("A1", new Date(base + 1000), "First");
+            archive.close();
+
+            List<ChangeEvent<Appointment>> events = new CopyOnWriteArrayList<>();
+            try (ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.BLOCK)) {
+                assertThrows(UncheckedIOException.class, () -> service.archiveBefore(base + 5000));
+                service.addAppointment("A2", new Date(base + 2000), "Second");
+                long deadline = System.currentTimeMillis() + 5000;
+                while (events.isEmpty() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(0, subscription.getFailureCount());
+            }
+            assertEquals("First", service.getAppointment("A1").getDescription());
+            assertEquals(2, service.getAppointmentsBetween(new Date(base), new Date(base + 5000)).size());
+            // The failed sweep published nothing: the first event is the later add
+            assertEquals("A2", events.get(0).id());
+        }
+
+        @Test
+        @DisplayName("Should count background sweeps that fail")
+        void testSweepFailuresCounted() throws IOException {
+            try (AppointmentArchive archive = open(tempDir.resolve("failing.archive"))) {
+                assertEquals(0, archive.getSweepFailureCount());
+                archive.sweepOnce(Clock.systemUTC(), cutoff -> {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                });
+                archive.sweepOnce(Clock.systemUTC(), cutoff -> { });
+                assertEquals(1, archive.getSweepFailureCount());
+            }
+        }
+
+        @Test
+        @DisplayName("Should sweep expired appointments in the background")
+        void testBackgroundSweep() throws Exception {
+            try (AppointmentArchive archive = new AppointmentArchive(tempDir.resolve("sweep.archive"),
+                    Duration.ZERO, 10)) {
+                AppointmentService service = AppointmentService.withArchive(archive);
+                long soon = System.currentTimeMillis() + 50;
+                service.addAppointment("SOON", new Date(soon), "Expires quickly");
+
+                long deadline = System.currentTimeMillis() + 5000;
+                while (service.findAppointment("SOON").isPresent() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertTrue(service.findAppointment("SOON").isEmpty());
+                assertEquals(List.of("SOON"),
+                        ids(service.archivedAppointmentsBetween(new Date(soon), new Date(soon + 1))));
+            }
+        }
+
+        @Test
+        @DisplayName("Should compute the sweep cutoff from the service clock")
+        void testSweepUsesServiceClock() throws Exception {
+            // A day ahead of the system clock, an appointment an hour out is already expired
+            Clock tomorrow = Clock.offset(Clock.systemUTC(), Duration.ofDays(1));
+            try (AppointmentArchive archive = new AppointmentArchive(tempDir.resolve("clock.archive"),
+                    Duration.ZERO, 10)) {
+                AppointmentService service = AppointmentService.withArchive(archive, tomorrow);
+                Clock epoch = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+                service.addAppointments(List.of(new Appointment("SOON", new Date(base), "Expired tomorrow", epoch)));
+
+                long deadline = System.currentTimeMillis() + 5000;
+                while (service.findAppointment("SOON").isPresent() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertTrue(service.findAppointment("SOON").isEmpty());
+                assertEquals(List.of("SOON"),
+                        ids(service.archivedAppointmentsBetween(new Date(base), new Date(base + 1))));
+                assertThrows(IllegalArgumentException.class, () -> AppointmentService.withArchive(archive, null));
+            }
+        }
+
+        @Test
+        @DisplayName("Should report no archived appointments without an archive")
+        void testNoArchive() {
+            AppointmentService service = new AppointmentService();
+
+            assertTrue(service.archivedAppointmentsBetween(new Date(base), new Date(base + 1)).isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> service.archivedAppointmentsBetween(null, new Date()));
+        }
+    }
+
+    /**
+     * Tests for recovery from a crash in the middle of a write.
+     */
+    @Nested
+    @DisplayName("Crash Recovery Tests")
+    class CrashRecoveryTests {
+
+        @Test
+        @DisplayName("Should drop a torn final block and keep earlier ones")
+        void testTornTail() throws IOException {
+            Path file = writeArchive();
+            long intactSize = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                // Header promising 64 bytes followed by only 3
+                channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 64, 1, 2, 3, 4, 0, 1, 2}));
+            }
+
+            try (AppointmentArchive archive = open(file)) {
+                AppointmentService service = AppointmentService.withArchive(archive);
+                assertEquals(3, service.archivedAppointmentsBetween(new Date(base), new Date(base + 10_000)).size());
+            }
+            assertEquals(intactSize, Files.size(file));
+        }
+
+        @Test
+        @DisplayName("Should stop at a block whose checksum does not match")
+        void testCorruptBlock() throws IOException {
+            Path file = writeArchive();
+            long size = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                // Flip the last compressed byte of the second block
+                channel.write(ByteBuffer.wrap(new byte[] {0x55}), size - 1);
+            }
+
+            try (AppointmentArchive archive = open(file)) {
+                AppointmentService service = AppointmentService.withArchive(archive);
+                assertEquals(List.of("A1"),
+                        ids(service.archivedAppointmentsBetween(new Date(base), new Date(base + 10_000))));
+            }
+        }
+    }
+
+    /**
+     * Tests for constructor argument validation.
+     */
+    @Nested
+    @DisplayName("Constructor Tests")
+    class ConstructorTests {
+
+        @Test
+        @DisplayName("Should reject invalid arguments")
+        void testInvalidArguments() {
+            Path file = tempDir.resolve("invalid.archive");
+
+            assertThrows(IllegalArgumentException.class, () -> new AppointmentArchive(null, Duration.ZERO, 1));
+            assertThrows(IllegalArgumentException.class, () -> new AppointmentArchive(file, null, 1));
+            assertThrows(IllegalArgumentException.class, () -> new AppointmentArchive(file, Duration.ofDays(-1), 1));
+            assertThrows(IllegalArgumentException.class, () -> new AppointmentArchive(file, Duration.ZERO, 0));
+            assertThrows(IllegalArgumentException.class, () -> AppointmentService.withArchive(null));
+        }
+
+        @Test
+        @DisplayName("Should refuse to attach one archive to two services")
+        void testAttachOnlyOnce() throws IOException {
+            try (AppointmentArchive archive = open(tempDir.resolve("once.archive"))) {
+                AppointmentService.withArchive(archive);
+                assertThrows(IllegalStateException.class, () -> AppointmentService.withPackedIds(archive));
+            }
+        }
+    }
+}
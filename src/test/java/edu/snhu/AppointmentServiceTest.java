@@ -4,7 +4,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Unit tests for AppointmentService class focusing on CRUD operations.
@@ -224,4 +232,349 @@ public class AppointmentServiceTest {
             appointmentService.deleteAppointment(null);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test range query returns appointments in date order")
+    public void testGetAppointmentsBetween() {
+        long base = futureDate.getTime();
+        appointmentService.addAppointment("LATE", new Date(base + 3000), "Late");
+        appointmentService.addAppointment("EARLY", new Date(base + 1000), "Early");
+        appointmentService.addAppointment("MIDDLE", new Date(base + 2000), "Middle");
+        appointmentService.addAppointment("OUTSIDE", new Date(base + 5000), "Outside");
+
+        List<Appointment> range = appointmentService.getAppointmentsBetween(new Date(base + 1000), new Date(base + 5000));
+
+        assertEquals(3, range.size());
+        assertEquals("EARLY", range.get(0).getAppointmentId());
+        assertEquals("MIDDLE", range.get(1).getAppointmentId());
+        assertEquals("LATE", range.get(2).getAppointmentId());
+        assertEquals(3, appointmentService.countAppointmentsBetween(new Date(base + 1000), new Date(base + 5000)));
+        assertEquals(0, appointmentService.countAppointmentsBetween(new Date(base), new Date(base + 1000)));
+    }
+
+    @Test
+    @DisplayName("Test range query ties on date are ordered by ID")
+    public void testGetAppointmentsBetweenSameDate() {
+        appointmentService.addAppointment("B", futureDate, "Second");
+        appointmentService.addAppointment("A", futureDate, "First");
+
+        List<Appointment> range = appointmentService.getAppointmentsBetween(futureDate,
+                new Date(futureDate.getTime() + 1));
+
+        assertEquals(2, range.size());
+        assertEquals("A", range.get(0).getAppointmentId());
+        assertEquals("B", range.get(1).getAppointmentId());
+    }
+
+    @Test
+    @DisplayName("Test range query excludes deleted appointments")
+    public void testGetAppointmentsBetweenAfterDelete() {
+        appointmentService.addAppointment("KEEP", futureDate, "Keep");
+        appointmentService.addAppointment("DROP", futureDate, "Drop");
+        appointmentService.deleteAppointment("DROP");
+
+        List<Appointment> range = appointmentService.getAppointmentsBetween(futureDate,
+                new Date(futureDate.getTime() + 1));
+
+        assertEquals(1, range.size());
+        assertEquals("KEEP", range.get(0).getAppointmentId());
+    }
+
+    @Test
+    @DisplayName("Test range query with invalid bounds throws exception")
+    public void testGetAppointmentsBetweenInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.getAppointmentsBetween(null, futureDate);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.countAppointmentsBetween(futureDate, null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.getAppointmentsBetween(futureDate, new Date(futureDate.getTime() - 1));
+        });
+    }
+
+    @Test
+    @DisplayName("Test next appointment after a given time")
+    public void testNextAppointmentAfter() {
+        long base = futureDate.getTime();
+        appointmentService.addAppointment("FIRST", new Date(base), "First");
+        appointmentService.addAppointment("SECOND", new Date(base + 1000), "Second");
+
+        assertEquals("FIRST", appointmentService.nextAppointmentAfter(new Date(base - 1)).get().getAppointmentId());
+        // Strictly after: an appointment exactly at the reference time is skipped
+        assertEquals("SECOND", appointmentService.nextAppointmentAfter(new Date(base)).get().getAppointmentId());
+        assertTrue(appointmentService.nextAppointmentAfter(new Date(base + 1000)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.nextAppointmentAfter((Date) null);
+        });
+    }
+
+    @Test
+    @DisplayName("Test bulk add appointments updates storage and time index")
+    public void testAddAppointments() {
+        Appointment first = new Appointment("BULK1", futureDate, "First");
+        Appointment second = new Appointment("BULK2", new Date(futureDate.getTime() + 1000), "Second");
+
+        appointmentService.addAppointments(Arrays.asList(first, second));
+
+        assertEquals(first, appointmentService.getAppointment("BULK1"));
+        assertEquals(2, appointmentService.countAppointmentsBetween(futureDate, new Date(futureDate.getTime() + 2000)));
+    }
+
+    @Test
+    @DisplayName("Test bulk add large batch")
+    public void testAddAppointmentsLargeBatch() {
+        List<Appointment> batch = new ArrayList<>();
+        for (int i = 0; i < Batches.PARALLEL_THRESHOLD * 2; i++) {
+            batch.add(new Appointment("A" + i, futureDate, "Bulk"));
+        }
+
+        appointmentService.addAppointments(batch);
+
+        assertEquals(batch.size(), appointmentService.countAppointmentsBetween(futureDate,
+                new Date(futureDate.getTime() + 1)));
+    }
+
+    @Test
+    @DisplayName("Test bulk add with a bad record adds nothing")
+    public void testAddAppointmentsAllOrNothing() {
+        appointmentService.addAppointment("EXISTS", futureDate, "Existing");
+        Appointment fresh = new Appointment("FRESH", futureDate, "Fresh");
+        Appointment existing = new Appointment("EXISTS", futureDate, "Duplicate");
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.addAppointments(Arrays.asList(fresh, existing));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.addAppointments(Arrays.asList(fresh, fresh));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.addAppointments(Arrays.asList(fresh, null));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            appointmentService.getAppointment("FRESH");
+        });
+        assertEquals(1, appointmentService.countAppointmentsBetween(futureDate, new Date(futureDate.getTime() + 1)));
+    }
+
+    @Test
+    @DisplayName("Test find appointment reports misses as empty")
+    public void testFindAppointment() {
+        appointmentService.addAppointment("APP123", futureDate, "Doctor appointment");
+
+        assertEquals("APP123", appointmentService.findAppointment("APP123").orElseThrow().getAppointmentId());
+        assertTrue(appointmentService.findAppointment("NOTFOUND").isEmpty());
+        assertTrue(appointmentService.findAppointment(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test try add appointment reports outcomes as a status")
+    public void testTryAddAppointment() {
+        Date pastDate = new Date(System.currentTimeMillis() - 86400000);
+
+        assertEquals(AddResult.ADDED, appointmentService.tryAddAppointment("APP123", futureDate, "First"));
+        assertEquals(AddResult.DUPLICATE_ID, appointmentService.tryAddAppointment("APP123", futureDate, "Second"));
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointment(null, futureDate, "Valid"));
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointment("", futureDate, "Valid"));
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointment("12345678901", futureDate, "Valid"));
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointment("APP456", (Date) null, "Valid"));
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointment("APP456", pastDate, "Valid"));
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointment("APP456", futureDate, null));
+        assertEquals("First", appointmentService.getAppointment("APP123").getDescription());
+        assertEquals(1, appointmentService.countAppointmentsBetween(futureDate, new Date(futureDate.getTime() + 1)));
+    }
+
+    @Test
+    @DisplayName("Test try delete appointment reports outcomes as a boolean")
+    public void testTryDeleteAppointment() {
+        appointmentService.addAppointment("APP123", futureDate, "Doctor appointment");
+
+        assertTrue(appointmentService.tryDeleteAppointment("APP123"));
+        assertFalse(appointmentService.tryDeleteAppointment("APP123"));
+        assertFalse(appointmentService.tryDeleteAppointment(null));
+        assertEquals(0, appointmentService.countAppointmentsBetween(futureDate, new Date(futureDate.getTime() + 1)));
+    }
+
+    @Test
+    @DisplayName("Test packed ID storage keeps the primary map and time index in step")
+    public void testPackedIdStorage() {
+        AppointmentService packed = AppointmentService.withPackedIds();
+        packed.addAppointment("APP123", futureDate, "Packed");
+        packed.addAppointment("APP 456", futureDate, "Fallback");
+
+        assertEquals("Packed", packed.getAppointment("APP123").getDescription());
+        assertEquals("Fallback", packed.getAppointment("APP 456").getDescription());
+        assertThrows(IllegalArgumentException.class, () -> packed.addAppointment("APP123", futureDate, "Again"));
+        assertTrue(packed.tryDeleteAppointment("APP123"));
+        assertEquals(1, packed.countAppointmentsBetween(futureDate, new Date(futureDate.getTime() + 1)));
+    }
+
+    @Test
+    @DisplayName("Test free slot search skips gaps that are too short")
+    public void testFindNextFreeSlot() {
+        long base = futureDate.getTime();
+        appointmentService.addAppointment("A", new Date(base), "A");
+        appointmentService.addAppointment("B", new Date(base + 1000), "B");
+        appointmentService.addAppointment("C", new Date(base + 5000), "C");
+        appointmentService.addAppointment("D", new Date(base + 5000), "D");
+
+        // Before the first appointment, or starting exactly on a free instant
+        assertEquals(new Date(base - 500), appointmentService.findNextFreeSlot(new Date(base - 500), Duration.ofMillis(500)));
+        assertEquals(new Date(base + 1), appointmentService.findNextFreeSlot(new Date(base - 500), Duration.ofMillis(501)));
+        // 999 ms fits between A and B, 1000 ms does not
+        assertEquals(new Date(base + 1), appointmentService.findNextFreeSlot(new Date(base), Duration.ofMillis(999)));
+        assertEquals(new Date(base + 1001), appointmentService.findNextFreeSlot(new Date(base), Duration.ofSeconds(1)));
+        // Nothing fits before C and D, so the slot starts after the last appointment
+        assertEquals(new Date(base + 5001), appointmentService.findNextFreeSlot(new Date(base), Duration.ofSeconds(5)));
+
+        appointmentService.deleteAppointment("C");
+        assertEquals(new Date(base + 5001), appointmentService.findNextFreeSlot(new Date(base + 2000), Duration.ofHours(1)));
+        appointmentService.deleteAppointment("D");
+        assertEquals(new Date(base + 2000), appointmentService.findNextFreeSlot(new Date(base + 2000), Duration.ofHours(1)));
+    }
+
+    @Test
+    @DisplayName("Test free slot search and range count agree with a linear scan")
+    public void testFindNextFreeSlotMatchesScan() {
+        assertQueriesMatchScan(20_000, 400);
+    }
+
+    @Test
+    @DisplayName("Test free slot search and range count span several hours")
+    public void testFindNextFreeSlotAcrossHours() {
+        assertQueriesMatchScan(Duration.ofHours(12).toMillis(), Duration.ofHours(3).toMillis());
+    }
+
+    @Test
+    @DisplayName("Test free slot search stays consistent under concurrent writers")
+    public void testFindNextFreeSlotConcurrentWriters() throws InterruptedException {
+        long base = futureDate.getTime();
+        long hour = Duration.ofHours(1).toMillis();
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            int writer = w;
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    // Writers share hours, and every other add is deleted again to retire and reuse buckets
+                    String id = "W" + writer + "-" + i;
+                    long time = base + (i / 2 % 6) * hour + writer * 10 + i;
+                    appointmentService.addAppointment(id, new Date(time), "Load");
+                    if (i % 2 == 0) {
+                        appointmentService.deleteAppointment(id);
+                    }
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(400, appointmentService.countAppointmentsBetween(new Date(base), new Date(base + 6 * hour)));
+        List<Long> sorted = new ArrayList<>();
+        for (int w = 0; w < writers.length; w++) {
+            for (int i = 1; i < 200; i += 2) {
+                sorted.add(base + (i / 2 % 6) * hour + w * 10 + i);
+            }
+        }
+        sorted.sort(null);
+        for (long width : new long[] {1, 2, 15, hour - 300, hour}) {
+            assertEquals(new Date(scanFreeStart(sorted, base, width)),
+                    appointmentService.findNextFreeSlot(new Date(base), Duration.ofMillis(width)));
+        }
+    }
+
+    /**
+     * Adds appointments at random instants over a span, deletes a third of them, and checks
+     * random free slot searches and range counts against a linear scan of the remaining instants.
+     */
+    private void assertQueriesMatchScan(long span, long maxWidth) {
+        long base = futureDate.getTime();
+        Random random = new Random(7);
+        List<Long> times = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long time = base + (long) (random.nextDouble() * span);
+            times.add(time);
+            appointmentService.addAppointment("A" + i, new Date(time), "Random");
+        }
+        for (int i = 0; i < 500; i += 3) {
+            appointmentService.deleteAppointment("A" + i);
+            times.set(i, null);
+        }
+        List<Long> sorted = times.stream().filter(t -> t != null).sorted().toList();
+
+        for (int query = 0; query < 200; query++) {
+            long after = base - 100 + (long) (random.nextDouble() * (span + 200));
+            long width = 1 + (long) (random.nextDouble() * maxWidth);
+            assertEquals(new Date(scanFreeStart(sorted, after, width)),
+                    appointmentService.findNextFreeSlot(new Date(after), Duration.ofMillis(width)));
+            long to = after + width * 8;
+            long inRange = sorted.stream().filter(t -> t >= after && t < to).count();
+            assertEquals(inRange, appointmentService.countAppointmentsBetween(new Date(after), new Date(to)));
+        }
+    }
+
+    private static long scanFreeStart(List<Long> sorted, long after, long width) {
+        long start = after;
+        for (long time : sorted) {
+            if (time >= start + width) {
+                break;
+            }
+            if (time >= start) {
+                start = time + 1;
+            }
+        }
+        return start;
+    }
+
+    @Test
+    @DisplayName("Test free slot search with invalid arguments throws exception")
+    public void testFindNextFreeSlotInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.findNextFreeSlot((Date) null, Duration.ofMinutes(30)));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.findNextFreeSlot(futureDate, null));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.findNextFreeSlot(futureDate, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.findNextFreeSlot(futureDate, Duration.ofMinutes(-1)));
+        assertEquals(futureDate, appointmentService.findNextFreeSlot(futureDate, Duration.ofNanos(1)));
+    }
+
+    @Test
+    @DisplayName("Test java.time variants match the Date operations")
+    public void testInstantVariants() {
+        Instant base = futureDate.toInstant();
+        appointmentService.addAppointmentAt("FIRST", base, "First");
+        assertEquals(AddResult.ADDED, appointmentService.tryAddAppointmentAt("SECOND", base.plusSeconds(1), "Second"));
+        assertEquals(AddResult.DUPLICATE_ID, appointmentService.tryAddAppointmentAt("FIRST", base, "Again"));
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointmentAt("PAST", Instant.EPOCH, "Past"));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.addAppointmentAt("FIRST", base, "Again"));
+
+        assertEquals(2, appointmentService.getAppointmentsBetween(Instant.MIN, Instant.MAX).size());
+        assertEquals(1, appointmentService.countAppointmentsBetween(base, base.plusSeconds(1)));
+        assertEquals("SECOND", appointmentService.nextAppointmentAfter(base).orElseThrow().getAppointmentId());
+        assertTrue(appointmentService.nextAppointmentAfter(Instant.MAX).isEmpty());
+        assertEquals(base.plusMillis(1), appointmentService.findNextFreeSlot(base, Duration.ofMillis(999)));
+        assertTrue(appointmentService.archivedAppointmentsBetween(Instant.MIN, Instant.MAX).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.getAppointmentsBetween(base, base.minusSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.nextAppointmentAfter((Instant) null));
+    }
+
+    @Test
+    @DisplayName("Test service validates dates against its injected clock")
+    public void testInjectedClock() {
+        Instant now = Instant.parse("2020-01-01T12:00:00Z");
+        AppointmentService fixed = new AppointmentService(Clock.fixed(now, ZoneOffset.UTC));
+
+        fixed.addAppointmentAt("NOW", now, "At the fixed time");
+        fixed.addAppointment("DATE", Date.from(now.plusSeconds(1)), "After the fixed time");
+        assertEquals(AddResult.ADDED, fixed.tryAddAppointmentAt("TRY", now.plusSeconds(2), "After"));
+        assertEquals(AddResult.INVALID, fixed.tryAddAppointmentAt("PAST", now.minusMillis(1), "Before"));
+        assertEquals(AddResult.INVALID, fixed.tryAddAppointment("PASTDATE", Date.from(now.minusMillis(1)), "Before"));
+        assertThrows(IllegalArgumentException.class, () -> fixed.addAppointmentAt("PAST", now.minusMillis(1), "Before"));
+        assertEquals(3, fixed.getAppointmentsBetween(Instant.MIN, Instant.MAX).size());
+
+        // The same dates are in the past for a service on the system clock
+        assertEquals(AddResult.INVALID, appointmentService.tryAddAppointmentAt("TRY", now.plusSeconds(2), "After"));
+        assertThrows(IllegalArgumentException.class, () -> new AppointmentService((Clock) null));
+    }
+}
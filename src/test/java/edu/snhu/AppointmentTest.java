@@ -1,5 +1,9 @@
 package edu.snhu;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -269,4 +273,75 @@ public class AppointmentTest {
                             "Appointment date should be different from modified original");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests for the java.time constructor and getters.
+     */
+    @Nested
+    @DisplayName("java.time API Tests")
+    class JavaTimeTests {
+
+        @Test
+        @DisplayName("Instant constructor should store the time at millisecond precision")
+        void testInstantConstructor() {
+            Instant time = Instant.now().plus(1, ChronoUnit.DAYS).plusNanos(123_456);
+
+            Appointment appointment = Appointment.at("APP123", time, "Test appointment");
+
+            Instant stored = time.truncatedTo(ChronoUnit.MILLIS);
+            assertEquals(stored, appointment.getAppointmentTime());
+            assertEquals(stored.toEpochMilli(), appointment.getAppointmentEpochMillis());
+            assertEquals(Date.from(stored), appointment.getAppointmentDate());
+        }
+
+        @Test
+        @DisplayName("Instant constructor should apply the same validation as the Date constructor")
+        void testInstantConstructorValidation() {
+            Instant future = Instant.now().plus(1, ChronoUnit.DAYS);
+
+            assertEquals("Appointment date cannot be null", assertThrows(IllegalArgumentException.class,
+                    () -> Appointment.at("APP123", null, "Test")).getMessage());
+            assertEquals("Appointment date cannot be in the past", assertThrows(IllegalArgumentException.class,
+                    () -> Appointment.at("APP123", Instant.now().minusSeconds(60), "Test")).getMessage());
+            assertEquals("Appointment ID cannot be empty", assertThrows(IllegalArgumentException.class,
+                    () -> Appointment.at("", future, "Test")).getMessage());
+            assertThrows(IllegalArgumentException.class, () -> Appointment.at("APP123", future, null));
+            assertThrows(IllegalArgumentException.class, () -> Appointment.at("APP123", Instant.MAX, "Test"));
+        }
+    }
+
+    /**
+     * Tests for validating against an injected clock.
+     */
+    @Nested
+    @DisplayName("Clock Tests")
+    class ClockTests {
+        private final Instant now = Instant.parse("2020-01-01T12:00:00Z");
+        private final Clock fixed = Clock.fixed(now, ZoneOffset.UTC);
+
+        @Test
+        @DisplayName("Should judge 'in the past' by the supplied clock")
+        void testFixedClock() {
+            // Years in the past by the system clock, but in the future of the fixed clock
+            Appointment appointment = Appointment.at("APP123", now.plusSeconds(1), "Test", fixed);
+            assertEquals(now.plusSeconds(1), appointment.getAppointmentTime());
+            assertDoesNotThrow(() -> new Appointment("APP123", Date.from(now), "Test", fixed));
+
+            assertEquals("Appointment date cannot be in the past", assertThrows(IllegalArgumentException.class,
+                    () -> Appointment.at("APP123", now.minusMillis(1), "Test", fixed)).getMessage());
+            assertThrows(IllegalArgumentException.class,
+                    () -> new Appointment("APP123", Date.from(now.minusMillis(1)), "Test", fixed));
+        }
+
+        @Test
+        @DisplayName("Should reject a null clock")
+        void testNullClock() {
+            Date future = new Date(System.currentTimeMillis() + 86_400_000L);
+
+            assertEquals("Clock cannot be null", assertThrows(IllegalArgumentException.class,
+                    () -> new Appointment("APP123", future, "Test", null)).getMessage());
+            assertThrows(IllegalArgumentException.class,
+                    () -> Appointment.at("APP123", future.toInstant(), "Test", null));
+        }
+    }
+}
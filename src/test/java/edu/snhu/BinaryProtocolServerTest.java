@@ -0,0 +1,277 @@
+package edu.snhu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * End-to-end tests for BinaryProtocolServer and BinaryProtocolClient over localhost.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class BinaryProtocolServerTest {
+    private final ContactService contacts = new ContactService();
+    private final TaskService tasks = new TaskService();
+    private final AppointmentService appointments = new AppointmentService();
+    private BinaryProtocolServer server;
+    private BinaryProtocolClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new BinaryProtocolServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                contacts, tasks, appointments, 2);
+        client = connect();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    private BinaryProtocolClient connect() throws IOException {
+        return new BinaryProtocolClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) {
+        return assertThrows(CompletionException.class, future::join).getCause();
+    }
+
+    @Test
+    @DisplayName("Should run contact operations against the service")
+    void testContacts() {
+        Contact contact = new Contact("C1", "John", "Doe", "1234567890", "123 Main St");
+
+        assertEquals(AddResult.ADDED, client.addContact(contact).join());
+        assertEquals(AddResult.DUPLICATE_ID, client.addContact(contact).join());
+        Contact found = client.findContact("C1").join().orElseThrow();
+        assertEquals("Doe", found.getLastName());
+        assertEquals("123 Main St", found.getAddress());
+
+        assertTrue(client.updateFirstName("C1", "Jane").join());
+        assertTrue(client.updatePhone("C1", "0987654321").join());
+        assertFalse(client.updateLastName("NOPE", "Smith").join());
+        assertEquals("Jane", contacts.getContact("C1").getFirstName());
+        assertEquals(List.of(contacts.getContact("C1")), contacts.findContactsByPhone("0987654321"));
+        Throwable invalid = cause(client.updateAddress("C1", "x".repeat(31)));
+        assertInstanceOf(IllegalArgumentException.class, invalid);
+        assertTrue(invalid.getMessage().startsWith("Address"));
+
+        assertEquals(1, client.getContactCount().join());
+        assertTrue(client.deleteContact("C1").join());
+        assertFalse(client.deleteContact("C1").join());
+        assertTrue(client.findContact("C1").join().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should run task and appointment operations against the services")
+    void testTasksAndAppointments() {
+        assertEquals(AddResult.ADDED, client.addTask(new Task("T1", "Write", "Write the report")).join());
+        assertTrue(client.updateTaskDescription("T1", "Review the report").join());
+        assertTrue(client.updateTaskName("T1", "Review").join());
+        assertEquals("Review", client.findTask("T1").join().orElseThrow().getTaskName());
+        assertEquals(1, client.getTaskCount().join());
+        assertTrue(client.deleteTask("T1").join());
+
+        Instant time = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        assertEquals(AddResult.ADDED, client.addAppointment("A1", time, "Checkup").join());
+        assertEquals(time, client.findAppointment("A1").join().orElseThrow().getAppointmentTime());
+        assertEquals(1, client.countAppointmentsBetween(Instant.MIN, Instant.MAX).join());
+        assertEquals("Appointment date cannot be in the past",
+                cause(client.addAppointment("A2", Instant.EPOCH, "Past")).getMessage());
+        assertInstanceOf(IllegalArgumentException.class, cause(client.countAppointmentsBetween(time, Instant.EPOCH)));
+        assertTrue(client.deleteAppointment("A1").join());
+        assertInstanceOf(IllegalArgumentException.class, cause(client.addAppointment("A3", null, "Null")));
+    }
+
+    @Test
+    @DisplayName("Should answer pipelined requests from concurrent callers in order")
+    void testPipelining() throws Exception {
+        List<CompletableFuture<AddResult>> adds = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            adds.add(client.addContact(new Contact("C" + i, "First", "Last", "1234567890", "Main St")));
+        }
+        // A delete queued behind the add of the same ID must see it
+        CompletableFuture<Boolean> delete = client.deleteContact("C4999");
+        for (CompletableFuture<AddResult> add : adds) {
+            assertEquals(AddResult.ADDED, add.join());
+        }
+        assertTrue(delete.join());
+
+        try (BinaryProtocolClient second = connect()) {
+            List<Thread> threads = new ArrayList<>();
+            List<CompletableFuture<Boolean>> updates = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                Thread thread = new Thread(() -> {
+                    for (int i = offset; i < 4000; i += 4) {
+                        CompletableFuture<Boolean> update = second.updateAddress("C" + i, "Elm St");
+                        synchronized (updates) {
+                            updates.add(update);
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (CompletableFuture<Boolean> update : updates) {
+                assertTrue(update.join());
+            }
+        }
+        assertEquals(4999, client.getContactCount().join());
+        assertEquals("Elm St", contacts.getContact("C3999").getAddress());
+    }
+
+    @Test
+    @DisplayName("Should run requests on workers without stalling the event loop")
+    void testWorkers() throws Exception {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch holding = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        // Holds the first batch back, as a service call that blocks would
+        Executor workers = batch -> {
+            if (first.getAndSet(false)) {
+                holding.countDown();
+                pool.execute(() -> {
+                    try {
+                        held.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    batch.run();
+                });
+            } else {
+                pool.execute(batch);
+            }
+        };
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (BinaryProtocolServer pooled = new BinaryProtocolServer(address, contacts, tasks, appointments, 1, workers);
+                BinaryProtocolClient slow = new BinaryProtocolClient(
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), pooled.getPort()))) {
+            CompletableFuture<AddResult> blocked = slow.addContact(
+                    new Contact("C1", "First", "Last", "1234567890", "Main St"));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            try (BinaryProtocolClient fast = new BinaryProtocolClient(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), pooled.getPort()))) {
+                // The only event loop still serves other connections
+                assertEquals(AddResult.ADDED, fast.addContact(
+                        new Contact("C2", "First", "Last", "1234567890", "Main St")).join());
+                assertEquals(1, fast.getContactCount().join());
+                assertFalse(blocked.isDone());
+            }
+
+            held.countDown();
+            assertEquals(AddResult.ADDED, blocked.join());
+            List<CompletableFuture<AddResult>> adds = new ArrayList<>();
+            for (int i = 3; i < 2000; i++) {
+                adds.add(slow.addContact(new Contact("C" + i, "First", "Last", "1234567890", "Main St")));
+            }
+            // A delete queued behind the add of the same ID must see it
+            CompletableFuture<Boolean> delete = slow.deleteContact("C1999");
+            for (CompletableFuture<AddResult> add : adds) {
+                assertEquals(AddResult.ADDED, add.join());
+            }
+            assertTrue(delete.join());
+            assertEquals(1998, slow.getContactCount().join());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a client that sends a malformed frame and keep serving others")
+    void testMalformedFrame() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.getOutputStream().write(new byte[] {0x7F, 0, 0, 0, 1, 2, 3, 4, 5});
+            socket.getOutputStream().flush();
+            socket.setSoTimeout(5000);
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        assertEquals(0, client.getContactCount().join());
+    }
+
+    @Test
+    @DisplayName("Should answer an unknown opcode with FAILED and keep the connection")
+    void testUnknownOpcode() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.setSoTimeout(5000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            out.writeInt(BinaryProtocol.BODY_HEADER_BYTES);
+            out.writeInt(7);
+            out.writeByte(99);
+            out.writeInt(BinaryProtocol.BODY_HEADER_BYTES);
+            out.writeInt(8);
+            out.writeByte(BinaryProtocol.COUNT_TASKS);
+            out.flush();
+
+            byte[] failed = new byte[in.readInt()];
+            in.readFully(failed);
+            ByteBuffer body = ByteBuffer.wrap(failed);
+            assertEquals(7, body.getInt());
+            assertEquals(BinaryProtocol.FAILED, body.get());
+            assertEquals("Unknown opcode: 99", BinaryProtocol.getString(body));
+
+            in.readInt();
+            assertEquals(8, in.readInt());
+            assertEquals(BinaryProtocol.OK, in.readByte());
+            assertEquals(0, in.readInt());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report a task refused by a full service")
+    void testCapacity() throws IOException {
+        TaskService full = TaskService.withCapacity(1, EvictionPolicy.REJECT_NEW);
+        try (BinaryProtocolServer bounded = new BinaryProtocolServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), contacts, full, appointments);
+                BinaryProtocolClient boundedClient = new BinaryProtocolClient(
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), bounded.getPort()))) {
+            assertEquals(AddResult.ADDED, boundedClient.addTask(new Task("T1", "Write", "Write it")).join());
+            assertEquals(AddResult.CAPACITY, boundedClient.addTask(new Task("T2", "Read", "Read it")).join());
+            assertEquals(1, boundedClient.getTaskCount().join());
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail outstanding and later requests once the connection is closed")
+    void testClosedClient() throws IOException {
+        BinaryProtocolClient closed = connect();
+        closed.close();
+
+        assertInstanceOf(UncheckedIOException.class, cause(closed.getTaskCount()));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryProtocolServer(null, contacts, tasks, appointments));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryProtocolServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), contacts, tasks, appointments, 0));
+    }
+}
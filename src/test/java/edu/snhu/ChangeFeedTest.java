@@ -0,0 +1,375 @@
+package edu.snhu;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the change feed ring buffer and the services' subscribe API.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class ChangeFeedTest {
+
+    @Test
+    @DisplayName("Should publish contact adds, updates and deletes in order")
+    void testContactEvents() throws InterruptedException {
+        ContactService service = new ContactService();
+        BlockingQueue<ChangeEvent<Contact>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.BLOCK)) {
+            service.addContact("C1", "Ada", "Lovelace", "5551234567", "12 Analytical Way");
+            service.updateFirstName("C1", "Augusta");
+            service.deleteContact("C1");
+
+            ChangeEvent<Contact> added = take(events);
+            ChangeEvent<Contact> updated = take(events);
+            ChangeEvent<Contact> deleted = take(events);
+            assertEquals(ChangeType.ADD, added.type());
+            assertEquals(ChangeType.UPDATE, updated.type());
+            assertEquals(ChangeType.DELETE, deleted.type());
+            assertEquals("C1", deleted.id());
+            assertEquals(added.sequence() + 1, updated.sequence());
+            assertEquals(updated.sequence() + 1, deleted.sequence());
+            // Events carry copies, so later changes do not rewrite earlier events
+            assertEquals("Ada", added.entity().getFirstName());
+            assertEquals("Augusta", updated.entity().getFirstName());
+            assertEquals(0, subscription.getDroppedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish task name and description updates")
+    void testTaskEvents() throws InterruptedException {
+        TaskService service = new TaskService();
+        BlockingQueue<ChangeEvent<Task>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.DROP)) {
+            service.addTask(new Task("T1", "Write", "Draft the report"));
+            service.updateTaskName("T1", "Edit");
+            service.updateTaskDescription("T1", "Polish the report");
+
+            assertEquals(ChangeType.ADD, take(events).type());
+            assertEquals("Edit", take(events).entity().getTaskName());
+            ChangeEvent<Task> description = take(events);
+            assertEquals(ChangeType.UPDATE, description.type());
+            assertEquals("Polish the report", description.entity().getTaskDescription());
+            assertEquals(0, subscription.getDroppedCount());
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.updateTaskName("missing", "Name"));
+    }
+
+    @Test
+    @DisplayName("Should publish appointment adds and deletes")
+    void testAppointmentEvents() throws InterruptedException {
+        AppointmentService service = new AppointmentService();
+        Instant time = Instant.now().plus(1, ChronoUnit.DAYS);
+        BlockingQueue<ChangeEvent<Appointment>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.SPILL)) {
+            service.addAppointmentAt("A1", time, "Checkup");
+            service.deleteAppointment("A1");
+
+            ChangeEvent<Appointment> added = take(events);
+            assertEquals(ChangeType.ADD, added.type());
+            assertEquals(time.toEpochMilli(), added.entity().getAppointmentEpochMillis());
+            assertEquals(ChangeType.DELETE, take(events).type());
+            assertEquals(0, subscription.getFailureCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish nothing for failed changes or before subscribing")
+    void testNoEventsForFailures() throws InterruptedException {
+        ContactService service = new ContactService();
+        service.addContact("C1", "Ada", "Lovelace", "5551234567", "12 Analytical Way");
+        BlockingQueue<ChangeEvent<Contact>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.DROP)) {
+            assertEquals(AddResult.DUPLICATE_ID,
+                    service.tryAddContact(new Contact("C1", "Bob", "Smith", "5559876543", "1 Main St")));
+            assertThrows(IllegalArgumentException.class, () -> service.updatePhone("C1", "bad"));
+            assertFalse(service.tryDeleteContact("C2"));
+            assertThrows(IllegalArgumentException.class, () -> service.addContacts(List.of(
+                    new Contact("C3", "Bob", "Smith", "5559876543", "1 Main St"),
+                    new Contact("C1", "Bob", "Smith", "5559876543", "1 Main St"))));
+            service.deleteContact("C1");
+
+            assertEquals(ChangeType.DELETE, take(events).type());
+            assertNull(events.poll(50, TimeUnit.MILLISECONDS));
+            assertEquals(0, subscription.getDroppedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish the events of a batch as one uninterrupted run")
+    void testBatchEventsAreContiguous() throws InterruptedException {
+        TaskService service = new TaskService();
+        int batchSize = 200;
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new Task("B" + i, "Batch", "Loaded in bulk"));
+        }
+        BlockingQueue<ChangeEvent<Task>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.BLOCK)) {
+            Thread single = new Thread(() -> {
+                for (int i = 0; i < batchSize; i++) {
+                    service.addTask(new Task("S" + i, "Single", "Added one at a time"));
+                }
+            });
+            single.start();
+            service.addTasks(batch);
+            single.join();
+
+            List<Integer> batchPositions = new ArrayList<>();
+            for (int i = 0; i < batchSize * 2; i++) {
+                if (take(events).id().startsWith("B")) {
+                    batchPositions.add(i);
+                }
+            }
+            assertEquals(batchSize, batchPositions.size());
+            assertEquals(batchSize - 1, batchPositions.get(batchSize - 1) - batchPositions.get(0));
+            assertEquals(0, subscription.getFailureCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip overwritten events and count them under DROP")
+    void testDropPolicy() throws InterruptedException {
+        ChangeFeed<String> feed = new ChangeFeed<>("test", value -> value, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> sequences = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try (ChangeSubscription subscription = feed.subscribe(event -> {
+            await(release);
+            synchronized (sequences) {
+                sequences.add(event.sequence());
+            }
+            if (event.sequence() == 19) {
+                done.countDown();
+            }
+        }, OverflowPolicy.DROP)) {
+            for (int i = 0; i < 20; i++) {
+                feed.publish(ChangeType.ADD, "id" + i, "value" + i);
+                feed.release();
+            }
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+
+            synchronized (sequences) {
+                assertTrue(subscription.getDroppedCount() > 0);
+                assertEquals(20, sequences.size() + subscription.getDroppedCount());
+                for (int i = 1; i < sequences.size(); i++) {
+                    assertTrue(sequences.get(i) > sequences.get(i - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold writers back until a slot is free under BLOCK")
+    void testBlockPolicy() throws InterruptedException {
+        ChangeFeed<String> feed = new ChangeFeed<>("test", value -> value, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<ChangeEvent<String>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = feed.subscribe(event -> {
+            await(release);
+            events.add(event);
+        }, OverflowPolicy.BLOCK)) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 10; i++) {
+                    feed.publish(ChangeType.ADD, "id" + i, "value" + i);
+                    feed.release();
+                }
+            });
+            writer.start();
+            writer.join(200);
+            assertTrue(writer.isAlive(), "Writer should wait for the stalled subscriber");
+
+            release.countDown();
+            writer.join(5000);
+            assertFalse(writer.isAlive());
+            for (long i = 0; i < 10; i++) {
+                assertEquals(i, take(events).sequence());
+            }
+            assertEquals(0, subscription.getDroppedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should never wait inside the publishing lock under BLOCK")
+    void testPublishNeverWaits() throws InterruptedException {
+        ChangeFeed<String> feed = new ChangeFeed<>("test", value -> value, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch published = new CountDownLatch(1);
+        Object perIdLock = new Object();
+        BlockingQueue<ChangeEvent<String>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = feed.subscribe(event -> {
+            await(release);
+            events.add(event);
+        }, OverflowPolicy.BLOCK)) {
+            Thread writer = new Thread(() -> {
+                synchronized (perIdLock) {
+                    for (int i = 0; i < 10; i++) {
+                        feed.publish(ChangeType.ADD, "id" + i, "value" + i);
+                    }
+                }
+                published.countDown();
+                feed.release();
+            });
+            writer.start();
+            assertTrue(published.await(5, TimeUnit.SECONDS), "Publishing should not wait for the subscriber");
+            synchronized (perIdLock) {
+                writer.join(100);
+                assertTrue(writer.isAlive(), "Release should wait for the stalled subscriber");
+            }
+
+            release.countDown();
+            writer.join(5000);
+            assertFalse(writer.isAlive());
+            for (long i = 0; i < 10; i++) {
+                assertEquals("value" + i, take(events).entity());
+            }
+            assertEquals(0, subscription.getDroppedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should count listener failures and keep delivering")
+    void testListenerFailures() throws InterruptedException {
+        ChangeFeed<String> feed = new ChangeFeed<>("test", value -> value, 4);
+        BlockingQueue<ChangeEvent<String>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = feed.subscribe(event -> {
+            if (event.sequence() % 2 == 1) {
+                throw new IllegalStateException("Listener failure");
+            }
+            events.add(event);
+        }, OverflowPolicy.BLOCK)) {
+            for (int i = 0; i < 10; i++) {
+                feed.publish(ChangeType.ADD, "id" + i, "value" + i);
+                feed.release();
+            }
+            for (long i = 0; i < 10; i += 2) {
+                assertEquals(i, take(events).sequence());
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (subscription.getFailureCount() < 5 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(5, subscription.getFailureCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should release a blocked writer when the subscription closes")
+    void testCloseReleasesWriter() throws InterruptedException {
+        ChangeFeed<String> feed = new ChangeFeed<>("test", value -> value, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        ChangeSubscription subscription = feed.subscribe(event -> await(release), OverflowPolicy.BLOCK);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                feed.publish(ChangeType.ADD, "id" + i, "value" + i);
+                feed.release();
+            }
+        });
+        writer.start();
+        writer.join(100);
+        assertTrue(writer.isAlive());
+
+        subscription.close();
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+        assertTrue(subscription.isClosed());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should deliver every event exactly once under SPILL without blocking writers")
+    void testSpillPolicy() throws InterruptedException {
+        ChangeFeed<String> feed = new ChangeFeed<>("test", value -> value, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<ChangeEvent<String>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = feed.subscribe(event -> {
+            await(release);
+            events.add(event);
+        }, OverflowPolicy.SPILL)) {
+            // Runs on the test thread: it would never return if SPILL made writers wait
+            for (int i = 0; i < 100; i++) {
+                feed.publish(ChangeType.UPDATE, "id" + i, "value" + i);
+                feed.release();
+            }
+            release.countDown();
+            for (long i = 0; i < 100; i++) {
+                ChangeEvent<String> event = take(events);
+                assertEquals(i, event.sequence());
+                assertEquals("value" + i, event.entity());
+            }
+            assertNull(events.poll(50, TimeUnit.MILLISECONDS));
+            assertEquals(OverflowPolicy.SPILL, subscription.getOverflowPolicy());
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver every sequence in order from concurrent writers")
+    void testConcurrentWriters() throws InterruptedException {
+        ChangeFeed<String> feed = new ChangeFeed<>("test", value -> value, 64);
+        int writers = 4;
+        int perWriter = 10_000;
+        long[] expected = new long[1];
+        boolean[] ordered = {true};
+        CountDownLatch done = new CountDownLatch(1);
+        try (ChangeSubscription spill = feed.subscribe(event -> {
+            ordered[0] &= event.sequence() == expected[0]++;
+            if (expected[0] == (long) writers * perWriter) {
+                done.countDown();
+            }
+        }, OverflowPolicy.SPILL)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        feed.publish(ChangeType.ADD, "id", "value");
+                        feed.release();
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertTrue(ordered[0]);
+            assertEquals(0, spill.getDroppedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject null listeners and policies")
+    void testSubscribeValidation() {
+        ContactService service = new ContactService();
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(null, OverflowPolicy.DROP));
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(event -> { }, null));
+        assertThrows(IllegalArgumentException.class, () -> new ChangeFeed<String>("test", value -> value, 6));
+    }
+
+    private static <T> ChangeEvent<T> take(BlockingQueue<ChangeEvent<T>> events) throws InterruptedException {
+        ChangeEvent<T> event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "Timed out waiting for a change event");
+        return event;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
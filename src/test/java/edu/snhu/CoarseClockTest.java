@@ -0,0 +1,67 @@
+package edu.snhu;
+
+import java.time.Clock;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CoarseClock cached time source.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class CoarseClockTest {
+
+    @Test
+    @DisplayName("Should track the system clock within a few ticks")
+    void testTracksSystemTime() throws InterruptedException {
+        try (CoarseClock clock = new CoarseClock()) {
+            long first = clock.millis();
+            assertTrue(Math.abs(System.currentTimeMillis() - first) < 1000);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (clock.millis() == first && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(clock.millis() > first);
+            assertEquals(clock.millis(), clock.instant().toEpochMilli(), 1000);
+            assertEquals(ZoneOffset.UTC, clock.getZone());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop advancing once closed")
+    void testClose() throws InterruptedException {
+        CoarseClock clock = new CoarseClock();
+        clock.close();
+        // Let a tick that was already running finish
+        Thread.sleep(20);
+        long stopped = clock.millis();
+        Thread.sleep(20);
+        assertEquals(stopped, clock.millis());
+    }
+
+    @Test
+    @DisplayName("Should share the ticker across zones")
+    void testWithZone() {
+        try (CoarseClock clock = new CoarseClock(10)) {
+            ZoneId paris = ZoneId.of("Europe/Paris");
+            Clock zoned = clock.withZone(paris);
+
+            assertEquals(paris, zoned.getZone());
+            assertSame(clock, clock.withZone(ZoneOffset.UTC));
+            assertThrows(IllegalArgumentException.class, () -> clock.withZone(null));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive tick interval")
+    void testInvalidTick() {
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(0));
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(-1));
+    }
+}
@@ -0,0 +1,271 @@
+package edu.snhu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the disk-backed contact store and its W-TinyLFU cache.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@DisplayName("ContactDiskStore Class Tests")
+class ContactDiskStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String id(int i) {
+        return "C" + i;
+    }
+
+    private static void addContacts(ContactService service, int count) {
+        for (int i = 0; i < count; i++) {
+            service.addContact(id(i), "First" + (i % 10), "Last", String.format("%010d", i), i + " Main St");
+        }
+    }
+
+    /**
+     * Tests for storing contacts on disk.
+     */
+    @Nested
+    @DisplayName("Storage Tests")
+    class StorageTests {
+
+        @Test
+        @DisplayName("Should restore adds, updates and deletes after reopening")
+        void testReopen() throws IOException {
+            Path file = tempDir.resolve("contacts.db");
+            try (ContactDiskStore store = new ContactDiskStore(file, 10)) {
+                ContactService service = ContactService.withDiskStore(store);
+                addContacts(service, 100);
+                service.updateContact(id(1), draft -> draft.setPhone("5555555555").setAddress("9 Elm St"));
+                service.updateFirstName(id(2), "Ada");
+                service.deleteContact(id(3));
+            }
+            try (ContactDiskStore store = new ContactDiskStore(file, 10)) {
+                ContactService service = ContactService.withDiskStore(store);
+                assertEquals(99, service.getContactCount());
+                assertEquals("9 Elm St", service.getContact(id(1)).getAddress());
+                assertEquals("Ada", service.getContact(id(2)).getFirstName());
+                assertTrue(service.findContact(id(3)).isEmpty());
+                assertEquals("99 Main St", service.getContact(id(99)).getAddress());
+            }
+        }
+
+        @Test
+        @DisplayName("Should serve every operation through the service")
+        void testServiceOperations() throws IOException {
+            try (ContactDiskStore store = new ContactDiskStore(tempDir.resolve("contacts.db"), 5)) {
+                ContactService service = ContactService.withDiskStore(store);
+                addContacts(service, 50);
+                assertThrows(IllegalArgumentException.class,
+                        () -> service.addContact(id(7), "Dup", "Dup", "1234567890", "Dup St"));
+                assertThrows(IllegalArgumentException.class, () -> service.addContacts(
+                        List.of(new Contact("N1", "New", "New", "1234567890", "New St"),
+                                new Contact(id(8), "Dup", "Dup", "1234567890", "Dup St"))));
+                assertTrue(service.findContact("N1").isEmpty());
+
+                // Deleting and updating uncached contacts works on the copies read from disk
+                for (int i = 0; i < 50; i += 2) {
+                    service.deleteContact(id(i));
+                }
+                for (int i = 1; i < 50; i += 2) {
+                    service.updateLastName(id(i), "Odd");
+                }
+                assertEquals(25, service.getContactCount());
+                assertEquals("Odd", service.getContact(id(49)).getLastName());
+
+                List<Contact> firsts = service.searchByNamePrefix("first1", 10);
+                assertEquals(List.of(id(1), id(11), id(21), id(31), id(41)),
+                        firsts.stream().map(Contact::getContactId).toList());
+                assertEquals(2, service.searchByNamePrefix("FIRST", 2).size());
+                assertEquals(List.of(id(13)),
+                        service.findContactsByPhone("0000000013").stream().map(Contact::getContactId).toList());
+                assertTrue(service.findContactsByPhone("0000000012").isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("Should truncate a torn final record and keep earlier ones")
+        void testTornTail() throws IOException {
+            Path file = tempDir.resolve("contacts.db");
+            try (ContactDiskStore store = new ContactDiskStore(file, 10)) {
+                addContacts(ContactService.withDiskStore(store), 3);
+            }
+            long size = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(size - 5);
+            }
+            try (ContactDiskStore store = new ContactDiskStore(file, 10)) {
+                ContactService service = ContactService.withDiskStore(store);
+                assertEquals(2, service.getContactCount());
+                assertTrue(service.findContact(id(2)).isEmpty());
+                service.addContact(id(2), "Again", "Last", "1234567890", "1 Main St");
+            }
+            try (ContactDiskStore store = new ContactDiskStore(file, 10)) {
+                assertEquals("Again", ContactService.withDiskStore(store).getContact(id(2)).getFirstName());
+            }
+        }
+
+        @Test
+        @DisplayName("Should compact the file down to the live contacts")
+        void testCompact() throws IOException {
+            Path file = tempDir.resolve("contacts.db");
+            try (ContactDiskStore store = new ContactDiskStore(file, 10)) {
+                ContactService service = ContactService.withDiskStore(store);
+                addContacts(service, 20);
+                long initial = store.getFileBytes();
+                for (int round = 0; round < 5; round++) {
+                    for (int i = 0; i < 20; i++) {
+                        service.updateAddress(id(i), "Round " + round);
+                    }
+                }
+                service.deleteContact(id(0));
+                assertTrue(store.getFileBytes() > 5 * initial);
+
+                store.compact();
+                assertTrue(store.getFileBytes() < initial);
+                assertEquals(store.getFileBytes(), Files.size(file));
+                assertEquals("Round 4", service.getContact(id(19)).getAddress());
+                service.updateAddress(id(19), "After");
+            }
+            try (ContactDiskStore store = new ContactDiskStore(file, 10)) {
+                ContactService service = ContactService.withDiskStore(store);
+                assertEquals(19, service.getContactCount());
+                assertEquals("After", service.getContact(id(19)).getAddress());
+                assertEquals("Round 4", service.getContact(id(18)).getAddress());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject invalid arguments and a second attachment")
+        void testValidation() throws IOException {
+            assertThrows(IllegalArgumentException.class, () -> new ContactDiskStore(null, 10));
+            assertThrows(IllegalArgumentException.class, () -> new ContactDiskStore(tempDir.resolve("a.db"), 0));
+            assertThrows(IllegalArgumentException.class, () -> ContactService.withDiskStore(null));
+            try (ContactDiskStore store = new ContactDiskStore(tempDir.resolve("b.db"), 10)) {
+                ContactService.withDiskStore(store);
+                assertThrows(IllegalStateException.class, () -> ContactService.withDiskStore(store));
+            }
+        }
+    }
+
+    /**
+     * Tests for the in-memory cache in front of the file.
+     */
+    @Nested
+    @DisplayName("Cache Tests")
+    class CacheTests {
+
+        @Test
+        @DisplayName("Should cap the cached contacts and count hits, misses and evictions")
+        void testStatistics() throws IOException {
+            try (ContactDiskStore store = new ContactDiskStore(tempDir.resolve("contacts.db"), 50)) {
+                ContactService service = ContactService.withDiskStore(store);
+                addContacts(service, 1_000);
+                assertTrue(store.getCachedCount() <= 50);
+                assertTrue(store.getEvictionCount() >= 950);
+
+                long missesBefore = store.getMissCount();
+                service.findContact("missing");
+                assertEquals(missesBefore + 1, store.getMissCount());
+                long lookupsBefore = store.getHitCount() + store.getMissCount();
+                for (int i = 0; i < 1_000; i++) {
+                    service.getContact(id(i));
+                }
+                assertTrue(store.getCachedCount() <= 50);
+                assertEquals(50, store.getCacheCapacity());
+                assertEquals(lookupsBefore + 1_000, store.getHitCount() + store.getMissCount());
+                assertTrue(store.getHitRate() >= 0 && store.getHitRate() <= 1);
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep a frequently read working set through a one-off scan")
+        void testScanResistance() throws IOException {
+            try (ContactDiskStore store = new ContactDiskStore(tempDir.resolve("contacts.db"), 100)) {
+                ContactService service = ContactService.withDiskStore(store);
+                addContacts(service, 5_000);
+                for (int round = 0; round < 10; round++) {
+                    for (int i = 0; i < 50; i++) {
+                        service.getContact(id(i));
+                    }
+                }
+                // A one-off scan of cold contacts while the working set is still being read
+                for (int i = 1_000; i < 5_000; i++) {
+                    service.getContact(id(i));
+                    if (i % 10 == 0) {
+                        service.getContact(id(i / 10 % 50));
+                    }
+                }
+
+                long hitsBefore = store.getHitCount();
+                for (int i = 0; i < 50; i++) {
+                    service.getContact(id(i));
+                }
+                assertEquals(50, store.getHitCount() - hitsBefore);
+            }
+        }
+
+        @Test
+        @DisplayName("Should never serve a stale contact under concurrent updates")
+        void testConcurrentUpdates() throws Exception {
+            try (ContactDiskStore store = new ContactDiskStore(tempDir.resolve("contacts.db"), 8)) {
+                ContactService service = ContactService.withDiskStore(store);
+                addContacts(service, 64);
+                List<Thread> threads = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    int writer = t;
+                    Thread thread = new Thread(() -> {
+                        for (int round = 0; round < 200; round++) {
+                            for (int i = writer; i < 64; i += 4) {
+                                service.updateAddress(id(i), "Round " + round);
+                                assertEquals("Round " + round, service.getContact(id(i)).getAddress());
+                            }
+                        }
+                    });
+                    threads.add(thread);
+                    thread.start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                for (int i = 0; i < 64; i++) {
+                    assertEquals("Round 199", service.getContact(id(i)).getAddress());
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should estimate frequencies and age them out")
+        void testFrequencySketch() {
+            FrequencySketch sketch = new FrequencySketch(16);
+            for (int i = 0; i < 20; i++) {
+                sketch.increment("hot");
+            }
+            sketch.increment("warm");
+            assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("hot"));
+            assertTrue(sketch.frequency("warm") >= 1);
+            assertEquals(0, sketch.frequency("cold"));
+
+            // 160 increments fill the sample and halve every counter
+            for (int i = 0; i < 160; i++) {
+                sketch.increment("other" + i);
+            }
+            assertTrue(sketch.frequency("hot") < FrequencySketch.MAX_FREQUENCY);
+        }
+    }
+}
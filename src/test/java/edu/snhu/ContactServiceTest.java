@@ -1,6 +1,11 @@
 package edu.snhu;
 
 import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -370,4 +375,367 @@ class ContactServiceTest {
         contactService.deleteContact("1234567890");
         assertEquals(1, contactService.getContactCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddContacts() {
+        Contact contact2 = new Contact("0987654321", "Jane", "Smith", "0987654321", "456 Oak Ave");
+
+        contactService.addContacts(Arrays.asList(testContact, contact2));
+
+        assertEquals(2, contactService.getContactCount());
+        assertEquals(contact2, contactService.getContact("0987654321"));
+    }
+
+    @Test
+    void testAddContactsLargeBatch() {
+        List<Contact> batch = new ArrayList<>();
+        for (int i = 0; i < Batches.PARALLEL_THRESHOLD * 2; i++) {
+            batch.add(new Contact("C" + i, "John", "Doe", "1234567890", "123 Main St"));
+        }
+
+        contactService.addContacts(batch);
+
+        assertEquals(batch.size(), contactService.getContactCount());
+    }
+
+    @Test
+    void testAddContactsDuplicateInBatchAddsNothing() {
+        Contact duplicate = new Contact("1234567890", "Jane", "Smith", "0987654321", "456 Oak Ave");
+        Contact other = new Contact("0987654321", "Jane", "Smith", "0987654321", "456 Oak Ave");
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            contactService.addContacts(Arrays.asList(other, testContact, duplicate));
+        });
+        assertEquals(0, contactService.getContactCount());
+    }
+
+    @Test
+    void testAddContactsLargeBatchDuplicateAddsNothing() {
+        List<Contact> batch = new ArrayList<>();
+        for (int i = 0; i < Batches.PARALLEL_THRESHOLD * 2; i++) {
+            batch.add(new Contact("C" + i, "John", "Doe", "1234567890", "123 Main St"));
+        }
+        batch.add(new Contact("C7", "Jane", "Smith", "0987654321", "456 Oak Ave"));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            contactService.addContacts(batch);
+        });
+        assertEquals(0, contactService.getContactCount());
+    }
+
+    @Test
+    void testAddContactsExistingIdAddsNothing() {
+        contactService.addContact(testContact);
+        Contact other = new Contact("0987654321", "Jane", "Smith", "0987654321", "456 Oak Ave");
+        Contact existing = new Contact("1234567890", "Jane", "Smith", "0987654321", "456 Oak Ave");
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            contactService.addContacts(Arrays.asList(other, existing));
+        });
+        assertEquals(1, contactService.getContactCount());
+        assertEquals(testContact, contactService.getContact("1234567890"));
+    }
+
+    @Test
+    void testAddContactsNullBatchOrElement() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            contactService.addContacts(null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            contactService.addContacts(Arrays.asList(testContact, null));
+        });
+        assertEquals(0, contactService.getContactCount());
+    }
+
+    @Test
+    void testAddContactsIsSeenWholeOrNotAtAll() throws InterruptedException {
+        List<Contact> batch = new ArrayList<>();
+        for (int i = 0; i < Batches.PARALLEL_THRESHOLD * 2; i++) {
+            batch.add(new Contact("C" + i, "John", "Doe", "1234567890", "123 Main St"));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean partial = new AtomicBoolean();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                int count = contactService.getContactCount();
+                int byPhone = contactService.findContactsByPhone("1234567890").size();
+                if ((count != 0 && count != batch.size()) || (byPhone != 0 && byPhone != batch.size())) {
+                    partial.set(true);
+                }
+            }
+        });
+        reader.start();
+        contactService.addContacts(batch);
+        done.set(true);
+        reader.join();
+
+        assertFalse(partial.get());
+        assertEquals(batch.size(), contactService.findContactsByPhone("1234567890").size());
+    }
+
+    @Test
+    void testFindContact() {
+        contactService.addContact(testContact);
+
+        assertEquals(testContact, contactService.findContact("1234567890").orElseThrow());
+        assertTrue(contactService.findContact("nonexistent").isEmpty());
+        assertTrue(contactService.findContact(null).isEmpty());
+    }
+
+    @Test
+    void testTryAddContact() {
+        Contact duplicate = new Contact("1234567890", "Jane", "Smith", "0987654321", "456 Oak Ave");
+
+        assertEquals(AddResult.ADDED, contactService.tryAddContact(testContact));
+        assertEquals(AddResult.DUPLICATE_ID, contactService.tryAddContact(duplicate));
+        assertEquals(AddResult.INVALID, contactService.tryAddContact(null));
+        assertEquals(testContact, contactService.getContact("1234567890"));
+        assertEquals(1, contactService.getContactCount());
+    }
+
+    @Test
+    void testTryDeleteContact() {
+        contactService.addContact(testContact);
+
+        assertTrue(contactService.tryDeleteContact("1234567890"));
+        assertFalse(contactService.tryDeleteContact("1234567890"));
+        assertFalse(contactService.tryDeleteContact(null));
+        assertEquals(0, contactService.getContactCount());
+    }
+
+    @Test
+    void testPackedIdStorage() {
+        ContactService packed = ContactService.withPackedIds();
+        packed.addContact(testContact);
+        packed.addContact("id with sp", "Jane", "Smith", "0987654321", "456 Oak Ave");
+
+        assertSame(testContact, packed.getContact("1234567890"));
+        assertEquals("Jane", packed.getContact("id with sp").getFirstName());
+        assertEquals(AddResult.DUPLICATE_ID, packed.tryAddContact(testContact));
+        packed.updatePhone("1234567890", "5555555555");
+        assertEquals("5555555555", packed.getContact("1234567890").getPhone());
+        assertTrue(packed.tryDeleteContact("id with sp"));
+        assertEquals(1, packed.getContactCount());
+    }
+
+    @Test
+    void testSearchByNamePrefix() {
+        contactService.addContact(testContact);
+        contactService.addContact("2", "Jane", "Johnson", "0987654321", "456 Oak Ave");
+        contactService.addContact("3", "Bob", "Smith", "1112223333", "789 Pine Rd");
+
+        List<Contact> jo = contactService.searchByNamePrefix("jO", 10);
+        assertEquals(List.of("1234567890", "2"), jo.stream().map(Contact::getContactId).toList());
+        assertEquals(1, contactService.searchByNamePrefix("jo", 1).size());
+        assertEquals(3, contactService.searchByNamePrefix("", 10).size());
+        assertTrue(contactService.searchByNamePrefix("x", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> contactService.searchByNamePrefix(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> contactService.searchByNamePrefix("jo", 0));
+    }
+
+    @Test
+    void testSearchByNamePrefixMatchesEachContactOnce() {
+        contactService.addContact("1", "Lee", "Lee", "1234567890", "123 Main St");
+
+        assertEquals(1, contactService.searchByNamePrefix("le", 10).size());
+        contactService.updateFirstName("1", "Ann");
+        assertEquals(1, contactService.searchByNamePrefix("le", 10).size());
+        assertEquals(1, contactService.searchByNamePrefix("an", 10).size());
+    }
+
+    @Test
+    void testSearchByNamePrefixFollowsUpdatesAndDeletes() {
+        contactService.addContact(testContact);
+
+        contactService.updateLastName("1234567890", "Smith");
+        Contact updated = contactService.getContact("1234567890");
+        assertTrue(contactService.searchByNamePrefix("doe", 10).isEmpty());
+        assertEquals(updated, contactService.searchByNamePrefix("smi", 10).get(0));
+        assertThrows(IllegalArgumentException.class, () -> contactService.updateFirstName("1234567890", null));
+        assertEquals(updated, contactService.searchByNamePrefix("john", 10).get(0));
+
+        contactService.deleteContact("1234567890");
+        assertTrue(contactService.searchByNamePrefix("", 10).isEmpty());
+    }
+
+    @Test
+    void testFindContactsByPhone() {
+        contactService.addContact(testContact);
+        contactService.addContact("2", "Jane", "Smith", "1234567890", "456 Oak Ave");
+        contactService.addContact("3", "Bob", "Smith", "0000000000", "789 Pine Rd");
+
+        assertEquals(List.of("1234567890", "2"),
+                contactService.findContactsByPhone("1234567890").stream().map(Contact::getContactId).toList());
+        assertEquals(1, contactService.findContactsByPhone("0000000000").size());
+        assertTrue(contactService.findContactsByPhone("5555555555").isEmpty());
+        assertTrue(contactService.findContactsByPhone(null).isEmpty());
+        assertTrue(contactService.findContactsByPhone("12345").isEmpty());
+        assertTrue(contactService.findContactsByPhone("12345abcde").isEmpty());
+    }
+
+    @Test
+    void testFindContactsByPhoneFollowsUpdatesAndDeletes() {
+        contactService.addContact(testContact);
+
+        contactService.updatePhone("1234567890", "5555555555");
+        Contact updated = contactService.getContact("1234567890");
+        assertTrue(contactService.findContactsByPhone("1234567890").isEmpty());
+        assertEquals(List.of(updated), contactService.findContactsByPhone("5555555555"));
+        assertThrows(IllegalArgumentException.class, () -> contactService.updatePhone("1234567890", "123"));
+        assertEquals(List.of(updated), contactService.findContactsByPhone("5555555555"));
+
+        contactService.deleteContact("1234567890");
+        assertTrue(contactService.findContactsByPhone("5555555555").isEmpty());
+    }
+
+    @Test
+    void testFindContactsByPhoneSharedNumber() {
+        for (int i = 0; i < 100; i++) {
+            contactService.addContact("C" + i, "John", "Doe", "5555555555", "123 Main St");
+        }
+        contactService.updatePhone("C7", "1234567890");
+        contactService.deleteContact("C8");
+
+        List<Contact> shared = contactService.findContactsByPhone("5555555555");
+        assertEquals(98, shared.size());
+        assertEquals("C0", shared.get(0).getContactId());
+        assertEquals(List.of("C7"),
+                contactService.findContactsByPhone("1234567890").stream().map(Contact::getContactId).toList());
+    }
+
+    @Test
+    void testPhoneChangeIsAlwaysFoundUnderOneNumber() throws InterruptedException {
+        int moves = 2000;
+        contactService.addContact("1", "John", "Doe", "0000000000", "123 Main St");
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean missing = new AtomicBoolean();
+
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= moves; i++) {
+                contactService.updatePhone("1", String.format("%010d", i));
+            }
+            done.set(true);
+        });
+        writer.start();
+        while (!done.get() && !missing.get()) {
+            // The contact only moves to higher numbers, so a miss means it is further on
+            long number = Long.parseLong(contactService.getContact("1").getPhone());
+            while (contactService.findContactsByPhone(String.format("%010d", number)).isEmpty()) {
+                if (++number > moves) {
+                    missing.set(true);
+                    break;
+                }
+            }
+        }
+        writer.join();
+
+        assertFalse(missing.get());
+        assertEquals(1, contactService.findContactsByPhone(String.format("%010d", moves)).size());
+        assertTrue(contactService.findContactsByPhone("0000000000").isEmpty());
+    }
+
+    @Test
+    void testUpdateContact() {
+        contactService.addContact(testContact);
+
+        Contact updated = contactService.updateContact("1234567890",
+                draft -> draft.setLastName("Smith").setPhone("5555555555").setAddress("9 Elm St"));
+        assertSame(updated, contactService.getContact("1234567890"));
+        assertEquals("John", updated.getFirstName());
+        assertEquals("Smith", updated.getLastName());
+        assertEquals("5555555555", updated.getPhone());
+        assertEquals("9 Elm St", updated.getAddress());
+        // The replaced contact is left as it was
+        assertEquals("Doe", testContact.getLastName());
+        assertEquals("1234567890", testContact.getPhone());
+        assertEquals(List.of(updated), contactService.searchByNamePrefix("smi", 10));
+        assertTrue(contactService.searchByNamePrefix("doe", 10).isEmpty());
+        assertEquals(List.of(updated), contactService.findContactsByPhone("5555555555"));
+        assertTrue(contactService.findContactsByPhone("1234567890").isEmpty());
+    }
+
+    @Test
+    void testStoredContactIsReadOnly() {
+        Contact duplicate = new Contact("1234567890", "Jane", "Smith", "0987654321", "456 Oak Ave");
+        contactService.addContact(testContact);
+        assertThrows(IllegalArgumentException.class, () -> contactService.addContact(duplicate));
+
+        assertTrue(testContact.isReadOnly());
+        assertThrows(IllegalStateException.class, () -> testContact.setPhone("5555555555"));
+        assertThrows(IllegalStateException.class, () -> contactService.getContact("1234567890").setFirstName("Jane"));
+        assertEquals("1234567890", contactService.getContact("1234567890").getPhone());
+        assertEquals(1, contactService.findContactsByPhone("1234567890").size());
+
+        // A contact the service refused stays writable
+        assertFalse(duplicate.isReadOnly());
+        duplicate.setFirstName("Janet");
+        assertEquals("Janet", duplicate.getFirstName());
+
+        contactService.updateFirstName("1234567890", "Jack");
+        assertTrue(contactService.getContact("1234567890").isReadOnly());
+    }
+
+    @Test
+    void testUpdateContactInvalidValueChangesNothing() {
+        contactService.addContact(testContact);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> contactService.updateContact("1234567890", draft -> draft.setFirstName("Jane").setPhone("123")));
+        assertSame(testContact, contactService.getContact("1234567890"));
+        assertEquals("John", testContact.getFirstName());
+        assertTrue(contactService.searchByNamePrefix("jane", 10).isEmpty());
+    }
+
+    @Test
+    void testUpdateContactValidation() {
+        contactService.addContact(testContact);
+
+        assertThrows(IllegalArgumentException.class, () -> contactService.updateContact(null, draft -> draft));
+        assertThrows(IllegalArgumentException.class, () -> contactService.updateContact("1234567890", null));
+        assertThrows(IllegalArgumentException.class, () -> contactService.updateContact("nonexistent", draft -> draft));
+        assertThrows(IllegalArgumentException.class, () -> contactService.updateContact("1234567890", draft -> null));
+        assertSame(testContact, contactService.updateContact("1234567890", draft -> draft.setFirstName("John")));
+    }
+
+    @Test
+    void testUpdateContactConcurrentEditsAreConsistent() throws InterruptedException {
+        contactService.addContact("1", "John", "Doe", "0000000000", "0");
+        int writers = 4;
+        int perWriter = 500;
+        AtomicBoolean torn = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                Contact contact = contactService.getContact("1");
+                if (Long.parseLong(contact.getPhone()) != Long.parseLong(contact.getAddress())) {
+                    torn.set(true);
+                }
+            }
+        });
+        reader.start();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < writers; t++) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    contactService.updateContact("1", draft -> {
+                        long next = Long.parseLong(draft.getAddress()) + 1;
+                        return draft.setPhone(String.format("%010d", next)).setAddress(Long.toString(next));
+                    });
+                }
+            });
+            threads.add(writer);
+            writer.start();
+        }
+        for (Thread writer : threads) {
+            writer.join();
+        }
+        done.set(true);
+        reader.join();
+
+        assertFalse(torn.get());
+        assertEquals(Integer.toString(writers * perWriter), contactService.getContact("1").getAddress());
+        assertEquals(1, contactService.findContactsByPhone(String.format("%010d", writers * perWriter)).size());
+    }
+}
@@ -0,0 +1,334 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ContactWriteAheadLog persistence and crash recovery
+ * through ContactService.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@DisplayName("ContactWriteAheadLog Class Tests")
+class ContactWriteAheadLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes a representative history through a service backed by a new log.
+     */
+    private Path writeHistory(FsyncPolicy policy, long groupCommitMillis) throws IOException {
+        Path file = tempDir.resolve("contacts.wal");
+        try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, policy, groupCommitMillis)) {
+            ContactService service = new ContactService(log);
+            service.addContact("C1", "John", "Doe", "1234567890", "123 Main St");
+            service.addContact("C2", "Jane", "Smith", "0987654321", "456 Oak Ave");
+            service.addContact("C3", "Temp", "Contact", "1112223333", "789 Pine Rd");
+            service.updateFirstName("C1", "Johnny");
+            service.updateLastName("C1", "Doeson");
+            service.updatePhone("C2", "5555555555");
+            service.updateAddress("C2", "1 New Address");
+            service.updateContact("C1", draft -> draft.setPhone("2223334444").setAddress("9 Elm St"));
+            service.deleteContact("C3");
+        }
+        return file;
+    }
+
+    private static void assertHistoryRestored(ContactService restored) {
+        assertEquals(2, restored.getContactCount());
+        Contact first = restored.getContact("C1");
+        assertEquals("Johnny", first.getFirstName());
+        assertEquals("Doeson", first.getLastName());
+        assertEquals("2223334444", first.getPhone());
+        assertEquals("9 Elm St", first.getAddress());
+        Contact second = restored.getContact("C2");
+        assertEquals("5555555555", second.getPhone());
+        assertEquals("1 New Address", second.getAddress());
+        assertTrue(restored.findContact("C3").isEmpty());
+        assertEquals(first, restored.searchByNamePrefix("does", 10).get(0));
+        assertTrue(restored.searchByNamePrefix("temp", 10).isEmpty());
+        assertEquals(List.of(second), restored.findContactsByPhone("5555555555"));
+        assertTrue(restored.findContactsByPhone("0987654321").isEmpty());
+    }
+
+    /**
+     * Tests for replaying a log into a new service.
+     */
+    @Nested
+    @DisplayName("Replay Tests")
+    class ReplayTests {
+
+        @Test
+        @DisplayName("Should restore every operation with per-operation fsync")
+        void testReplayPerOperation() throws IOException {
+            Path file = writeHistory(FsyncPolicy.PER_OPERATION, 0);
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.PER_OPERATION)) {
+                assertHistoryRestored(new ContactService(log));
+            }
+        }
+
+        @Test
+        @DisplayName("Should restore every operation with group commit")
+        void testReplayGroupCommit() throws IOException {
+            Path file = writeHistory(FsyncPolicy.GROUP_COMMIT, 5);
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                assertHistoryRestored(new ContactService(log));
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep appending after replay")
+        void testAppendAfterReplay() throws IOException {
+            Path file = writeHistory(FsyncPolicy.OS_BUFFERED, 0);
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                new ContactService(log).addContact("C4", "New", "Person", "4444444444", "4 Fourth St");
+            }
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                ContactService restored = new ContactService(log);
+                assertEquals(3, restored.getContactCount());
+                assertEquals("New", restored.getContact("C4").getFirstName());
+            }
+        }
+
+        @Test
+        @DisplayName("Should not log rejected operations")
+        void testRejectedOperationsNotLogged() throws IOException {
+            Path file = tempDir.resolve("rejected.wal");
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                ContactService service = new ContactService(log);
+                service.addContact("C1", "John", "Doe", "1234567890", "123 Main St");
+                assertThrows(IllegalArgumentException.class, () -> service.updatePhone("C1", "123"));
+                assertThrows(IllegalArgumentException.class,
+                        () -> service.addContact("C1", "Jane", "Smith", "0987654321", "456 Oak Ave"));
+                assertFalse(service.tryDeleteContact("missing"));
+            }
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                ContactService restored = new ContactService(log);
+                assertEquals(1, restored.getContactCount());
+                assertEquals("1234567890", restored.getContact("C1").getPhone());
+                assertEquals("John", restored.getContact("C1").getFirstName());
+            }
+        }
+
+        @Test
+        @DisplayName("Should restore a batch and skip one that was rejected")
+        void testReplayBatch() throws IOException {
+            Path file = tempDir.resolve("batch.wal");
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.PER_OPERATION)) {
+                ContactService service = new ContactService(log);
+                service.addContacts(List.of(
+                        new Contact("C1", "John", "Doe", "1234567890", "123 Main St"),
+                        new Contact("C2", "Jane", "Smith", "1234567890", "456 Oak Ave")));
+                assertThrows(IllegalArgumentException.class, () -> service.addContacts(List.of(
+                        new Contact("C3", "Temp", "Contact", "1112223333", "789 Pine Rd"),
+                        new Contact("C1", "John", "Doe", "1234567890", "123 Main St"))));
+                service.updateFirstName("C2", "Janet");
+            }
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                ContactService restored = new ContactService(log);
+                assertEquals(2, restored.getContactCount());
+                assertEquals("Janet", restored.getContact("C2").getFirstName());
+                assertEquals(2, restored.findContactsByPhone("1234567890").size());
+                assertTrue(restored.findContact("C3").isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("Should refuse to attach one log to two services")
+        void testReplayOnlyOnce() throws IOException {
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(tempDir.resolve("once.wal"),
+                    FsyncPolicy.OS_BUFFERED)) {
+                new ContactService(log);
+                assertThrows(IllegalStateException.class, () -> new ContactService(log));
+            }
+        }
+    }
+
+    /**
+     * Tests for rewriting the log down to the live contacts.
+     */
+    @Nested
+    @DisplayName("Compaction Tests")
+    class CompactionTests {
+
+        @Test
+        @DisplayName("Should shrink the log and restore the same contacts")
+        void testCompactRestoresState() throws IOException {
+            Path file = writeHistory(FsyncPolicy.OS_BUFFERED, 0);
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.PER_OPERATION)) {
+                ContactService service = new ContactService(log);
+                long before = log.getFileBytes();
+                service.compactLog();
+                assertTrue(log.getFileBytes() < before);
+                assertEquals(log.getFileBytes(), Files.size(file));
+                assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".compact")));
+            }
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                assertHistoryRestored(new ContactService(log));
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep appending after compaction")
+        void testAppendAfterCompact() throws IOException {
+            Path file = writeHistory(FsyncPolicy.OS_BUFFERED, 0);
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.PER_OPERATION)) {
+                ContactService service = new ContactService(log);
+                service.compactLog();
+                service.addContact("C4", "New", "Person", "4444444444", "4 Fourth St");
+                service.deleteContact("C2");
+            }
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                ContactService restored = new ContactService(log);
+                assertEquals(2, restored.getContactCount());
+                assertEquals("Johnny", restored.getContact("C1").getFirstName());
+                assertEquals("New", restored.getContact("C4").getFirstName());
+                assertTrue(restored.findContact("C2").isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject compaction without a log")
+        void testCompactWithoutLog() {
+            assertThrows(IllegalStateException.class, () -> new ContactService().compactLog());
+        }
+
+        @Test
+        @DisplayName("Should log every concurrent operation with per-operation fsync")
+        void testConcurrentPerOperation() throws Exception {
+            Path file = tempDir.resolve("concurrent.wal");
+            int threads = 4;
+            int perThread = 50;
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.PER_OPERATION)) {
+                ContactService service = new ContactService(log);
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                try {
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (int t = 0; t < threads; t++) {
+                        int thread = t;
+                        futures.add(executor.submit(() -> {
+                            for (int i = 0; i < perThread; i++) {
+                                service.addContact("T" + thread + "-" + i, "First", "Last", "1234567890", "Addr");
+                            }
+                        }));
+                    }
+                    for (Future<?> future : futures) {
+                        future.get();
+                    }
+                } finally {
+                    executor.shutdown();
+                }
+            }
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                assertEquals(threads * perThread, new ContactService(log).getContactCount());
+            }
+        }
+    }
+
+    /**
+     * Tests for recovery from a crash in the middle of a write.
+     */
+    @Nested
+    @DisplayName("Crash Recovery Tests")
+    class CrashRecoveryTests {
+
+        @Test
+        @DisplayName("Should drop a torn final record and keep earlier ones")
+        void testTornTail() throws IOException {
+            Path file = writeHistory(FsyncPolicy.OS_BUFFERED, 0);
+            long intactSize = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                // Header promising 40 bytes followed by only 3
+                channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 0, 1, 2}));
+            }
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                assertHistoryRestored(new ContactService(log));
+            }
+            assertEquals(intactSize, Files.size(file));
+        }
+
+        @Test
+        @DisplayName("Should drop the whole of a batch whose last record is torn")
+        void testTornBatch() throws IOException {
+            Path file = writeHistory(FsyncPolicy.OS_BUFFERED, 0);
+            long intactSize = Files.size(file);
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                new ContactService(log).addContacts(List.of(
+                        new Contact("C8", "Lost", "Contact", "8888888888", "8 Eighth St"),
+                        new Contact("C9", "Lost", "Contact", "9999999999", "9 Ninth St")));
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                // Cut into the batch's last record, as a crash mid-write would
+                channel.truncate(Files.size(file) - 3);
+            }
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                ContactService restored = new ContactService(log);
+                assertHistoryRestored(restored);
+                assertTrue(restored.findContact("C8").isEmpty());
+            }
+            assertEquals(intactSize, Files.size(file));
+        }
+
+        @Test
+        @DisplayName("Should stop at a record whose checksum does not match")
+        void testCorruptRecord() throws IOException {
+            Path file = writeHistory(FsyncPolicy.OS_BUFFERED, 0);
+            long intactSize = Files.size(file);
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                new ContactService(log).addContact("C9", "Lost", "Contact", "9999999999", "9 Ninth St");
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                // Flip a payload byte of the record appended above
+                channel.write(ByteBuffer.wrap(new byte[] {'X'}), intactSize + 12);
+            }
+
+            try (ContactWriteAheadLog log = new ContactWriteAheadLog(file, FsyncPolicy.OS_BUFFERED)) {
+                assertHistoryRestored(new ContactService(log));
+            }
+        }
+    }
+
+    /**
+     * Tests for constructor argument validation.
+     */
+    @Nested
+    @DisplayName("Constructor Tests")
+    class ConstructorTests {
+
+        @Test
+        @DisplayName("Should reject invalid arguments")
+        void testInvalidArguments() {
+            Path file = tempDir.resolve("invalid.wal");
+
+            assertThrows(IllegalArgumentException.class, () -> new ContactWriteAheadLog(null, FsyncPolicy.OS_BUFFERED));
+            assertThrows(IllegalArgumentException.class, () -> new ContactWriteAheadLog(file, null));
+            assertThrows(IllegalArgumentException.class, () -> new ContactWriteAheadLog(file, FsyncPolicy.GROUP_COMMIT));
+            assertThrows(IllegalArgumentException.class, () -> new ContactService((ContactWriteAheadLog) null));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package edu.snhu;
+
+import java.time.Instant;
+import java.util.Date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DateConstraint validation rules.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@DisplayName("DateConstraint Class Tests")
+class DateConstraintTest {
+
+    @Test
+    @DisplayName("Required constraint should reject only null")
+    void testRequired() {
+        DateConstraint constraint = DateConstraint.required("required");
+
+        assertFalse(constraint.test((Date) null, 1000L));
+        assertTrue(constraint.test(new Date(0L), 1000L));
+    }
+
+    @Test
+    @DisplayName("Not in past should accept now and later")
+    void testNotInPast() {
+        DateConstraint constraint = DateConstraint.required("past").notInPast();
+
+        assertFalse(constraint.test(new Date(999L), 1000L));
+        assertTrue(constraint.test(new Date(1000L), 1000L));
+        assertTrue(constraint.test(new Date(1001L), 1000L));
+    }
+
+    @Test
+    @DisplayName("Validate should throw with the configured message")
+    void testValidateMessage() {
+        DateConstraint constraint = DateConstraint.required("Date cannot be in the past").notInPast();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> constraint.validate(new Date(System.currentTimeMillis() - 86400000)));
+        assertEquals("Date cannot be in the past", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Instants should follow the same rules as dates")
+    void testInstants() {
+        DateConstraint constraint = DateConstraint.required("not past").notInPast();
+
+        assertFalse(constraint.test((Instant) null, 1000L));
+        assertFalse(constraint.test(Instant.ofEpochMilli(999L), 1000L));
+        assertTrue(constraint.test(Instant.ofEpochMilli(1000L), 1000L));
+        assertTrue(constraint.test(Instant.MAX, 1000L));
+        assertThrows(IllegalArgumentException.class, () -> constraint.validate(Instant.EPOCH));
+    }
+
+    @Test
+    @DisplayName("Epoch conversion should saturate outside the long range")
+    void testToEpochMillis() {
+        assertEquals(1234L, DateConstraint.toEpochMillis(Instant.ofEpochMilli(1234L)));
+        assertEquals(Long.MAX_VALUE, DateConstraint.toEpochMillis(Instant.MAX));
+        assertEquals(Long.MIN_VALUE, DateConstraint.toEpochMillis(Instant.MIN));
+    }
+}
@@ -0,0 +1,104 @@
+package edu.snhu;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FieldConstraint validation rules shared by
+ * Contact, Task and Appointment.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@DisplayName("FieldConstraint Class Tests")
+class FieldConstraintTest {
+
+    /**
+     * Tests for the individual rules.
+     */
+    @Nested
+    @DisplayName("Rule Tests")
+    class RuleTests {
+
+        @Test
+        @DisplayName("Required constraint should reject only null")
+        void testRequired() {
+            FieldConstraint constraint = FieldConstraint.required("required");
+
+            assertFalse(constraint.test(null));
+            assertTrue(constraint.test(""));
+            assertTrue(constraint.test("anything"));
+        }
+
+        @Test
+        @DisplayName("Max length should accept the boundary and reject one more")
+        void testMaxLength() {
+            FieldConstraint constraint = FieldConstraint.required("max").maxLength(10);
+
+            assertTrue(constraint.test("1234567890"));
+            assertFalse(constraint.test("12345678901"));
+        }
+
+        @Test
+        @DisplayName("Exact length digits should match the phone rules")
+        void testExactLengthDigits() {
+            FieldConstraint constraint = FieldConstraint.required("phone").exactLength(10).digitsOnly();
+
+            assertTrue(constraint.test("0123456789"));
+            assertFalse(constraint.test("123456789"));
+            assertFalse(constraint.test("12345678901"));
+            assertFalse(constraint.test("123456789a"));
+            assertFalse(constraint.test("12345 7890"));
+            // Non-ASCII digits are rejected, matching the \d regex used before
+            assertFalse(constraint.test("١٢٣٤٥٦٧٨٩٠"));
+        }
+
+        @Test
+        @DisplayName("Not blank should reject empty and whitespace-only values")
+        void testNotBlank() {
+            FieldConstraint constraint = FieldConstraint.required("blank").notBlank();
+
+            assertFalse(constraint.test(""));
+            assertFalse(constraint.test("   "));
+            assertFalse(constraint.test("\t\n"));
+            assertTrue(constraint.test(" a "));
+        }
+
+        @Test
+        @DisplayName("Not empty should reject only the empty string")
+        void testNotEmpty() {
+            FieldConstraint constraint = FieldConstraint.required("empty").notEmpty();
+
+            assertFalse(constraint.test(""));
+            assertTrue(constraint.test(" "));
+        }
+    }
+
+    /**
+     * Tests for the throwing validate method.
+     */
+    @Nested
+    @DisplayName("Validate Tests")
+    class ValidateTests {
+
+        @Test
+        @DisplayName("Validate should throw with the configured message")
+        void testValidateMessage() {
+            FieldConstraint constraint = FieldConstraint.required("Value is invalid").maxLength(3);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> constraint.validate("1234"));
+            assertEquals("Value is invalid", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Validate should accept valid values")
+        void testValidateValid() {
+            FieldConstraint constraint = FieldConstraint.required("Value is invalid").maxLength(3);
+
+            assertDoesNotThrow(() -> constraint.validate("123"));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package edu.snhu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the flat JSON reader and writer.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class JsonTest {
+
+    @Test
+    void testRoundTripEscapes() {
+        String value = "quote\" slash\\ newline\n tab\t bell\u0007 é";
+        String json = Json.object("a", value, "b", null);
+
+        Map<String, String> parsed = Json.parseObject(json);
+        assertEquals(value, parsed.get("a"));
+        assertTrue(parsed.containsKey("b"));
+        assertNull(parsed.get("b"));
+    }
+
+    @Test
+    void testLiteralsAndWhitespace() {
+        Map<String, String> parsed = Json.parseObject(" { \"n\" : -1.5e3 , \"t\":true,\"u\":\"\\u0041\\/\" } ");
+
+        assertEquals(Map.of("n", "-1.5e3", "t", "true", "u", "A/"), parsed);
+        assertEquals(Map.of(), Json.parseObject("{}"));
+    }
+
+    @Test
+    void testMalformed() {
+        for (String bad : new String[] {"", "[]", "{\"a\"}", "{\"a\":1,}", "{\"a\":01}", "{\"a\":tru}",
+                "{\"a\":\"x}", "{\"a\":{}}", "{\"a\":1} x", "{\"a\":1,\"a\":2}", "{\"a\":\"\\q\"}"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject(bad), bad);
+        }
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject(null));
+    }
+}
@@ -0,0 +1,199 @@
+package edu.snhu;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PackedIdMap and the ConcurrentLongMap it stores packed IDs in.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@DisplayName("PackedIdMap Class Tests")
+class PackedIdMapTest {
+
+    /**
+     * Tests for packing IDs into longs.
+     */
+    @Nested
+    @DisplayName("Packing Tests")
+    class PackingTests {
+
+        @Test
+        @DisplayName("Should round-trip every packable ID shape")
+        void testRoundTrip() {
+            for (String id : new String[] {"0", "_", "-", "A", "z", "1234567890", "zzzzzzzzzz", "__________",
+                    "ab-CD_09", "0000000000"}) {
+                long bits = PackedIdMap.pack(id);
+                assertNotEquals(0, bits, id);
+                assertEquals(id, PackedIdMap.unpack(bits));
+            }
+        }
+
+        @Test
+        @DisplayName("Should give distinct IDs distinct packed values")
+        void testDistinct() {
+            assertNotEquals(PackedIdMap.pack("0"), PackedIdMap.pack("00"));
+            assertNotEquals(PackedIdMap.pack("ab"), PackedIdMap.pack("ba"));
+        }
+
+        @Test
+        @DisplayName("Should refuse IDs outside the alphabet or length")
+        void testUnpackable() {
+            assertEquals(0, PackedIdMap.pack(""));
+            assertEquals(0, PackedIdMap.pack("12345678901"));
+            assertEquals(0, PackedIdMap.pack("has space"));
+            assertEquals(0, PackedIdMap.pack("café"));
+            assertEquals(0, PackedIdMap.pack("a.b"));
+        }
+    }
+
+    /**
+     * Tests for the ConcurrentMap operations over both storage paths.
+     */
+    @Nested
+    @DisplayName("Map Operation Tests")
+    class MapOperationTests {
+
+        @Test
+        @DisplayName("Should store packed and fallback IDs side by side")
+        void testBothPaths() {
+            PackedIdMap<String> map = new PackedIdMap<>();
+
+            assertNull(map.put("ID1", "packed"));
+            assertNull(map.put("café", "fallback"));
+            assertNull(map.put("", "empty"));
+
+            assertEquals(3, map.size());
+            assertEquals("packed", map.get("ID1"));
+            assertEquals("fallback", map.get("café"));
+            assertEquals("empty", map.get(""));
+            assertNull(map.get("ID2"));
+            assertNull(map.get(42));
+            assertEquals(Map.of("ID1", "packed", "café", "fallback", "", "empty"), new HashMap<>(map));
+        }
+
+        @Test
+        @DisplayName("Should follow ConcurrentMap semantics for conditional operations")
+        void testConditionalOperations() {
+            PackedIdMap<String> map = new PackedIdMap<>();
+
+            assertNull(map.putIfAbsent("A", "1"));
+            assertEquals("1", map.putIfAbsent("A", "2"));
+            assertFalse(map.replace("A", "2", "3"));
+            assertTrue(map.replace("A", "1", "3"));
+            assertEquals("3", map.replace("A", "4"));
+            assertNull(map.replace("B", "4"));
+            assertFalse(map.remove("A", "3x"));
+            assertTrue(map.remove("A", "4"));
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should compute atomically and remove on null")
+        void testCompute() {
+            PackedIdMap<Integer> map = new PackedIdMap<>();
+
+            assertEquals(1, map.computeIfAbsent("C1", id -> 1));
+            assertEquals(1, map.computeIfAbsent("C1", id -> 2));
+            assertNull(map.computeIfAbsent("C2", id -> null));
+            assertEquals(5, map.computeIfPresent("C1", (id, v) -> v + 4));
+            assertNull(map.computeIfPresent("C2", (id, v) -> 9));
+            assertEquals(7, map.compute("C2", (id, v) -> v == null ? 7 : v + 1));
+            assertNull(map.compute("C2", (id, v) -> null));
+            assertNull(map.computeIfPresent("C1", (id, v) -> null));
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should pass the original ID to compute functions")
+        void testComputeSeesKey() {
+            PackedIdMap<String> map = new PackedIdMap<>();
+
+            assertEquals("Key-1", map.computeIfAbsent("Key-1", id -> id));
+            assertEquals("Key-1!", map.computeIfPresent("Key-1", (id, v) -> id + "!"));
+        }
+
+        @Test
+        @DisplayName("Should remove through the entry iterator")
+        void testIteratorRemove() {
+            PackedIdMap<String> map = new PackedIdMap<>();
+            map.put("A", "a");
+            map.put("a b", "fallback");
+
+            Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+
+            assertTrue(map.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should agree with HashMap over a random workload")
+        void testRandomWorkload() {
+            PackedIdMap<Integer> map = new PackedIdMap<>();
+            Map<String, Integer> expected = new HashMap<>();
+            Random random = new Random(7);
+
+            for (int i = 0; i < 200_000; i++) {
+                String id = Integer.toString(random.nextInt(20_000), 36);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(id), map.remove(id));
+                } else {
+                    assertEquals(expected.put(id, i), map.put(id, i));
+                }
+            }
+
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected, new HashMap<>(map));
+        }
+    }
+
+    /**
+     * Tests for concurrent access.
+     */
+    @Nested
+    @DisplayName("Concurrency Tests")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("Should lose no updates under concurrent compute")
+        void testConcurrentCompute() throws Exception {
+            PackedIdMap<Integer> map = new PackedIdMap<>();
+            int threads = 8;
+            int increments = 20_000;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                Future<?>[] futures = new Future<?>[threads];
+                for (int t = 0; t < threads; t++) {
+                    futures[t] = executor.submit(() -> {
+                        for (int i = 0; i < increments; i++) {
+                            map.merge("K" + (i % 512), 1, Integer::sum);
+                        }
+                    });
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(512, map.size());
+            assertEquals(threads * increments, map.values().stream().mapToInt(Integer::intValue).sum());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package edu.snhu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * End-to-end tests for the ServiceHttpServer endpoints over localhost.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class ServiceHttpServerTest {
+    private final ContactService contacts = new ContactService();
+    private final TaskService tasks = TaskService.withCapacity(10, EvictionPolicy.REJECT_NEW);
+    private final AppointmentService appointments = new AppointmentService();
+    private final ServiceMetrics metrics = new ServiceMetrics();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ServiceHttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        contacts.enableMetrics(metrics);
+        server = new ServiceHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                contacts, tasks, appointments, metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static Map<String, String> json(HttpResponse<String> response) {
+        return Json.parseObject(response.body());
+    }
+
+    /**
+     * Tests for the /contacts endpoints.
+     */
+    @Nested
+    @DisplayName("Contact Endpoint Tests")
+    class ContactEndpointTests {
+
+        @Test
+        @DisplayName("Should create, read, update and delete a contact")
+        void testCrud() throws Exception {
+            String body = Json.object("id", "C1", "firstName", "John", "lastName", "Doe",
+                    "phone", "1234567890", "address", "123 Main St");
+
+            HttpResponse<String> created = send("POST", "/contacts", body);
+            assertEquals(201, created.statusCode());
+            assertEquals("John", json(created).get("firstName"));
+            assertEquals("Doe", contacts.getContact("C1").getLastName());
+            assertEquals(409, send("POST", "/contacts", body).statusCode());
+
+            assertEquals("123 Main St", json(send("GET", "/contacts/C1", null)).get("address"));
+
+            HttpResponse<String> patched = send("PATCH", "/contacts/C1",
+                    Json.object("firstName", "Jane", "phone", "0987654321"));
+            assertEquals(200, patched.statusCode());
+            assertEquals("Jane", json(patched).get("firstName"));
+            assertEquals("0987654321", contacts.getContact("C1").getPhone());
+
+            assertEquals(204, send("DELETE", "/contacts/C1", null).statusCode());
+            assertEquals(404, send("GET", "/contacts/C1", null).statusCode());
+            assertEquals(404, send("DELETE", "/contacts/C1", null).statusCode());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid input without changing the contact")
+        void testInvalidInput() throws Exception {
+            contacts.addContact("C1", "John", "Doe", "1234567890", "123 Main St");
+
+            HttpResponse<String> invalid = send("PATCH", "/contacts/C1",
+                    Json.object("firstName", "Jane", "phone", "123"));
+            assertEquals(400, invalid.statusCode());
+            assertTrue(json(invalid).get("error").startsWith("Phone number"));
+            assertEquals("John", contacts.getContact("C1").getFirstName());
+
+            assertEquals(400, send("POST", "/contacts", "{\"id\":").statusCode());
+            assertEquals(400, send("POST", "/contacts", Json.object("id", "C2", "nickname", "J")).statusCode());
+            assertEquals(400, send("POST", "/contacts", Json.object("id", "C2")).statusCode());
+            assertEquals(404, send("PATCH", "/contacts/NOPE", Json.object("firstName", "X")).statusCode());
+        }
+    }
+
+    /**
+     * Tests for the /tasks and /appointments endpoints.
+     */
+    @Nested
+    @DisplayName("Task And Appointment Endpoint Tests")
+    class TaskAndAppointmentEndpointTests {
+
+        @Test
+        @DisplayName("Should create, update and delete a task")
+        void testTaskCrud() throws Exception {
+            assertEquals(201, send("POST", "/tasks",
+                    Json.object("id", "T1", "name", "Write", "description", "Write the report")).statusCode());
+            HttpResponse<String> patched = send("PATCH", "/tasks/T1", Json.object("description", "Review it"));
+            assertEquals("Review it", json(patched).get("description"));
+            assertEquals("Review it", tasks.getTask("T1").getTaskDescription());
+            assertEquals(204, send("DELETE", "/tasks/T1", null).statusCode());
+            assertEquals(0, tasks.getTaskCount());
+        }
+
+        @Test
+        @DisplayName("Should apply a task name and description as one update")
+        void testTaskPatchIsOneUpdate() throws Exception {
+            tasks.addTask(new Task("T1", "Write", "Write the report"));
+            BlockingQueue<ChangeEvent<Task>> events = new LinkedBlockingQueue<>();
+            try (ChangeSubscription subscription = tasks.subscribe(events::add, OverflowPolicy.BLOCK)) {
+                HttpResponse<String> patched = send("PATCH", "/tasks/T1",
+                        Json.object("name", "Review", "description", "Review the report"));
+                assertEquals(200, patched.statusCode());
+
+                ChangeEvent<Task> update = events.poll(5, TimeUnit.SECONDS);
+                assertNotNull(update);
+                assertEquals("Review", update.entity().getTaskName());
+                assertEquals("Review the report", update.entity().getTaskDescription());
+                assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+                assertEquals(0, subscription.getFailureCount());
+            }
+            assertEquals(404, send("PATCH", "/tasks/NOPE", Json.object("name", "X")).statusCode());
+        }
+
+        @Test
+        @DisplayName("Should answer 507 once the task service is full")
+        void testTaskCapacity() throws Exception {
+            for (int i = 0; i < 10; i++) {
+                tasks.addTask(new Task("T" + i, "Task", "Fills the service"));
+            }
+            HttpResponse<String> refused = send("POST", "/tasks",
+                    Json.object("id", "T10", "name", "Write", "description", "One too many"));
+            assertEquals(507, refused.statusCode());
+            assertEquals("Service is full", json(refused).get("error"));
+            assertEquals(10, tasks.getTaskCount());
+        }
+
+        @Test
+        @DisplayName("Should create and read appointments with ISO-8601 dates")
+        void testAppointments() throws Exception {
+            Instant date = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+
+            HttpResponse<String> created = send("POST", "/appointments",
+                    Json.object("id", "A1", "date", date.toString(), "description", "Checkup"));
+            assertEquals(201, created.statusCode());
+            assertEquals(date.toString(), json(send("GET", "/appointments/A1", null)).get("date"));
+            assertEquals(date, appointments.getAppointment("A1").getAppointmentTime());
+
+            HttpResponse<String> past = send("POST", "/appointments",
+                    Json.object("id", "A2", "date", "2000-01-01T00:00:00Z", "description", "Past"));
+            assertEquals(400, past.statusCode());
+            assertEquals("Appointment date cannot be in the past", json(past).get("error"));
+            assertEquals(400, send("POST", "/appointments",
+                    Json.object("id", "A2", "date", "tomorrow", "description", "Bad")).statusCode());
+            assertEquals(405, send("PATCH", "/appointments/A1", Json.object("description", "X")).statusCode());
+        }
+
+        @Test
+        @DisplayName("Should answer unknown paths and methods")
+        void testRouting() throws Exception {
+            assertEquals(405, send("GET", "/tasks", null).statusCode());
+            assertEquals(404, send("GET", "/tasks/a/b", null).statusCode());
+            assertEquals(404, send("GET", "/tasksx", null).statusCode());
+            assertEquals(404, send("GET", "/other", null).statusCode());
+            assertEquals(400, send("POST", "/tasks/T1", Json.object("id", "T1")).statusCode());
+            assertEquals(413, send("POST", "/tasks", "x".repeat(ServiceHttpServer.MAX_BODY_BYTES + 1)).statusCode());
+        }
+    }
+
+    /**
+     * Tests for the /metrics endpoint.
+     */
+    @Nested
+    @DisplayName("Metrics Endpoint Tests")
+    class MetricsEndpointTests {
+
+        @Test
+        @DisplayName("Should export metrics in the Prometheus text format")
+        void testMetrics() throws Exception {
+            send("POST", "/contacts", Json.object("id", "C1", "firstName", "Ada", "lastName", "Lovelace",
+                    "phone", "5551234567", "address", "12 Analytical Way"));
+            send("GET", "/contacts/missing", null);
+
+            HttpResponse<String> exported = send("GET", "/metrics", null);
+            assertEquals(200, exported.statusCode());
+            assertTrue(exported.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+            assertTrue(exported.body().contains(
+                    "service_operations_total{service=\"contact\",operation=\"tryAddContact\",outcome=\"success\"} 1"));
+            assertTrue(exported.body().contains(
+                    "service_operations_total{service=\"contact\",operation=\"findContact\",outcome=\"not_found\"} 1"));
+            assertEquals(405, send("POST", "/metrics", "").statusCode());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package edu.snhu;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-operation service metrics and their exporters.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class ServiceMetricsTest {
+
+    private static OperationSnapshot find(ServiceMetrics metrics, String service, String operation) {
+        return metrics.snapshot().stream()
+                .filter(s -> s.getService().equals(service) && s.getOperation().equals(operation))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should place every latency inside its bucket's bounds")
+    void testBucketBounds() {
+        for (long value = 0; value < 1 << 20; value += 7) {
+            assertBucketHolds(value);
+        }
+        for (int bit = 20; bit < 37; bit++) {
+            assertBucketHolds((1L << bit) - 1);
+            assertBucketHolds(1L << bit);
+            assertBucketHolds((1L << bit) + 12345);
+        }
+        assertEquals(0, OperationMetrics.bucketOf(-5));
+        assertEquals(OperationMetrics.BUCKETS - 1, OperationMetrics.bucketOf(Long.MAX_VALUE));
+    }
+
+    private static void assertBucketHolds(long value) {
+        int bucket = OperationMetrics.bucketOf(value);
+        long low = OperationMetrics.lowestValue(bucket);
+        long high = OperationMetrics.highestValue(bucket);
+        assertTrue(low <= value && value <= high, "Bucket " + bucket + " does not hold " + value);
+        // Relative error stays within 1/32
+        assertTrue(high - low <= Math.max(0, low >> OperationMetrics.SUB_BUCKET_BITS), "Bucket too wide at " + value);
+    }
+
+    @Test
+    @DisplayName("Should report percentiles from the bucket counts")
+    void testPercentiles() {
+        long[] buckets = new long[OperationMetrics.BUCKETS];
+        buckets[OperationMetrics.bucketOf(1_000)] = 990;
+        buckets[OperationMetrics.bucketOf(50_000)] = 9;
+        buckets[OperationMetrics.bucketOf(2_000_000)] = 1;
+        long[] outcomes = {1000, 0, 0, 0};
+        OperationSnapshot snapshot = new OperationSnapshot("test", "op", outcomes, buckets, 3_440_000);
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(3_440, snapshot.getMeanNanos(), 0.001);
+        assertEquals(1_000, snapshot.getPercentileNanos(50), 1_000 / 32);
+        assertEquals(1_000, snapshot.getPercentileNanos(99), 1_000 / 32);
+        assertEquals(50_000, snapshot.getPercentileNanos(99.9), 50_000 / 32);
+        assertEquals(2_000_000, snapshot.getPercentileNanos(100), 2_000_000 / 32);
+        assertEquals(snapshot.getPercentileNanos(100), snapshot.getMaxNanos());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getPercentileNanos(101));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getCount(null));
+
+        OperationSnapshot empty = new OperationSnapshot("test", "op", new long[4], new long[OperationMetrics.BUCKETS], 0);
+        assertEquals(0, empty.getPercentileNanos(99));
+        assertEquals(0, empty.getMaxNanos());
+        assertEquals(0, empty.getMeanNanos());
+    }
+
+    @Test
+    @DisplayName("Should count contact operations by outcome without double counting")
+    void testContactOutcomes() {
+        ServiceMetrics metrics = new ServiceMetrics();
+        ContactService service = new ContactService();
+        service.enableMetrics(metrics);
+
+        service.addContact("C1", "Ada", "Lovelace", "5551234567", "12 Analytical Way");
+        assertThrows(IllegalArgumentException.class,
+                () -> service.addContact("C1", "Ada", "Lovelace", "5551234567", "12 Analytical Way"));
+        assertThrows(IllegalArgumentException.class, () -> service.updatePhone("C1", "bad"));
+        assertThrows(IllegalArgumentException.class, () -> service.updatePhone("C2", "5559876543"));
+        assertThrows(IllegalArgumentException.class, () -> service.deleteContact("C2"));
+        assertFalse(service.tryDeleteContact("C2"));
+        assertTrue(service.findContact("C1").isPresent());
+
+        OperationSnapshot add = find(metrics, "contact", "addContact");
+        assertEquals(2, add.getCount());
+        assertEquals(1, add.getCount(OperationOutcome.SUCCESS));
+        assertEquals(1, add.getCount(OperationOutcome.INVALID));
+        // addContact does not also record the methods it is built on
+        assertEquals(0, find(metrics, "contact", "tryAddContact").getCount());
+        assertEquals(0, find(metrics, "contact", "findContact").getCount(OperationOutcome.NOT_FOUND));
+
+        OperationSnapshot update = find(metrics, "contact", "updatePhone");
+        assertEquals(1, update.getCount(OperationOutcome.INVALID));
+        assertEquals(1, update.getCount(OperationOutcome.NOT_FOUND));
+        assertEquals(1, find(metrics, "contact", "deleteContact").getCount(OperationOutcome.NOT_FOUND));
+        assertEquals(1, find(metrics, "contact", "tryDeleteContact").getCount(OperationOutcome.NOT_FOUND));
+        assertEquals(1, find(metrics, "contact", "findContact").getCount(OperationOutcome.SUCCESS));
+        assertTrue(add.getSumNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Should record task and appointment operations")
+    void testTaskAndAppointmentOutcomes() {
+        ServiceMetrics metrics = new ServiceMetrics();
+        TaskService tasks = new TaskService();
+        AppointmentService appointments = new AppointmentService();
+        tasks.enableMetrics(metrics);
+        appointments.enableMetrics(metrics);
+
+        tasks.addTask(new Task("T1", "Write", "Draft the report"));
+        tasks.getTask("T1");
+        assertThrows(IllegalArgumentException.class, () -> tasks.getTask("T2"));
+        assertThrows(IllegalArgumentException.class, () -> tasks.updateTaskName("T1", null));
+        Instant tomorrow = Instant.now().plus(1, ChronoUnit.DAYS);
+        appointments.addAppointmentAt("A1", tomorrow, "Checkup");
+        assertEquals(AddResult.INVALID, appointments.tryAddAppointmentAt("A2", null, "Checkup"));
+        appointments.deleteAppointment("A1");
+        assertThrows(IllegalArgumentException.class, () -> appointments.deleteAppointment("A1"));
+
+        OperationSnapshot getTask = find(metrics, "task", "getTask");
+        assertEquals(1, getTask.getCount(OperationOutcome.SUCCESS));
+        assertEquals(1, getTask.getCount(OperationOutcome.NOT_FOUND));
+        assertEquals(1, find(metrics, "task", "updateTaskName").getCount(OperationOutcome.INVALID));
+        assertEquals(1, find(metrics, "appointment", "tryAddAppointment").getCount(OperationOutcome.INVALID));
+        OperationSnapshot delete = find(metrics, "appointment", "deleteAppointment");
+        assertEquals(1, delete.getCount(OperationOutcome.SUCCESS));
+        assertEquals(1, delete.getCount(OperationOutcome.NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("Should merge counts recorded from many threads")
+    void testConcurrentRecording() throws InterruptedException {
+        ServiceMetrics metrics = new ServiceMetrics();
+        ContactService service = new ContactService();
+        service.enableMetrics(metrics);
+        int threads = 8;
+        int perThread = 5_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    service.findContact("missing");
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        OperationSnapshot find = find(metrics, "contact", "findContact");
+        assertEquals((long) threads * perThread, find.getCount());
+        assertEquals((long) threads * perThread, find.getCount(OperationOutcome.NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("Should render the Prometheus text format")
+    void testPrometheus() {
+        ServiceMetrics metrics = new ServiceMetrics();
+        TaskService service = new TaskService();
+        service.enableMetrics(metrics);
+        service.addTask(new Task("T1", "Write", "Draft the report"));
+
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("# TYPE service_operation_duration_seconds summary\n"));
+        assertTrue(text.contains("# TYPE service_operations_total counter\n"));
+        assertTrue(text.contains("service_operation_duration_seconds{service=\"task\",operation=\"addTask\",quantile=\"0.999\"} "));
+        assertTrue(text.contains("service_operation_duration_seconds_count{service=\"task\",operation=\"addTask\"} 1\n"));
+        assertTrue(text.contains("service_operations_total{service=\"task\",operation=\"addTask\",outcome=\"success\"} 1\n"));
+        assertTrue(text.contains("service_operations_total{service=\"task\",operation=\"getTask\",outcome=\"not_found\"} 0\n"));
+        for (String line : text.split("\n")) {
+            assertTrue(line.startsWith("#") || line.matches("[a-z_]+\\{[^}]*\\} [0-9.E-]+"), line);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a null registry")
+    void testEnableValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new ContactService().enableMetrics(null));
+        assertThrows(IllegalArgumentException.class, () -> new TaskService().enableMetrics(null));
+        assertThrows(IllegalArgumentException.class, () -> new AppointmentService().enableMetrics(null));
+    }
+}
@@ -0,0 +1,226 @@
+package edu.snhu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for ShardedContactService, run with and without per-shard executors.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class ShardedContactServiceTest {
+
+    private static Contact contact(int i) {
+        return new Contact("C" + i, "First" + (i % 10), "Last", String.format("555%07d", i), "1 Main St");
+    }
+
+    @Test
+    void testCrudAcrossShards() {
+        checkCrud(false);
+    }
+
+    @Test
+    void testCrudOnShardExecutors() {
+        checkCrud(true);
+    }
+
+    @Test
+    void testBulkAddIsAllOrNothing() {
+        checkBulkAdd(false);
+    }
+
+    @Test
+    void testBulkAddOnShardExecutorsIsAllOrNothing() {
+        checkBulkAdd(true);
+    }
+
+    private void checkCrud(boolean executorPerShard) {
+        try (ShardedContactService service = new ShardedContactService(8, executorPerShard)) {
+            for (int i = 0; i < 200; i++) {
+                service.addContact(contact(i));
+            }
+            assertEquals(200, service.getContactCount());
+            assertEquals("C42", service.getContact("C42").getContactId());
+
+            service.updateFirstName("C42", "Updated");
+            service.updateLastName("C42", "Name");
+            service.updatePhone("C42", "9999999999");
+            service.updateAddress("C42", "2 Oak Ave");
+            Contact updated = service.getContact("C42");
+            assertEquals("Updated", updated.getFirstName());
+            assertEquals("Name", updated.getLastName());
+            assertEquals("2 Oak Ave", updated.getAddress());
+            assertEquals(List.of(updated), service.findContactsByPhone("9999999999"));
+
+            assertEquals(AddResult.DUPLICATE_ID, service.tryAddContact(contact(42)));
+            assertThrows(IllegalArgumentException.class, () -> service.addContact(contact(42)));
+            service.deleteContact("C42");
+            assertFalse(service.tryDeleteContact("C42"));
+            assertTrue(service.findContact("C42").isEmpty());
+            assertEquals(199, service.getContactCount());
+        }
+    }
+
+    @Test
+    void testNullArgumentsMatchContactService() {
+        try (ShardedContactService service = new ShardedContactService(4)) {
+            assertEquals("Contact cannot be null",
+                    assertThrows(IllegalArgumentException.class, () -> service.addContact(null)).getMessage());
+            assertEquals("Contact ID cannot be null",
+                    assertThrows(IllegalArgumentException.class, () -> service.getContact(null)).getMessage());
+            assertEquals(AddResult.INVALID, service.tryAddContact(null));
+            assertTrue(service.findContact(null).isEmpty());
+            assertFalse(service.tryDeleteContact(null));
+            assertThrows(IllegalArgumentException.class, () -> service.updatePhone(null, "1234567890"));
+            assertThrows(IllegalArgumentException.class, () -> service.searchByNamePrefix(null, 1));
+            assertThrows(IllegalArgumentException.class, () -> service.searchByNamePrefix("a", 0));
+            assertTrue(service.findContactsByPhone("123").isEmpty());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ShardedContactService(0));
+    }
+
+    private void checkBulkAdd(boolean executorPerShard) {
+        try (ShardedContactService service = new ShardedContactService(16, executorPerShard)) {
+            List<Contact> batch = new ArrayList<>();
+            IntStream.range(0, 500).forEach(i -> batch.add(contact(i)));
+            service.addContacts(batch);
+            assertEquals(500, service.getContactCount());
+
+            List<Contact> clashing = new ArrayList<>();
+            IntStream.range(500, 600).forEach(i -> clashing.add(contact(i)));
+            clashing.add(contact(7));
+            assertEquals("Contact ID already exists: C7",
+                    assertThrows(IllegalArgumentException.class, () -> service.addContacts(clashing)).getMessage());
+            assertEquals(500, service.getContactCount());
+            assertTrue(service.findContact("C550").isEmpty());
+
+            assertThrows(IllegalArgumentException.class, () -> service.addContacts(List.of(contact(900), contact(900))));
+            assertThrows(IllegalArgumentException.class, () -> service.addContacts(null));
+        }
+    }
+
+    @Test
+    void testSearchMergesInSingleServiceOrder() {
+        ContactService single = new ContactService();
+        try (ShardedContactService sharded = new ShardedContactService(8)) {
+            for (int i = 0; i < 300; i++) {
+                Contact contact = contact(i);
+                single.addContact(contact);
+                sharded.addContact(contact);
+            }
+            for (String prefix : List.of("", "first", "FIRST3", "la", "x")) {
+                assertEquals(single.searchByNamePrefix(prefix, 25), sharded.searchByNamePrefix(prefix, 25), prefix);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentAddsOnShardExecutors() throws InterruptedException {
+        try (ShardedContactService service = new ShardedContactService(4, true)) {
+            AtomicInteger added = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        if (service.tryAddContact(contact(i)) == AddResult.ADDED) {
+                            added.incrementAndGet();
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(250, added.get());
+            assertEquals(250, service.getContactCount());
+        }
+    }
+
+    @Test
+    void testPackedIds() {
+        try (ShardedContactService service = ShardedContactService.withPackedIds(4, true)) {
+            service.addContact(contact(1));
+            service.addContact(new Contact("C 2", "Spaced", "Id", "5550000002", "2 Main St"));
+            service.updateLastName("C1", "Packed");
+
+            assertEquals("Packed", service.getContact("C1").getLastName());
+            assertEquals("Spaced", service.getContact("C 2").getFirstName());
+            assertEquals(AddResult.DUPLICATE_ID, service.tryAddContact(contact(1)));
+            assertEquals(2, service.getContactCount());
+        }
+    }
+
+    @Test
+    void testMetricsRecordEachCallOnce() {
+        ServiceMetrics metrics = new ServiceMetrics();
+        try (ShardedContactService service = new ShardedContactService(8)) {
+            service.enableMetrics(metrics);
+            service.addContacts(List.of(contact(1), contact(2), contact(3)));
+            service.searchByNamePrefix("first", 10);
+            assertEquals(AddResult.DUPLICATE_ID, service.tryAddContact(contact(1)));
+
+            assertEquals(1, count(metrics, "addContacts"));
+            assertEquals(1, count(metrics, "searchByNamePrefix"));
+            assertEquals(1, count(metrics, "tryAddContact"));
+            assertThrows(IllegalArgumentException.class, () -> service.enableMetrics(null));
+        }
+    }
+
+    private static long count(ServiceMetrics metrics, String operation) {
+        return metrics.snapshot().stream()
+                .filter(s -> s.getService().equals("contact") && s.getOperation().equals(operation))
+                .findFirst()
+                .orElseThrow()
+                .getCount();
+    }
+
+    @Test
+    void testSubscribeCoversEveryShard() throws InterruptedException {
+        try (ShardedContactService service = new ShardedContactService(8, true)) {
+            BlockingQueue<ChangeEvent<Contact>> events = new LinkedBlockingQueue<>();
+            ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.BLOCK);
+            for (int i = 0; i < 50; i++) {
+                service.addContact(contact(i));
+            }
+            service.deleteContact("C7");
+
+            List<String> added = new ArrayList<>();
+            for (int i = 0; i < 51; i++) {
+                ChangeEvent<Contact> event = events.poll(5, TimeUnit.SECONDS);
+                assertNotNull(event);
+                if (event.type() == ChangeType.ADD) {
+                    added.add(event.id());
+                }
+            }
+            assertEquals(50, added.size());
+            assertEquals(50, added.stream().distinct().count());
+
+            subscription.close();
+            assertTrue(subscription.isClosed());
+            assertEquals(0, subscription.getDroppedCount());
+            assertThrows(IllegalArgumentException.class, () -> service.subscribe(null, OverflowPolicy.DROP));
+        }
+    }
+
+    @Test
+    void testClosedServiceRejectsMutations() {
+        ShardedContactService service = new ShardedContactService(2, true);
+        service.addContact(contact(1));
+        service.close();
+
+        assertThrows(IllegalStateException.class, () -> service.addContact(contact(2)));
+        assertEquals("C1", service.getContact("C1").getContactId());
+    }
+}
@@ -0,0 +1,125 @@
+package edu.snhu;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the field value deduplication pool.
+ * The pool is process-wide, so every test restores it to disabled and asserts on
+ * changes in its counters rather than their absolute values.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@DisplayName("StringPool Class Tests")
+class StringPoolTest {
+
+    @AfterEach
+    void tearDown() {
+        StringPool.setEnabled(false);
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    @Test
+    @DisplayName("Should leave values alone while disabled")
+    void testDisabled() {
+        assertFalse(StringPool.isEnabled());
+        long lookups = StringPool.getHitCount() + StringPool.getMissCount();
+        String name = copy("Follow up");
+
+        assertSame(name, StringPool.dedup(name));
+        assertNotSame(new Task("T1", name, "Call").getTaskName(), new Task("T2", copy(name), "Call").getTaskName());
+        assertNull(StringPool.dedup(null));
+        assertEquals(lookups, StringPool.getHitCount() + StringPool.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should share equal field values across entities")
+    void testEntitiesShareValues() {
+        StringPool.setEnabled(true);
+        long hits = StringPool.getHitCount();
+
+        Contact first = new Contact("C1", copy("Alice"), copy("Smith"), "5551234567", copy("1 Main St"));
+        Contact second = new Contact("C2", copy("Alice"), copy("Jones"), "5551234567", copy("1 Main St"));
+        second.setLastName(copy("Smith"));
+        assertSame(first.getFirstName(), second.getFirstName());
+        assertSame(first.getLastName(), second.getLastName());
+        assertSame(first.getAddress(), second.getAddress());
+
+        Task task = new Task("T1", copy("Follow up"), copy("Call the customer back"));
+        Task other = new Task("T2", copy("Draft"), copy("Call the customer back"));
+        other.setTaskName(copy("Follow up"));
+        assertSame(task.getTaskName(), other.getTaskName());
+        assertSame(task.getTaskDescription(), other.getTaskDescription());
+
+        Instant future = Instant.now().plus(1, ChronoUnit.DAYS);
+        assertSame(Appointment.at("A1", future, copy("Checkup")).getDescription(),
+                Appointment.at("A2", future, copy("Checkup")).getDescription());
+
+        assertTrue(StringPool.getHitCount() - hits >= 6);
+        assertTrue(StringPool.getHitRate() > 0 && StringPool.getHitRate() <= 1);
+        assertTrue(StringPool.getSize() > 0);
+    }
+
+    @Test
+    @DisplayName("Should give every thread the same instance for equal values")
+    void testConcurrentDedup() throws InterruptedException {
+        StringPool.setEnabled(true);
+        ConcurrentMap<String, String> seen = new ConcurrentHashMap<>();
+        List<String> mismatches = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (int i = 0; i < 100; i++) {
+                        String pooled = StringPool.dedup(copy("concurrent-" + i));
+                        String first = seen.putIfAbsent(pooled, pooled);
+                        if (first != null && first != pooled) {
+                            synchronized (mismatches) {
+                                mismatches.add(pooled);
+                            }
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(mismatches.isEmpty(), () -> "Different instances for " + mismatches);
+        assertEquals(100, seen.size());
+    }
+
+    @Test
+    @DisplayName("Should drop values that are no longer used")
+    void testCollectedValuesAreDropped() {
+        StringPool.setEnabled(true);
+        String value = copy("transient-" + System.nanoTime());
+        assertSame(value, StringPool.dedup(value));
+        int size = StringPool.getSize();
+        // Clear the entry the way the collector would, rather than hoping System.gc() does
+        StringPool.expire(value);
+
+        long misses = StringPool.getMissCount();
+        String again = copy(value);
+        assertSame(again, StringPool.dedup(again));
+        assertEquals(misses + 1, StringPool.getMissCount());
+        // The expired entry was dropped, so pooling the value again did not grow the pool
+        assertTrue(StringPool.getSize() <= size);
+    }
+}
@@ -6,6 +6,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Comprehensive test suite for the TaskService class.
  * Tests include CRUD operations, validation, edge cases, and boundary conditions
@@ -48,6 +53,25 @@ class TaskServiceTest {
             // Then it should be empty
             assertEquals(0, newService.getTaskCount());
         }
+
+        /**
+         * Test that a TaskService with packed ID storage behaves like the default one.
+         */
+        @Test
+        @DisplayName("Should manage tasks with packed ID storage")
+        void testPackedIdStorage() {
+            TaskService packed = TaskService.withPackedIds();
+            packed.addTask(new Task("T1", "Packed", "Stored under a packed key"));
+            packed.addTask(new Task("T 2", "Fallback", "Stored under a String key"));
+
+            packed.updateTaskName("T1", "Renamed");
+
+            assertEquals("Renamed", packed.getTask("T1").getTaskName());
+            assertEquals("Fallback", packed.getTask("T 2").getTaskName());
+            assertEquals(AddResult.DUPLICATE_ID, packed.tryAddTask(new Task("T1", "Dup", "Duplicate")));
+            assertTrue(packed.tryDeleteTask("T 2"));
+            assertEquals(1, packed.getTaskCount());
+        }
     }
 
     /**
@@ -230,6 +254,9 @@ class TaskServiceTest {
             assertEquals(newName, updatedTask.getTaskName());
             assertEquals("TASK001", updatedTask.getTaskId()); // ID should remain unchanged
             assertEquals("Test Description", updatedTask.getTaskDescription()); // Description should remain unchanged
+            // The update stores a copy, so the task that was added is left as it was
+            assertNotSame(validTask, updatedTask);
+            assertEquals("Test Task", validTask.getTaskName());
         }
 
         /**
@@ -441,6 +468,34 @@ class TaskServiceTest {
             );
             assertEquals("Task ID cannot be null", exception.getMessage());
         }
+
+        /**
+         * Test that a returned task cannot be changed behind the service.
+         */
+        @Test
+        @DisplayName("Should return read-only tasks that only the service can update")
+        void testReturnedTaskIsReadOnly() {
+            Task duplicate = new Task("TASK001", "Other Task", "Other Description");
+            taskService.addTask(validTask);
+            assertThrows(IllegalArgumentException.class, () -> taskService.addTask(duplicate));
+
+            assertTrue(validTask.isReadOnly());
+            assertThrows(IllegalStateException.class,
+                    () -> taskService.getTask("TASK001").setTaskDescription("Hidden change"));
+            assertThrows(IllegalStateException.class,
+                    () -> taskService.findTask("TASK001").orElseThrow().setTaskName("Hidden"));
+            assertEquals("Test Description", taskService.getTask("TASK001").getTaskDescription());
+            assertTrue(taskService.searchAnyKeyword("hidden").isEmpty());
+
+            // A task the service refused stays writable
+            assertFalse(duplicate.isReadOnly());
+            duplicate.setTaskName("Renamed");
+            assertEquals("Renamed", duplicate.getTaskName());
+
+            taskService.updateTaskDescription("TASK001", "Visible change");
+            assertTrue(taskService.getTask("TASK001").isReadOnly());
+            assertEquals(1, taskService.searchAnyKeyword("visible").size());
+        }
     }
 
     /**
@@ -585,4 +640,350 @@ class TaskServiceTest {
             assertEquals(maxLengthTask, taskService.getTask("1234567890"));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests for all-or-nothing bulk inserts.
+     */
+    @Nested
+    @DisplayName("Add Tasks Batch Tests")
+    class AddTasksBatchTests {
+
+        @Test
+        @DisplayName("Should add every task of a valid batch")
+        void testAddTasks() {
+            Task secondTask = new Task("TASK002", "Second Task", "Second Description");
+
+            taskService.addTasks(Arrays.asList(validTask, secondTask));
+
+            assertEquals(2, taskService.getTaskCount());
+            assertEquals(secondTask, taskService.getTask("TASK002"));
+        }
+
+        @Test
+        @DisplayName("Should add a large batch checked in parallel")
+        void testAddTasksLargeBatch() {
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < Batches.PARALLEL_THRESHOLD * 2; i++) {
+                batch.add(new Task("T" + i, "Name", "Description"));
+            }
+
+            taskService.addTasks(batch);
+
+            assertEquals(batch.size(), taskService.getTaskCount());
+        }
+
+        @Test
+        @DisplayName("Should add nothing when an ID repeats within the batch")
+        void testAddTasksDuplicateInBatch() {
+            Task duplicate = new Task("TASK001", "Other", "Other");
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> taskService.addTasks(Arrays.asList(validTask, duplicate)));
+
+            assertEquals("Task with ID 'TASK001' appears more than once in the batch", exception.getMessage());
+            assertEquals(0, taskService.getTaskCount());
+        }
+
+        @Test
+        @DisplayName("Should add nothing when an ID already exists")
+        void testAddTasksExistingId() {
+            taskService.addTask(validTask);
+            Task secondTask = new Task("TASK002", "Second Task", "Second Description");
+            Task existing = new Task("TASK001", "Other", "Other");
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> taskService.addTasks(Arrays.asList(secondTask, existing)));
+
+            assertEquals("Task with ID 'TASK001' already exists", exception.getMessage());
+            assertEquals(1, taskService.getTaskCount());
+            assertFalse(taskService.taskExists("TASK002"));
+        }
+
+        @Test
+        @DisplayName("Should reject a null batch or null element")
+        void testAddTasksNull() {
+            assertThrows(IllegalArgumentException.class, () -> taskService.addTasks(null));
+            assertThrows(IllegalArgumentException.class, () -> taskService.addTasks(Arrays.asList(validTask, null)));
+            assertEquals(0, taskService.getTaskCount());
+        }
+    }
+
+    /**
+     * Tests for the exception-free lookup and mutation variants.
+     */
+    @Nested
+    @DisplayName("Exception-Free API Tests")
+    class ExceptionFreeApiTests {
+
+        @Test
+        @DisplayName("Should find stored tasks and report misses as empty")
+        void testFindTask() {
+            taskService.addTask(validTask);
+
+            assertEquals(validTask, taskService.findTask("TASK001").orElseThrow());
+            assertTrue(taskService.findTask("NONEXISTENT").isEmpty());
+            assertTrue(taskService.findTask(null).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should report add outcomes as a status")
+        void testTryAddTask() {
+            Task duplicate = new Task("TASK001", "Other", "Other");
+
+            assertEquals(AddResult.ADDED, taskService.tryAddTask(validTask));
+            assertEquals(AddResult.DUPLICATE_ID, taskService.tryAddTask(duplicate));
+            assertEquals(AddResult.INVALID, taskService.tryAddTask(null));
+            assertEquals(validTask, taskService.getTask("TASK001"));
+        }
+
+        @Test
+        @DisplayName("Should report delete outcomes as a boolean")
+        void testTryDeleteTask() {
+            taskService.addTask(validTask);
+
+            assertTrue(taskService.tryDeleteTask("TASK001"));
+            assertFalse(taskService.tryDeleteTask("TASK001"));
+            assertFalse(taskService.tryDeleteTask(null));
+            assertEquals(0, taskService.getTaskCount());
+        }
+    }
+
+    /**
+     * Tests for keyword search over task descriptions.
+     */
+    @Nested
+    @DisplayName("Keyword Search Tests")
+    class KeywordSearchTests {
+
+        @Test
+        @DisplayName("Should match all or any query words, ignoring case and punctuation")
+        void testSearchKeywords() {
+            taskService.addTask(new Task("T1", "Deploy", "Deploy the API, then verify"));
+            taskService.addTask(new Task("T2", "Docs", "Write API docs"));
+            taskService.addTask(new Task("T3", "Verify", "Verify backups"));
+
+            assertEquals(List.of("T1", "T2"), ids(taskService.searchAllKeywords("api")));
+            assertEquals(List.of("T1"), ids(taskService.searchAllKeywords("VERIFY api")));
+            assertEquals(List.of("T1", "T2", "T3"), ids(taskService.searchAnyKeyword("docs, verify")));
+            assertTrue(taskService.searchAllKeywords("api missing").isEmpty());
+            assertTrue(taskService.searchAnyKeyword("ap").isEmpty());
+            assertTrue(taskService.searchAnyKeyword(" ,. ").isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> taskService.searchAllKeywords(null));
+            assertThrows(IllegalArgumentException.class, () -> taskService.searchAnyKeyword(null));
+        }
+
+        @Test
+        @DisplayName("Should follow description updates and deletes")
+        void testSearchFollowsUpdatesAndDeletes() {
+            taskService.addTask(validTask);
+
+            taskService.updateTaskDescription("TASK001", "Renamed entry");
+            assertTrue(taskService.searchAnyKeyword("description").isEmpty());
+            assertEquals(List.of("TASK001"), ids(taskService.searchAllKeywords("renamed")));
+            assertThrows(IllegalArgumentException.class, () -> taskService.updateTaskDescription("TASK001", null));
+            assertEquals(List.of("TASK001"), ids(taskService.searchAllKeywords("entry")));
+
+            taskService.deleteTask("TASK001");
+            assertTrue(taskService.searchAnyKeyword("renamed entry").isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should keep results exact as a common word grows and shrinks")
+        void testSearchCommonWord() {
+            List<Task> batch = new ArrayList<>();
+            for (int i = 0; i < 3000; i++) {
+                batch.add(new Task("T" + i, "Bulk", "common word " + (i % 2 == 0 ? "even" : "odd")));
+            }
+            taskService.addTasks(batch);
+
+            assertEquals(3000, taskService.searchAllKeywords("common").size());
+            assertEquals(1500, taskService.searchAllKeywords("common even").size());
+            for (int i = 0; i < 2990; i++) {
+                taskService.deleteTask("T" + i);
+            }
+            assertEquals(List.of("T2990", "T2992", "T2994", "T2996", "T2998"),
+                    ids(taskService.searchAllKeywords("even word")));
+            taskService.addTask(new Task("NEW", "New", "common"));
+            assertEquals(11, taskService.searchAnyKeyword("common").size());
+        }
+
+        @Test
+        @DisplayName("Should keep searching while descriptions change concurrently")
+        void testSearchDuringConcurrentUpdates() throws InterruptedException {
+            for (int i = 0; i < 8; i++) {
+                taskService.addTask(new Task("T" + i, "Task", "shared alpha"));
+            }
+            List<RuntimeException> failures = new ArrayList<>();
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                String taskId = "T" + t;
+                Thread writer = new Thread(() -> {
+                    for (int round = 0; round < 500; round++) {
+                        taskService.updateTaskDescription(taskId, round % 2 == 0 ? "shared beta" : "shared alpha");
+                    }
+                });
+                writers.add(writer);
+                writer.start();
+            }
+            while (writers.stream().anyMatch(Thread::isAlive)) {
+                try {
+                    assertTrue(taskService.searchAllKeywords("shared beta").size() <= 8);
+                    assertTrue(taskService.searchAnyKeyword("alpha beta").size() <= 8);
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertTrue(failures.isEmpty(), () -> "Search failed " + failures);
+            assertEquals(8, taskService.searchAllKeywords("shared").size());
+            assertEquals(8, taskService.searchAllKeywords("alpha").size());
+        }
+
+        private List<String> ids(List<Task> tasks) {
+            return tasks.stream().map(Task::getTaskId).toList();
+        }
+    }
+
+    /**
+     * Tests for services created with a capacity bound.
+     */
+    @Nested
+    @DisplayName("Capacity Tests")
+    class CapacityTests {
+
+        private final List<String> evicted = new ArrayList<>();
+
+        private TaskService bounded(EvictionPolicy policy) {
+            TaskService service = TaskService.withCapacity(3, policy, task -> evicted.add(task.getTaskId()));
+            for (int i = 1; i <= 3; i++) {
+                service.addTask(new Task("T" + i, "Task " + i, "Bounded entry " + i));
+            }
+            return service;
+        }
+
+        @Test
+        @DisplayName("Should evict the least recently used task")
+        void testLru() {
+            TaskService service = bounded(EvictionPolicy.LRU);
+            service.getTask("T1");
+            service.updateTaskName("T2", "Renamed");
+
+            service.addTask(new Task("T4", "Task 4", "Bounded entry 4"));
+            assertEquals(List.of("T3"), evicted);
+            service.findTask("T1");
+            service.addTask(new Task("T5", "Task 5", "Bounded entry 5"));
+
+            assertEquals(List.of("T3", "T2"), evicted);
+            assertEquals(3, service.getTaskCount());
+            assertEquals(2, service.getEvictionCount());
+            assertTrue(service.searchAnyKeyword("entry").stream().noneMatch(task -> task.getTaskId().equals("T2")));
+        }
+
+        @Test
+        @DisplayName("Should evict the least frequently used task, oldest first among equals")
+        void testLfu() {
+            TaskService service = bounded(EvictionPolicy.LFU);
+            for (int i = 0; i < 3; i++) {
+                service.getTask("T1");
+            }
+            service.getTask("T2");
+
+            service.addTask(new Task("T4", "Task 4", "Bounded entry 4"));
+            service.addTask(new Task("T5", "Task 5", "Bounded entry 5"));
+            service.getTask("T5");
+            service.getTask("T5");
+            service.addTask(new Task("T6", "Task 6", "Bounded entry 6"));
+
+            assertEquals(List.of("T3", "T4", "T2"), evicted);
+            assertTrue(service.taskExists("T1"));
+        }
+
+        @Test
+        @DisplayName("Should evict the oldest task regardless of reads")
+        void testFifo() {
+            TaskService service = bounded(EvictionPolicy.FIFO);
+            for (int i = 0; i < 10; i++) {
+                service.getTask("T1");
+            }
+            service.deleteTask("T2");
+            service.addTask(new Task("T4", "Task 4", "Bounded entry 4"));
+            assertTrue(evicted.isEmpty());
+
+            service.addTask(new Task("T5", "Task 5", "Bounded entry 5"));
+            assertEquals(List.of("T1"), evicted);
+        }
+
+        @Test
+        @DisplayName("Should refuse new tasks when full under REJECT_NEW")
+        void testRejectNew() {
+            TaskService service = bounded(EvictionPolicy.REJECT_NEW);
+            assertThrows(IllegalStateException.class, () -> service.addTask(new Task("T4", "Task 4", "Refused")));
+            assertEquals(AddResult.CAPACITY, service.tryAddTask(new Task("T4", "Task 4", "Refused")));
+            assertEquals(AddResult.DUPLICATE_ID, service.tryAddTask(new Task("T1", "Task 1", "Duplicate")));
+
+            service.deleteTask("T3");
+            assertThrows(IllegalStateException.class, () -> service.addTasks(List.of(
+                    new Task("T4", "Task 4", "Fits"), new Task("T5", "Task 5", "Does not fit"))));
+            assertEquals(2, service.getTaskCount());
+            assertFalse(service.taskExists("T4"));
+
+            service.addTask(new Task("T4", "Task 4", "Fits"));
+            assertEquals(3, service.getTaskCount());
+            assertTrue(evicted.isEmpty());
+            assertEquals(0, service.getEvictionCount());
+        }
+
+        @Test
+        @DisplayName("Should reject a batch larger than the capacity before adding any of it")
+        void testOversizedBatch() {
+            TaskService service = bounded(EvictionPolicy.LRU);
+            List<Task> batch = List.of(new Task("T4", "Task 4", "Batch"), new Task("T5", "Task 5", "Batch"),
+                    new Task("T6", "Task 6", "Batch"), new Task("T7", "Task 7", "Batch"));
+
+            assertThrows(IllegalArgumentException.class, () -> service.addTasks(batch));
+            assertEquals(3, service.getTaskCount());
+            assertTrue(evicted.isEmpty());
+
+            service.addTasks(batch.subList(0, 3));
+            assertEquals(List.of("T1", "T2", "T3"), evicted);
+        }
+
+        @Test
+        @DisplayName("Should stay within the capacity under concurrent adds and reads")
+        void testConcurrentAdds() throws InterruptedException {
+            AtomicInteger listened = new AtomicInteger();
+            TaskService service = TaskService.withCapacity(100, EvictionPolicy.LRU, task -> listened.incrementAndGet());
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int writer = t;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        service.addTask(new Task("W" + writer + "-" + i, "Task", "Concurrent entry"));
+                        service.findTask("W" + writer + "-" + (i / 2));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(100, service.getTaskCount());
+            assertEquals(16_000 - 100, service.getEvictionCount());
+            assertEquals(16_000 - 100, listened.get());
+            assertEquals(100, service.searchAllKeywords("concurrent entry").size());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid capacity settings")
+        void testValidation() {
+            assertThrows(IllegalArgumentException.class, () -> TaskService.withCapacity(0, EvictionPolicy.LRU));
+            assertThrows(IllegalArgumentException.class, () -> TaskService.withCapacity(10, null));
+            assertThrows(IllegalArgumentException.class, () -> TaskService.withCapacity(10, EvictionPolicy.LRU, null));
+            assertEquals(0, taskService.getEvictionCount());
+        }
+    }
+}
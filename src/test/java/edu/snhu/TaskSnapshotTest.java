@@ -0,0 +1,111 @@
+package edu.snhu;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TaskService binary snapshot format.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+@DisplayName("TaskSnapshot Class Tests")
+class TaskSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should round-trip tasks including boundary lengths and non-ASCII text")
+    void testRoundTrip() throws IOException {
+        TaskService service = new TaskService();
+        service.addTask(new Task("A", "", ""));
+        service.addTask(new Task("1234567890", "12345678901234567890",
+                "12345678901234567890123456789012345678901234567890"));
+        service.addTask(new Task("UNICODE", "Überprüfen ✓", "Résumé für 東京"));
+        Path file = tempDir.resolve("tasks.snap");
+
+        service.snapshotTo(file);
+        TaskService loaded = TaskService.loadFrom(file);
+
+        assertEquals(3, loaded.getTaskCount());
+        assertEquals("", loaded.getTask("A").getTaskName());
+        assertEquals("12345678901234567890", loaded.getTask("1234567890").getTaskName());
+        assertEquals("Résumé für 東京", loaded.getTask("UNICODE").getTaskDescription());
+        assertEquals(loaded.getTask("UNICODE"), loaded.searchAllKeywords("RÉSUMÉ").get(0));
+        assertEquals(16 + 3L * TaskSnapshot.SLOT_BYTES, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Should round-trip a snapshot spanning several parallel chunks")
+    void testLargeRoundTrip() throws IOException {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 150_000; i++) {
+            batch.add(new Task("T" + i, "Name " + i, "Description " + i));
+        }
+        TaskService service = new TaskService();
+        service.addTasks(batch);
+        Path file = tempDir.resolve("large.snap");
+
+        service.snapshotTo(file);
+        TaskService loaded = TaskService.loadFrom(file);
+
+        assertEquals(batch.size(), loaded.getTaskCount());
+        assertEquals("Description 149999", loaded.getTask("T149999").getTaskDescription());
+    }
+
+    @Test
+    @DisplayName("Should load an empty snapshot and keep the loaded service writable")
+    void testEmptySnapshot() throws IOException {
+        Path file = tempDir.resolve("empty.snap");
+        new TaskService().snapshotTo(file);
+
+        TaskService loaded = TaskService.loadFrom(file);
+        loaded.addTask(new Task("NEW", "Name", "Description"));
+
+        assertEquals(1, loaded.getTaskCount());
+    }
+
+    @Test
+    @DisplayName("Should reject truncated or foreign files")
+    void testInvalidFiles() throws IOException {
+        TaskService service = new TaskService();
+        service.addTask(new Task("TASK001", "Name", "Description"));
+        Path file = tempDir.resolve("tasks.snap");
+        service.snapshotTo(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 1);
+        }
+        Path foreign = tempDir.resolve("foreign.snap");
+        Files.write(foreign, new byte[] {1, 2, 3});
+        Path corrupt = tempDir.resolve("corrupt.snap");
+        service.snapshotTo(corrupt);
+        try (FileChannel channel = FileChannel.open(corrupt, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {99}), 16);
+        }
+        Path blankId = tempDir.resolve("blank.snap");
+        service.snapshotTo(blankId);
+        try (FileChannel channel = FileChannel.open(blankId, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0}), 16);
+        }
+
+        assertThrows(IOException.class, () -> TaskService.loadFrom(file));
+        assertThrows(IOException.class, () -> TaskService.loadFrom(foreign));
+        assertThrows(IOException.class, () -> TaskService.loadFrom(corrupt));
+        IOException invalid = assertThrows(IOException.class, () -> TaskService.loadFrom(blankId));
+        assertInstanceOf(IllegalArgumentException.class, invalid.getCause());
+        assertThrows(IllegalArgumentException.class, () -> TaskService.loadFrom(null));
+        assertThrows(IllegalArgumentException.class, () -> service.snapshotTo(null));
+    }
+}
@@ -0,0 +1,171 @@
+package edu.snhu;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the coalescing task update pipeline.
+ *
+ * @author Rick Goshen
+ * @version 1.0
+ */
+class TaskUpdatePipelineTest {
+
+    @Test
+    @DisplayName("Should coalesce a burst of updates into one write of the final state")
+    void testCoalescing() throws InterruptedException {
+        TaskService service = new TaskService();
+        service.addTask(new Task("T1", "Write", "Draft the report"));
+        BlockingQueue<ChangeEvent<Task>> events = new LinkedBlockingQueue<>();
+        try (ChangeSubscription subscription = service.subscribe(events::add, OverflowPolicy.BLOCK);
+                TaskUpdatePipeline pipeline = new TaskUpdatePipeline(service, 10_000)) {
+            List<CompletableFuture<Void>> applied = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                applied.add(pipeline.updateTaskName("T1", "Name " + i));
+                applied.add(pipeline.updateTaskDescription("T1", "Description " + i));
+            }
+            // Nothing is written before the window ends
+            assertEquals("Write", service.getTask("T1").getTaskName());
+
+            pipeline.flush();
+            applied.forEach(CompletableFuture::join);
+            assertEquals("Name 4", service.getTask("T1").getTaskName());
+            assertEquals("Description 4", service.getTask("T1").getTaskDescription());
+            assertEquals(List.of(service.getTask("T1")), service.searchAllKeywords("description 4"));
+            assertEquals(10, pipeline.getSubmittedCount());
+            assertEquals(9, pipeline.getCoalescedCount());
+            assertEquals(1, pipeline.getWriteCount());
+            assertEquals(1, pipeline.getBatchCount());
+            assertEquals(0.9, pipeline.getCoalescingRatio(), 1e-9);
+
+            ChangeEvent<Task> updated = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(updated);
+            assertEquals(ChangeType.UPDATE, updated.type());
+            assertEquals("Name 4", updated.entity().getTaskName());
+            assertNull(events.poll(50, TimeUnit.MILLISECONDS));
+            assertEquals(0, subscription.getFailureCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply updates on its own once the window ends")
+    void testWindowElapses() {
+        TaskService service = new TaskService();
+        service.addTask(new Task("T1", "Write", "Draft the report"));
+        service.addTask(new Task("T2", "Read", "Read the report"));
+        try (TaskUpdatePipeline pipeline = new TaskUpdatePipeline(service, 5)) {
+            CompletableFuture<Void> first = pipeline.updateTaskName("T1", "Edit");
+            CompletableFuture<Void> second = pipeline.updateTaskDescription("T2", "Skim the report");
+
+            first.orTimeout(5, TimeUnit.SECONDS).join();
+            second.orTimeout(5, TimeUnit.SECONDS).join();
+            assertEquals("Edit", service.getTask("T1").getTaskName());
+            assertEquals("Skim the report", service.getTask("T2").getTaskDescription());
+            assertEquals(0, pipeline.getCoalescedCount());
+            assertEquals(2, pipeline.getWriteCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Should let a dependent stage flush without stalling the writer")
+    void testDependentStageFlushes() {
+        TaskService service = new TaskService();
+        service.addTask(new Task("T1", "Write", "Draft the report"));
+        try (TaskUpdatePipeline pipeline = new TaskUpdatePipeline(service, 5)) {
+            CompletableFuture<Void> dependent = pipeline.updateTaskName("T1", "Edit")
+                    .thenRun(() -> pipeline.updateTaskDescription("T1", "Review the report"))
+                    .thenRun(pipeline::flush);
+
+            dependent.orTimeout(5, TimeUnit.SECONDS).join();
+            assertEquals("Edit", service.getTask("T1").getTaskName());
+            assertEquals("Review the report", service.getTask("T1").getTaskDescription());
+        }
+    }
+
+    @Test
+    @DisplayName("Should validate on submit and report missing tasks through the future")
+    void testValidation() {
+        TaskService service = new TaskService();
+        assertThrows(IllegalArgumentException.class, () -> new TaskUpdatePipeline(null));
+        assertThrows(IllegalArgumentException.class, () -> new TaskUpdatePipeline(service, 0));
+
+        TaskUpdatePipeline pipeline = new TaskUpdatePipeline(service);
+        assertThrows(IllegalArgumentException.class, () -> pipeline.updateTaskName(null, "Edit"));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.updateTaskName("T1", null));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.updateTaskDescription("T1", "x".repeat(51)));
+        assertEquals(0, pipeline.getSubmittedCount());
+        assertEquals(0, pipeline.getCoalescingRatio());
+
+        CompletableFuture<Void> missing = pipeline.updateTaskName("missing", "Edit");
+        pipeline.flush();
+        CompletionException failure = assertThrows(CompletionException.class, missing::join);
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+
+        pipeline.close();
+        assertThrows(IllegalStateException.class, () -> pipeline.updateTaskName("T1", "Edit"));
+        pipeline.flush();
+    }
+
+    @Test
+    @DisplayName("Should write every queued update on close")
+    void testCloseDrains() throws InterruptedException {
+        TaskService service = new TaskService();
+        int taskCount = 200;
+        for (int i = 0; i < taskCount; i++) {
+            service.addTask(new Task("T" + i, "Write", "Draft the report"));
+        }
+        TaskUpdatePipeline pipeline = new TaskUpdatePipeline(service, 10_000);
+        List<Thread> editors = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread editor = new Thread(() -> {
+                for (int round = 0; round < 10; round++) {
+                    for (int i = 0; i < taskCount; i++) {
+                        pipeline.updateTaskName("T" + i, "Round " + round);
+                    }
+                }
+            });
+            editors.add(editor);
+            editor.start();
+        }
+        for (Thread editor : editors) {
+            editor.join();
+        }
+        pipeline.close();
+
+        for (int i = 0; i < taskCount; i++) {
+            assertEquals("Round 9", service.getTask("T" + i).getTaskName());
+        }
+        assertEquals(4L * 10 * taskCount, pipeline.getSubmittedCount());
+        assertEquals(pipeline.getSubmittedCount(), pipeline.getCoalescedCount() + pipeline.getWriteCount());
+    }
+
+    @Test
+    @DisplayName("Should release flushes that race with close")
+    void testFlushDuringClose() throws InterruptedException {
+        TaskService service = new TaskService();
+        service.addTask(new Task("T1", "Write", "Draft the report"));
+        for (int attempt = 0; attempt < 200; attempt++) {
+            TaskUpdatePipeline pipeline = new TaskUpdatePipeline(service);
+            pipeline.updateTaskName("T1", "Attempt " + attempt);
+            Thread flusher = new Thread(() -> {
+                for (int i = 0; i < 20; i++) {
+                    pipeline.flush();
+                }
+            });
+            flusher.start();
+            pipeline.close();
+            flusher.join(5000);
+            assertFalse(flusher.isAlive());
+            assertEquals("Attempt " + attempt, service.getTask("T1").getTaskName());
+        }
+    }
+}